@@ -0,0 +1,9 @@
+-- La paginación por cursor de auditoría recorre (created_at, id): un registro
+-- sin created_at no tiene posición en ese orden. Se completa con updated_at (o
+-- la hora actual) y la columna pasa a ser obligatoria, como ya declara la
+-- entidad; ddl-auto update no cambia la nulabilidad de columnas existentes.
+UPDATE audit_logs
+SET created_at = COALESCE(updated_at, CURRENT_TIMESTAMP)
+WHERE created_at IS NULL;
+
+ALTER TABLE audit_logs ALTER COLUMN created_at SET NOT NULL;
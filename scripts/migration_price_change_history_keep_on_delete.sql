@@ -0,0 +1,17 @@
+-- El historial de precios sobrevive a la eliminación del rango: cada fila guarda
+-- la cabaña y las fechas, y price_range_id queda en null cuando el rango se borra.
+ALTER TABLE price_change_history ADD COLUMN IF NOT EXISTS cabin_id BIGINT REFERENCES cabins (id);
+ALTER TABLE price_change_history ADD COLUMN IF NOT EXISTS start_date DATE;
+ALTER TABLE price_change_history ADD COLUMN IF NOT EXISTS end_date DATE;
+
+UPDATE price_change_history h
+SET cabin_id = pr.cabin_id,
+    start_date = pr.start_date,
+    end_date = pr.end_date
+FROM price_ranges pr
+WHERE h.price_range_id = pr.id
+  AND h.cabin_id IS NULL;
+
+ALTER TABLE price_change_history ALTER COLUMN price_range_id DROP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_price_change_history_cabin ON price_change_history (cabin_id, id);
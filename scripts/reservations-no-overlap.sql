@@ -0,0 +1,15 @@
+-- Restricción de exclusión: una cabaña no puede tener dos reservas activas
+-- (PENDING, CONFIRMED, IN_USE) con fechas solapadas. Las fechas son inclusivas,
+-- igual que en la aplicación. La aplicación la instala al arrancar
+-- (ReservationOverlapConstraintInitializer) y no arranca si no puede crearla;
+-- este script sirve para aplicarla a mano, p. ej. con un usuario con permisos
+-- para la extensión.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE reservations
+    ADD CONSTRAINT reservations_no_overlap
+    EXCLUDE USING gist (
+        cabin_id WITH =,
+        daterange(start_date, end_date, '[]') WITH &&
+    )
+    WHERE (status IN ('PENDING', 'CONFIRMED', 'IN_USE'));
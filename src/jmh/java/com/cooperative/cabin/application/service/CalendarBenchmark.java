@@ -0,0 +1,115 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.application.service.AvailabilityApplicationService.AvailabilityDays;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.PriceRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el armado de calendarios con LocalDate/String por día (implementación
+ * anterior, copiada aquí como referencia) contra días epoch y arreglos
+ * primitivos. Ejecutar con {@code ./gradlew jmh} y revisar también
+ * gc.alloc.rate.norm con {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CalendarBenchmark {
+
+    @Param({ "31", "365" })
+    int days;
+
+    private LocalDate start;
+    private int firstDay;
+    private BitSet available;
+    private List<PriceRange> ranges;
+
+    @Setup
+    public void setUp() {
+        start = LocalDate.of(2025, 1, 1);
+        firstDay = EpochDays.of(start);
+        Random random = new Random(42);
+        available = new BitSet(days);
+        for (int d = 0; d < days; d++) {
+            available.set(d, random.nextInt(4) != 0);
+        }
+
+        Cabin cabin = new Cabin();
+        ranges = new ArrayList<>();
+        for (int d = 0; d < days; d += 20) {
+            ranges.add(new PriceRange(cabin, start.plusDays(d), start.plusDays(d + 13L),
+                    new BigDecimal("120.00"), new BigDecimal("1.25"), "bench", null));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Boolean> availabilityLegacy() {
+        Map<String, Boolean> map = new LinkedHashMap<>();
+        for (int d = 0; d < days; d++) {
+            map.put(start.plusDays(d).toString(), available.get(d));
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Boolean> availabilityEpochDaysToMap() {
+        return new AvailabilityDays(firstDay, days, available).toMap();
+    }
+
+    @Benchmark
+    public int availabilityEpochDaysOnly() {
+        // Consumo interno sin convertir a texto (p. ej. contar días libres)
+        AvailabilityDays calendar = new AvailabilityDays(firstDay, days, available);
+        int free = 0;
+        for (int d = firstDay; d < firstDay + days; d++) {
+            if (calendar.isAvailable(d)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> pricingLegacy() {
+        Map<String, BigDecimal> calendar = new HashMap<>();
+        for (int d = 0; d < days; d++) {
+            LocalDate currentDate = start.plusDays(d);
+            BigDecimal price = ranges.stream()
+                    .filter(range -> !currentDate.isBefore(range.getStartDate()) &&
+                            !currentDate.isAfter(range.getEndDate()))
+                    .findFirst()
+                    .map(range -> range.getBasePrice().multiply(range.getPriceMultiplier()))
+                    .orElse(BigDecimal.ZERO);
+            calendar.put(currentDate.toString(), price);
+        }
+        return calendar;
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> pricingEpochDaysToMap() {
+        return PricingApplicationServiceImpl.priceDays(ranges, firstDay, days).toMap(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public PricingApplicationService.PriceDays pricingEpochDaysOnly() {
+        return PricingApplicationServiceImpl.priceDays(ranges, firstDay, days);
+    }
+}
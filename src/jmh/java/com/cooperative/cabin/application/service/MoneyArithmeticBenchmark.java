@@ -0,0 +1,86 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Money;
+import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.domain.policy.PricingPolicies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara sumar el precio de cada noche con BigDecimal (cálculo anterior) contra
+ * centavos en long ({@link Money}), con el rango de cada noche ya resuelto para
+ * medir solo la aritmética; también la cotización completa sobre
+ * {@link PriceTimeline}. Ejecutar con {@code ./gradlew jmh} y revisar
+ * gc.alloc.rate.norm con {@code -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyArithmeticBenchmark {
+
+    @Param({ "7", "90" })
+    int nights;
+
+    private BigDecimal defaultPrice;
+    private PriceRange[] rangeByNight;
+    private PriceTimeline timeline;
+    private LocalDate start;
+
+    @Setup
+    public void setUp() {
+        start = LocalDate.of(2025, 1, 1);
+        defaultPrice = new BigDecimal("95000.00");
+        Cabin cabin = new Cabin();
+        cabin.setId(1L);
+        List<PriceRange> ranges = new ArrayList<>();
+        rangeByNight = new PriceRange[nights];
+        for (int d = 0; d < nights; d += 10) {
+            PriceRange range = new PriceRange(cabin, start.plusDays(d), start.plusDays(d + 6L),
+                    new BigDecimal("120000.00"), new BigDecimal("1.15"), "bench", null);
+            range.setId((long) d + 1);
+            ranges.add(range);
+            for (int n = d; n < Math.min(nights, d + 7); n++) {
+                rangeByNight[n] = range;
+            }
+        }
+        timeline = PriceTimeline.compile(ranges, defaultPrice);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalPerNight() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (PriceRange range : rangeByNight) {
+            total = total.add(PricingPolicies.calculatePrice(defaultPrice, range).setScale(2, RoundingMode.HALF_UP));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal moneyPerNight() {
+        Money fallback = Money.of(defaultPrice);
+        Money total = Money.ZERO;
+        for (PriceRange range : rangeByNight) {
+            total = total.plus(PricingPolicies.nightlyPrice(fallback, range));
+        }
+        return total.toBigDecimal();
+    }
+
+    @Benchmark
+    public PriceTimeline.Quote timelineQuote() {
+        return timeline.quote(start, start.plusDays(nights));
+    }
+}
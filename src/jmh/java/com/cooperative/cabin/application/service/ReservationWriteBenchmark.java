@@ -0,0 +1,263 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Compara las escrituras directas (una transacción por petición que compite
+ * por el candado de fila) contra la cola con un escritor por cabaña
+ * ({@code reservations.writes.mode=queue}). La base de datos se simula: guardar
+ * una reserva toma un candado por cabaña hasta el fin de la transacción y cada
+ * commit tarda {@code commitMicros}. Ejecutar con {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class ReservationWriteBenchmark {
+
+    private static final int RESERVATIONS_PER_CABIN = 64;
+
+    @Param({ "direct", "queue" })
+    String mode;
+
+    @Param({ "1", "8" })
+    int cabins;
+
+    @Param({ "200" })
+    int commitMicros;
+
+    private ReservationApplicationService service;
+    private TransactionTemplate transactions;
+    private Map<Long, Reservation> reservations;
+
+    @Setup
+    public void setUp() {
+        SimulatedTransactionManager transactionManager = new SimulatedTransactionManager(commitMicros);
+        transactions = new TransactionTemplate(transactionManager);
+        reservations = new ConcurrentHashMap<>();
+        User user = new User();
+        user.setId(1L);
+        long id = 0;
+        for (long c = 1; c <= cabins; c++) {
+            Cabin cabin = new Cabin();
+            cabin.setId(c);
+            for (int i = 0; i < RESERVATIONS_PER_CABIN; i++) {
+                LocalDate start = LocalDate.of(2030, 1, 1).plusDays(i * 3L);
+                Reservation reservation = new Reservation(user, cabin, start, start.plusDays(1), 2,
+                        ReservationStatus.PENDING, new BigDecimal("100.00"), new BigDecimal("100.00"));
+                reservation.setId(++id);
+                reservations.put(id, reservation);
+            }
+        }
+
+        ReservationApplicationService.ReservationRepository repository = new InMemoryReservations(reservations);
+        NoOps noOps = new NoOps();
+        // Cancelar no consulta usuarios, cabañas ni precios: esos repositorios
+        // JPA no se simulan
+        PriceQuoteEngine priceQuotes = new PriceQuoteEngine(null, null);
+        ApplicationEventPublisher events = event -> {
+        };
+        ReservationApplicationService.ReservationSummaries summaries = ReservationApplicationService.ReservationSummaries
+                .fromHistory(repository);
+        service = "queue".equals(mode)
+                ? new QueuedReservationApplicationService(repository, noOps, null, null, noOps,
+                        new BusinessMetrics(null), noOps, events, new CabinLocks(), summaries, new CheckoutHolds(),
+                        priceQuotes, new CabinCommandQueue(transactionManager, 16))
+                : new ReservationApplicationService(repository, noOps, null, null, noOps,
+                        new BusinessMetrics(null), noOps, events, new CabinLocks(), summaries, new CheckoutHolds(),
+                        priceQuotes);
+    }
+
+    @Benchmark
+    public Reservation cancel() {
+        Long reservationId = ThreadLocalRandom.current().nextLong(reservations.size()) + 1;
+        if ("queue".equals(mode)) {
+            return service.cancelByUser(1L, reservationId);
+        }
+        // Lo que hace el proxy transaccional en el camino directo
+        return transactions.execute(status -> service.cancelByUser(1L, reservationId));
+    }
+
+    /**
+     * Repositorio en memoria; guardar toma el "candado de fila" de la cabaña
+     * hasta que termina la transacción, como la base de datos
+     */
+    private static final class InMemoryReservations implements ReservationApplicationService.ReservationRepository {
+        private final Map<Long, Reservation> reservations;
+        private final Map<Long, ReentrantLock> rowLocks = new ConcurrentHashMap<>();
+
+        InMemoryReservations(Map<Long, Reservation> reservations) {
+            this.reservations = reservations;
+        }
+
+        @Override
+        public Reservation save(Reservation reservation) {
+            ReentrantLock lock = rowLocks.computeIfAbsent(reservation.getCabin().getId(), id -> new ReentrantLock());
+            if (!lock.isHeldByCurrentThread()) {
+                lock.lock();
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+            }
+            return reservation;
+        }
+
+        @Override
+        public Reservation findById(Long reservationId) {
+            return reservations.get(reservationId);
+        }
+
+        @Override
+        public List<Reservation> findAll() {
+            return List.copyOf(reservations.values());
+        }
+
+        @Override
+        public List<Reservation> findByUserId(Long userId) {
+            return findAll();
+        }
+
+        @Override
+        public LocalDate findLastCreatedAtDate(Long userId) {
+            return null;
+        }
+
+        @Override
+        public void deleteById(Long reservationId) {
+            reservations.remove(reservationId);
+        }
+
+        @Override
+        public boolean existsActiveOverlap(Long cabinId, LocalDate startDate, LocalDate endDate) {
+            return false;
+        }
+    }
+
+    /**
+     * Bloqueos, configuración y lista de espera que no hacen nada
+     */
+    private static final class NoOps implements ReservationApplicationService.AvailabilityBlockRepository,
+            ReservationApplicationService.ConfigurationService, WaitingListApplicationService {
+
+        @Override
+        public List<AvailabilityBlock> findByCabinId(Long cabinId) {
+            return List.of();
+        }
+
+        @Override
+        public List<AvailabilityBlock> findOverlapping(Long cabinId, LocalDate startDate, LocalDate endDate) {
+            return List.of();
+        }
+
+        @Override
+        public int getStandardTimeoutDays() {
+            return 0;
+        }
+
+        @Override
+        public int getCancellationTimeoutDays() {
+            return 0;
+        }
+
+        @Override
+        public int getMaxReservationsPerYear() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public Optional<NotifyNextResult> notifyNext(NotifyNextCommand command) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<ClaimResult> claim(ClaimCommand command) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Transacciones sin recurso cuyo commit tarda un tiempo fijo; los
+     * savepoints de la cola no cuestan nada
+     */
+    private static final class SimulatedTransactionManager extends AbstractPlatformTransactionManager {
+        private final long commitNanos;
+
+        SimulatedTransactionManager(int commitMicros) {
+            this.commitNanos = TimeUnit.MICROSECONDS.toNanos(commitMicros);
+            setNestedTransactionAllowed(true);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new SimulatedTransaction(TransactionSynchronizationManager.isActualTransactionActive());
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((SimulatedTransaction) transaction).existing;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            LockSupport.parkNanos(commitNanos);
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        private record SimulatedTransaction(boolean existing) implements SavepointManager {
+            @Override
+            public Object createSavepoint() {
+                return new Object();
+            }
+
+            @Override
+            public void rollbackToSavepoint(Object savepoint) {
+            }
+
+            @Override
+            public void releaseSavepoint(Object savepoint) {
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.cooperative.cabin.application.service;
 
+import com.cooperative.cabin.domain.model.Cabin;
+
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -8,14 +13,73 @@ public interface AvailabilityApplicationService {
     // Métodos existentes (mantener compatibilidad)
     List<String> getAvailableDates();
 
-    Map<String, Boolean> getAvailabilityCalendar(int year, int month);
+    default Map<String, Boolean> getAvailabilityCalendar(int year, int month) {
+        return getAvailabilityDays(year, month).toMap();
+    }
 
     // Nuevos métodos para consulta por cabaña
     List<String> getAvailableDatesForCabin(Long cabinId);
 
-    Map<String, Boolean> getAvailabilityCalendarForCabin(Long cabinId, int year, int month);
+    default Map<String, Boolean> getAvailabilityCalendarForCabin(Long cabinId, int year, int month) {
+        return getAvailabilityDaysForCabin(cabinId, year, month).toMap();
+    }
+
+    /**
+     * Días del mes en los que al menos una cabaña activa está libre
+     */
+    AvailabilityDays getAvailabilityDays(int year, int month);
+
+    AvailabilityDays getAvailabilityDaysForCabin(Long cabinId, int year, int month);
 
     boolean isCabinAvailable(Long cabinId, LocalDate startDate, LocalDate endDate);
 
     List<LocalDate> getAvailableDatesInRange(Long cabinId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Días disponibles de cada cabaña activa entre startDate y endDate (bit i =
+     * startDate + i días, 1 = disponible)
+     */
+    Map<Long, BitSet> getAvailabilityBitmaps(LocalDate startDate, LocalDate endDate);
+
+    Map<Long, BitSet> getAvailabilityBitmapForCabin(Long cabinId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Cabañas activas con capacidad para los huéspedes, libres en el rango y
+     * cuyo precio total cotizado está dentro de los límites opcionales
+     */
+    List<CabinQuote> searchAvailableCabins(LocalDate startDate, LocalDate endDate, int guests,
+            BigDecimal minTotalPrice, BigDecimal maxTotalPrice);
+
+    /**
+     * Fechas de llegada dentro de [periodStart, periodEnd] en las que la cabaña
+     * (o cada cabaña activa, si cabinId es null) está libre durante nights
+     * noches seguidas. La estadía completa debe caber en el periodo.
+     */
+    List<FlexibleStays> findFlexibleStays(Long cabinId, LocalDate periodStart, LocalDate periodEnd, int nights);
+
+    record CabinQuote(Cabin cabin, int nights, BigDecimal totalPrice) {
+    }
+
+    record FlexibleStays(Long cabinId, int nights, List<LocalDate> startDates) {
+    }
+
+    /**
+     * Disponibilidad de length días consecutivos desde firstDay (día epoch); bit
+     * i = firstDay + i, 1 = disponible
+     */
+    record AvailabilityDays(int firstDay, int length, BitSet available) {
+
+        public boolean isAvailable(int epochDay) {
+            int offset = epochDay - firstDay;
+            return offset >= 0 && offset < length && available.get(offset);
+        }
+
+        public Map<String, Boolean> toMap() {
+            Map<String, Boolean> map = new LinkedHashMap<>();
+            for (int d = 0; d < length; d++) {
+                map.put(EpochDays.format(firstDay + d), available.get(d));
+            }
+            return map;
+        }
+    }
 }
@@ -2,36 +2,110 @@ package com.cooperative.cabin.application.service;
 
 import com.cooperative.cabin.domain.model.AvailabilityBlock;
 import com.cooperative.cabin.domain.model.Cabin;
-import com.cooperative.cabin.domain.model.Reservation;
 import com.cooperative.cabin.domain.policy.AvailabilityPolicies;
 import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
 import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
-import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 @Service
 public class AvailabilityApplicationServiceImpl implements AvailabilityApplicationService {
 
-    private final ReservationJpaRepository reservationRepository;
+    static final String EXECUTION_SEQUENTIAL = "sequential";
+    static final String EXECUTION_PARALLEL = "parallel";
+    static final int MAX_FLEXIBLE_PERIOD_DAYS = 366;
+
     private final AvailabilityBlockJpaRepository availabilityBlockRepository;
     private final CabinJpaRepository cabinRepository;
+    private final PriceQuoteEngine priceQuotes;
+    private final CabinOccupancySource occupancySource;
+    private final BusinessMetrics metrics;
+    private final String executionMode;
+    private final ConfigurationService configurationService;
+
+    public AvailabilityApplicationServiceImpl(
+            AvailabilityBlockJpaRepository availabilityBlockRepository,
+            CabinJpaRepository cabinRepository,
+            PriceQuoteEngine priceQuotes,
+            CabinOccupancySource occupancySource) {
+        this(availabilityBlockRepository, cabinRepository, priceQuotes, occupancySource,
+                new BusinessMetrics(null), EXECUTION_SEQUENTIAL, null);
+    }
 
     public AvailabilityApplicationServiceImpl(
-            ReservationJpaRepository reservationRepository,
             AvailabilityBlockJpaRepository availabilityBlockRepository,
-            CabinJpaRepository cabinRepository) {
-        this.reservationRepository = reservationRepository;
+            CabinJpaRepository cabinRepository,
+            PriceQuoteEngine priceQuotes,
+            CabinOccupancySource occupancySource,
+            BusinessMetrics metrics,
+            String executionMode,
+            ConfigurationService configurationService) {
         this.availabilityBlockRepository = availabilityBlockRepository;
         this.cabinRepository = cabinRepository;
+        this.priceQuotes = priceQuotes;
+        this.occupancySource = occupancySource;
+        this.metrics = metrics;
+        this.executionMode = executionMode;
+        this.configurationService = configurationService;
+    }
+
+    /**
+     * availability.read-mode: "index" (por defecto) usa el índice en memoria;
+     * "batch" carga reservas y bloqueos por lotes desde la base de datos en cada
+     * consulta (útil con varias instancias de la aplicación); "materialized" lee
+     * la tabla cabin_day_availability con un escaneo por rango.
+     *
+     * availability.execution.mode: "sequential" (por defecto) resuelve todas las
+     * cabañas en una llamada; "parallel" reparte las cabañas en grupos sobre
+     * hilos virtuales, con max-concurrency tareas simultáneas como máximo.
+     *
+     * En todos los modos las retenciones de checkout vigentes cuentan como días
+     * no disponibles.
+     */
+    @Autowired
+    public AvailabilityApplicationServiceImpl(
+            AvailabilityBlockJpaRepository availabilityBlockRepository,
+            CabinJpaRepository cabinRepository,
+            PriceQuoteEngine priceQuotes,
+            CabinOccupancyIndex occupancyIndex,
+            BatchOccupancyLoader batchOccupancyLoader,
+            CabinDayAvailabilityProjection dayAvailabilityProjection,
+            CheckoutHolds checkoutHolds,
+            MeterRegistry meterRegistry,
+            ConfigurationService configurationService,
+            @Value("${availability.read-mode:index}") String readMode,
+            @Value("${availability.execution.mode:sequential}") String executionMode,
+            @Value("${availability.execution.max-concurrency:10}") int maxConcurrency) {
+        this(availabilityBlockRepository, cabinRepository, priceQuotes,
+                new HoldAwareOccupancySource(withExecutionMode(switch (readMode.toLowerCase()) {
+                    case "batch" -> batchOccupancyLoader;
+                    case "materialized" -> dayAvailabilityProjection;
+                    default -> occupancyIndex;
+                }, executionMode, maxConcurrency), checkoutHolds),
+                new BusinessMetrics(meterRegistry),
+                EXECUTION_PARALLEL.equalsIgnoreCase(executionMode) ? EXECUTION_PARALLEL : EXECUTION_SEQUENTIAL,
+                configurationService);
+    }
+
+    private static CabinOccupancySource withExecutionMode(CabinOccupancySource source, String executionMode,
+            int maxConcurrency) {
+        return EXECUTION_PARALLEL.equalsIgnoreCase(executionMode)
+                ? new ParallelOccupancySource(source, maxConcurrency)
+                : source;
     }
 
     // Métodos existentes convertidos a lógica real
@@ -47,36 +121,27 @@ public class AvailabilityApplicationServiceImpl implements AvailabilityApplicati
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusMonths(3); // Próximos 3 meses
 
-        // Obtener fechas disponibles de todas las cabañas activas
-        return activeCabins.stream()
-                .flatMap(cabin -> getAvailableDatesInRange(cabin.getId(), today, endDate).stream())
-                .distinct() // Eliminar duplicados
-                .sorted()
-                .map(LocalDate::toString)
-                .collect(Collectors.toList());
+        // Una fecha aparece si al menos una cabaña activa está libre ese día
+        BitSet anyAvailable = metrics.timeAvailability("available-dates", executionMode,
+                () -> availableInAnyCabin(activeCabins, today, endDate));
+        return formatDays(EpochDays.of(today), anyAvailable);
     }
 
     @Override
-    public Map<String, Boolean> getAvailabilityCalendar(int year, int month) {
+    public AvailabilityDays getAvailabilityDays(int year, int month) {
         // Obtener todas las cabañas activas
         List<Cabin> activeCabins = cabinRepository.findByActiveTrue();
 
-        Map<String, Boolean> map = new LinkedHashMap<>();
-        LocalDate start = LocalDate.of(year, month, 1);
-        int length = start.lengthOfMonth();
-
-        for (int d = 1; d <= length; d++) {
-            LocalDate day = LocalDate.of(year, month, d);
-            String dayStr = day.toString();
-
-            // Una fecha está disponible si al menos una cabaña está disponible ese día
-            boolean isAvailable = activeCabins.stream()
-                    .anyMatch(cabin -> isDateAvailable(cabin.getId(), day));
+        int firstDay = EpochDays.firstOfMonth(year, month);
+        int length = EpochDays.lengthOfMonth(year, month);
+        LocalDate start = EpochDays.toLocalDate(firstDay);
+        LocalDate end = EpochDays.toLocalDate(firstDay + length - 1);
 
-            map.put(dayStr, isAvailable);
-        }
+        // Una fecha está disponible si al menos una cabaña está disponible ese día
+        BitSet anyAvailable = metrics.timeAvailability("calendar", executionMode,
+                () -> availableInAnyCabin(activeCabins, start, end));
 
-        return map;
+        return new AvailabilityDays(firstDay, length, anyAvailable);
     }
 
     // Nuevos métodos con lógica real
@@ -93,14 +158,14 @@ public class AvailabilityApplicationServiceImpl implements AvailabilityApplicati
         LocalDate today = LocalDate.now();
         LocalDate endDate = today.plusMonths(3); // Próximos 3 meses
 
-        return getAvailableDatesInRange(cabinId, today, endDate)
-                .stream()
-                .map(LocalDate::toString)
-                .collect(Collectors.toList());
+        int days = (int) ChronoUnit.DAYS.between(today, endDate) + 1;
+        BitSet available = unavailableDays(cabinId, today, endDate);
+        available.flip(0, days);
+        return formatDays(EpochDays.of(today), available);
     }
 
     @Override
-    public Map<String, Boolean> getAvailabilityCalendarForCabin(Long cabinId, int year, int month) {
+    public AvailabilityDays getAvailabilityDaysForCabin(Long cabinId, int year, int month) {
         // Validar que la cabaña existe y está activa
         Cabin cabin = cabinRepository.findById(cabinId)
                 .orElseThrow(() -> new EntityNotFoundException("Cabaña no encontrada"));
@@ -109,16 +174,13 @@ public class AvailabilityApplicationServiceImpl implements AvailabilityApplicati
             throw new IllegalArgumentException("Cabaña no está activa");
         }
 
-        Map<String, Boolean> map = new LinkedHashMap<>();
-        LocalDate start = LocalDate.of(year, month, 1);
-        int length = start.lengthOfMonth();
-
-        for (int d = 1; d <= length; d++) {
-            LocalDate day = LocalDate.of(year, month, d);
-            map.put(day.toString(), isDateAvailable(cabinId, day));
-        }
+        int firstDay = EpochDays.firstOfMonth(year, month);
+        int length = EpochDays.lengthOfMonth(year, month);
+        BitSet available = unavailableDays(cabinId, EpochDays.toLocalDate(firstDay),
+                EpochDays.toLocalDate(firstDay + length - 1));
+        available.flip(0, length);
 
-        return map;
+        return new AvailabilityDays(firstDay, length, available);
     }
 
     @Override
@@ -132,10 +194,7 @@ public class AvailabilityApplicationServiceImpl implements AvailabilityApplicati
         }
 
         // Verificar reservas activas
-        List<Reservation> activeReservations = reservationRepository
-                .findActiveReservationsByCabinAndDateRange(cabinId, startDate, endDate);
-
-        if (!activeReservations.isEmpty()) {
+        if (occupancySource.hasActiveReservation(cabinId, startDate, endDate)) {
             return false;
         }
 
@@ -150,32 +209,253 @@ public class AvailabilityApplicationServiceImpl implements AvailabilityApplicati
     @Override
     public List<LocalDate> getAvailableDatesInRange(Long cabinId, LocalDate startDate, LocalDate endDate) {
         List<LocalDate> availableDates = new ArrayList<>();
+        if (endDate.isBefore(startDate)) {
+            return availableDates;
+        }
 
-        LocalDate current = startDate;
-        while (!current.isAfter(endDate)) {
-            if (isDateAvailable(cabinId, current)) {
-                availableDates.add(current);
-            }
-            current = current.plusDays(1);
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        BitSet unavailable = unavailableDays(cabinId, startDate, endDate);
+        for (int i = unavailable.nextClearBit(0); i < days; i = unavailable.nextClearBit(i + 1)) {
+            availableDates.add(startDate.plusDays(i));
         }
 
         return availableDates;
     }
 
+    @Override
+    public Map<Long, BitSet> getAvailabilityBitmaps(LocalDate startDate, LocalDate endDate) {
+        List<Long> cabinIds = cabinRepository.findByActiveTrue().stream().map(Cabin::getId).toList();
+        return availableDays(cabinIds, startDate, endDate);
+    }
+
+    @Override
+    public Map<Long, BitSet> getAvailabilityBitmapForCabin(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        Cabin cabin = cabinRepository.findById(cabinId)
+                .orElseThrow(() -> new EntityNotFoundException("Cabaña no encontrada"));
+
+        if (!cabin.getActive()) {
+            throw new IllegalArgumentException("Cabaña no está activa");
+        }
+
+        return availableDays(List.of(cabinId), startDate, endDate);
+    }
+
+    private Map<Long, BitSet> availableDays(List<Long> cabinIds, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        Map<Long, BitSet> result = new LinkedHashMap<>();
+        if (cabinIds.isEmpty()) {
+            return result;
+        }
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        occupancySource.unavailableDays(cabinIds, startDate, endDate).forEach((cabinId, unavailable) -> {
+            BitSet available = (BitSet) unavailable.clone();
+            available.flip(0, days);
+            result.put(cabinId, available);
+        });
+        return result;
+    }
+
+    @Override
+    public List<CabinQuote> searchAvailableCabins(LocalDate startDate, LocalDate endDate, int guests,
+            BigDecimal minTotalPrice, BigDecimal maxTotalPrice) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        if (guests <= 0) {
+            throw new IllegalArgumentException("Guests must be greater than zero");
+        }
+
+        List<Cabin> candidates = cabinRepository.findByActiveTrue().stream()
+                .filter(c -> c.getCapacity() != null && c.getCapacity() >= guests)
+                .toList();
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Noches cobradas: [startDate, endDate); una estadía de un solo día cuenta
+        // como una noche
+        int nights = (int) Math.max(1, ChronoUnit.DAYS.between(startDate, endDate));
+
+        // Una consulta (o ninguna, con el índice) por tipo de dato para todas las
+        // cabañas candidatas
+        List<Long> cabinIds = candidates.stream().map(Cabin::getId).toList();
+        Set<Long> reserved = occupancySource.cabinsWithActiveReservation(cabinIds, startDate, endDate);
+        Map<Long, List<AvailabilityBlock>> blocksByCabin = availabilityBlockRepository
+                .findByCabinsAndDateRange(cabinIds, startDate, endDate).stream()
+                .collect(Collectors.groupingBy(b -> b.getCabin().getId()));
+
+        List<CabinQuote> result = new ArrayList<>();
+        for (Cabin cabin : candidates) {
+            Long cabinId = cabin.getId();
+            if (reserved.contains(cabinId)) {
+                continue;
+            }
+            if (!AvailabilityPolicies.respectsMandatoryBlockRanges(startDate, endDate, cabinId,
+                    blocksByCabin.getOrDefault(cabinId, List.of()))) {
+                continue;
+            }
+            // Misma cotización que al reservar: la línea de precios de la cabaña
+            BigDecimal total = priceQuotes.quote(cabin, startDate, endDate).totalPrice();
+            if (minTotalPrice != null && total.compareTo(minTotalPrice) < 0) {
+                continue;
+            }
+            if (maxTotalPrice != null && total.compareTo(maxTotalPrice) > 0) {
+                continue;
+            }
+            result.add(new CabinQuote(cabin, nights, total));
+        }
+        return result;
+    }
+
+    @Override
+    public List<FlexibleStays> findFlexibleStays(Long cabinId, LocalDate periodStart, LocalDate periodEnd,
+            int nights) {
+        if (periodStart == null || periodEnd == null || periodEnd.isBefore(periodStart)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        if (ChronoUnit.DAYS.between(periodStart, periodEnd) > MAX_FLEXIBLE_PERIOD_DAYS) {
+            throw new IllegalArgumentException("Period must not exceed " + MAX_FLEXIBLE_PERIOD_DAYS + " days");
+        }
+        if (nights <= 0) {
+            throw new IllegalArgumentException("Nights must be greater than zero");
+        }
+        int minNights = minimumNights();
+        if (!AvailabilityPolicies.respectsMinimumStayPolicy(periodStart, periodStart.plusDays(nights), minNights)) {
+            throw new IllegalArgumentException("Minimum stay is " + minNights + " nights");
+        }
+
+        List<Long> cabinIds;
+        if (cabinId != null) {
+            Cabin cabin = cabinRepository.findById(cabinId)
+                    .orElseThrow(() -> new EntityNotFoundException("Cabaña no encontrada"));
+            if (!cabin.getActive()) {
+                throw new IllegalArgumentException("Cabaña no está activa");
+            }
+            cabinIds = List.of(cabinId);
+        } else {
+            cabinIds = cabinRepository.findByActiveTrue().stream().map(Cabin::getId).toList();
+        }
+
+        // La estadía ocupa nights + 1 días (llegada y salida incluidas), igual que en
+        // isCabinAvailable
+        int days = (int) ChronoUnit.DAYS.between(periodStart, periodEnd) + 1;
+        int window = nights + 1;
+        if (cabinIds.isEmpty() || window > days) {
+            return List.of();
+        }
+
+        // Ocupación y bloqueos de todas las cabañas en una llamada cada uno
+        Map<Long, BitSet> unavailableByCabin = occupancySource.unavailableDays(cabinIds, periodStart, periodEnd);
+        Map<Long, List<AvailabilityBlock>> blocksByCabin = availabilityBlockRepository
+                .findByCabinsAndDateRange(cabinIds, periodStart, periodEnd).stream()
+                .collect(Collectors.groupingBy(b -> b.getCabin().getId()));
+
+        // Una ventana libre no toca ningún bloqueo; además se puede reservar un
+        // bloqueo completo si dura exactamente las noches pedidas
+        Map<Long, List<AvailabilityBlock>> exactBlocksByCabin = new LinkedHashMap<>();
+        blocksByCabin.forEach((id, blocks) -> {
+            for (AvailabilityBlock block : blocks) {
+                LocalDate bStart = block.getStartDate();
+                LocalDate bEnd = block.getEndDate();
+                if (ChronoUnit.DAYS.between(bStart, bEnd) == nights && !bStart.isBefore(periodStart)
+                        && !bEnd.isAfter(periodEnd)
+                        && AvailabilityPolicies.respectsMandatoryBlockRanges(bStart, bEnd, id, blocks)) {
+                    exactBlocksByCabin.computeIfAbsent(id, k -> new ArrayList<>()).add(block);
+                }
+            }
+        });
+        // Los días ocupados no distinguen reservas de bloqueos: los reservados se
+        // piden una sola vez para las cabañas con algún bloqueo candidato
+        Map<Long, BitSet> reservedByCabin = exactBlocksByCabin.isEmpty() ? Map.of()
+                : occupancySource.reservedDays(exactBlocksByCabin.keySet(), periodStart, periodEnd);
+
+        List<FlexibleStays> result = new ArrayList<>();
+        for (Long id : cabinIds) {
+            BitSet starts = freeWindowStarts(unavailableByCabin.get(id), days, window);
+
+            for (AvailabilityBlock block : exactBlocksByCabin.getOrDefault(id, List.of())) {
+                int first = (int) ChronoUnit.DAYS.between(periodStart, block.getStartDate());
+                int next = reservedByCabin.getOrDefault(id, new BitSet()).nextSetBit(first);
+                if (next < 0 || next > first + nights) {
+                    starts.set(first);
+                }
+            }
+
+            if (!starts.isEmpty()) {
+                List<LocalDate> startDates = new ArrayList<>(starts.cardinality());
+                for (int i = starts.nextSetBit(0); i >= 0; i = starts.nextSetBit(i + 1)) {
+                    startDates.add(periodStart.plusDays(i));
+                }
+                result.add(new FlexibleStays(id, nights, startDates));
+            }
+        }
+        return result;
+    }
+
     /**
-     * Verificar si una fecha específica está disponible para una cabaña
+     * Inicios (relativos al periodo) de las ventanas de window días sin ningún
+     * día ocupado. Un solo recorrido: se lleva la longitud del tramo libre
+     * actual y cada día que la deja en window o más cierra una ventana válida.
      */
-    private boolean isDateAvailable(Long cabinId, LocalDate date) {
-        // Verificar si está reservada
-        if (reservationRepository.isCabinReservedOnDate(cabinId, date)) {
-            return false;
+    static BitSet freeWindowStarts(BitSet unavailable, int days, int window) {
+        BitSet starts = new BitSet(days);
+        int run = 0;
+        for (int i = 0; i < days; i++) {
+            run = unavailable != null && unavailable.get(i) ? 0 : run + 1;
+            if (run >= window) {
+                starts.set(i - window + 1);
+            }
         }
+        return starts;
+    }
 
-        // Verificar si está bloqueada
-        if (availabilityBlockRepository.isDateBlocked(cabinId, date)) {
-            return false;
+    private int minimumNights() {
+        if (configurationService == null) {
+            return 0;
+        }
+        String value = configurationService.getAll().getOrDefault("reservation.min.nights", "1");
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Copia propia de los días ocupados: quien llama puede modificarla
+     */
+    private BitSet unavailableDays(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        return (BitSet) occupancySource.unavailableDays(List.of(cabinId), startDate, endDate).get(cabinId).clone();
+    }
+
+    private static List<String> formatDays(int firstDay, BitSet days) {
+        List<String> dates = new ArrayList<>(days.cardinality());
+        for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1)) {
+            dates.add(EpochDays.format(firstDay + i));
         }
+        return dates;
+    }
 
-        return true;
+    /**
+     * Días (relativos a startDate) en los que al menos una de las cabañas está
+     * libre. Toda la ocupación de las cabañas se obtiene en una sola llamada a
+     * la fuente.
+     */
+    private BitSet availableInAnyCabin(List<Cabin> cabins, LocalDate startDate, LocalDate endDate) {
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        BitSet anyAvailable = new BitSet(days);
+        if (cabins.isEmpty()) {
+            return anyAvailable;
+        }
+
+        List<Long> cabinIds = cabins.stream().map(Cabin::getId).toList();
+        for (BitSet unavailable : occupancySource.unavailableDays(cabinIds, startDate, endDate).values()) {
+            BitSet available = (BitSet) unavailable.clone();
+            available.flip(0, days);
+            anyAvailable.or(available);
+        }
+        return anyAvailable;
     }
 }
@@ -0,0 +1,191 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación en memoria del puerto
+ * {@link ReservationApplicationService.AvailabilityBlockRepository}.
+ *
+ * Cada cabaña tiene un árbol de intervalos aumentado (arreglo ordenado por
+ * fecha de inicio, con el fin máximo de cada subárbol), de modo que las
+ * consultas de solapamiento cuestan O(log n + k) sin importar cuántos bloqueos
+ * haya acumulado la cabaña. Se sincroniza con los eventos de bloqueos.
+ */
+public class AvailabilityBlockIntervalIndex implements ReservationApplicationService.AvailabilityBlockRepository {
+
+    private final AvailabilityBlockJpaRepository jpaRepository;
+
+    private volatile Map<Long, BlockTree> cabins = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public AvailabilityBlockIntervalIndex(AvailabilityBlockJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        Map<Long, Map<Long, AvailabilityBlock>> byCabin = new HashMap<>();
+        for (AvailabilityBlock b : jpaRepository.findAll()) {
+            if (b.getId() == null || b.getCabin() == null)
+                continue;
+            Long cabinId = b.getCabin().getId();
+            byCabin.computeIfAbsent(cabinId, k -> new HashMap<>())
+                    .put(b.getId(), snapshot(b.getId(), cabinId, b.getStartDate(), b.getEndDate()));
+        }
+
+        Map<Long, BlockTree> rebuilt = new ConcurrentHashMap<>();
+        byCabin.forEach((cabinId, blocks) -> rebuilt.put(cabinId, BlockTree.of(blocks)));
+        cabins = rebuilt;
+        loaded = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.INDEX_LISTENER_ORDER)
+    public synchronized void onAvailabilityBlockChanged(AvailabilityBlockChangedEvent event) {
+        if (event.blockId() == null || event.cabinId() == null)
+            return;
+        // Un bloqueo puede cambiar de cabaña en una actualización
+        cabins.replaceAll((cabinId, tree) -> tree.without(event.blockId()));
+        if (!event.deleted()) {
+            BlockTree current = cabins.getOrDefault(event.cabinId(), BlockTree.EMPTY);
+            cabins.put(event.cabinId(), current.with(
+                    snapshot(event.blockId(), event.cabinId(), event.startDate(), event.endDate())));
+        }
+    }
+
+    @Override
+    public List<AvailabilityBlock> findByCabinId(Long cabinId) {
+        return tree(cabinId).all();
+    }
+
+    @Override
+    public List<AvailabilityBlock> findOverlapping(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        return tree(cabinId).overlapping(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    private BlockTree tree(Long cabinId) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded)
+                    rebuild();
+            }
+        }
+        return cabins.getOrDefault(cabinId, BlockTree.EMPTY);
+    }
+
+    /**
+     * Copia desacoplada de la sesión de Hibernate con lo que necesitan las
+     * políticas de disponibilidad
+     */
+    private static AvailabilityBlock snapshot(Long id, Long cabinId, LocalDate startDate, LocalDate endDate) {
+        Cabin cabin = new Cabin();
+        cabin.setId(cabinId);
+        AvailabilityBlock block = new AvailabilityBlock(cabin, startDate, endDate, null, null);
+        block.setId(id);
+        return block;
+    }
+
+    /**
+     * Árbol de intervalos estático: el nodo raíz de [lo, hi] es el punto medio
+     * y maxEnd[mid] guarda el mayor fin del subárbol. Es inmutable; cada cambio
+     * construye uno nuevo.
+     */
+    private static final class BlockTree {
+
+        static final BlockTree EMPTY = of(Map.of());
+
+        private final Map<Long, AvailabilityBlock> byId;
+        private final AvailabilityBlock[] blocks;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnd;
+
+        private BlockTree(Map<Long, AvailabilityBlock> byId) {
+            this.byId = byId;
+            this.blocks = byId.values().stream()
+                    .sorted(Comparator.comparing(AvailabilityBlock::getStartDate))
+                    .toArray(AvailabilityBlock[]::new);
+            this.starts = new long[blocks.length];
+            this.ends = new long[blocks.length];
+            this.maxEnd = new long[blocks.length];
+            for (int i = 0; i < blocks.length; i++) {
+                starts[i] = blocks[i].getStartDate().toEpochDay();
+                ends[i] = blocks[i].getEndDate().toEpochDay();
+            }
+            buildMaxEnd(0, blocks.length - 1);
+        }
+
+        static BlockTree of(Map<Long, AvailabilityBlock> byId) {
+            return new BlockTree(Map.copyOf(byId));
+        }
+
+        BlockTree with(AvailabilityBlock block) {
+            Map<Long, AvailabilityBlock> copy = new HashMap<>(byId);
+            copy.put(block.getId(), block);
+            return of(copy);
+        }
+
+        BlockTree without(Long id) {
+            if (!byId.containsKey(id))
+                return this;
+            Map<Long, AvailabilityBlock> copy = new HashMap<>(byId);
+            copy.remove(id);
+            return of(copy);
+        }
+
+        List<AvailabilityBlock> all() {
+            return Arrays.asList(blocks.clone());
+        }
+
+        List<AvailabilityBlock> overlapping(long from, long to) {
+            List<AvailabilityBlock> result = new ArrayList<>();
+            collect(0, blocks.length - 1, from, to, result);
+            return result;
+        }
+
+        private long buildMaxEnd(int lo, int hi) {
+            if (lo > hi)
+                return Long.MIN_VALUE;
+            int mid = (lo + hi) >>> 1;
+            long max = Math.max(ends[mid], Math.max(buildMaxEnd(lo, mid - 1), buildMaxEnd(mid + 1, hi)));
+            maxEnd[mid] = max;
+            return max;
+        }
+
+        private void collect(int lo, int hi, long from, long to, List<AvailabilityBlock> out) {
+            if (lo > hi)
+                return;
+            int mid = (lo + hi) >>> 1;
+            // Ningún intervalo de este subárbol termina después de from
+            if (maxEnd[mid] < from)
+                return;
+            collect(lo, mid - 1, from, to, out);
+            // El nodo y todo el subárbol derecho empiezan después de to
+            if (starts[mid] > to)
+                return;
+            if (ends[mid] >= from)
+                out.add(blocks[mid]);
+            collect(mid + 1, hi, from, to, out);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package com.cooperative.cabin.application.service;
 
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.exception.CabinNotFoundException;
 import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.Cabin;
 import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -13,9 +19,14 @@ import java.util.List;
 public class AvailabilityBlocksAdminServiceImpl implements AvailabilityBlocksAdminService {
 
     private final AvailabilityBlockJpaRepository repository;
+    private final CabinJpaRepository cabinRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AvailabilityBlocksAdminServiceImpl(AvailabilityBlockJpaRepository repository) {
+    public AvailabilityBlocksAdminServiceImpl(AvailabilityBlockJpaRepository repository,
+            CabinJpaRepository cabinRepository, ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.cabinRepository = cabinRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -24,23 +35,50 @@ public class AvailabilityBlocksAdminServiceImpl implements AvailabilityBlocksAdm
     }
 
     @Override
+    @Transactional
     public AvailabilityBlock create(Long cabinId, LocalDate startDate, LocalDate endDate) {
-        // Necesitamos cargar la entidad Cabin y un User para crear el AvailabilityBlock
-        throw new IllegalStateException(
-                "Cannot create AvailabilityBlock without Cabin and User entities - use proper service method");
+        validateRange(startDate, endDate);
+        AvailabilityBlock block = new AvailabilityBlock(loadCabin(cabinId), startDate, endDate, null, null);
+        AvailabilityBlock saved = repository.save(block);
+        eventPublisher.publishEvent(AvailabilityBlockChangedEvent.saved(saved));
+        return saved;
     }
 
     @Override
+    @Transactional
     public AvailabilityBlock update(Long id, Long cabinId, LocalDate startDate, LocalDate endDate) {
-        // Reemplazo simple por id (merge) dado que la entidad no tiene setters
-        // Necesitamos cargar la entidad Cabin y un User para actualizar el
-        // AvailabilityBlock
-        throw new IllegalStateException(
-                "Cannot update AvailabilityBlock without Cabin and User entities - use proper service method");
+        validateRange(startDate, endDate);
+        AvailabilityBlock block = repository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Availability block not found with id: " + id));
+        // Los días del rango anterior también deben recalcularse
+        AvailabilityBlockChangedEvent previous = AvailabilityBlockChangedEvent.deleted(block);
+        block.setCabin(loadCabin(cabinId));
+        block.setStartDate(startDate);
+        block.setEndDate(endDate);
+        AvailabilityBlock saved = repository.save(block);
+        eventPublisher.publishEvent(previous);
+        eventPublisher.publishEvent(AvailabilityBlockChangedEvent.saved(saved));
+        return saved;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
+        AvailabilityBlock block = repository.findById(id).orElse(null);
         repository.deleteById(id);
+        if (block != null) {
+            eventPublisher.publishEvent(AvailabilityBlockChangedEvent.deleted(block));
+        }
+    }
+
+    private Cabin loadCabin(Long cabinId) {
+        return cabinRepository.findById(cabinId)
+                .orElseThrow(() -> new CabinNotFoundException("Cabin not found with id: " + cabinId));
+    }
+
+    private static void validateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
     }
 }
@@ -0,0 +1,121 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carga por lotes de la ocupación: trae en dos consultas todas las reservas
+ * activas y bloqueos que se solapan con la ventana para todas las cabañas
+ * pedidas, y calcula los días ocupados en memoria con un barrido sobre los
+ * intervalos ordenados.
+ */
+@Component
+public class BatchOccupancyLoader implements CabinOccupancySource {
+
+    private final ReservationJpaRepository reservationRepository;
+    private final AvailabilityBlockJpaRepository availabilityBlockRepository;
+
+    public BatchOccupancyLoader(ReservationJpaRepository reservationRepository,
+            AvailabilityBlockJpaRepository availabilityBlockRepository) {
+        this.reservationRepository = reservationRepository;
+        this.availabilityBlockRepository = availabilityBlockRepository;
+    }
+
+    @Override
+    public Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        Map<Long, BitSet> result = new LinkedHashMap<>();
+        if (cabinIds.isEmpty() || to.isBefore(from)) {
+            cabinIds.forEach(id -> result.put(id, new BitSet()));
+            return result;
+        }
+
+        Map<Long, List<long[]>> intervalsByCabin = new HashMap<>();
+        for (Reservation r : reservationRepository.findActiveReservationsByCabinsAndDateRange(cabinIds, from, to)) {
+            intervalsByCabin.computeIfAbsent(r.getCabin().getId(), k -> new ArrayList<>())
+                    .add(new long[] { r.getStartDate().toEpochDay(), r.getEndDate().toEpochDay() });
+        }
+        for (AvailabilityBlock b : availabilityBlockRepository.findByCabinsAndDateRange(cabinIds, from, to)) {
+            intervalsByCabin.computeIfAbsent(b.getCabin().getId(), k -> new ArrayList<>())
+                    .add(new long[] { b.getStartDate().toEpochDay(), b.getEndDate().toEpochDay() });
+        }
+
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        for (Long cabinId : cabinIds) {
+            result.put(cabinId, sweep(intervalsByCabin.getOrDefault(cabinId, List.of()), fromDay, toDay));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Long, BitSet> reservedDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        Map<Long, BitSet> result = new LinkedHashMap<>();
+        if (cabinIds.isEmpty() || to.isBefore(from)) {
+            cabinIds.forEach(id -> result.put(id, new BitSet()));
+            return result;
+        }
+
+        Map<Long, List<long[]>> intervalsByCabin = new HashMap<>();
+        for (Reservation r : reservationRepository.findActiveReservationsByCabinsAndDateRange(cabinIds, from, to)) {
+            intervalsByCabin.computeIfAbsent(r.getCabin().getId(), k -> new ArrayList<>())
+                    .add(new long[] { r.getStartDate().toEpochDay(), r.getEndDate().toEpochDay() });
+        }
+        for (Long cabinId : cabinIds) {
+            result.put(cabinId, sweep(intervalsByCabin.getOrDefault(cabinId, List.of()), from.toEpochDay(),
+                    to.toEpochDay()));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasActiveReservation(Long cabinId, LocalDate from, LocalDate to) {
+        return !reservationRepository.findActiveReservationsByCabinAndDateRange(cabinId, from, to).isEmpty();
+    }
+
+    @Override
+    public Set<Long> cabinsWithActiveReservation(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        Set<Long> result = new HashSet<>();
+        if (cabinIds.isEmpty())
+            return result;
+        for (Reservation r : reservationRepository.findActiveReservationsByCabinsAndDateRange(cabinIds, from, to)) {
+            result.add(r.getCabin().getId());
+        }
+        return result;
+    }
+
+    /**
+     * Barrido sobre intervalos ordenados por inicio: cada día de la ventana se
+     * marca una sola vez aunque los intervalos se solapen.
+     */
+    static BitSet sweep(List<long[]> intervals, long fromDay, long toDay) {
+        BitSet occupied = new BitSet();
+        List<long[]> sorted = new ArrayList<>(intervals);
+        sorted.sort(Comparator.comparingLong(i -> i[0]));
+
+        long coveredUntil = fromDay - 1;
+        for (long[] interval : sorted) {
+            long start = Math.max(Math.max(interval[0], fromDay), coveredUntil + 1);
+            long end = Math.min(interval[1], toDay);
+            if (start <= end) {
+                occupied.set((int) (start - fromDay), (int) (end - fromDay) + 1);
+            }
+            coveredUntil = Math.max(coveredUntil, end);
+        }
+        return occupied;
+    }
+}
@@ -3,6 +3,9 @@ package com.cooperative.cabin.application.service;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
 
 public class BusinessMetrics {
 
@@ -36,6 +39,17 @@ public class BusinessMetrics {
             return;
         meterRegistry.counter("scheduler.reservations.transition", Tags.of(Tag.of("type", type))).increment();
     }
-}
-
 
+    /**
+     * Mide el cálculo de disponibilidad por operación y modo de ejecución
+     * (sequential / parallel) para poder comparar latencias
+     */
+    public <T> T timeAvailability(String operation, String mode, Supplier<T> work) {
+        if (meterRegistry == null)
+            return work.get();
+        return Timer.builder("availability.compute")
+                .tags(Tags.of(Tag.of("operation", operation), Tag.of("mode", mode)))
+                .register(meterRegistry)
+                .record(work);
+    }
+}
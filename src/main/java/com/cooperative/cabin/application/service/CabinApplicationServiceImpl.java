@@ -1,5 +1,6 @@
 package com.cooperative.cabin.application.service;
 
+import com.cooperative.cabin.domain.event.CabinChangedEvent;
 import com.cooperative.cabin.domain.exception.CabinNotFoundException;
 import com.cooperative.cabin.domain.model.Cabin;
 import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
@@ -7,6 +8,7 @@ import com.cooperative.cabin.presentation.dto.CabinResponse;
 import com.cooperative.cabin.presentation.dto.CreateCabinRequest;
 import com.cooperative.cabin.presentation.dto.UpdateCabinRequest;
 import com.cooperative.cabin.presentation.mapper.CabinMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,9 +20,12 @@ public class CabinApplicationServiceImpl implements CabinApplicationService {
     private static final String CABIN_NOT_FOUND_MESSAGE = "Cabin not found with id: ";
 
     private final CabinJpaRepository cabinRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CabinApplicationServiceImpl(CabinJpaRepository cabinRepository) {
+    public CabinApplicationServiceImpl(CabinJpaRepository cabinRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.cabinRepository = cabinRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -64,6 +69,7 @@ public class CabinApplicationServiceImpl implements CabinApplicationService {
         Cabin cabin = CabinMapper.INSTANCE.fromCreateRequest(request);
 
         Cabin savedCabin = cabinRepository.save(cabin);
+        eventPublisher.publishEvent(new CabinChangedEvent(savedCabin.getId(), false));
         return CabinMapper.INSTANCE.toResponse(savedCabin);
     }
 
@@ -76,6 +82,7 @@ public class CabinApplicationServiceImpl implements CabinApplicationService {
         CabinMapper.INSTANCE.updateEntity(cabin, request);
 
         Cabin savedCabin = cabinRepository.save(cabin);
+        eventPublisher.publishEvent(new CabinChangedEvent(savedCabin.getId(), false));
         return CabinMapper.INSTANCE.toResponse(savedCabin);
     }
 
@@ -86,6 +93,7 @@ public class CabinApplicationServiceImpl implements CabinApplicationService {
             throw new CabinNotFoundException(CABIN_NOT_FOUND_MESSAGE + id);
         }
         cabinRepository.deleteById(id);
+        eventPublisher.publishEvent(new CabinChangedEvent(id, true));
     }
 
     @Override
@@ -0,0 +1,246 @@
+package com.cooperative.cabin.application.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Cola de comandos de escritura con un único escritor por cabaña. Cada cabaña
+ * tiene un buzón; mientras tenga comandos pendientes lo vacía un solo hilo
+ * virtual, que aplica hasta {@code batchSize} comandos en una misma
+ * transacción. Así las escrituras de una cabaña no compiten por candados en la
+ * base de datos y varias comparten el costo del commit.
+ *
+ * Cada comando del lote corre dentro de un savepoint (transacción NESTED) y se
+ * hace flush al terminarlo, así que un rechazo o un error de la base de datos
+ * revierte solo ese comando y los demás siguen en el lote. El savepoint solo
+ * revierte el SQL: al fallar un comando además se vacía el contexto de
+ * persistencia (sus entidades modificadas no llegan al commit y los comandos
+ * siguientes releen de la base de datos) y se descartan las sincronizaciones y
+ * recursos que registró, con lo que sus eventos posteriores al commit no se
+ * entregan. Los comandos anteriores ya hicieron flush. Ningún comando se
+ * aplica dos veces: los efectos que no son transaccionales (métricas, avisos
+ * de la lista de espera) ocurren una sola vez. Si falla el commit del lote,
+ * todos sus comandos reciben el error. Quien envía espera el resultado
+ * después del commit.
+ */
+public class CabinCommandQueue {
+
+    private static final ThreadLocal<Boolean> DRAINING = ThreadLocal.withInitial(() -> false);
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate savepointTemplate;
+    // null si las transacciones no son de JPA (no hay contexto que vaciar)
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+    // Un buzón por cabaña; se conservan vacíos (hay pocas cabañas)
+    private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public CabinCommandQueue(PlatformTransactionManager transactionManager, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.entityManagerFactory = transactionManager instanceof JpaTransactionManager jpa
+                ? jpa.getEntityManagerFactory()
+                : null;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Encola el comando en el buzón de la cabaña y espera su resultado. Las
+     * excepciones del comando se propagan tal cual a quien lo envió.
+     */
+    public <T> T submit(Long cabinId, Supplier<T> work) {
+        if (DRAINING.get()) {
+            // Un comando que envía otro: esperar a otro buzón desde un escritor
+            // podría bloquear ambos, así que se aplica en la transacción actual
+            return work.get();
+        }
+        Command<T> command = new Command<>(work);
+        Mailbox mailbox = mailboxes.computeIfAbsent(cabinId, id -> new Mailbox());
+        mailbox.commands.add(command);
+        mailbox.schedule();
+        return await(command.result);
+    }
+
+    /**
+     * Comandos encolados aún sin aplicar, sumando todas las cabañas
+     */
+    public int pending() {
+        int pending = 0;
+        for (Mailbox mailbox : mailboxes.values()) {
+            pending += mailbox.commands.size();
+        }
+        return pending;
+    }
+
+    private final class Mailbox {
+        private final Queue<Command<?>> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("cabin-writer").start(this::drain);
+            }
+        }
+
+        private void drain() {
+            DRAINING.set(true);
+            try {
+                while (true) {
+                    List<Command<?>> batch = new ArrayList<>(batchSize);
+                    Command<?> command;
+                    while (batch.size() < batchSize && (command = commands.poll()) != null) {
+                        batch.add(command);
+                    }
+                    if (!batch.isEmpty()) {
+                        applyBatch(batch);
+                        continue;
+                    }
+                    draining.set(false);
+                    // Un comando pudo llegar entre el último poll y liberar el buzón
+                    if (commands.isEmpty() || !draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                }
+            } finally {
+                DRAINING.remove();
+            }
+        }
+    }
+
+    private void applyBatch(List<Command<?>> batch) {
+        if (batch.size() == 1) {
+            applyAlone(batch.get(0));
+            return;
+        }
+        Object[] results = new Object[batch.size()];
+        Throwable[] failures = new Throwable[batch.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    Command<?> command = batch.get(i);
+                    TransactionState before = TransactionState.capture();
+                    try {
+                        results[i] = savepointTemplate.execute(savepoint -> {
+                            Object value = command.work.get();
+                            // Un error de la base de datos aparece aquí, dentro
+                            // del savepoint, y no en el commit del lote
+                            savepoint.flush();
+                            return value;
+                        });
+                    } catch (RuntimeException | Error e) {
+                        failures[i] = e;
+                        discardChanges(before);
+                    }
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            // Nada del lote quedó escrito; no se reaplica porque se repetirían
+            // los efectos que no son transaccionales
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.completeExceptionally(failures[i] != null ? failures[i] : e);
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (failures[i] != null) {
+                batch.get(i).result.completeExceptionally(failures[i]);
+            } else {
+                batch.get(i).complete(results[i]);
+            }
+        }
+    }
+
+    /**
+     * Deshace lo que el savepoint no revierte de un comando fallido: las
+     * entidades modificadas en memoria y las sincronizaciones y recursos que
+     * registró en la transacción del lote
+     */
+    private void discardChanges(TransactionState before) {
+        if (entityManagerFactory != null) {
+            EntityManager entityManager = EntityManagerFactoryUtils
+                    .getTransactionalEntityManager(entityManagerFactory);
+            if (entityManager != null) {
+                entityManager.clear();
+            }
+        }
+        for (Object key : new ArrayList<>(TransactionSynchronizationManager.getResourceMap().keySet())) {
+            if (!before.resources().contains(key)) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(key);
+            }
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        before.synchronizations().forEach(TransactionSynchronizationManager::registerSynchronization);
+    }
+
+    private void applyAlone(Command<?> command) {
+        try {
+            command.complete(transactionTemplate.execute(status -> command.work.get()));
+        } catch (Throwable e) {
+            command.result.completeExceptionally(e);
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Reservation command failed", e.getCause());
+        }
+    }
+
+    /**
+     * Sincronizaciones y claves de recursos de la transacción antes de un comando
+     */
+    private record TransactionState(List<TransactionSynchronization> synchronizations, Set<Object> resources) {
+
+        static TransactionState capture() {
+            return new TransactionState(TransactionSynchronizationManager.getSynchronizations(),
+                    new HashSet<>(TransactionSynchronizationManager.getResourceMap().keySet()));
+        }
+    }
+
+    private static final class Command<T> {
+        private final Supplier<T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Command(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(Object value) {
+            result.complete((T) value);
+        }
+    }
+}
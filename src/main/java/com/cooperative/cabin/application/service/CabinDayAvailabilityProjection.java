@@ -0,0 +1,237 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.CabinDayAvailability;
+import com.cooperative.cabin.domain.model.DayAvailabilityReason;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.CabinDayAvailabilityJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantiene la tabla cabin_day_availability y responde consultas de
+ * disponibilidad leyéndola con escaneos por rango.
+ *
+ * {@link CabinDayAvailabilityUpdater} recalcula con {@link #refresh} solo los
+ * días afectados de la cabaña en cada cambio; {@link #rebuild()} reconcilia la
+ * tabla completa (p. ej. tras ediciones SQL masivas).
+ *
+ * En PostgreSQL ambos toman el mismo advisory lock de transacción: los
+ * recálculos en modo compartido y la reconstrucción en exclusivo. Así una
+ * reconstrucción (de esta u otra instancia) no pisa con datos ya leídos un
+ * recálculo concurrente, y como borra y reescribe en una sola transacción los
+ * lectores ven la tabla anterior completa hasta el commit.
+ *
+ * Además cada recálculo toma en exclusivo un advisory lock por cabaña: las
+ * escrituras de bloqueos no pasan por CabinLocks, así que un bloqueo y una
+ * reserva con días solapados pueden recalcular la misma cabaña a la vez, y
+ * sin serializarlos chocarían en uk_cabin_day_availability_cabin_day o uno
+ * dejaría el motivo leído antes del cambio del otro.
+ */
+@Component
+public class CabinDayAvailabilityProjection implements CabinOccupancySource {
+
+    private static final Logger log = LoggerFactory.getLogger(CabinDayAvailabilityProjection.class);
+
+    /**
+     * Clave del advisory lock de cabin_day_availability
+     */
+    static final long LOCK_KEY = 0x43444156L;
+
+    /**
+     * Primera clave del advisory lock por cabaña (la segunda es la cabaña); las
+     * claves de dos enteros no se cruzan con {@link #LOCK_KEY}
+     */
+    static final int CABIN_LOCK_KEY = 0x43444143;
+
+    private final CabinDayAvailabilityJpaRepository dayRepository;
+    private final ReservationJpaRepository reservationRepository;
+    private final AvailabilityBlockJpaRepository availabilityBlockRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public CabinDayAvailabilityProjection(CabinDayAvailabilityJpaRepository dayRepository,
+            ReservationJpaRepository reservationRepository,
+            AvailabilityBlockJpaRepository availabilityBlockRepository, JdbcTemplate jdbcTemplate) {
+        this.dayRepository = dayRepository;
+        this.reservationRepository = reservationRepository;
+        this.availabilityBlockRepository = availabilityBlockRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recalcula los días [from, to] de una cabaña desde las tablas fuente
+     */
+    @Transactional
+    public void refresh(Long cabinId, LocalDate from, LocalDate to) {
+        lock("pg_advisory_xact_lock_shared(" + LOCK_KEY + ")");
+        lock("pg_advisory_xact_lock(" + CABIN_LOCK_KEY + ", " + Long.hashCode(cabinId) + ")");
+        dayRepository.deleteByCabinAndDateRange(cabinId, from, to);
+
+        List<long[]> reserved = new ArrayList<>();
+        for (Reservation r : reservationRepository.findActiveReservationsByCabinAndDateRange(cabinId, from, to)) {
+            reserved.add(interval(r.getStartDate(), r.getEndDate()));
+        }
+        List<long[]> blocked = new ArrayList<>();
+        for (AvailabilityBlock b : availabilityBlockRepository.findByCabinAndDateRange(cabinId, from, to)) {
+            blocked.add(interval(b.getStartDate(), b.getEndDate()));
+        }
+
+        List<CabinDayAvailability> rows = new ArrayList<>();
+        addRows(rows, cabinId, reserved, blocked, from.toEpochDay(), to.toEpochDay());
+        dayRepository.saveAll(rows);
+    }
+
+    /**
+     * Reconstruye la tabla completa a partir de reservations y
+     * availability_blocks. Devuelve el número de días no libres escritos.
+     */
+    @Transactional
+    public int rebuild() {
+        // Antes de leer: espera a que terminen los recálculos en curso
+        lock("pg_advisory_xact_lock(" + LOCK_KEY + ")");
+        Map<Long, List<long[]>> reservedByCabin = new HashMap<>();
+        for (Reservation r : reservationRepository.findByStatusIn(CabinOccupancyIndex.ACTIVE_STATUSES)) {
+            if (r.getCabin() == null)
+                continue;
+            reservedByCabin.computeIfAbsent(r.getCabin().getId(), k -> new ArrayList<>())
+                    .add(interval(r.getStartDate(), r.getEndDate()));
+        }
+        Map<Long, List<long[]>> blockedByCabin = new HashMap<>();
+        for (AvailabilityBlock b : availabilityBlockRepository.findAll()) {
+            if (b.getCabin() == null)
+                continue;
+            blockedByCabin.computeIfAbsent(b.getCabin().getId(), k -> new ArrayList<>())
+                    .add(interval(b.getStartDate(), b.getEndDate()));
+        }
+
+        Set<Long> cabinIds = new LinkedHashSet<>(reservedByCabin.keySet());
+        cabinIds.addAll(blockedByCabin.keySet());
+
+        List<CabinDayAvailability> rows = new ArrayList<>();
+        for (Long cabinId : cabinIds) {
+            List<long[]> reserved = reservedByCabin.getOrDefault(cabinId, List.of());
+            List<long[]> blocked = blockedByCabin.getOrDefault(cabinId, List.of());
+            long from = Long.MAX_VALUE;
+            long to = Long.MIN_VALUE;
+            for (List<long[]> intervals : List.of(reserved, blocked)) {
+                for (long[] i : intervals) {
+                    from = Math.min(from, i[0]);
+                    to = Math.max(to, i[1]);
+                }
+            }
+            addRows(rows, cabinId, reserved, blocked, from, to);
+        }
+
+        dayRepository.deleteAllInBatch();
+        dayRepository.saveAll(rows);
+        log.info("CabinDayAvailabilityProjection: reconstruidos {} días no libres de {} cabañas", rows.size(),
+                cabinIds.size());
+        return rows.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        return days(cabinIds, from, to, EnumSet.of(DayAvailabilityReason.RESERVED, DayAvailabilityReason.BLOCKED));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, BitSet> reservedDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        // Un día reservado y bloqueado se guarda como RESERVED
+        return days(cabinIds, from, to, EnumSet.of(DayAvailabilityReason.RESERVED));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean hasActiveReservation(Long cabinId, LocalDate from, LocalDate to) {
+        return dayRepository.existsByCabinAndReasonInRange(cabinId, DayAvailabilityReason.RESERVED, from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> cabinsWithActiveReservation(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        if (cabinIds.isEmpty())
+            return Set.of();
+        return new HashSet<>(
+                dayRepository.findCabinIdsWithReasonInRange(cabinIds, DayAvailabilityReason.RESERVED, from, to));
+    }
+
+    private Map<Long, BitSet> days(Collection<Long> cabinIds, LocalDate from, LocalDate to,
+            Set<DayAvailabilityReason> reasons) {
+        Map<Long, BitSet> result = new LinkedHashMap<>();
+        cabinIds.forEach(id -> result.put(id, new BitSet()));
+        if (cabinIds.isEmpty() || to.isBefore(from))
+            return result;
+
+        long fromDay = from.toEpochDay();
+        for (CabinDayAvailability d : dayRepository.findByCabinsAndDateRange(cabinIds, from, to)) {
+            BitSet days = result.get(d.getCabinId());
+            if (days != null && reasons.contains(d.getReason())) {
+                days.set((int) (d.getDay().toEpochDay() - fromDay));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Advisory lock hasta el fin de la transacción actual; en otras bases de
+     * datos (H2 en desarrollo y tests) no hace nada
+     */
+    private void lock(String call) {
+        if (postgres == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        }
+        if (postgres) {
+            jdbcTemplate.execute("SELECT " + call);
+        }
+    }
+
+    /**
+     * Filas de los días no libres en [fromDay, toDay]; RESERVED prevalece sobre
+     * BLOCKED
+     */
+    static void addRows(List<CabinDayAvailability> rows, Long cabinId, List<long[]> reserved, List<long[]> blocked,
+            long fromDay, long toDay) {
+        if (toDay < fromDay)
+            return;
+        BitSet reservedDays = BatchOccupancyLoader.sweep(reserved, fromDay, toDay);
+        BitSet blockedDays = BatchOccupancyLoader.sweep(blocked, fromDay, toDay);
+        blockedDays.andNot(reservedDays);
+
+        for (int i = reservedDays.nextSetBit(0); i >= 0; i = reservedDays.nextSetBit(i + 1)) {
+            rows.add(new CabinDayAvailability(cabinId, LocalDate.ofEpochDay(fromDay + i),
+                    DayAvailabilityReason.RESERVED));
+        }
+        for (int i = blockedDays.nextSetBit(0); i >= 0; i = blockedDays.nextSetBit(i + 1)) {
+            rows.add(new CabinDayAvailability(cabinId, LocalDate.ofEpochDay(fromDay + i),
+                    DayAvailabilityReason.BLOCKED));
+        }
+    }
+
+    private static long[] interval(LocalDate start, LocalDate end) {
+        return new long[] { start.toEpochDay(), end.toEpochDay() };
+    }
+}
@@ -0,0 +1,54 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationsImportedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mantiene al día cabin_day_availability con los eventos de reservas y
+ * bloqueos. Solo existe con availability.read-mode=materialized: en los otros
+ * modos nadie lee la tabla y el recálculo síncrono solo alargaría cada
+ * escritura.
+ *
+ * Los eventos se procesan dentro de la transacción que los publica, de modo
+ * que la tabla cambia junto con reservations y availability_blocks.
+ */
+@Component
+@ConditionalOnProperty(name = "availability.read-mode", havingValue = "materialized")
+public class CabinDayAvailabilityUpdater {
+
+    private final CabinDayAvailabilityProjection projection;
+
+    public CabinDayAvailabilityUpdater(CabinDayAvailabilityProjection projection) {
+        this.projection = projection;
+    }
+
+    @EventListener
+    @Transactional
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.cabinId() == null || event.startDate() == null || event.endDate() == null)
+            return;
+        projection.refresh(event.cabinId(), event.startDate(), event.endDate());
+    }
+
+    @EventListener
+    @Transactional
+    public void onReservationsImported(ReservationsImportedEvent event) {
+        if (event.cabinId() == null || event.reservations().isEmpty())
+            return;
+        // Un solo recálculo para todo el lote de la cabaña
+        projection.refresh(event.cabinId(), event.startDate(), event.endDate());
+    }
+
+    @EventListener
+    @Transactional
+    public void onAvailabilityBlockChanged(AvailabilityBlockChangedEvent event) {
+        if (event.cabinId() == null || event.startDate() == null || event.endDate() == null)
+            return;
+        projection.refresh(event.cabinId(), event.startDate(), event.endDate());
+    }
+}
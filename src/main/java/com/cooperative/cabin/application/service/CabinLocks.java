@@ -0,0 +1,77 @@
+package com.cooperative.cabin.application.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Candados en proceso para serializar las reservas de una misma cabaña. Hay un
+ * candado por cabaña (no se comparten por hash), así que las reservas de
+ * cabañas distintas nunca compiten entre sí.
+ *
+ * Dentro de una transacción el candado se libera al terminarla (commit o
+ * rollback): la siguiente reserva de la cabaña ya ve la fila insertada. La
+ * garantía definitiva es la restricción de exclusión de la base de datos; el
+ * candado solo evita que las peticiones concurrentes lleguen a chocar en ella.
+ *
+ * Es un único bean compartido por las reservas y la importación masiva, para
+ * que ambas se serialicen sobre los mismos candados.
+ */
+@Component
+public class CabinLocks {
+
+    private final ConcurrentMap<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+    private final Duration timeout;
+
+    @Autowired
+    public CabinLocks() {
+        this(Duration.ofSeconds(5));
+    }
+
+    public CabinLocks(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public <T> T withLock(Long cabinId, Supplier<T> work) {
+        ReentrantLock lock = locks.computeIfAbsent(cabinId, id -> new ReentrantLock());
+        acquire(lock);
+
+        boolean releaseOnCompletion = false;
+        try {
+            T result = work.get();
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.unlock();
+                    }
+                });
+                releaseOnCompletion = true;
+            }
+            return result;
+        } finally {
+            if (!releaseOnCompletion) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("La cabaña está siendo reservada, intente de nuevo");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reserva interrumpida", e);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationsImportedEvent;
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de ocupación por cabaña con granularidad de día.
+ *
+ * Cada cabaña mantiene un bitmap de días reservados (reservas PENDING,
+ * CONFIRMED e IN_USE) y otro de días bloqueados. Se carga una vez al arrancar
+ * y se mantiene al día con los eventos de reservas y bloqueos, de modo que las
+ * consultas de disponibilidad no van a la base de datos.
+ */
+@Component
+public class CabinOccupancyIndex implements CabinOccupancySource {
+
+    private static final Logger log = LoggerFactory.getLogger(CabinOccupancyIndex.class);
+
+    /**
+     * Orden de los listeners después del commit: primero los índices en memoria
+     * y luego las cachés que se calculan a partir de ellos. Así, un lector que
+     * llega justo después de la invalidación ya ve el índice actualizado y no
+     * vuelve a guardar el calendario viejo hasta el TTL.
+     */
+    static final int INDEX_LISTENER_ORDER = 0;
+    static final int CACHE_LISTENER_ORDER = 100;
+
+    static final List<ReservationStatus> ACTIVE_STATUSES = List.of(
+            ReservationStatus.PENDING, ReservationStatus.CONFIRMED, ReservationStatus.IN_USE);
+
+    private final ReservationJpaRepository reservationRepository;
+    private final AvailabilityBlockJpaRepository availabilityBlockRepository;
+
+    private volatile Map<Long, CabinOccupancy> cabins = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public CabinOccupancyIndex(ReservationJpaRepository reservationRepository,
+            AvailabilityBlockJpaRepository availabilityBlockRepository) {
+        this.reservationRepository = reservationRepository;
+        this.availabilityBlockRepository = availabilityBlockRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Recarga el índice completo desde la base de datos (dos consultas)
+     */
+    public synchronized void rebuild() {
+        Map<Long, Map<Long, long[]>> reservationsByCabin = new HashMap<>();
+        for (Reservation r : reservationRepository.findByStatusIn(ACTIVE_STATUSES)) {
+            if (r.getId() == null || r.getCabin() == null)
+                continue;
+            reservationsByCabin.computeIfAbsent(r.getCabin().getId(), k -> new HashMap<>())
+                    .put(r.getId(), interval(r.getStartDate(), r.getEndDate()));
+        }
+
+        Map<Long, Map<Long, long[]>> blocksByCabin = new HashMap<>();
+        for (AvailabilityBlock b : availabilityBlockRepository.findAll()) {
+            if (b.getId() == null || b.getCabin() == null)
+                continue;
+            blocksByCabin.computeIfAbsent(b.getCabin().getId(), k -> new HashMap<>())
+                    .put(b.getId(), interval(b.getStartDate(), b.getEndDate()));
+        }
+
+        Map<Long, CabinOccupancy> rebuilt = new ConcurrentHashMap<>();
+        reservationsByCabin.forEach((cabinId, reservations) -> rebuilt.put(cabinId,
+                CabinOccupancy.of(reservations, blocksByCabin.getOrDefault(cabinId, Map.of()))));
+        blocksByCabin.forEach((cabinId, blocks) -> rebuilt.computeIfAbsent(cabinId,
+                k -> CabinOccupancy.of(Map.of(), blocks)));
+
+        cabins = rebuilt;
+        loaded = true;
+        log.info("CabinOccupancyIndex: cargadas {} cabañas con ocupación", rebuilt.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(INDEX_LISTENER_ORDER)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (event.reservationId() == null || event.cabinId() == null)
+            return;
+        CabinOccupancy current = cabins.getOrDefault(event.cabinId(), CabinOccupancy.EMPTY);
+        CabinOccupancy updated = event.occupiesCabin()
+                ? current.withReservation(event.reservationId(), interval(event.startDate(), event.endDate()))
+                : current.withoutReservation(event.reservationId());
+        cabins.put(event.cabinId(), updated);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(INDEX_LISTENER_ORDER)
+    public synchronized void onReservationsImported(ReservationsImportedEvent event) {
+        event.reservations().forEach(this::onReservationChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(INDEX_LISTENER_ORDER)
+    public synchronized void onAvailabilityBlockChanged(AvailabilityBlockChangedEvent event) {
+        if (event.blockId() == null || event.cabinId() == null)
+            return;
+        // Un bloqueo puede cambiar de cabaña en una actualización
+        cabins.replaceAll((cabinId, occupancy) -> occupancy.withoutBlock(event.blockId()));
+        if (!event.deleted()) {
+            CabinOccupancy current = cabins.getOrDefault(event.cabinId(), CabinOccupancy.EMPTY);
+            cabins.put(event.cabinId(), current.withBlock(event.blockId(), interval(event.startDate(), event.endDate())));
+        }
+    }
+
+    /**
+     * Verificar si una fecha está libre (sin reserva activa ni bloqueo)
+     */
+    public boolean isDateAvailable(Long cabinId, LocalDate date) {
+        return !occupancy(cabinId).isOccupied(date.toEpochDay());
+    }
+
+    /**
+     * Días no disponibles entre from y to (inclusive). El bit i corresponde a
+     * from + i días.
+     */
+    public BitSet unavailableDays(Long cabinId, LocalDate from, LocalDate to) {
+        return occupancy(cabinId).occupiedBetween(from.toEpochDay(), to.toEpochDay());
+    }
+
+    @Override
+    public Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        Map<Long, BitSet> result = new LinkedHashMap<>();
+        for (Long cabinId : cabinIds) {
+            result.put(cabinId, unavailableDays(cabinId, from, to));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Long, BitSet> reservedDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        Map<Long, BitSet> result = new LinkedHashMap<>();
+        for (Long cabinId : cabinIds) {
+            result.put(cabinId, occupancy(cabinId).reservedBetween(from.toEpochDay(), to.toEpochDay()));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean hasActiveReservation(Long cabinId, LocalDate from, LocalDate to) {
+        return occupancy(cabinId).hasReservationBetween(from.toEpochDay(), to.toEpochDay());
+    }
+
+    private CabinOccupancy occupancy(Long cabinId) {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded)
+                    rebuild();
+            }
+        }
+        return cabins.getOrDefault(cabinId, CabinOccupancy.EMPTY);
+    }
+
+    private static long[] interval(LocalDate start, LocalDate end) {
+        return new long[] { start.toEpochDay(), end.toEpochDay() };
+    }
+
+    /**
+     * Instantánea inmutable de la ocupación de una cabaña. Los bitmaps se
+     * recalculan a partir de los intervalos en cada cambio, así que eliminar un
+     * intervalo nunca libera días cubiertos por otro.
+     */
+    private static final class CabinOccupancy {
+
+        static final CabinOccupancy EMPTY = of(Map.of(), Map.of());
+
+        private final Map<Long, long[]> reservations;
+        private final Map<Long, long[]> blocks;
+        private final long origin;
+        private final BitSet reserved;
+        private final BitSet occupied;
+
+        private CabinOccupancy(Map<Long, long[]> reservations, Map<Long, long[]> blocks, long origin,
+                BitSet reserved, BitSet occupied) {
+            this.reservations = reservations;
+            this.blocks = blocks;
+            this.origin = origin;
+            this.reserved = reserved;
+            this.occupied = occupied;
+        }
+
+        static CabinOccupancy of(Map<Long, long[]> reservations, Map<Long, long[]> blocks) {
+            long origin = Long.MAX_VALUE;
+            for (long[] i : reservations.values())
+                origin = Math.min(origin, i[0]);
+            for (long[] i : blocks.values())
+                origin = Math.min(origin, i[0]);
+
+            BitSet reserved = new BitSet();
+            BitSet blocked = new BitSet();
+            for (long[] i : reservations.values())
+                mark(reserved, origin, i);
+            for (long[] i : blocks.values())
+                mark(blocked, origin, i);
+
+            BitSet occupied = (BitSet) reserved.clone();
+            occupied.or(blocked);
+            return new CabinOccupancy(Map.copyOf(reservations), Map.copyOf(blocks), origin, reserved, occupied);
+        }
+
+        CabinOccupancy withReservation(Long id, long[] interval) {
+            Map<Long, long[]> copy = new HashMap<>(reservations);
+            copy.put(id, interval);
+            return of(copy, blocks);
+        }
+
+        CabinOccupancy withoutReservation(Long id) {
+            if (!reservations.containsKey(id))
+                return this;
+            Map<Long, long[]> copy = new HashMap<>(reservations);
+            copy.remove(id);
+            return of(copy, blocks);
+        }
+
+        CabinOccupancy withBlock(Long id, long[] interval) {
+            Map<Long, long[]> copy = new HashMap<>(blocks);
+            copy.put(id, interval);
+            return of(reservations, copy);
+        }
+
+        CabinOccupancy withoutBlock(Long id) {
+            if (!blocks.containsKey(id))
+                return this;
+            Map<Long, long[]> copy = new HashMap<>(blocks);
+            copy.remove(id);
+            return of(reservations, copy);
+        }
+
+        boolean isOccupied(long day) {
+            return day >= origin && day - origin <= Integer.MAX_VALUE && occupied.get((int) (day - origin));
+        }
+
+        boolean hasReservationBetween(long from, long to) {
+            long lo = Math.max(from, origin);
+            if (lo > to || reserved.isEmpty())
+                return false;
+            int next = reserved.nextSetBit((int) (lo - origin));
+            return next >= 0 && origin + next <= to;
+        }
+
+        BitSet occupiedBetween(long from, long to) {
+            return between(occupied, from, to);
+        }
+
+        BitSet reservedBetween(long from, long to) {
+            return between(reserved, from, to);
+        }
+
+        private BitSet between(BitSet days, long from, long to) {
+            BitSet result = new BitSet();
+            if (days.isEmpty())
+                return result;
+            long lo = Math.max(from, origin);
+            long hi = Math.min(to, origin + days.length() - 1);
+            if (lo > hi)
+                return result;
+            for (int i = days.nextSetBit((int) (lo - origin)); i >= 0 && origin + i <= hi; i = days
+                    .nextSetBit(i + 1)) {
+                result.set((int) (origin + i - from));
+            }
+            return result;
+        }
+
+        private static void mark(BitSet bits, long origin, long[] interval) {
+            if (interval[1] < interval[0])
+                return;
+            bits.set((int) (interval[0] - origin), (int) (interval[1] - origin) + 1);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cooperative.cabin.application.service;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fuente de ocupación usada por el servicio de disponibilidad. Permite elegir
+ * entre el índice en memoria y la carga por lotes desde la base de datos.
+ */
+public interface CabinOccupancySource {
+
+    /**
+     * Días no disponibles (reservados o bloqueados) de cada cabaña entre from y
+     * to, ambos inclusive. El bit i corresponde a from + i días. Toda cabaña
+     * solicitada aparece en el resultado.
+     */
+    Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to);
+
+    /**
+     * Días con alguna reserva activa (sin contar bloqueos) de cada cabaña entre
+     * from y to, con el mismo formato que {@link #unavailableDays}
+     */
+    Map<Long, BitSet> reservedDays(Collection<Long> cabinIds, LocalDate from, LocalDate to);
+
+    /**
+     * Verificar si existe alguna reserva activa que se solape con el rango
+     */
+    boolean hasActiveReservation(Long cabinId, LocalDate from, LocalDate to);
+
+    /**
+     * Cabañas, entre las solicitadas, con alguna reserva activa que se solape
+     * con el rango. Las implementaciones respaldadas por base de datos lo
+     * resuelven en una sola consulta.
+     */
+    default Set<Long> cabinsWithActiveReservation(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        Set<Long> result = new HashSet<>();
+        for (Long cabinId : cabinIds) {
+            if (hasActiveReservation(cabinId, from, to))
+                result.add(cabinId);
+        }
+        return result;
+    }
+}
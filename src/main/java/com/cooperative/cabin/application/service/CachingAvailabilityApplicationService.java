@@ -0,0 +1,197 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.event.CabinChangedEvent;
+import com.cooperative.cabin.domain.event.CheckoutHoldChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationsImportedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché de calendarios mensuales delante de
+ * {@link AvailabilityApplicationServiceImpl}, con clave cabaña + mes (cabinId
+ * null = calendario agregado de todas las cabañas).
+ *
+ * Se invalida después del commit a partir de los eventos de reservas y
+ * bloqueos: solo los meses tocados por el rango cambiado, para esa cabaña y
+ * para el calendario agregado. Los listeners corren después de los de los
+ * índices ({@link CabinOccupancyIndex#CACHE_LISTENER_ORDER}): si invalidaran
+ * antes, un lector concurrente recalcularía con el índice viejo y guardaría ese
+ * calendario. El TTL es solo una red de seguridad. Las demás
+ * consultas (rangos relativos a hoy, búsquedas) pasan directo al servicio.
+ */
+@Service
+@Primary
+@Profile("!test")
+@ConditionalOnProperty(name = "availability.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingAvailabilityApplicationService implements AvailabilityApplicationService {
+
+    record CalendarKey(Long cabinId, YearMonth month) {
+    }
+
+    private final AvailabilityApplicationService delegate;
+    private final Cache<CalendarKey, Map<String, Boolean>> calendars;
+
+    public CachingAvailabilityApplicationService(AvailabilityApplicationServiceImpl delegate,
+            MeterRegistry meterRegistry,
+            @Value("${availability.cache.max-size:10000}") long maxSize,
+            @Value("${availability.cache.ttl:10m}") Duration ttl) {
+        this(delegate, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(), meterRegistry);
+    }
+
+    CachingAvailabilityApplicationService(AvailabilityApplicationService delegate,
+            Cache<CalendarKey, Map<String, Boolean>> calendars, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.calendars = calendars;
+        if (meterRegistry != null) {
+            registerGauges(meterRegistry);
+        }
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry) {
+        Gauge.builder("availability.cache.hits", calendars, c -> c.stats().hitCount())
+                .description("Calendarios servidos desde la caché").register(meterRegistry);
+        Gauge.builder("availability.cache.misses", calendars, c -> c.stats().missCount())
+                .description("Calendarios calculados por el servicio").register(meterRegistry);
+        Gauge.builder("availability.cache.evictions", calendars, c -> c.stats().evictionCount())
+                .description("Entradas expulsadas por tamaño o TTL").register(meterRegistry);
+        Gauge.builder("availability.cache.size", calendars, Cache::estimatedSize)
+                .description("Entradas en la caché").register(meterRegistry);
+    }
+
+    @Override
+    public Map<String, Boolean> getAvailabilityCalendar(int year, int month) {
+        return calendars.get(new CalendarKey(null, YearMonth.of(year, month)),
+                k -> Collections.unmodifiableMap(new LinkedHashMap<>(delegate.getAvailabilityCalendar(year, month))));
+    }
+
+    @Override
+    public Map<String, Boolean> getAvailabilityCalendarForCabin(Long cabinId, int year, int month) {
+        return calendars.get(new CalendarKey(cabinId, YearMonth.of(year, month)),
+                k -> Collections.unmodifiableMap(
+                        new LinkedHashMap<>(delegate.getAvailabilityCalendarForCabin(cabinId, year, month))));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        invalidate(event.cabinId(), event.startDate(), event.endDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onReservationsImported(ReservationsImportedEvent event) {
+        invalidate(event.cabinId(), event.startDate(), event.endDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onAvailabilityBlockChanged(AvailabilityBlockChangedEvent event) {
+        invalidate(event.cabinId(), event.startDate(), event.endDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onCheckoutHoldChanged(CheckoutHoldChangedEvent event) {
+        invalidate(event.cabinId(), event.startDate(), event.endDate());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onCabinChanged(CabinChangedEvent event) {
+        // Activar o desactivar una cabaña cambia todos sus meses y los agregados
+        calendars.asMap().keySet().removeIf(k -> k.cabinId() == null || k.cabinId().equals(event.cabinId()));
+    }
+
+    void invalidate(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            calendars.invalidateAll();
+            return;
+        }
+        YearMonth last = YearMonth.from(endDate);
+        for (YearMonth ym = YearMonth.from(startDate); !ym.isAfter(last); ym = ym.plusMonths(1)) {
+            calendars.invalidate(new CalendarKey(null, ym));
+            if (cabinId != null) {
+                calendars.invalidate(new CalendarKey(cabinId, ym));
+            }
+        }
+    }
+
+    // Consultas sin caché
+
+    @Override
+    public List<String> getAvailableDates() {
+        return delegate.getAvailableDates();
+    }
+
+    @Override
+    public AvailabilityDays getAvailabilityDays(int year, int month) {
+        return delegate.getAvailabilityDays(year, month);
+    }
+
+    @Override
+    public AvailabilityDays getAvailabilityDaysForCabin(Long cabinId, int year, int month) {
+        return delegate.getAvailabilityDaysForCabin(cabinId, year, month);
+    }
+
+    @Override
+    public List<String> getAvailableDatesForCabin(Long cabinId) {
+        return delegate.getAvailableDatesForCabin(cabinId);
+    }
+
+    @Override
+    public boolean isCabinAvailable(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        return delegate.isCabinAvailable(cabinId, startDate, endDate);
+    }
+
+    @Override
+    public List<LocalDate> getAvailableDatesInRange(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        return delegate.getAvailableDatesInRange(cabinId, startDate, endDate);
+    }
+
+    @Override
+    public Map<Long, BitSet> getAvailabilityBitmaps(LocalDate startDate, LocalDate endDate) {
+        return delegate.getAvailabilityBitmaps(startDate, endDate);
+    }
+
+    @Override
+    public Map<Long, BitSet> getAvailabilityBitmapForCabin(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        return delegate.getAvailabilityBitmapForCabin(cabinId, startDate, endDate);
+    }
+
+    @Override
+    public List<FlexibleStays> findFlexibleStays(Long cabinId, LocalDate periodStart, LocalDate periodEnd,
+            int nights) {
+        return delegate.findFlexibleStays(cabinId, periodStart, periodEnd, nights);
+    }
+
+    @Override
+    public List<CabinQuote> searchAvailableCabins(LocalDate startDate, LocalDate endDate, int guests,
+            BigDecimal minTotalPrice, BigDecimal maxTotalPrice) {
+        return delegate.searchAvailableCabins(startDate, endDate, guests, minTotalPrice, maxTotalPrice);
+    }
+}
@@ -0,0 +1,242 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.CheckoutHoldChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retenciones de checkout: aparta (cabaña, rango de fechas) por unos minutos
+ * mientras el socio completa el formulario. Es una tabla de arriendos en
+ * memoria con TTL; un barrido periódico en un ejecutor programado elimina las
+ * vencidas, y las lecturas ignoran las vencidas aunque el barrido no haya
+ * pasado.
+ *
+ * Cada usuario tiene a lo sumo una retención: pedir otra reemplaza la
+ * anterior. Las lecturas no toman candado (listas inmutables por cabaña); las
+ * escrituras se serializan en esta instancia. Con varias instancias de la
+ * aplicación cada una ve solo sus retenciones; la restricción de la base de
+ * datos sigue impidiendo reservas solapadas.
+ */
+@Component
+public class CheckoutHolds {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckoutHolds.class);
+
+    public record Hold(String id, Long userId, Long cabinId, LocalDate startDate, LocalDate endDate,
+            Instant expiresAt) {
+
+        public boolean overlaps(LocalDate from, LocalDate to) {
+            return !(endDate.isBefore(from) || startDate.isAfter(to));
+        }
+
+        boolean isLive(Instant now) {
+            return expiresAt.isAfter(now);
+        }
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Hold> byId = new ConcurrentHashMap<>();
+    private final Map<Long, List<Hold>> byCabin = new ConcurrentHashMap<>();
+    // En conversión: siguen ocupando la cabaña (aunque venzan) hasta completar o restaurar
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Tabla sin barrido ni eventos, para usos fuera del contexto de Spring
+     */
+    public CheckoutHolds() {
+        this(null, Duration.ofMinutes(10), Clock.systemUTC());
+    }
+
+    @Autowired
+    public CheckoutHolds(ApplicationEventPublisher eventPublisher,
+            @Value("${reservations.holds.ttl:10m}") Duration ttl,
+            @Value("${reservations.holds.sweep-interval:30s}") Duration sweepInterval) {
+        this.eventPublisher = eventPublisher;
+        this.ttl = ttl;
+        this.clock = Clock.systemUTC();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "checkout-holds-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(() -> {
+            // Una excepción cancelaría las ejecuciones siguientes
+            try {
+                sweep();
+            } catch (RuntimeException e) {
+                log.warn("Barrido de retenciones falló: {}", e.getMessage());
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    CheckoutHolds(ApplicationEventPublisher eventPublisher, Duration ttl, Clock clock) {
+        this.eventPublisher = eventPublisher;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.sweeper = null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Aparta el rango para el usuario, reemplazando su retención anterior.
+     * Falla si otra retención vigente se solapa; la verificación contra
+     * reservas y bloqueos corresponde a quien llama.
+     */
+    public synchronized Hold place(Long userId, Long cabinId, LocalDate startDate, LocalDate endDate) {
+        Instant now = clock.instant();
+        if (isHeld(cabinId, startDate, endDate, userId)) {
+            throw new IllegalStateException("Las fechas están retenidas por otro socio, intente más tarde");
+        }
+        for (Hold previous : List.copyOf(byId.values())) {
+            if (previous.userId().equals(userId) && !claimed.contains(previous.id())) {
+                remove(previous, true);
+            }
+        }
+        Hold hold = new Hold(UUID.randomUUID().toString(), userId, cabinId, startDate, endDate, now.plus(ttl));
+        byId.put(hold.id(), hold);
+        byCabin.compute(cabinId, (id, holds) -> append(holds, hold));
+        publish(hold, false);
+        return hold;
+    }
+
+    /**
+     * Indica si alguna retención vigente de otro usuario se solapa con el
+     * rango ({@code exceptUserId} null = de cualquier usuario)
+     */
+    public boolean isHeld(Long cabinId, LocalDate from, LocalDate to, Long exceptUserId) {
+        Instant now = clock.instant();
+        for (Hold hold : byCabin.getOrDefault(cabinId, List.of())) {
+            if (occupies(hold, now) && hold.overlaps(from, to) && !hold.userId().equals(exceptUserId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retenciones vigentes de la cabaña
+     */
+    public List<Hold> liveHolds(Long cabinId) {
+        List<Hold> holds = byCabin.get(cabinId);
+        if (holds == null) {
+            return List.of();
+        }
+        Instant now = clock.instant();
+        return holds.stream().filter(h -> occupies(h, now)).toList();
+    }
+
+    public Optional<Hold> find(String holdId) {
+        Hold hold = byId.get(holdId);
+        return hold != null && hold.isLive(clock.instant()) ? Optional.of(hold) : Optional.empty();
+    }
+
+    /**
+     * Marca la retención para convertirla en reserva. Sigue ocupando la cabaña
+     * hasta {@link #complete(Hold)} (reserva confirmada) o
+     * {@link #restore(Hold)} (conversión fallida), así que nadie más puede
+     * tomar las fechas entretanto.
+     */
+    public synchronized Hold claim(String holdId, Long userId) {
+        Hold hold = byId.get(holdId);
+        if (hold == null || !hold.isLive(clock.instant()) || !hold.userId().equals(userId)
+                || !claimed.add(holdId)) {
+            throw new IllegalStateException("Retención no encontrada o vencida");
+        }
+        return hold;
+    }
+
+    public synchronized void complete(Hold hold) {
+        claimed.remove(hold.id());
+        remove(hold, false);
+    }
+
+    public synchronized void restore(Hold hold) {
+        claimed.remove(hold.id());
+    }
+
+    public synchronized boolean release(String holdId, Long userId) {
+        Hold hold = byId.get(holdId);
+        if (hold == null || !hold.userId().equals(userId) || claimed.contains(holdId)) {
+            return false;
+        }
+        remove(hold, true);
+        return true;
+    }
+
+    /**
+     * Elimina las retenciones vencidas y devuelve cuántas había
+     */
+    public synchronized int sweep() {
+        Instant now = clock.instant();
+        List<Hold> expired = new ArrayList<>();
+        for (Hold hold : byId.values()) {
+            if (!occupies(hold, now)) {
+                expired.add(hold);
+            }
+        }
+        expired.forEach(hold -> remove(hold, true));
+        return expired.size();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private boolean occupies(Hold hold, Instant now) {
+        return hold.isLive(now) || claimed.contains(hold.id());
+    }
+
+    private void remove(Hold hold, boolean notify) {
+        byId.remove(hold.id());
+        byCabin.computeIfPresent(hold.cabinId(), (id, holds) -> {
+            List<Hold> remaining = holds.stream().filter(h -> !h.id().equals(hold.id())).toList();
+            return remaining.isEmpty() ? null : remaining;
+        });
+        if (notify) {
+            publish(hold, true);
+        }
+    }
+
+    private static List<Hold> append(List<Hold> holds, Hold hold) {
+        List<Hold> updated = holds == null ? new ArrayList<>() : new ArrayList<>(holds);
+        updated.add(hold);
+        return List.copyOf(updated);
+    }
+
+    private void publish(Hold hold, boolean released) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new CheckoutHoldChangedEvent(hold.id(), hold.cabinId(), hold.startDate(),
+                    hold.endDate(), released));
+        }
+    }
+}
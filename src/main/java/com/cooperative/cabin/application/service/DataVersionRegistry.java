@@ -0,0 +1,109 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.event.CabinChangedEvent;
+import com.cooperative.cabin.domain.event.CheckoutHoldChangedEvent;
+import com.cooperative.cabin.domain.event.PriceRangeChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationsImportedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de versión de datos: uno global y uno por cabaña. Se incrementan
+ * después del commit de cualquier cambio en reservas, bloqueos, precios o
+ * cabañas (y al crear, liberar o vencer retenciones de checkout), y sirven
+ * para derivar ETags sin consultar la base de datos.
+ *
+ * El epoch identifica el arranque de esta instancia para que un reinicio (que
+ * vuelve los contadores a cero) nunca repita un ETag anterior.
+ *
+ * Los contadores y el epoch son de esta instancia: otra instancia no ve sus
+ * incrementos y entrega ETags distintos para los mismos datos, así que un ETag
+ * solo es válido con una instancia de la aplicación. Con varias instancias
+ * (http.etags.enabled=false) {@link #enabled()} es false y los controladores
+ * responden sin ETag ni 304.
+ *
+ * Los incrementos se hacen después de que el índice de ocupación aplica el
+ * evento, igual que la invalidación de la caché de calendarios: una petición
+ * que ya ve la versión nueva también ve los datos nuevos.
+ */
+@Component
+public class DataVersionRegistry {
+
+    private final boolean enabled;
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong global = new AtomicLong();
+    private final Map<Long, AtomicLong> cabins = new ConcurrentHashMap<>();
+
+    public DataVersionRegistry(@Value("${http.etags.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    public long globalVersion() {
+        return global.get();
+    }
+
+    public long cabinVersion(Long cabinId) {
+        AtomicLong version = cabins.get(cabinId);
+        return version != null ? version.get() : 0L;
+    }
+
+    public void bump(Long cabinId) {
+        if (cabinId != null) {
+            cabins.computeIfAbsent(cabinId, k -> new AtomicLong()).incrementAndGet();
+        }
+        global.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        bump(event.cabinId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onReservationsImported(ReservationsImportedEvent event) {
+        bump(event.cabinId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onAvailabilityBlockChanged(AvailabilityBlockChangedEvent event) {
+        bump(event.cabinId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onPriceRangeChanged(PriceRangeChangedEvent event) {
+        bump(event.cabinId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onCheckoutHoldChanged(CheckoutHoldChangedEvent event) {
+        bump(event.cabinId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CabinOccupancyIndex.CACHE_LISTENER_ORDER)
+    public void onCabinChanged(CabinChangedEvent event) {
+        bump(event.cabinId());
+    }
+}
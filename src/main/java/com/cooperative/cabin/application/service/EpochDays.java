@@ -0,0 +1,64 @@
+package com.cooperative.cabin.application.service;
+
+import java.time.LocalDate;
+
+/**
+ * Fechas como días desde 1970-01-01 en un {@code int}. Los cálculos de
+ * calendarios trabajan con estos ordinales y arreglos primitivos; las fechas
+ * solo se convierten a {@link LocalDate} o a texto al armar la respuesta.
+ */
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    public static int of(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+
+    public static LocalDate toLocalDate(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public static int firstOfMonth(int year, int month) {
+        return of(LocalDate.of(year, month, 1));
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        return LocalDate.of(year, month, 1).lengthOfMonth();
+    }
+
+    /**
+     * Formato ISO (yyyy-MM-dd), igual a {@link LocalDate#toString()} pero sin
+     * crear la fecha intermedia
+     */
+    public static String format(int epochDay) {
+        // Conversión a fecha civil (algoritmo days-to-civil de H. Hinnant)
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097L);
+        long doe = z - era * 146097L;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return LocalDate.ofEpochDay(epochDay).toString();
+        }
+
+        char[] chars = new char[10];
+        int y = (int) year;
+        chars[0] = (char) ('0' + y / 1000);
+        chars[1] = (char) ('0' + y / 100 % 10);
+        chars[2] = (char) ('0' + y / 10 % 10);
+        chars[3] = (char) ('0' + y % 10);
+        chars[4] = '-';
+        chars[5] = (char) ('0' + month / 10);
+        chars[6] = (char) ('0' + month % 10);
+        chars[7] = '-';
+        chars[8] = (char) ('0' + day / 10);
+        chars[9] = (char) ('0' + day % 10);
+        return new String(chars);
+    }
+}
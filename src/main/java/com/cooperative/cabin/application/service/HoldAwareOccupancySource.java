@@ -0,0 +1,84 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.application.service.CheckoutHolds.Hold;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decorador que suma las retenciones de checkout vigentes a la ocupación de la
+ * fuente subyacente: un día retenido cuenta como no disponible y una retención
+ * que se solapa con el rango cuenta como reserva activa (también en
+ * {@link #reservedDays}).
+ */
+public class HoldAwareOccupancySource implements CabinOccupancySource {
+
+    private final CabinOccupancySource delegate;
+    private final CheckoutHolds holds;
+
+    public HoldAwareOccupancySource(CabinOccupancySource delegate, CheckoutHolds holds) {
+        this.delegate = delegate;
+        this.holds = holds;
+    }
+
+    @Override
+    public Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        return withHolds(delegate.unavailableDays(cabinIds, from, to), cabinIds, from, to);
+    }
+
+    @Override
+    public Map<Long, BitSet> reservedDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        return withHolds(delegate.reservedDays(cabinIds, from, to), cabinIds, from, to);
+    }
+
+    @Override
+    public boolean hasActiveReservation(Long cabinId, LocalDate from, LocalDate to) {
+        return holds.isHeld(cabinId, from, to, null) || delegate.hasActiveReservation(cabinId, from, to);
+    }
+
+    @Override
+    public Set<Long> cabinsWithActiveReservation(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        Set<Long> result = new HashSet<>(delegate.cabinsWithActiveReservation(cabinIds, from, to));
+        for (Long cabinId : cabinIds) {
+            if (holds.isHeld(cabinId, from, to, null)) {
+                result.add(cabinId);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Marca los días retenidos sobre los bitmaps de la fuente
+     */
+    private Map<Long, BitSet> withHolds(Map<Long, BitSet> source, Collection<Long> cabinIds, LocalDate from,
+            LocalDate to) {
+        Map<Long, BitSet> result = null;
+        int firstDay = EpochDays.of(from);
+        int lastDay = EpochDays.of(to);
+        for (Long cabinId : cabinIds) {
+            for (Hold hold : holds.liveHolds(cabinId)) {
+                if (!hold.overlaps(from, to)) {
+                    continue;
+                }
+                if (result == null) {
+                    // La fuente puede devolver bitmaps compartidos: se copian antes de marcar
+                    result = new LinkedHashMap<>(source);
+                }
+                BitSet days = result.get(cabinId);
+                if (days == source.get(cabinId)) {
+                    days = days != null ? (BitSet) days.clone() : new BitSet();
+                    result.put(cabinId, days);
+                }
+                int start = Math.max(EpochDays.of(hold.startDate()), firstDay) - firstDay;
+                int end = Math.min(EpochDays.of(hold.endDate()), lastDay) - firstDay;
+                days.set(start, end + 1);
+            }
+        }
+        return result != null ? result : source;
+    }
+}
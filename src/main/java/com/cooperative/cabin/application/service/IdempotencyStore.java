@@ -0,0 +1,248 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.IdempotencyRecord;
+import com.cooperative.cabin.infrastructure.repository.IdempotencyRecordJpaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas guardadas por Idempotency-Key. Una caché acotada en memoria
+ * responde los reintentos sin ir a la base de datos; la tabla idempotency_keys
+ * conserva las respuestas entre reinicios y entre instancias.
+ *
+ * Antes de ejecutar la acción se reclama la clave insertando una fila pendiente
+ * bajo la restricción única (scope, idempotency_key): si otra petición, de esta
+ * u otra instancia, ya la reclamó, la inserción falla y esta se rechaza con 409
+ * en vez de ejecutar la acción otra vez. Quien la reclamó completa la fila con
+ * la respuesta. Un reclamo abandonado (la instancia cayó a mitad) vence a los
+ * {@code reservations.idempotency.claim-timeout} y la clave puede reclamarse de
+ * nuevo.
+ *
+ * Solo se guardan respuestas 2xx: si la operación falla (conflicto de fechas,
+ * validación, error interno) se libera el reclamo y el reintento con la misma
+ * clave vuelve a ejecutarla.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * status_code de una fila reclamada cuya acción aún no terminó
+     */
+    static final int PENDING = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    record StoredResponse(String requestHash, int statusCode, String body, LocalDateTime expiresAt) {
+    }
+
+    record CacheKey(String scope, String key) {
+    }
+
+    private final IdempotencyRecordJpaRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Cache<CacheKey, StoredResponse> cache;
+
+    public IdempotencyStore(IdempotencyRecordJpaRepository repository, ObjectMapper objectMapper,
+            @Value("${reservations.idempotency.ttl:24h}") Duration ttl,
+            @Value("${reservations.idempotency.claim-timeout:5m}") Duration claimTimeout,
+            @Value("${reservations.idempotency.max-size:10000}") long maxSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Ejecuta {@code action} una sola vez por ámbito y clave. Los reintentos
+     * dentro del TTL reciben el estado y cuerpo originales con la cabecera
+     * {@value #REPLAYED_HEADER}, sin ejecutar la acción.
+     *
+     * @param scope   método, ruta y usuario de la petición
+     * @param request cuerpo o parámetros de la petición, para la huella
+     */
+    public ResponseEntity<?> execute(String scope, String key, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+        CacheKey cacheKey = new CacheKey(scope, key);
+        String requestHash = hash(request);
+
+        Optional<StoredResponse> stored = lookup(cacheKey);
+        if (stored.isPresent()) {
+            return replay(stored.get(), requestHash);
+        }
+
+        IdempotencyRecord claim;
+        try {
+            claim = claim(cacheKey, requestHash);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición tiene la clave: completada (se responde con ella),
+            // en curso o vencida sin purgar
+            stored = lookup(cacheKey);
+            if (stored.isPresent()) {
+                return replay(stored.get(), requestHash);
+            }
+            claim = reclaimExpired(cacheKey, requestHash);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            release(claim);
+            throw e;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            remember(cacheKey, claim, requestHash, response);
+        } else {
+            release(claim);
+        }
+        return response;
+    }
+
+    private Optional<StoredResponse> lookup(CacheKey cacheKey) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredResponse cached = cache.getIfPresent(cacheKey);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return Optional.of(cached);
+        }
+        return repository.findByScopeAndIdempotencyKey(cacheKey.scope(), cacheKey.key())
+                .filter(r -> r.getStatusCode() != PENDING && r.getExpiresAt().isAfter(now))
+                .map(r -> {
+                    StoredResponse loaded = new StoredResponse(r.getRequestHash(), r.getStatusCode(),
+                            r.getResponseBody(), r.getExpiresAt());
+                    cache.put(cacheKey, loaded);
+                    return loaded;
+                });
+    }
+
+    /**
+     * Inserta la fila pendiente; falla con DataIntegrityViolationException si
+     * la clave ya tiene fila
+     */
+    private IdempotencyRecord claim(CacheKey cacheKey, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        return repository.saveAndFlush(new IdempotencyRecord(cacheKey.scope(), cacheKey.key(), requestHash,
+                PENDING, null, now, now.plus(claimTimeout)));
+    }
+
+    /**
+     * Retoma la fila de la clave si venció (respuesta caducada aún no purgada o
+     * reclamo abandonado); si sigue vigente otra petición la tiene en curso
+     */
+    private IdempotencyRecord reclaimExpired(CacheKey cacheKey, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(claimTimeout);
+        IdempotencyRecord existing = repository.findByScopeAndIdempotencyKey(cacheKey.scope(), cacheKey.key())
+                .orElse(null);
+        if (existing == null || existing.getExpiresAt().isAfter(now)
+                || repository.reclaimExpired(existing.getId(), requestHash, PENDING, now, expiresAt) == 0) {
+            throw new IllegalStateException("Ya hay una solicitud en curso con esta Idempotency-Key");
+        }
+        existing.setRequestHash(requestHash);
+        existing.setStatusCode(PENDING);
+        existing.setResponseBody(null);
+        existing.setCreatedAt(now);
+        existing.setExpiresAt(expiresAt);
+        return existing;
+    }
+
+    /**
+     * Borra el reclamo para que un reintento vuelva a ejecutar la acción; si
+     * falla, el reclamo vence solo
+     */
+    private void release(IdempotencyRecord claim) {
+        try {
+            repository.deleteById(claim.getId());
+        } catch (DataAccessException e) {
+            log.warn("No se pudo liberar la Idempotency-Key {}: {}", claim.getIdempotencyKey(), e.getMessage());
+        }
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key ya usada con una solicitud distinta");
+        }
+        return ResponseEntity.status(HttpStatus.valueOf(stored.statusCode()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private void remember(CacheKey cacheKey, IdempotencyRecord claim, String requestHash,
+            ResponseEntity<?> response) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+                toJson(response.getBody()), now.plus(ttl));
+        cache.put(cacheKey, stored);
+        claim.setStatusCode(stored.statusCode());
+        claim.setResponseBody(stored.body());
+        claim.setCreatedAt(now);
+        claim.setExpiresAt(stored.expiresAt());
+        try {
+            repository.save(claim);
+        } catch (DataAccessException e) {
+            // La acción ya se aplicó: se responde igual y la caché local cubre
+            // los reintentos a esta instancia
+            log.warn("No se pudo guardar la respuesta de la Idempotency-Key {}: {}", cacheKey.key(),
+                    e.getMessage());
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta idempotente", e);
+        }
+    }
+
+    private String hash(Object request) {
+        String json = toJson(request);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(json == null ? new byte[0] : json.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Borra de la tabla las respuestas vencidas; la caché las expira sola
+     */
+    public int purgeExpired() {
+        return repository.deleteExpired(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,24 @@
+package com.cooperative.cabin.application.service;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de una consulta por clave (keyset): los elementos y el cursor para
+ * pedir la siguiente, o null si no hay más. Se consulta un elemento extra para
+ * saber si la hay, sin contar el total.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    /**
+     * Recorta rows (consultadas con size + 1) a size y arma el cursor con la
+     * clave del último elemento devuelto
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(List.copyOf(items), cursorOf.apply(items.get(size - 1)));
+    }
+}
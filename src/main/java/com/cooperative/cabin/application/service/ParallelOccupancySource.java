@@ -0,0 +1,102 @@
+package com.cooperative.cabin.application.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Decorador que reparte el cálculo de ocupación de varias cabañas en grupos que
+ * se resuelven en paralelo sobre hilos virtuales. Un semáforo limita las tareas
+ * simultáneas (por defecto al tamaño del pool de conexiones, ya que en modo
+ * batch o materialized cada grupo consulta la base de datos).
+ */
+public class ParallelOccupancySource implements CabinOccupancySource {
+
+    private final CabinOccupancySource delegate;
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParallelOccupancySource(CabinOccupancySource delegate, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        if (cabinIds.size() <= 1) {
+            return delegate.unavailableDays(cabinIds, from, to);
+        }
+
+        List<Future<Map<Long, BitSet>>> futures = new ArrayList<>();
+        for (List<Long> chunk : partition(new ArrayList<>(cabinIds), maxConcurrency)) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return delegate.unavailableDays(chunk, from, to);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        // Los grupos conservan el orden de las cabañas solicitadas
+        Map<Long, BitSet> result = new LinkedHashMap<>();
+        for (Future<Map<Long, BitSet>> future : futures) {
+            result.putAll(await(future));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Long, BitSet> reservedDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        return delegate.reservedDays(cabinIds, from, to);
+    }
+
+    @Override
+    public boolean hasActiveReservation(Long cabinId, LocalDate from, LocalDate to) {
+        return delegate.hasActiveReservation(cabinId, from, to);
+    }
+
+    @Override
+    public Set<Long> cabinsWithActiveReservation(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+        return delegate.cabinsWithActiveReservation(cabinIds, from, to);
+    }
+
+    static <T> List<List<T>> partition(List<T> items, int groups) {
+        int size = (items.size() + groups - 1) / groups;
+        List<List<T>> result = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            result.add(items.subList(i, Math.min(items.size(), i + size)));
+        }
+        return result;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Availability computation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Availability computation failed", e.getCause());
+        }
+    }
+}
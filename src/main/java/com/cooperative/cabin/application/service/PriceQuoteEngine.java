@@ -0,0 +1,83 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.CabinChangedEvent;
+import com.cooperative.cabin.domain.event.PriceRangeChangedEvent;
+import com.cooperative.cabin.domain.exception.CabinNotFoundException;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cotizador de estadías sobre una {@link PriceTimeline} por cabaña. Cada línea
+ * se compila la primera vez que se cotiza la cabaña (una consulta de rangos y
+ * otra de la cabaña) y se descarta después del commit de cualquier cambio en
+ * sus rangos o en la cabaña, así que cotizar no consulta la base de datos.
+ */
+@Component
+public class PriceQuoteEngine {
+
+    private final PriceRangeJpaRepository priceRangeRepository;
+    private final CabinJpaRepository cabinRepository;
+    private final Map<Long, PriceTimeline> timelines = new ConcurrentHashMap<>();
+
+    public PriceQuoteEngine(PriceRangeJpaRepository priceRangeRepository, CabinJpaRepository cabinRepository) {
+        this.priceRangeRepository = priceRangeRepository;
+        this.cabinRepository = cabinRepository;
+    }
+
+    public PriceTimeline.Quote quote(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+        return timeline(cabinId).quote(startDate, endDate);
+    }
+
+    /**
+     * Igual que {@link #quote(Long, LocalDate, LocalDate)} con la cabaña ya
+     * cargada: si hay que compilar su línea solo se consultan los rangos
+     */
+    public PriceTimeline.Quote quote(Cabin cabin, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+        return timelines.computeIfAbsent(cabin.getId(), id -> PriceTimeline.compile(
+                priceRangeRepository.findByCabin_Id(id), cabin.getBasePrice())).quote(startDate, endDate);
+    }
+
+    public PriceTimeline timeline(Long cabinId) {
+        // Se compila dentro de computeIfAbsent: una invalidación concurrente espera
+        // a que termine y descarta la línea recién armada
+        return timelines.computeIfAbsent(cabinId, this::compile);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceRangeChanged(PriceRangeChangedEvent event) {
+        evict(event.cabinId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCabinChanged(CabinChangedEvent event) {
+        // El precio base de la cabaña cubre los días sin rango
+        evict(event.cabinId());
+    }
+
+    private PriceTimeline compile(Long cabinId) {
+        Cabin cabin = cabinRepository.findById(cabinId)
+                .orElseThrow(() -> new CabinNotFoundException("Cabin not found with id: " + cabinId));
+        return PriceTimeline.compile(priceRangeRepository.findByCabin_Id(cabinId), cabin.getBasePrice());
+    }
+
+    private void evict(Long cabinId) {
+        if (cabinId == null) {
+            timelines.clear();
+        } else {
+            timelines.remove(cabinId);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.PriceRangeChangedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Money;
+import com.cooperative.cabin.domain.model.PriceMultiplier;
+import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.domain.policy.PricingPolicies;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeHistoryJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Importación de la programación de precios de una temporada: todos los
+ * rangos se validan juntos y se guardan en una sola transacción, o no se
+ * guarda ninguno.
+ *
+ * Por cabaña, los rangos del archivo se ordenan una vez por fecha de inicio y
+ * se recorren en un solo barrido contra los rangos existentes que tocan la
+ * temporada (una consulta para todas las cabañas): O(n log n) en lugar de
+ * comparar cada par. Dos rangos del archivo que se solapan son un error salvo
+ * que tengan el mismo precio, en cuyo caso se unen. Contra los existentes, en
+ * modo REJECT cualquier solape rechaza la importación; en modo MERGE los rangos
+ * importados prevalecen y los existentes se recortan, se parten o se eliminan.
+ *
+ * Cada rango creado, recortado o eliminado deja una fila en
+ * price_change_history con la cabaña y las fechas; el historial de un rango
+ * eliminado se conserva con price_range_id en null.
+ */
+@Service
+public class PriceRangeImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceRangeImportService.class);
+
+    static final int MAX_RANGES = 5_000;
+    static final BigDecimal MAX_BASE_PRICE = new BigDecimal("99999999.99");
+    static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
+    static final BigDecimal MAX_MULTIPLIER = new BigDecimal("10.00");
+
+    static final String INSERT_SQL = "INSERT INTO price_ranges (cabin_id, start_date, end_date, base_price, "
+            + "price_multiplier, reason, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String INSERT_HISTORY_SQL = "INSERT INTO price_change_history (price_range_id, cabin_id, "
+            + "start_date, end_date, old_price, new_price, change_reason, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String HISTORY_REASON = "Importación de temporada";
+
+    public enum OverlapMode {
+        REJECT, MERGE
+    }
+
+    /**
+     * Rango leído del archivo; {@code error} no nulo si no se pudo interpretar
+     */
+    public record SeasonRange(int line, Long cabinId, LocalDate startDate, LocalDate endDate, BigDecimal basePrice,
+            BigDecimal multiplier, String reason, String error) {
+
+        public static SeasonRange invalid(int line, String error) {
+            return new SeasonRange(line, null, null, null, null, null, null, error);
+        }
+
+        boolean samePrice(SeasonRange other) {
+            return basePrice.compareTo(other.basePrice) == 0 && multiplier.compareTo(other.multiplier) == 0;
+        }
+
+        SeasonRange withEnd(LocalDate end) {
+            return new SeasonRange(line, cabinId, startDate, end, basePrice, multiplier, reason, null);
+        }
+    }
+
+    public record Conflict(int line, String error) {
+    }
+
+    /**
+     * applied = false significa que no se guardó nada y conflicts explica por qué
+     */
+    public record ImportResult(boolean applied, int created, int updated, int deleted, List<Conflict> conflicts) {
+
+        static ImportResult rejected(List<Conflict> conflicts) {
+            return new ImportResult(false, 0, 0, 0, conflicts);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PriceRangeJpaRepository priceRangeRepository;
+    private final PriceChangeHistoryJpaRepository historyRepository;
+    private final CabinJpaRepository cabinRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PriceRangeImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            PriceRangeJpaRepository priceRangeRepository, PriceChangeHistoryJpaRepository historyRepository,
+            CabinJpaRepository cabinRepository, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.priceRangeRepository = priceRangeRepository;
+        this.historyRepository = historyRepository;
+        this.cabinRepository = cabinRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public ImportResult importSchedule(List<SeasonRange> ranges, OverlapMode mode) {
+        if (ranges == null || ranges.isEmpty() || ranges.size() > MAX_RANGES) {
+            throw new IllegalArgumentException("Ranges must be between 1 and " + MAX_RANGES);
+        }
+        List<Conflict> conflicts = new ArrayList<>();
+        Map<Long, List<SeasonRange>> byCabin = new HashMap<>();
+        for (SeasonRange range : ranges) {
+            String error = range.error() != null ? range.error() : validate(range);
+            if (error != null) {
+                conflicts.add(new Conflict(range.line(), error));
+            } else {
+                byCabin.computeIfAbsent(range.cabinId(), id -> new ArrayList<>()).add(range);
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            return ImportResult.rejected(conflicts);
+        }
+
+        // Todo se valida antes de la primera escritura, así que un rechazo no deja
+        // nada que revertir
+        ImportResult result = transactionTemplate.execute(status -> apply(byCabin, mode, conflicts));
+        log.info("Importación de rangos de precios ({}): {} creados, {} actualizados, {} eliminados, {} conflictos",
+                mode, result.created(), result.updated(), result.deleted(), result.conflicts().size());
+        return result;
+    }
+
+    private ImportResult apply(Map<Long, List<SeasonRange>> byCabin, OverlapMode mode, List<Conflict> conflicts) {
+        Map<Long, Cabin> cabins = new HashMap<>();
+        for (Cabin cabin : cabinRepository.findAllById(byCabin.keySet())) {
+            cabins.put(cabin.getId(), cabin);
+        }
+        LocalDate from = null;
+        LocalDate to = null;
+        for (List<SeasonRange> cabinRanges : byCabin.values()) {
+            for (SeasonRange range : cabinRanges) {
+                if (!cabins.containsKey(range.cabinId())) {
+                    conflicts.add(new Conflict(range.line(), "Cabin not found with id: " + range.cabinId()));
+                }
+                from = from == null || range.startDate().isBefore(from) ? range.startDate() : from;
+                to = to == null || range.endDate().isAfter(to) ? range.endDate() : to;
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            return ImportResult.rejected(conflicts);
+        }
+
+        // Una consulta para los rangos existentes de todas las cabañas en la temporada
+        Map<Long, List<PriceRange>> existingByCabin = new HashMap<>();
+        for (PriceRange range : priceRangeRepository.findByCabinsAndDateRange(byCabin.keySet(), from, to)) {
+            existingByCabin.computeIfAbsent(range.getCabin().getId(), id -> new ArrayList<>()).add(range);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<SeasonRange> inserts = new ArrayList<>();
+        List<PriceRange> updates = new ArrayList<>();
+        List<PriceRange> deletes = new ArrayList<>();
+        List<Object[]> history = new ArrayList<>();
+        for (Map.Entry<Long, List<SeasonRange>> entry : byCabin.entrySet()) {
+            List<SeasonRange> imported = coalesce(entry.getValue(), conflicts);
+            List<PriceRange> existing = existingByCabin.getOrDefault(entry.getKey(), List.of());
+            Map<PriceRange, List<SeasonRange>> overlaps = overlapsWithExisting(imported, existing);
+            if (mode == OverlapMode.REJECT) {
+                overlaps.forEach((range, hits) -> hits.forEach(hit -> conflicts.add(new Conflict(hit.line(),
+                        "Se solapa con el rango existente " + range.getId() + " (" + range.getStartDate() + " a "
+                                + range.getEndDate() + ")"))));
+            } else {
+                overlaps.forEach((range, hits) -> trim(range, hits, inserts, updates, deletes, history, now));
+            }
+            inserts.addAll(imported);
+        }
+        if (!conflicts.isEmpty()) {
+            conflicts.sort(Comparator.comparingInt(Conflict::line));
+            return ImportResult.rejected(conflicts);
+        }
+
+        if (!deletes.isEmpty()) {
+            // El historial de los rangos eliminados se conserva, sin referencia al rango
+            historyRepository.detachFromRanges(deletes.stream().map(PriceRange::getId).toList());
+            priceRangeRepository.deleteAllInBatch(deletes);
+        }
+        priceRangeRepository.saveAll(updates);
+        List<Long> ids = insert(inserts, now);
+        for (int i = 0; i < inserts.size(); i++) {
+            SeasonRange range = inserts.get(i);
+            history.add(historyRow(ids.get(i), range.cabinId(), range.startDate(), range.endDate(), null,
+                    Money.of(range.basePrice()).times(PriceMultiplier.of(range.multiplier())).toBigDecimal(),
+                    range.line() > 0 ? HISTORY_REASON + ": línea " + range.line()
+                            : HISTORY_REASON + ": parte de un rango existente",
+                    now));
+        }
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, history);
+        for (Long cabinId : byCabin.keySet()) {
+            eventPublisher.publishEvent(new PriceRangeChangedEvent(null, cabinId, false));
+        }
+        return new ImportResult(true, inserts.size(), updates.size(), deletes.size(), List.of());
+    }
+
+    private static String validate(SeasonRange range) {
+        if (range.cabinId() == null || range.startDate() == null || range.endDate() == null
+                || range.basePrice() == null || range.multiplier() == null) {
+            return "cabinId, startDate, endDate, basePrice y multiplier son obligatorios";
+        }
+        if (range.endDate().isBefore(range.startDate())) {
+            return "endDate debe ser igual o posterior a startDate";
+        }
+        if (range.basePrice().compareTo(MIN_AMOUNT) < 0 || range.basePrice().compareTo(MAX_BASE_PRICE) > 0) {
+            return "Precio base debe estar entre 0.01 y 99999999.99";
+        }
+        if (range.multiplier().compareTo(MIN_AMOUNT) < 0 || range.multiplier().compareTo(MAX_MULTIPLIER) > 0) {
+            return "Multiplicador debe estar entre 0.01 y 10.00";
+        }
+        return null;
+    }
+
+    /**
+     * Ordena los rangos importados de una cabaña y une los que se solapan o se
+     * tocan con el mismo precio; un solape con otro precio es un conflicto.
+     * Devuelve rangos disjuntos en orden de inicio.
+     */
+    static List<SeasonRange> coalesce(List<SeasonRange> ranges, List<Conflict> conflicts) {
+        List<SeasonRange> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparing(SeasonRange::startDate).thenComparing(SeasonRange::endDate));
+        List<SeasonRange> result = new ArrayList<>();
+        for (SeasonRange range : sorted) {
+            SeasonRange last = result.isEmpty() ? null : result.get(result.size() - 1);
+            if (last == null || range.startDate().isAfter(last.endDate())) {
+                if (last != null && range.startDate().equals(last.endDate().plusDays(1)) && last.samePrice(range)) {
+                    result.set(result.size() - 1, last.withEnd(range.endDate()));
+                } else {
+                    result.add(range);
+                }
+            } else if (last.samePrice(range)) {
+                if (range.endDate().isAfter(last.endDate())) {
+                    result.set(result.size() - 1, last.withEnd(range.endDate()));
+                }
+            } else {
+                conflicts.add(new Conflict(range.line(), "Se solapa con el rango de la línea " + last.line()
+                        + " con otro precio"));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Barrido sobre los rangos importados (disjuntos y ordenados) y los
+     * existentes ordenados por inicio: un montículo por fecha de fin guarda los
+     * existentes ya iniciados y descarta los que terminaron antes del rango
+     * importado actual, así que los que quedan en él lo solapan. Devuelve, por
+     * rango existente, los importados que lo solapan en orden.
+     */
+    static Map<PriceRange, List<SeasonRange>> overlapsWithExisting(List<SeasonRange> imported,
+            List<PriceRange> existing) {
+        List<PriceRange> sorted = new ArrayList<>(existing);
+        sorted.sort(Comparator.comparing(PriceRange::getStartDate));
+        PriorityQueue<PriceRange> active = new PriorityQueue<>(Comparator.comparing(PriceRange::getEndDate));
+        // Por identidad: equals de la entidad compara todos sus campos
+        Map<PriceRange, List<SeasonRange>> overlaps = new IdentityHashMap<>();
+        int next = 0;
+        for (SeasonRange range : imported) {
+            while (next < sorted.size() && !sorted.get(next).getStartDate().isAfter(range.endDate())) {
+                active.add(sorted.get(next++));
+            }
+            while (!active.isEmpty() && active.peek().getEndDate().isBefore(range.startDate())) {
+                active.poll();
+            }
+            for (PriceRange hit : active) {
+                overlaps.computeIfAbsent(hit, r -> new ArrayList<>()).add(range);
+            }
+        }
+        return overlaps;
+    }
+
+    /**
+     * Deja del rango existente solo los días que no cubren los importados: el
+     * primer tramo reutiliza la fila y los demás se insertan como rangos nuevos
+     */
+    private static void trim(PriceRange range, List<SeasonRange> covering, List<SeasonRange> inserts,
+            List<PriceRange> updates, List<PriceRange> deletes, List<Object[]> history, Timestamp now) {
+        TreeMap<LocalDate, LocalDate> pieces = new TreeMap<>();
+        LocalDate cursor = range.getStartDate();
+        for (SeasonRange cover : covering) {
+            if (cover.startDate().isAfter(cursor)) {
+                pieces.put(cursor, cover.startDate().minusDays(1));
+            }
+            if (cover.endDate().plusDays(1).isAfter(cursor)) {
+                cursor = cover.endDate().plusDays(1);
+            }
+        }
+        if (!cursor.isAfter(range.getEndDate())) {
+            pieces.put(cursor, range.getEndDate());
+        }
+        BigDecimal price = PricingPolicies.nightlyPrice(Money.ZERO, range).toBigDecimal();
+        Long cabinId = range.getCabin().getId();
+        if (pieces.isEmpty()) {
+            deletes.add(range);
+            history.add(historyRow(null, cabinId, range.getStartDate(), range.getEndDate(), price, null,
+                    HISTORY_REASON + ": eliminado el rango " + range.getId(), now));
+            return;
+        }
+        String before = range.getStartDate() + " a " + range.getEndDate();
+        Map.Entry<LocalDate, LocalDate> first = pieces.pollFirstEntry();
+        range.setStartDate(first.getKey());
+        range.setEndDate(first.getValue());
+        updates.add(range);
+        history.add(historyRow(range.getId(), cabinId, range.getStartDate(), range.getEndDate(), price, price,
+                HISTORY_REASON + ": recortado (antes " + before + ")" + (pieces.isEmpty() ? "" : " y partido"),
+                now));
+        for (Map.Entry<LocalDate, LocalDate> piece : pieces.entrySet()) {
+            inserts.add(new SeasonRange(0, range.getCabin().getId(), piece.getKey(), piece.getValue(),
+                    range.getBasePrice(), range.getPriceMultiplier(), range.getReason(), null));
+        }
+    }
+
+    /**
+     * Inserta los rangos en un lote y devuelve sus ids en el mismo orden
+     */
+    private List<Long> insert(List<SeasonRange> ranges, Timestamp now) {
+        if (ranges.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        SeasonRange range = ranges.get(i);
+                        ps.setLong(1, range.cabinId());
+                        ps.setDate(2, Date.valueOf(range.startDate()));
+                        ps.setDate(3, Date.valueOf(range.endDate()));
+                        ps.setBigDecimal(4, range.basePrice());
+                        ps.setBigDecimal(5, range.multiplier());
+                        ps.setString(6, range.reason());
+                        ps.setTimestamp(7, now);
+                        ps.setTimestamp(8, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return ranges.size();
+                    }
+                }, keys);
+        List<Long> ids = new ArrayList<>(ranges.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    private static Object[] historyRow(Long priceRangeId, Long cabinId, LocalDate startDate, LocalDate endDate,
+            BigDecimal oldPrice, BigDecimal newPrice, String reason, Timestamp now) {
+        return new Object[] { priceRangeId, cabinId, Date.valueOf(startDate), Date.valueOf(endDate), oldPrice,
+                newPrice, reason, now };
+    }
+
+    /**
+     * CSV con encabezados cabinId, startDate, endDate, basePrice, multiplier y
+     * opcionalmente reason. Una línea mal formada produce un rango con error.
+     */
+    public static List<SeasonRange> readCsv(BufferedReader reader) {
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                return List.of();
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            String[] names = header.split(",", -1);
+            for (int i = 0; i < names.length; i++) {
+                columns.put(names[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<SeasonRange> ranges = new ArrayList<>();
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] cells = line.split(",", -1);
+                try {
+                    String cabinId = cell(cells, columns, "cabinid");
+                    String start = cell(cells, columns, "startdate");
+                    String end = cell(cells, columns, "enddate");
+                    String basePrice = cell(cells, columns, "baseprice");
+                    String multiplier = cell(cells, columns, "multiplier");
+                    ranges.add(new SeasonRange(lineNumber,
+                            cabinId != null ? Long.valueOf(cabinId) : null,
+                            start != null ? LocalDate.parse(start) : null,
+                            end != null ? LocalDate.parse(end) : null,
+                            basePrice != null ? new BigDecimal(basePrice) : null,
+                            multiplier != null ? new BigDecimal(multiplier) : null,
+                            cell(cells, columns, "reason"), null));
+                } catch (RuntimeException e) {
+                    ranges.add(SeasonRange.invalid(lineNumber, "Línea mal formada"));
+                }
+            }
+            return ranges;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String cell(String[] cells, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= cells.length || cells[index].isBlank()) {
+            return null;
+        }
+        return cells[index].trim();
+    }
+}
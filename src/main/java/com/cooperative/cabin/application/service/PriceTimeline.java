@@ -0,0 +1,213 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.Money;
+import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.domain.policy.PricingPolicies;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Línea de tiempo de precios de una cabaña, compilada a partir de sus rangos
+ * de precios: tramos contiguos ordenados (día epoch de inicio y precio por
+ * noche). Es inmutable; un cambio en los rangos compila una nueva.
+ *
+ * En cada día aplica el rango de inicio más reciente que lo cubre (la misma
+ * regla que {@link PricingPolicies#findApplicableRange}); los días sin rango
+ * se cobran al precio base de la cabaña. Cotizar una estadía cuesta una
+ * búsqueda binaria más un paso por tramo recorrido.
+ *
+ * Los precios se guardan y suman en centavos ({@link Money}); solo se pasan a
+ * BigDecimal al armar la cotización o el calendario que se devuelve.
+ */
+public final class PriceTimeline {
+
+    /**
+     * Noches consecutivas cobradas al mismo precio
+     */
+    public record Segment(LocalDate firstNight, int nights, BigDecimal nightlyPrice) {
+    }
+
+    /**
+     * Cotización de [startDate, endDate): basePrice es el precio base de la
+     * cabaña por las noches y totalPrice lo que se cobra con los rangos
+     */
+    public record Quote(LocalDate startDate, LocalDate endDate, int nights, BigDecimal basePrice,
+            BigDecimal totalPrice, List<Segment> segments) {
+    }
+
+    // Marca de tramo sin rango en prices
+    private static final long NO_RANGE = Long.MIN_VALUE;
+
+    private final long defaultPrice;
+    // starts[i] es el primer día del tramo i, que llega hasta starts[i + 1] - 1
+    // (el último no tiene fin); prices[i] en centavos, NO_RANGE = sin rango
+    private final int[] starts;
+    private final long[] prices;
+
+    private PriceTimeline(BigDecimal defaultPrice, int[] starts, long[] prices) {
+        this.defaultPrice = Money.of(defaultPrice != null ? defaultPrice : BigDecimal.ZERO).cents();
+        this.starts = starts;
+        this.prices = prices;
+    }
+
+    /**
+     * Línea sin rangos: todas las noches al precio base
+     */
+    public static PriceTimeline flat(BigDecimal defaultPrice) {
+        return new PriceTimeline(defaultPrice, new int[0], new long[0]);
+    }
+
+    /**
+     * Barrido por los bordes de los rangos con un montículo de rangos activos
+     * (el de inicio más reciente arriba): O(n log n) para n rangos.
+     */
+    public static PriceTimeline compile(List<PriceRange> ranges, BigDecimal defaultPrice) {
+        List<PriceRange> sorted = ranges.stream()
+                .filter(r -> r.getStartDate() != null && r.getEndDate() != null
+                        && !r.getEndDate().isBefore(r.getStartDate()))
+                .sorted(Comparator.comparing(PriceRange::getStartDate)
+                        .thenComparing(PriceRange::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        int n = sorted.size();
+        int[] rangeStart = new int[n];
+        int[] rangeEnd = new int[n];
+        long[] rangePrice = new long[n];
+        int[] bounds = new int[2 * n];
+        Money fallback = Money.of(defaultPrice != null ? defaultPrice : BigDecimal.ZERO);
+        for (int i = 0; i < n; i++) {
+            PriceRange range = sorted.get(i);
+            rangeStart[i] = EpochDays.of(range.getStartDate());
+            rangeEnd[i] = EpochDays.of(range.getEndDate());
+            rangePrice[i] = PricingPolicies.nightlyPrice(fallback, range).cents();
+            bounds[2 * i] = rangeStart[i];
+            bounds[2 * i + 1] = rangeEnd[i] + 1;
+        }
+        bounds = Arrays.stream(bounds).sorted().distinct().toArray();
+
+        // Gana el inicio más reciente; a igual inicio, el rango más antiguo
+        PriorityQueue<Integer> active = new PriorityQueue<>((a, b) -> rangeStart[a] != rangeStart[b]
+                ? Integer.compare(rangeStart[b], rangeStart[a])
+                : Integer.compare(a, b));
+        int[] starts = new int[bounds.length];
+        long[] prices = new long[bounds.length];
+        int segments = 0;
+        int next = 0;
+        for (int day : bounds) {
+            while (next < n && rangeStart[next] == day) {
+                active.add(next++);
+            }
+            // Los rangos vencidos se descartan solo cuando llegan a la cima
+            while (!active.isEmpty() && rangeEnd[active.peek()] < day) {
+                active.poll();
+            }
+            long price = active.isEmpty() ? NO_RANGE : rangePrice[active.peek()];
+            boolean samePrice = segments == 0 ? price == NO_RANGE : prices[segments - 1] == price;
+            if (!samePrice) {
+                starts[segments] = day;
+                prices[segments] = price;
+                segments++;
+            }
+        }
+        return new PriceTimeline(defaultPrice, Arrays.copyOf(starts, segments), Arrays.copyOf(prices, segments));
+    }
+
+    /**
+     * Precio de la noche del día epoch indicado
+     */
+    public BigDecimal priceOn(int day) {
+        return BigDecimal.valueOf(price(segmentOf(day)), 2);
+    }
+
+    public Quote quote(LocalDate startDate, LocalDate endDate) {
+        // Noches cobradas: [startDate, endDate); una estadía de un solo día cuenta
+        // como una noche
+        int nights = (int) Math.max(1, ChronoUnit.DAYS.between(startDate, endDate));
+        int day = EpochDays.of(startDate);
+        int end = day + nights;
+        int segment = segmentOf(day);
+
+        // Tramos contiguos con el mismo precio se juntan antes de convertir
+        List<Segment> segments = new ArrayList<>();
+        long total = 0;
+        int runStart = day;
+        long runPrice = price(segment);
+        while (day < end) {
+            int segmentEnd = segment + 1 < starts.length ? starts[segment + 1] : Integer.MAX_VALUE;
+            int to = Math.min(end, segmentEnd);
+            long nightly = price(segment);
+            if (nightly != runPrice) {
+                segments.add(segment(runStart, day, runPrice));
+                runStart = day;
+                runPrice = nightly;
+            }
+            total = Math.addExact(total, Math.multiplyExact(nightly, (long) (to - day)));
+            day = to;
+            segment++;
+        }
+        segments.add(segment(runStart, end, runPrice));
+        return new Quote(startDate, endDate, nights, new Money(defaultPrice).times(nights).toBigDecimal(),
+                new Money(total).toBigDecimal(), List.copyOf(segments));
+    }
+
+    /**
+     * Precio de cada día de [firstDay, firstDay + length) recorriendo los tramos
+     * en orden (una búsqueda binaria para el primero); cada precio distinto
+     * ocupa una sola posición en prices
+     */
+    public PricingApplicationService.PriceDays priceDays(int firstDay, int length) {
+        int[] slots = new int[length];
+        List<BigDecimal> distinct = new ArrayList<>();
+        Map<Long, Integer> slotByPrice = new HashMap<>();
+        int end = firstDay + length;
+        int day = firstDay;
+        int segment = segmentOf(day);
+        while (day < end) {
+            int segmentEnd = segment + 1 < starts.length ? starts[segment + 1] : Integer.MAX_VALUE;
+            int to = Math.min(end, segmentEnd);
+            int slot = slotByPrice.computeIfAbsent(price(segment), cents -> {
+                distinct.add(BigDecimal.valueOf(cents, 2));
+                return distinct.size() - 1;
+            });
+            Arrays.fill(slots, day - firstDay, to - firstDay, slot);
+            day = to;
+            segment++;
+        }
+        return new PricingApplicationService.PriceDays(firstDay, slots, distinct.toArray(BigDecimal[]::new));
+    }
+
+    /**
+     * Número de tramos con precio propio (para diagnóstico y pruebas)
+     */
+    public int size() {
+        return starts.length;
+    }
+
+    /**
+     * Tramo que contiene el día; -1 si es anterior al primero
+     */
+    private int segmentOf(int day) {
+        int index = Arrays.binarySearch(starts, day);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * Precio en centavos de la noche del tramo
+     */
+    private long price(int segment) {
+        long price = segment >= 0 ? prices[segment] : NO_RANGE;
+        return price != NO_RANGE ? price : defaultPrice;
+    }
+
+    private static Segment segment(int firstDay, int endDay, long nightly) {
+        return new Segment(LocalDate.ofEpochDay(firstDay), endDay - firstDay, BigDecimal.valueOf(nightly, 2));
+    }
+}
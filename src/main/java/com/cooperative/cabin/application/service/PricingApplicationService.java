@@ -1,9 +1,12 @@
 package com.cooperative.cabin.application.service;
 
 import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeRow;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeRow;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.LinkedHashMap;
 
 public interface PricingApplicationService {
         PriceRange partialUpdatePriceRange(Long id, BigDecimal basePrice, BigDecimal multiplier,
@@ -11,6 +14,12 @@ public interface PricingApplicationService {
 
         java.util.List<PriceRange> listPriceRanges();
 
+        /**
+         * Rangos en orden de id, opcionalmente de una cabaña, desde el cursor
+         * recibido (null = primera página)
+         */
+        KeysetPage<PriceRangeRow> listPriceRanges(Long cabinId, String cursor, int size);
+
         PriceRange createPriceRange(Long cabinId, LocalDate startDate, LocalDate endDate, BigDecimal basePrice,
                         BigDecimal multiplier);
 
@@ -19,9 +28,63 @@ public interface PricingApplicationService {
 
         void deletePriceRange(Long id);
 
-        java.util.Map<String, BigDecimal> getCalendar(int year, int month);
+        default java.util.Map<String, BigDecimal> getCalendar(int year, int month) {
+                return getPriceDays(year, month).toMap(BigDecimal.ZERO);
+        }
+
+        /**
+         * Precio de cada día del mes según el primer rango que lo cubre
+         */
+        PriceDays getPriceDays(int year, int month);
+
+        /**
+         * Precio por noche de la cabaña durante months meses desde year/month, en
+         * orden de fecha; los días sin rango llevan el precio base de la cabaña
+         */
+        PriceDays getCabinPriceDays(Long cabinId, int year, int month, int months);
+
+        /**
+         * Cotiza varias estadías [startDate, endDate) con una sola consulta de
+         * rangos; las cotizaciones vuelven en el orden de las solicitudes
+         */
+        java.util.List<PriceTimeline.Quote> quoteBatch(java.util.List<QuoteRequest> requests);
 
         java.util.List<java.util.Map<String, Object>> getHistory();
 
+        /**
+         * Cambios de precio registrados, los más recientes primero, desde el
+         * cursor recibido (null = primera página)
+         */
+        KeysetPage<PriceChangeRow> getPriceChanges(Long cabinId, String cursor, int size);
+
         BigDecimal calculatePrice(Long cabinId, LocalDate date);
+
+        record QuoteRequest(Long cabinId, LocalDate startDate, LocalDate endDate) {
+        }
+
+        /**
+         * Precios de length días consecutivos desde firstDay (día epoch). slots[i]
+         * es la posición en prices del precio del día firstDay + i, o -1 si ningún
+         * rango lo cubre; cada precio distinto se calcula una sola vez.
+         */
+        record PriceDays(int firstDay, int[] slots, BigDecimal[] prices) {
+
+                public int length() {
+                        return slots.length;
+                }
+
+                public BigDecimal priceAt(int offset) {
+                        int slot = slots[offset];
+                        return slot < 0 ? null : prices[slot];
+                }
+
+                public java.util.Map<String, BigDecimal> toMap(BigDecimal missing) {
+                        java.util.Map<String, BigDecimal> map = new LinkedHashMap<>();
+                        for (int d = 0; d < slots.length; d++) {
+                                BigDecimal price = priceAt(d);
+                                map.put(EpochDays.format(firstDay + d), price != null ? price : missing);
+                        }
+                        return map;
+                }
+        }
 }
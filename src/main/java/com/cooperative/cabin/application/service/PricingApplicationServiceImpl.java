@@ -1,26 +1,55 @@
 package com.cooperative.cabin.application.service;
 
+import com.cooperative.cabin.domain.event.PriceRangeChangedEvent;
+import com.cooperative.cabin.domain.exception.CabinNotFoundException;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Money;
+import com.cooperative.cabin.domain.model.PriceChangeHistory;
 import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.domain.policy.PricingPolicies;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeHistoryJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeRow;
 import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeRow;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class PricingApplicationServiceImpl implements PricingApplicationService {
 
+    static final int MAX_CALENDAR_MONTHS = 12;
+    static final int MAX_BATCH_QUOTES = 200;
+    static final int MAX_PAGE_SIZE = 200;
+    static final String DELETED_REASON = "Deleted";
+
     private final PriceRangeJpaRepository repository;
+    private final CabinJpaRepository cabinRepository;
+    private final PriceChangeHistoryJpaRepository historyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PricingApplicationServiceImpl(PriceRangeJpaRepository repository) {
+    public PricingApplicationServiceImpl(PriceRangeJpaRepository repository, CabinJpaRepository cabinRepository,
+            PriceChangeHistoryJpaRepository historyRepository, ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.cabinRepository = cabinRepository;
+        this.historyRepository = historyRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public PriceRange partialUpdatePriceRange(Long id, BigDecimal basePrice, BigDecimal multiplier,
             LocalDate startDate, LocalDate endDate) {
         PriceRange current = repository.findById(id).orElse(null);
@@ -35,8 +64,12 @@ public class PricingApplicationServiceImpl implements PricingApplicationService
         BigDecimal newMult = multiplier != null ? multiplier : current.getPriceMultiplier();
         LocalDate newStart = startDate != null ? startDate : current.getStartDate();
         LocalDate newEnd = endDate != null ? endDate : current.getEndDate();
-        return repository
+        PriceRange saved = repository
                 .save(new PriceRange(current.getCabin(), newStart, newEnd, newBase, newMult, "Updated", null));
+        historyRepository.save(new PriceChangeHistory(saved, PricingPolicies.nightlyPrice(Money.ZERO, current)
+                .toBigDecimal(), PricingPolicies.nightlyPrice(Money.ZERO, saved).toBigDecimal(), "Updated", null));
+        eventPublisher.publishEvent(PriceRangeChangedEvent.saved(saved));
+        return saved;
     }
 
     @Override
@@ -44,6 +77,13 @@ public class PricingApplicationServiceImpl implements PricingApplicationService
         return repository.findAll();
     }
 
+    @Override
+    public KeysetPage<PriceRangeRow> listPriceRanges(Long cabinId, String cursor, int size) {
+        checkPageSize(size);
+        List<PriceRangeRow> rows = repository.findRows(cabinId, cursorId(cursor), Limit.of(size + 1));
+        return KeysetPage.of(rows, size, row -> String.valueOf(row.id()));
+    }
+
     @Override
     public PriceRange createPriceRange(Long cabinId, LocalDate startDate, LocalDate endDate, BigDecimal basePrice,
             BigDecimal multiplier) {
@@ -62,72 +102,177 @@ public class PricingApplicationServiceImpl implements PricingApplicationService
     }
 
     @Override
+    @Transactional
     public void deletePriceRange(Long id) {
+        PriceRange range = repository.findById(id).orElse(null);
+        if (range != null) {
+            // El historial se conserva sin el rango, con la eliminación como último cambio
+            historyRepository.detachFromRanges(List.of(id));
+            PriceChangeHistory deleted = new PriceChangeHistory(range,
+                    PricingPolicies.nightlyPrice(Money.ZERO, range).toBigDecimal(), null, DELETED_REASON, null);
+            deleted.setPriceRange(null);
+            historyRepository.save(deleted);
+        }
         repository.deleteById(id);
+        if (range != null) {
+            eventPublisher.publishEvent(PriceRangeChangedEvent.deleted(range));
+        }
     }
 
     @Override
-    public Map<String, BigDecimal> getCalendar(int year, int month) {
-        Map<String, BigDecimal> calendar = new HashMap<>();
+    public PriceDays getPriceDays(int year, int month) {
+        int firstDay = EpochDays.firstOfMonth(year, month);
+        return priceDays(repository.findAll(), firstDay, EpochDays.lengthOfMonth(year, month));
+    }
 
-        // Obtener todos los rangos de precios que se superponen con el mes especificado
-        LocalDate monthStart = LocalDate.of(year, month, 1);
-        LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+    @Override
+    public PriceDays getCabinPriceDays(Long cabinId, int year, int month, int months) {
+        if (months < 1 || months > MAX_CALENDAR_MONTHS) {
+            throw new IllegalArgumentException("Months must be between 1 and " + MAX_CALENDAR_MONTHS);
+        }
+        Cabin cabin = cabinRepository.findById(cabinId)
+                .orElseThrow(() -> new CabinNotFoundException("Cabin not found with id: " + cabinId));
+        LocalDate start = LocalDate.of(year, month, 1);
+        LocalDate end = start.plusMonths(months).minusDays(1);
+        int firstDay = EpochDays.of(start);
 
-        List<PriceRange> ranges = repository.findAll().stream()
-                .filter(range -> !range.getStartDate().isAfter(monthEnd) &&
-                        !range.getEndDate().isBefore(monthStart))
-                .toList();
+        // Solo los rangos de la cabaña que tocan el periodo; el barrido de la línea
+        // de tiempo resuelve los solapes y los días se llenan tramo por tramo
+        List<PriceRange> ranges = repository.findOverlapping(cabinId, start, end);
+        return PriceTimeline.compile(ranges, cabin.getBasePrice())
+                .priceDays(firstDay, EpochDays.of(end) - firstDay + 1);
+    }
 
-        // Para cada día del mes, calcular el precio aplicable
-        for (int day = 1; day <= monthStart.lengthOfMonth(); day++) {
-            LocalDate currentDate = LocalDate.of(year, month, day);
-            String dateKey = currentDate.toString();
+    @Override
+    public List<PriceTimeline.Quote> quoteBatch(List<QuoteRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_QUOTES) {
+            throw new IllegalArgumentException("Quotes must be between 1 and " + MAX_BATCH_QUOTES);
+        }
+        Set<Long> cabinIds = new HashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (QuoteRequest request : requests) {
+            if (request == null || request.cabinId() == null || request.startDate() == null
+                    || request.endDate() == null || request.endDate().isBefore(request.startDate())) {
+                throw new IllegalArgumentException("Rango de fechas inválido");
+            }
+            cabinIds.add(request.cabinId());
+            // Última noche cobrada (una estadía de un solo día cuenta como una noche)
+            LocalDate lastNight = request.endDate().isAfter(request.startDate())
+                    ? request.endDate().minusDays(1)
+                    : request.startDate();
+            from = from == null || request.startDate().isBefore(from) ? request.startDate() : from;
+            to = to == null || lastNight.isAfter(to) ? lastNight : to;
+        }
 
-            // Encontrar el rango de precio aplicable para esta fecha
-            BigDecimal price = ranges.stream()
-                    .filter(range -> !currentDate.isBefore(range.getStartDate()) &&
-                            !currentDate.isAfter(range.getEndDate()))
-                    .findFirst()
-                    .map(range -> range.getBasePrice().multiply(range.getPriceMultiplier()))
-                    .orElse(BigDecimal.ZERO);
+        Map<Long, Cabin> cabins = new HashMap<>();
+        for (Cabin cabin : cabinRepository.findAllById(cabinIds)) {
+            cabins.put(cabin.getId(), cabin);
+        }
+        for (Long cabinId : cabinIds) {
+            if (!cabins.containsKey(cabinId)) {
+                throw new CabinNotFoundException("Cabin not found with id: " + cabinId);
+            }
+        }
 
-            calendar.put(dateKey, price);
+        // Una sola consulta para todas las cabañas sobre la envolvente de las
+        // estadías: cada noche queda cubierta por los mismos rangos que la
+        // cubrirían consultando estadía por estadía
+        Map<Long, List<PriceRange>> rangesByCabin = new HashMap<>();
+        for (PriceRange range : repository.findByCabinsAndDateRange(cabinIds, from, to)) {
+            rangesByCabin.computeIfAbsent(range.getCabin().getId(), id -> new ArrayList<>()).add(range);
+        }
+        Map<Long, PriceTimeline> timelines = new HashMap<>();
+        List<PriceTimeline.Quote> quotes = new ArrayList<>(requests.size());
+        for (QuoteRequest request : requests) {
+            PriceTimeline timeline = timelines.computeIfAbsent(request.cabinId(), id -> PriceTimeline.compile(
+                    rangesByCabin.getOrDefault(id, List.of()), cabins.get(id).getBasePrice()));
+            quotes.add(timeline.quote(request.startDate(), request.endDate()));
         }
+        return quotes;
+    }
+
+    /**
+     * Asigna a cada día de [firstDay, firstDay + length) el precio del primer
+     * rango (en el orden recibido) que lo cubre. El precio de cada rango se
+     * calcula una sola vez, solo si aplica a algún día.
+     */
+    static PriceDays priceDays(List<PriceRange> ranges, int firstDay, int length) {
+        int lastDay = firstDay + length - 1;
+        int[] slots = new int[length];
+        Arrays.fill(slots, -1);
+        List<BigDecimal> prices = new ArrayList<>();
 
-        return calendar;
+        for (PriceRange range : ranges) {
+            int from = Math.max(firstDay, EpochDays.of(range.getStartDate()));
+            int to = Math.min(lastDay, EpochDays.of(range.getEndDate()));
+            int slot = -1;
+            for (int d = from; d <= to; d++) {
+                if (slots[d - firstDay] >= 0) {
+                    continue;
+                }
+                if (slot < 0) {
+                    slot = prices.size();
+                    prices.add(PricingPolicies.nightlyPrice(Money.ZERO, range).toBigDecimal());
+                }
+                slots[d - firstDay] = slot;
+            }
+        }
+        return new PriceDays(firstDay, slots, prices.toArray(BigDecimal[]::new));
     }
 
+    /**
+     * Los últimos MAX_PAGE_SIZE cambios registrados, los más recientes primero;
+     * el historial completo se recorre con {@link #getPriceChanges}
+     */
     @Override
     public List<Map<String, Object>> getHistory() {
         List<Map<String, Object>> history = new ArrayList<>();
-
-        // Obtener todos los rangos de precios ordenados por fecha de creación (más
-        // recientes primero)
-        List<PriceRange> ranges = repository.findAll().stream()
-                .sorted((r1, r2) -> r2.getCreatedAt().compareTo(r1.getCreatedAt()))
-                .toList();
-
-        for (PriceRange range : ranges) {
+        for (PriceChangeRow row : historyRepository.findRows(null, null, Limit.of(MAX_PAGE_SIZE))) {
             Map<String, Object> historyEntry = new HashMap<>();
-            historyEntry.put("id", range.getId());
-            historyEntry.put("cabinId", range.getCabin().getId());
-            historyEntry.put("cabinName", range.getCabin().getName());
-            historyEntry.put("startDate", range.getStartDate().toString());
-            historyEntry.put("endDate", range.getEndDate().toString());
-            historyEntry.put("basePrice", range.getBasePrice());
-            historyEntry.put("priceMultiplier", range.getPriceMultiplier());
-            historyEntry.put("finalPrice", range.getBasePrice().multiply(range.getPriceMultiplier()));
-            historyEntry.put("reason", range.getReason());
-            historyEntry.put("createdAt", range.getCreatedAt().toString());
-            historyEntry.put("createdBy", range.getCreatedBy() != null ? range.getCreatedBy().getName() : "Sistema");
-
+            historyEntry.put("id", row.id());
+            historyEntry.put("priceRangeId", row.priceRangeId());
+            historyEntry.put("cabinId", row.cabinId());
+            historyEntry.put("cabinName", row.cabinName());
+            historyEntry.put("startDate", row.startDate() != null ? row.startDate().toString() : null);
+            historyEntry.put("endDate", row.endDate() != null ? row.endDate().toString() : null);
+            historyEntry.put("date", row.createdAt() != null ? row.createdAt().toLocalDate().toString() : null);
+            historyEntry.put("oldPrice", row.oldPrice());
+            historyEntry.put("newPrice", row.newPrice());
+            historyEntry.put("reason", row.reason());
+            historyEntry.put("createdBy", row.changedBy() != null ? row.changedBy() : "Sistema");
             history.add(historyEntry);
         }
-
         return history;
     }
 
+    @Override
+    public KeysetPage<PriceChangeRow> getPriceChanges(Long cabinId, String cursor, int size) {
+        checkPageSize(size);
+        List<PriceChangeRow> rows = historyRepository.findRows(cabinId, cursorId(cursor), Limit.of(size + 1));
+        return KeysetPage.of(rows, size, row -> String.valueOf(row.id()));
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * El cursor es el id del último elemento de la página anterior
+     */
+    private static Long cursorId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
     @Override
     public BigDecimal calculatePrice(Long cabinId, LocalDate date) {
         List<PriceRange> ranges = repository
@@ -135,7 +280,6 @@ public class PricingApplicationServiceImpl implements PricingApplicationService
         if (ranges.isEmpty()) {
             return BigDecimal.ZERO;
         }
-        PriceRange r = ranges.get(0);
-        return r.getBasePrice().multiply(r.getPriceMultiplier());
+        return PricingPolicies.nightlyPrice(Money.ZERO, ranges.get(0)).toBigDecimal();
     }
 }
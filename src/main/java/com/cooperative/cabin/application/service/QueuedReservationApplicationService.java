@@ -0,0 +1,88 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Variante de {@link ReservationApplicationService} que envía las escrituras
+ * de cada cabaña (crear, cancelar y cambiar estado) a su buzón en
+ * {@link CabinCommandQueue} en lugar de aplicarlas en el hilo de la petición.
+ * Se activa con {@code reservations.writes.mode=queue}.
+ *
+ * Los métodos encolados no abren transacción: quien envía solo espera el
+ * resultado, sin ocupar una conexión, y el escritor de la cabaña aplica la
+ * lógica de la clase base dentro de la transacción de su lote. La conversión
+ * de retenciones sigue el camino directo porque no toma el candado de la
+ * cabaña ni consulta disponibilidad.
+ */
+public class QueuedReservationApplicationService extends ReservationApplicationService {
+
+    private final ReservationRepository reservationRepository;
+    private final CabinCommandQueue commandQueue;
+
+    public QueuedReservationApplicationService(ReservationRepository reservationRepository,
+            AvailabilityBlockRepository availabilityBlockRepository,
+            UserJpaRepository userRepository,
+            CabinJpaRepository cabinRepository,
+            ConfigurationService configurationService,
+            BusinessMetrics businessMetrics,
+            WaitingListApplicationService waitingListService,
+            ApplicationEventPublisher eventPublisher,
+            CabinLocks cabinLocks,
+            ReservationSummaries reservationSummaries,
+            CheckoutHolds checkoutHolds,
+            PriceQuoteEngine priceQuotes,
+            CabinCommandQueue commandQueue) {
+        super(reservationRepository, availabilityBlockRepository, userRepository, cabinRepository,
+                configurationService, businessMetrics, waitingListService, eventPublisher, cabinLocks,
+                reservationSummaries, checkoutHolds, priceQuotes);
+        this.reservationRepository = reservationRepository;
+        this.commandQueue = commandQueue;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reservation createPreReservation(Long userId, Long cabinId, LocalDate start, LocalDate end, int guests,
+            LocalTime checkInTime, LocalTime checkOutTime) {
+        return commandQueue.submit(cabinId,
+                () -> super.createPreReservation(userId, cabinId, start, end, guests, checkInTime, checkOutTime));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reservation cancelByUser(Long userId, Long reservationId) {
+        Long cabinId = cabinOf(reservationId);
+        if (cabinId == null) {
+            // Falla igual que el camino directo, sin escribir nada
+            return super.cancelByUser(userId, reservationId);
+        }
+        return commandQueue.submit(cabinId, () -> super.cancelByUser(userId, reservationId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Reservation changeStatusByAdmin(Long reservationId, ReservationStatus newStatus) {
+        Long cabinId = cabinOf(reservationId);
+        if (cabinId == null) {
+            return super.changeStatusByAdmin(reservationId, newStatus);
+        }
+        return commandQueue.submit(cabinId, () -> super.changeStatusByAdmin(reservationId, newStatus));
+    }
+
+    /**
+     * Cabaña de la reserva, solo para elegir el buzón (el escritor vuelve a
+     * leer la reserva); null si no existe
+     */
+    private Long cabinOf(Long reservationId) {
+        Reservation reservation = reservationRepository.findById(reservationId);
+        return reservation != null && reservation.getCabin() != null ? reservation.getCabin().getId() : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.cooperative.cabin.application.service;
 
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
 import com.cooperative.cabin.domain.model.AvailabilityBlock;
 import com.cooperative.cabin.domain.model.Cabin;
 import com.cooperative.cabin.domain.model.Reservation;
@@ -11,11 +12,17 @@ import com.cooperative.cabin.domain.exception.CabinNotFoundException;
 import com.cooperative.cabin.domain.exception.UserNotFoundException;
 import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
 import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ReservationApplicationService {
 
@@ -26,6 +33,11 @@ public class ReservationApplicationService {
     private final ConfigurationService configurationService;
     private final WaitingListApplicationService waitingListService;
     private final BusinessMetrics businessMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CabinLocks cabinLocks;
+    private final ReservationSummaries reservationSummaries;
+    private final CheckoutHolds checkoutHolds;
+    private final PriceQuoteEngine priceQuotes;
 
     public ReservationApplicationService(ReservationRepository reservationRepository,
             AvailabilityBlockRepository availabilityBlockRepository,
@@ -33,7 +45,12 @@ public class ReservationApplicationService {
             CabinJpaRepository cabinRepository,
             ConfigurationService configurationService,
             BusinessMetrics businessMetrics,
-            WaitingListApplicationService waitingListService) {
+            WaitingListApplicationService waitingListService,
+            ApplicationEventPublisher eventPublisher,
+            CabinLocks cabinLocks,
+            ReservationSummaries reservationSummaries,
+            CheckoutHolds checkoutHolds,
+            PriceQuoteEngine priceQuotes) {
         this.reservationRepository = reservationRepository;
         this.availabilityBlockRepository = availabilityBlockRepository;
         this.userRepository = userRepository;
@@ -41,17 +58,11 @@ public class ReservationApplicationService {
         this.configurationService = configurationService;
         this.businessMetrics = businessMetrics;
         this.waitingListService = waitingListService;
-    }
-
-    // Constructor de compatibilidad para tests existentes
-    public ReservationApplicationService(ReservationRepository reservationRepository,
-            AvailabilityBlockRepository availabilityBlockRepository,
-            UserJpaRepository userRepository,
-            CabinJpaRepository cabinRepository,
-            ConfigurationService configurationService,
-            BusinessMetrics businessMetrics) {
-        this(reservationRepository, availabilityBlockRepository, userRepository, cabinRepository,
-                configurationService, businessMetrics, null);
+        this.eventPublisher = eventPublisher;
+        this.cabinLocks = cabinLocks;
+        this.reservationSummaries = reservationSummaries;
+        this.checkoutHolds = checkoutHolds;
+        this.priceQuotes = priceQuotes;
     }
 
     public Reservation createPreReservation(Long userId, Long cabinId, LocalDate start, LocalDate end, int guests) {
@@ -61,53 +72,163 @@ public class ReservationApplicationService {
     @Transactional
     public Reservation createPreReservation(Long userId, Long cabinId, LocalDate start, LocalDate end, int guests,
             LocalTime checkInTime, LocalTime checkOutTime) {
-        List<Reservation> userReservations = reservationRepository.findByUserId(userId);
-        if (ReservationPolicies.hasActiveReservation(userId, userReservations)) {
+        checkUserPolicies(userId, start);
+        checkBlockPolicy(cabinId, start, end);
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        Cabin cabin = cabinRepository.findById(cabinId)
+                .orElseThrow(() -> new CabinNotFoundException("Cabin not found with id: " + cabinId));
+
+        // Usar horarios proporcionados o los horarios por defecto de la cabaña
+        LocalTime finalCheckInTime = checkInTime != null ? checkInTime : cabin.getDefaultCheckInTime();
+        LocalTime finalCheckOutTime = checkOutTime != null ? checkOutTime : cabin.getDefaultCheckOutTime();
+
+        PriceTimeline.Quote quote = priceQuotes.quote(cabin, start, end);
+        Reservation r = new Reservation(user, cabin, start, end, finalCheckInTime, finalCheckOutTime, guests,
+                ReservationStatus.PENDING, quote.basePrice(), quote.totalPrice());
+        // Verificación y escritura serializadas por cabaña; el candado se mantiene
+        // hasta el commit
+        Reservation saved = cabinLocks.withLock(cabinId, () -> {
+            if (reservationRepository.existsActiveOverlap(cabinId, start, end)) {
+                throw new IllegalStateException("La cabaña ya está reservada en esas fechas");
+            }
+            if (checkoutHolds.isHeld(cabinId, start, end, userId)) {
+                throw new IllegalStateException("Las fechas están retenidas por otro socio, intente más tarde");
+            }
+            return saveChecked(r);
+        });
+        return afterCreate(saved);
+    }
+
+    /**
+     * Aparta las fechas por unos minutos mientras el socio completa el checkout.
+     * Verifica aquí todo lo que depende de la cabaña (bloqueos, reservas y otras
+     * retenciones) para que la conversión no tenga que repetirlo.
+     */
+    public CheckoutHolds.Hold placeHold(Long userId, Long cabinId, LocalDate start, LocalDate end) {
+        if (start == null || end == null || end.isBefore(start)) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+        checkUserPolicies(userId, start);
+        checkBlockPolicy(cabinId, start, end);
+        if (!cabinRepository.existsById(cabinId)) {
+            throw new CabinNotFoundException("Cabin not found with id: " + cabinId);
+        }
+        return cabinLocks.withLock(cabinId, () -> {
+            if (reservationRepository.existsActiveOverlap(cabinId, start, end)) {
+                throw new IllegalStateException("La cabaña ya está reservada en esas fechas");
+            }
+            return checkoutHolds.place(userId, cabinId, start, end);
+        });
+    }
+
+    public boolean releaseHold(Long userId, String holdId) {
+        return checkoutHolds.release(holdId, userId);
+    }
+
+    /**
+     * Convierte una retención vigente en una reserva PENDING. La disponibilidad
+     * ya se verificó al retener, así que no se consultan reservas ni bloqueos ni
+     * se toma el candado de la cabaña; solo se revisan las políticas del
+     * usuario. La restricción de la base de datos sigue como respaldo.
+     */
+    @Transactional
+    public Reservation createPreReservationFromHold(Long userId, String holdId, int guests,
+            LocalTime checkInTime, LocalTime checkOutTime) {
+        CheckoutHolds.Hold hold = checkoutHolds.claim(holdId, userId);
+        try {
+            checkUserPolicies(userId, hold.startDate());
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+            Cabin cabin = cabinRepository.findById(hold.cabinId())
+                    .orElseThrow(() -> new CabinNotFoundException("Cabin not found with id: " + hold.cabinId()));
+
+            PriceTimeline.Quote quote = priceQuotes.quote(cabin, hold.startDate(), hold.endDate());
+            Reservation r = new Reservation(user, cabin, hold.startDate(), hold.endDate(),
+                    checkInTime != null ? checkInTime : cabin.getDefaultCheckInTime(),
+                    checkOutTime != null ? checkOutTime : cabin.getDefaultCheckOutTime(), guests,
+                    ReservationStatus.PENDING, quote.basePrice(), quote.totalPrice());
+            Reservation saved = afterCreate(saveChecked(r));
+            releaseOnCompletion(hold);
+            return saved;
+        } catch (RuntimeException e) {
+            checkoutHolds.restore(hold);
+            throw e;
+        }
+    }
+
+    /**
+     * La retención deja de ocupar la cabaña al confirmarse la reserva; si la
+     * transacción se revierte vuelve a quedar disponible para su dueño
+     */
+    private void releaseOnCompletion(CheckoutHolds.Hold hold) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            checkoutHolds.complete(hold);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    checkoutHolds.complete(hold);
+                } else {
+                    checkoutHolds.restore(hold);
+                }
+            }
+        });
+    }
+
+    private void checkUserPolicies(Long userId, LocalDate start) {
+        // Un solo resumen por usuario en lugar de su historial completo
+        ReservationSummary summary = reservationSummaries.forUser(userId);
+        if (ReservationPolicies.hasActiveReservation(summary.activeCount())) {
             throw new IllegalStateException("El usuario ya tiene una reserva activa");
         }
 
         int maxPerYear = configurationService.getMaxReservationsPerYear();
         int year = start.getYear();
         boolean withinLimit = com.cooperative.cabin.domain.policy.ReservationLimitPolicies
-                .withinAnnualLimit(userId, userReservations, maxPerYear, year);
+                .withinAnnualLimit(summary.countForYear(year), maxPerYear);
         if (!withinLimit) {
             throw new IllegalStateException("Alcanzó el máximo de reservas permitidas para el año");
         }
 
         int standardTimeout = configurationService.getStandardTimeoutDays();
-        LocalDate lastCreated = reservationRepository.findLastCreatedAtDate(userId);
+        LocalDate lastCreated = summary.lastCreatedDate();
         if (!ReservationPolicies.isWithinStandardTimeout(lastCreated, standardTimeout, LocalDate.now())) {
             throw new IllegalStateException("Debe esperar antes de crear una nueva reserva");
         }
+    }
 
-        List<AvailabilityBlock> blocks = availabilityBlockRepository.findByCabinId(cabinId);
+    private void checkBlockPolicy(Long cabinId, LocalDate start, LocalDate end) {
+        // Solo los bloqueos que se solapan con el rango pueden violar la política
+        List<AvailabilityBlock> blocks = availabilityBlockRepository.findOverlapping(cabinId, start, end);
         if (!AvailabilityPolicies.respectsMandatoryBlockRanges(start, end, cabinId, blocks)) {
             throw new IllegalStateException("Debe reservar el rango completo en fechas bloqueadas");
         }
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
-        Cabin cabin = cabinRepository.findById(cabinId)
-                .orElseThrow(() -> new CabinNotFoundException("Cabin not found with id: " + cabinId));
-
-        // Usar horarios proporcionados o los horarios por defecto de la cabaña
-        LocalTime finalCheckInTime = checkInTime != null ? checkInTime : cabin.getDefaultCheckInTime();
-        LocalTime finalCheckOutTime = checkOutTime != null ? checkOutTime : cabin.getDefaultCheckOutTime();
+    private Reservation saveChecked(Reservation r) {
+        try {
+            return reservationRepository.save(r);
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia de la aplicación reservó las mismas fechas
+            if (isOverlapViolation(e)) {
+                throw new IllegalStateException("La cabaña ya está reservada en esas fechas", e);
+            }
+            throw e;
+        }
+    }
 
-        // Calcular precios (por ahora usar valores por defecto)
-        java.math.BigDecimal basePrice = java.math.BigDecimal.valueOf(100.00);
-        java.math.BigDecimal finalPrice = java.math.BigDecimal.valueOf(100.00);
+    private Reservation afterCreate(Reservation saved) {
+        businessMetrics.incrementReservationCreated();
+        publishChange(ReservationChangedEvent.saved(saved));
 
-        Reservation r = new Reservation(user, cabin, start, end, finalCheckInTime, finalCheckOutTime, guests,
-                ReservationStatus.PENDING, basePrice, finalPrice);
-        Reservation saved = reservationRepository.save(r);
-        if (businessMetrics != null)
-            businessMetrics.incrementReservationCreated();
-        
         // Inicializar relaciones lazy para evitar LazyInitializationException al mappear
         saved.getUser().getId();
         saved.getCabin().getId();
-        
+
         return saved;
     }
 
@@ -119,11 +240,11 @@ public class ReservationApplicationService {
         r.setStatus(ReservationStatus.CANCELLED);
         r.setCancelledAt(java.time.LocalDateTime.now());
         Reservation saved = reservationRepository.save(r);
-        if (businessMetrics != null)
-            businessMetrics.incrementReservationCancelled();
+        businessMetrics.incrementReservationCancelled();
+        publishChange(ReservationChangedEvent.saved(saved));
 
         // Disparar waiting list notify-next automáticamente
-        if (waitingListService != null && saved.getCabin() != null) {
+        if (saved.getCabin() != null) {
             waitingListService.notifyNext(new WaitingListApplicationService.NotifyNextCommand(
                     saved.getCabin().getId(),
                     saved.getStartDate(),
@@ -167,11 +288,11 @@ public class ReservationApplicationService {
             current.setConfirmedAt(java.time.LocalDateTime.now());
         }
         Reservation saved = reservationRepository.save(current);
-        if (businessMetrics != null)
-            businessMetrics.incrementStatusTransition(oldStatus.name(), newStatus.name());
+        businessMetrics.incrementStatusTransition(oldStatus.name(), newStatus.name());
+        publishChange(ReservationChangedEvent.saved(saved));
 
         // Si pasa a CANCELLED, notificar waiting list automáticamente
-        if (newStatus == ReservationStatus.CANCELLED && waitingListService != null && saved.getCabin() != null) {
+        if (newStatus == ReservationStatus.CANCELLED && saved.getCabin() != null) {
             waitingListService.notifyNext(new WaitingListApplicationService.NotifyNextCommand(
                     saved.getCabin().getId(),
                     saved.getStartDate(),
@@ -221,6 +342,16 @@ public class ReservationApplicationService {
             throw new IllegalStateException("Reserva no encontrada");
         }
         reservationRepository.deleteById(reservationId);
+        publishChange(ReservationChangedEvent.deleted(reservation));
+    }
+
+    private void publishChange(ReservationChangedEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.contains(Reservation.NO_OVERLAP_CONSTRAINT);
     }
 
     private boolean isTransitionAllowed(ReservationStatus from, ReservationStatus to) {
@@ -248,10 +379,46 @@ public class ReservationApplicationService {
         Reservation findById(Long reservationId);
 
         void deleteById(Long reservationId);
+
+        boolean existsActiveOverlap(Long cabinId, LocalDate startDate, LocalDate endDate);
     }
 
     public interface AvailabilityBlockRepository {
         List<AvailabilityBlock> findByCabinId(Long cabinId);
+
+        List<AvailabilityBlock> findOverlapping(Long cabinId, LocalDate startDate, LocalDate endDate);
+    }
+
+    /**
+     * Resumen de reservas de un usuario para las políticas de creación
+     */
+    public interface ReservationSummaries {
+        ReservationSummary forUser(Long userId);
+
+        /**
+         * Resumen calculado desde el historial completo del usuario (sin
+         * proyección mantenida)
+         */
+        static ReservationSummaries fromHistory(ReservationRepository repository) {
+            return userId -> {
+                int active = 0;
+                Map<Integer, Integer> yearCounts = new HashMap<>();
+                for (Reservation r : repository.findByUserId(userId)) {
+                    if (!r.getUser().getId().equals(userId))
+                        continue;
+                    if (r.isActive())
+                        active++;
+                    yearCounts.merge(r.getStartDate().getYear(), 1, Integer::sum);
+                }
+                return new ReservationSummary(active, yearCounts, repository.findLastCreatedAtDate(userId));
+            };
+        }
+    }
+
+    public record ReservationSummary(int activeCount, Map<Integer, Integer> yearCounts, LocalDate lastCreatedDate) {
+        public int countForYear(int year) {
+            return yearCounts.getOrDefault(year, 0);
+        }
     }
 
     public interface ConfigurationService {
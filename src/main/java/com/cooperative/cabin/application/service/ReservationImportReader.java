@@ -0,0 +1,148 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.application.service.ReservationImportService.ImportRow;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Lee filas de importación de reservas línea por línea, sin cargar el archivo
+ * completo. Una línea mal formada produce una fila con error en lugar de
+ * cortar la importación.
+ *
+ * CSV: primera línea con encabezados; columnas userId, cabinId, startDate,
+ * endDate, guests y opcionalmente status y finalPrice. NDJSON: un objeto JSON
+ * por línea con los mismos campos.
+ */
+public final class ReservationImportReader {
+
+    private ReservationImportReader() {
+    }
+
+    public static Iterator<ImportRow> csv(BufferedReader reader) {
+        String header = readLine(reader);
+        if (header == null) {
+            return Collections.emptyIterator();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        String[] names = header.split(",", -1);
+        for (int i = 0; i < names.length; i++) {
+            columns.put(names[i].trim(), i);
+        }
+        return new LineIterator(reader, 2, line -> {
+            String[] cells = line.split(",", -1);
+            Function<String, String> cell = name -> {
+                Integer index = columns.get(name);
+                if (index == null || index >= cells.length || cells[index].isBlank()) {
+                    return null;
+                }
+                return cells[index].trim();
+            };
+            return new Fields(cell);
+        });
+    }
+
+    public static Iterator<ImportRow> ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new LineIterator(reader, 1, line -> {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("JSON inválido");
+            }
+            return new Fields(name -> {
+                JsonNode value = node.get(name);
+                return value == null || value.isNull() ? null : value.asText();
+            });
+        });
+    }
+
+    private record Fields(Function<String, String> values) {
+
+        ImportRow toRow(int line) {
+            String status = values.apply("status");
+            String price = values.apply("finalPrice");
+            String guests = values.apply("guests");
+            return new ImportRow(line,
+                    asLong(values.apply("userId")),
+                    asLong(values.apply("cabinId")),
+                    asDate(values.apply("startDate")),
+                    asDate(values.apply("endDate")),
+                    guests != null ? Integer.parseInt(guests) : 0,
+                    status != null ? ReservationStatus.valueOf(status.toUpperCase(Locale.ROOT)) : null,
+                    price != null ? new BigDecimal(price) : null,
+                    null);
+        }
+
+        private static Long asLong(String value) {
+            return value != null ? Long.valueOf(value) : null;
+        }
+
+        private static LocalDate asDate(String value) {
+            return value != null ? LocalDate.parse(value) : null;
+        }
+    }
+
+    private static final class LineIterator implements Iterator<ImportRow> {
+        private final BufferedReader reader;
+        private final Function<String, Fields> parser;
+        private int lineNumber;
+        private String next;
+
+        LineIterator(BufferedReader reader, int firstLine, Function<String, Fields> parser) {
+            this.reader = reader;
+            this.parser = parser;
+            this.lineNumber = firstLine - 1;
+            advance();
+        }
+
+        private void advance() {
+            do {
+                next = readLine(reader);
+                lineNumber++;
+            } while (next != null && next.isBlank());
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public ImportRow next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String line = next;
+            int number = lineNumber;
+            advance();
+            try {
+                return parser.apply(line).toRow(number);
+            } catch (RuntimeException e) {
+                // Números, fechas o estados mal escritos
+                return ImportRow.invalid(number, "Fila inválida: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String readLine(BufferedReader reader) {
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
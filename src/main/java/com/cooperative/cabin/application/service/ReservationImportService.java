@@ -0,0 +1,486 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationsImportedEvent;
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.UserReservationSummary;
+import com.cooperative.cabin.domain.policy.AvailabilityPolicies;
+import com.cooperative.cabin.domain.policy.ReservationLimitPolicies;
+import com.cooperative.cabin.domain.policy.ReservationPolicies;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Importación masiva de reservas (migración de históricos, cupos de grupos).
+ *
+ * Las filas se consumen de un iterador perezoso y se validan en memoria contra
+ * el estado de cada cabaña (reservas activas y bloqueos, cargados una vez por
+ * cabaña) y de cada usuario (resumen de reservas, cargado una vez por usuario).
+ * Las válidas se insertan por JDBC en lotes, cada lote en su propia
+ * transacción; solo el lote en curso vive en memoria.
+ *
+ * Las políticas de usuario (una reserva activa, máximo anual) aplican a las
+ * filas activas; las filas históricas (COMPLETED, CANCELLED) solo se validan en
+ * datos y capacidad. El tiempo de espera entre reservas no aplica a una carga
+ * administrativa. Si un lote choca en la base de datos (p. ej. la restricción
+ * de solapamiento por una reserva creada en paralelo) se reintenta fila por
+ * fila para rechazar solo las afectadas.
+ *
+ * Cada lote se escribe con los candados de sus cabañas ({@link CabinLocks}, los
+ * mismos que usan las reservas) y las retenciones de checkout vigentes cuentan
+ * como ocupadas, al validar y otra vez bajo los candados. Por cada lote se
+ * publica un evento por cabaña con todas sus reservas creadas.
+ *
+ * Las filas sin precio se cotizan con {@link PriceQuoteEngine}, igual que una
+ * reserva creada en la aplicación; las que traen precio lo conservan.
+ */
+@Service
+public class ReservationImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationImportService.class);
+
+    private static final String HELD = "Las fechas están retenidas por otro socio";
+
+    private static final String INSERT_SQL = "INSERT INTO reservations (user_id, cabin_id, start_date, end_date, "
+            + "number_of_guests, status, base_price, final_price, check_in_time, check_out_time, created_at, "
+            + "confirmed_at, cancelled_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Fila leída del archivo; {@code error} no nulo si no se pudo interpretar
+     */
+    public record ImportRow(int line, Long userId, Long cabinId, LocalDate startDate, LocalDate endDate, int guests,
+            ReservationStatus status, BigDecimal finalPrice, String error) {
+
+        public static ImportRow invalid(int line, String error) {
+            return new ImportRow(line, null, null, null, null, 0, null, null, error);
+        }
+    }
+
+    public record RowResult(int line, boolean created, Long reservationId, String error) {
+    }
+
+    public record ImportSummary(int total, int created, int rejected) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CabinJpaRepository cabinRepository;
+    private final UserJpaRepository userRepository;
+    private final ReservationJpaRepository reservationRepository;
+    private final AvailabilityBlockJpaRepository blockRepository;
+    private final UserReservationSummaryProjection summaryProjection;
+    private final ConfigurationService configurationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PriceQuoteEngine priceQuotes;
+    private final CabinLocks cabinLocks;
+    private final CheckoutHolds checkoutHolds;
+    private final int batchSize;
+
+    public ReservationImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            CabinJpaRepository cabinRepository, UserJpaRepository userRepository,
+            ReservationJpaRepository reservationRepository, AvailabilityBlockJpaRepository blockRepository,
+            UserReservationSummaryProjection summaryProjection, ConfigurationService configurationService,
+            ApplicationEventPublisher eventPublisher, PriceQuoteEngine priceQuotes, CabinLocks cabinLocks,
+            CheckoutHolds checkoutHolds, @Value("${reservations.import.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cabinRepository = cabinRepository;
+        this.userRepository = userRepository;
+        this.reservationRepository = reservationRepository;
+        this.blockRepository = blockRepository;
+        this.summaryProjection = summaryProjection;
+        this.configurationService = configurationService;
+        this.eventPublisher = eventPublisher;
+        this.priceQuotes = priceQuotes;
+        this.cabinLocks = cabinLocks;
+        this.checkoutHolds = checkoutHolds;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Importa las filas en orden y entrega un resultado por fila a
+     * {@code results}: los rechazos apenas se validan, las creadas al confirmar
+     * su lote.
+     */
+    public ImportSummary importRows(Iterator<ImportRow> rows, Consumer<RowResult> results) {
+        ImportRun run = new ImportRun(results, maxReservationsPerYear());
+        while (rows.hasNext()) {
+            run.accept(rows.next());
+        }
+        run.flush();
+        log.info("Importación de reservas: {} filas, {} creadas, {} rechazadas", run.total, run.created,
+                run.total - run.created);
+        return new ImportSummary(run.total, run.created, run.total - run.created);
+    }
+
+    private int maxReservationsPerYear() {
+        String max = configurationService.getAll().getOrDefault("reservation.max.per.year", "3");
+        try {
+            return Integer.parseInt(max);
+        } catch (NumberFormatException e) {
+            return 3;
+        }
+    }
+
+    /**
+     * Estado de una cabaña durante la importación: rangos activos ocupados (día
+     * epoch de inicio → fin, inclusivos y sin solapes) y sus bloqueos
+     */
+    static final class CabinState {
+        final Cabin cabin;
+        final List<AvailabilityBlock> blocks;
+        final TreeMap<Integer, Integer> occupied = new TreeMap<>();
+
+        CabinState(Cabin cabin, List<AvailabilityBlock> blocks) {
+            this.cabin = cabin;
+            this.blocks = blocks;
+        }
+
+        boolean isFree(int start, int end) {
+            Map.Entry<Integer, Integer> before = occupied.floorEntry(end);
+            return before == null || before.getValue() < start;
+        }
+
+        void occupy(int start, int end) {
+            occupied.merge(start, end, Math::max);
+        }
+
+        void release(int start) {
+            occupied.remove(start);
+        }
+    }
+
+    /**
+     * Reservas del usuario según su resumen más las ya aceptadas en esta
+     * importación
+     */
+    static final class UserState {
+        int activeCount;
+        final Map<Integer, Integer> yearCounts;
+
+        UserState(int activeCount, Map<Integer, Integer> yearCounts) {
+            this.activeCount = activeCount;
+            this.yearCounts = new HashMap<>(yearCounts);
+        }
+    }
+
+    private record Pending(ImportRow row, CabinState cabin, UserState user, BigDecimal basePrice,
+            BigDecimal finalPrice) {
+
+        boolean active() {
+            return isActive(row.status());
+        }
+    }
+
+    private final class ImportRun {
+        private final Consumer<RowResult> results;
+        private final int maxPerYear;
+        private final Map<Long, CabinState> cabins = new HashMap<>();
+        private final Map<Long, UserState> users = new HashMap<>();
+        private final List<Pending> batch = new ArrayList<>();
+        private int total;
+        private int created;
+
+        ImportRun(Consumer<RowResult> results, int maxPerYear) {
+            this.results = results;
+            this.maxPerYear = maxPerYear;
+        }
+
+        void accept(ImportRow row) {
+            total++;
+            String error = row.error() != null ? row.error() : validateAndReserve(row);
+            if (error != null) {
+                results.accept(new RowResult(row.line(), false, null, error));
+                return;
+            }
+            CabinState cabin = cabins.get(row.cabinId());
+            BigDecimal basePrice = row.finalPrice();
+            BigDecimal finalPrice = row.finalPrice();
+            if (finalPrice == null) {
+                PriceTimeline.Quote quote = priceQuotes.quote(cabin.cabin, row.startDate(), row.endDate());
+                basePrice = quote.basePrice();
+                finalPrice = quote.totalPrice();
+            }
+            batch.add(new Pending(row, cabin, users.get(row.userId()), basePrice, finalPrice));
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Valida la fila y, si es válida, la registra en el estado en memoria
+         */
+        private String validateAndReserve(ImportRow row) {
+            if (row.userId() == null || row.cabinId() == null || row.startDate() == null || row.endDate() == null) {
+                return "userId, cabinId, startDate y endDate son obligatorios";
+            }
+            if (row.endDate().isBefore(row.startDate())) {
+                return "endDate debe ser igual o posterior a startDate";
+            }
+            CabinState cabin = cabins.computeIfAbsent(row.cabinId(), this::loadCabin);
+            if (cabin == null) {
+                return "Cabin not found with id: " + row.cabinId();
+            }
+            Integer capacity = cabin.cabin.getCapacity();
+            if (row.guests() < 1 || (capacity != null && row.guests() > capacity)) {
+                return "Número de huéspedes inválido para la cabaña";
+            }
+            UserState user = users.computeIfAbsent(row.userId(), this::loadUser);
+            if (user == null) {
+                return "User not found with id: " + row.userId();
+            }
+
+            int year = row.startDate().getYear();
+            if (!isActive(row.status())) {
+                user.yearCounts.merge(year, 1, Integer::sum);
+                return null;
+            }
+            if (ReservationPolicies.hasActiveReservation(user.activeCount)) {
+                return "El usuario ya tiene una reserva activa";
+            }
+            if (!ReservationLimitPolicies.withinAnnualLimit(user.yearCounts.getOrDefault(year, 0), maxPerYear)) {
+                return "Alcanzó el máximo de reservas permitidas para el año";
+            }
+            if (!AvailabilityPolicies.respectsMandatoryBlockRanges(row.startDate(), row.endDate(), row.cabinId(),
+                    cabin.blocks)) {
+                return "Debe reservar el rango completo en fechas bloqueadas";
+            }
+            int start = EpochDays.of(row.startDate());
+            int end = EpochDays.of(row.endDate());
+            if (!cabin.isFree(start, end)) {
+                return "La cabaña ya está reservada en esas fechas";
+            }
+            if (checkoutHolds.isHeld(row.cabinId(), row.startDate(), row.endDate(), row.userId())) {
+                return HELD;
+            }
+            cabin.occupy(start, end);
+            user.activeCount++;
+            user.yearCounts.merge(year, 1, Integer::sum);
+            return null;
+        }
+
+        private CabinState loadCabin(Long cabinId) {
+            Cabin cabin = cabinRepository.findById(cabinId).orElse(null);
+            if (cabin == null) {
+                return null;
+            }
+            CabinState state = new CabinState(cabin, blockRepository.findByCabin_Id(cabinId));
+            for (Reservation r : reservationRepository.findActiveReservationsByCabin(cabinId)) {
+                state.occupy(EpochDays.of(r.getStartDate()), EpochDays.of(r.getEndDate()));
+            }
+            return state;
+        }
+
+        private UserState loadUser(Long userId) {
+            if (!userRepository.existsById(userId)) {
+                return null;
+            }
+            UserReservationSummary summary = summaryProjection.summaryFor(userId);
+            return new UserState(summary.getActiveCount(), summary.getYearCounts());
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Pending> pending = List.copyOf(batch);
+            batch.clear();
+            try {
+                List<Long> ids = insert(pending);
+                for (int i = 0; i < pending.size(); i++) {
+                    Pending p = pending.get(i);
+                    if (ids.get(i) == null) {
+                        undo(p);
+                        results.accept(new RowResult(p.row().line(), false, null, HELD));
+                    } else {
+                        results.accept(new RowResult(p.row().line(), true, ids.get(i), null));
+                        created++;
+                    }
+                }
+            } catch (DataAccessException e) {
+                if (pending.size() == 1) {
+                    Pending p = pending.get(0);
+                    undo(p);
+                    results.accept(new RowResult(p.row().line(), false, null, rejection(e)));
+                    return;
+                }
+                log.warn("Lote de importación rechazado por la base de datos, reintentando fila por fila: {}",
+                        e.getMostSpecificCause().getMessage());
+                for (Pending p : pending) {
+                    batch.add(p);
+                    flush();
+                }
+            }
+        }
+
+        private void undo(Pending p) {
+            ImportRow row = p.row();
+            p.user().yearCounts.merge(row.startDate().getYear(), -1, Integer::sum);
+            if (p.active()) {
+                p.cabin().release(EpochDays.of(row.startDate()));
+                p.user().activeCount--;
+            }
+        }
+
+        private String rejection(DataAccessException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            if (message != null && message.contains(Reservation.NO_OVERLAP_CONSTRAINT)) {
+                return "La cabaña ya está reservada en esas fechas";
+            }
+            return "No se pudo guardar la reserva";
+        }
+    }
+
+    /**
+     * Inserta el lote en una transacción con los candados de sus cabañas y
+     * publica un evento por cabaña para que índices, cachés y proyecciones se
+     * actualicen. Devuelve los ids en el orden del lote, null para las filas
+     * que quedaron retenidas por un checkout después de validarlas.
+     */
+    private List<Long> insert(List<Pending> pending) {
+        // Siempre en orden de id para que dos lotes no se esperen en círculo
+        List<Long> cabinIds = pending.stream().map(p -> p.row().cabinId()).distinct().sorted().toList();
+        return transactionTemplate.execute(status -> withLocks(cabinIds, 0, () -> {
+            List<Pending> free = new ArrayList<>(pending.size());
+            boolean[] held = new boolean[pending.size()];
+            for (int i = 0; i < pending.size(); i++) {
+                Pending p = pending.get(i);
+                ImportRow row = p.row();
+                held[i] = p.active()
+                        && checkoutHolds.isHeld(row.cabinId(), row.startDate(), row.endDate(), row.userId());
+                if (!held[i]) {
+                    free.add(p);
+                }
+            }
+            List<Long> keys = free.isEmpty() ? List.of() : insertRows(free);
+            if (keys == null || keys.size() != free.size()) {
+                throw new IllegalStateException("El driver no devolvió los identificadores del lote");
+            }
+
+            Map<Long, List<ReservationChangedEvent>> byCabin = new LinkedHashMap<>();
+            List<Long> ids = new ArrayList<>(pending.size());
+            Iterator<Long> next = keys.iterator();
+            for (int i = 0; i < pending.size(); i++) {
+                if (held[i]) {
+                    ids.add(null);
+                    continue;
+                }
+                Long id = next.next();
+                ImportRow row = pending.get(i).row();
+                byCabin.computeIfAbsent(row.cabinId(), k -> new ArrayList<>()).add(new ReservationChangedEvent(id,
+                        row.cabinId(), row.userId(), row.startDate(), row.endDate(), statusOf(row), false));
+                ids.add(id);
+            }
+            byCabin.forEach((cabinId, events) -> eventPublisher
+                    .publishEvent(new ReservationsImportedEvent(cabinId, events)));
+            return ids;
+        }));
+    }
+
+    private <T> T withLocks(List<Long> cabinIds, int from, Supplier<T> work) {
+        if (from == cabinIds.size()) {
+            return work.get();
+        }
+        return cabinLocks.withLock(cabinIds.get(from), () -> withLocks(cabinIds, from + 1, work));
+    }
+
+    private List<Long> insertRows(List<Pending> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] { "id" })) {
+                for (Pending p : rows) {
+                    bind(ps, p, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                List<Long> keys = new ArrayList<>(rows.size());
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    while (rs.next()) {
+                        keys.add(rs.getLong(1));
+                    }
+                }
+                return keys;
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement ps, Pending p, LocalDateTime now) throws java.sql.SQLException {
+        ImportRow row = p.row();
+        Cabin cabin = p.cabin().cabin;
+        ReservationStatus status = statusOf(row);
+        ps.setLong(1, row.userId());
+        ps.setLong(2, row.cabinId());
+        ps.setDate(3, Date.valueOf(row.startDate()));
+        ps.setDate(4, Date.valueOf(row.endDate()));
+        ps.setInt(5, row.guests());
+        ps.setString(6, status.name());
+        ps.setBigDecimal(7, p.basePrice());
+        ps.setBigDecimal(8, p.finalPrice());
+        setTime(ps, 9, cabin.getDefaultCheckInTime());
+        setTime(ps, 10, cabin.getDefaultCheckOutTime());
+        ps.setTimestamp(11, Timestamp.valueOf(now));
+        setTimestamp(ps, 12, status == ReservationStatus.CONFIRMED ? now : null);
+        setTimestamp(ps, 13, status == ReservationStatus.CANCELLED ? now : null);
+    }
+
+    private static void setTime(PreparedStatement ps, int index, LocalTime time) throws java.sql.SQLException {
+        if (time == null) {
+            ps.setNull(index, Types.TIME);
+        } else {
+            ps.setTime(index, Time.valueOf(time));
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement ps, int index, LocalDateTime value)
+            throws java.sql.SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.TIMESTAMP);
+        } else {
+            ps.setTimestamp(index, Timestamp.valueOf(value));
+        }
+    }
+
+    private static ReservationStatus statusOf(ImportRow row) {
+        return row.status() != null ? row.status() : ReservationStatus.PENDING;
+    }
+
+    private static boolean isActive(ReservationStatus status) {
+        return status == null || status == ReservationStatus.PENDING || status == ReservationStatus.CONFIRMED
+                || status == ReservationStatus.IN_USE;
+    }
+}
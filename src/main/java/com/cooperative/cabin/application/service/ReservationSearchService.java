@@ -0,0 +1,177 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationSpecifications;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Listado de reservas para administración paginado en la base de datos: los
+ * filtros se arman como {@link Specification} y solo se cargan las filas de la
+ * página. Además de la paginación por número de página (con total) hay un modo
+ * por clave para páginas profundas, que continúa después de la última fila
+ * devuelta en lugar de saltar offset filas y no cuenta el total.
+ *
+ * El orden siempre termina en id para que sea estable entre páginas.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ReservationSearchService {
+
+    static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Filtros del listado; los null no filtran. from/to seleccionan las
+     * reservas que se solapan con [from, to]
+     */
+    public record Filter(ReservationStatus status, Long cabinId, Long userId, LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Campos por los que se puede ordenar, con su nombre en la API
+     */
+    public enum SortKey {
+        CREATED_AT("createdAt", LocalDateTime::parse),
+        START_DATE("startDate", LocalDate::parse),
+        END_DATE("endDate", LocalDate::parse),
+        ID("id", null);
+
+        private final String property;
+        private final Function<String, ? extends Comparable<?>> parser;
+
+        SortKey(String property, Function<String, ? extends Comparable<?>> parser) {
+            this.property = property;
+            this.parser = parser;
+        }
+
+        public String property() {
+            return property;
+        }
+
+        public static SortKey fromProperty(String property) {
+            return Arrays.stream(values())
+                    .filter(key -> key.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unsupported sort: " + property));
+        }
+    }
+
+    private final ReservationJpaRepository repository;
+
+    public ReservationSearchService(ReservationJpaRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Página page (desde 0) de las reservas que cumplen el filtro, con el total
+     */
+    public Page<Reservation> search(Filter filter, SortKey sort, Sort.Direction direction, int page, int size) {
+        checkPageSize(size);
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        return repository.findAll(specification(filter), PageRequest.of(page, size, sortOf(sort, direction)));
+    }
+
+    /**
+     * Página por clave: las size reservas siguientes al cursor (null para la
+     * primera) sin contar el total. El cursor es opaco y solo vale para el
+     * mismo orden con que se obtuvo.
+     */
+    public KeysetPage<Reservation> searchAfter(Filter filter, SortKey sort, Sort.Direction direction, String cursor,
+            int size) {
+        checkPageSize(size);
+        List<Specification<Reservation>> specs = filters(filter);
+        if (cursor != null && !cursor.isBlank()) {
+            specs.add(afterCursor(sort, direction, cursor));
+        }
+        Sort order = sortOf(sort, direction);
+        List<Reservation> rows = repository.findBy(Specification.allOf(specs),
+                query -> query.sortBy(order).limit(size + 1).all());
+        return KeysetPage.of(rows, size, row -> encodeCursor(sort, row));
+    }
+
+    static Specification<Reservation> specification(Filter filter) {
+        return Specification.allOf(filters(filter));
+    }
+
+    private static List<Specification<Reservation>> filters(Filter filter) {
+        List<Specification<Reservation>> specs = new ArrayList<>();
+        if (filter != null) {
+            specs.add(ReservationSpecifications.hasStatus(filter.status()));
+            specs.add(ReservationSpecifications.forCabin(filter.cabinId()));
+            specs.add(ReservationSpecifications.forUser(filter.userId()));
+            specs.add(ReservationSpecifications.overlaps(filter.from(), filter.to()));
+            specs.removeIf(Objects::isNull);
+        }
+        return specs;
+    }
+
+    private static Sort sortOf(SortKey sort, Sort.Direction direction) {
+        Sort byId = Sort.by(direction, SortKey.ID.property);
+        return sort == SortKey.ID ? byId : Sort.by(direction, sort.property).and(byId);
+    }
+
+    /**
+     * Cursor: "valor|id" de la última fila en Base64 URL; con orden por id
+     * solo el id
+     */
+    static String encodeCursor(SortKey sort, Reservation row) {
+        String key = sort == SortKey.ID ? String.valueOf(row.getId())
+                : valueOf(sort, row) + "|" + row.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Specification<Reservation> afterCursor(SortKey sort, Sort.Direction direction, String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (sort == SortKey.ID) {
+                return ReservationSpecifications.afterId(Long.valueOf(key), direction);
+            }
+            int separator = key.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            Comparable value = sort.parser.apply(key.substring(0, separator));
+            Long id = Long.valueOf(key.substring(separator + 1));
+            return ReservationSpecifications.after(sort.property, value, id, direction);
+        } catch (DateTimeException e) {
+            // NumberFormatException ya es IllegalArgumentException, igual que un
+            // Base64 inválido
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Object valueOf(SortKey sort, Reservation row) {
+        return switch (sort) {
+            case CREATED_AT -> row.getCreatedAt();
+            case START_DATE -> row.getStartDate();
+            case END_DATE -> row.getEndDate();
+            case ID -> row.getId();
+        };
+    }
+
+    private static void checkPageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.cooperative.cabin.application.service;
 
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
 import com.cooperative.cabin.domain.model.Reservation;
 import com.cooperative.cabin.domain.model.ReservationStatus;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,16 +17,22 @@ public class SchedulingApplicationService {
 
     private final ReservationSchedulerRepository repository;
     private final BusinessMetrics businessMetrics;
+    private final ApplicationEventPublisher eventPublisher;
 
     public SchedulingApplicationService(ReservationSchedulerRepository repository) {
-        this.repository = repository;
-        this.businessMetrics = null;
+        this(repository, null, null);
     }
 
     @Autowired
     public SchedulingApplicationService(ReservationSchedulerRepository repository, BusinessMetrics businessMetrics) {
+        this(repository, businessMetrics, null);
+    }
+
+    public SchedulingApplicationService(ReservationSchedulerRepository repository, BusinessMetrics businessMetrics,
+            ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
         this.businessMetrics = businessMetrics;
+        this.eventPublisher = eventPublisher;
     }
 
     public void runStartDateTransitions(LocalDate today) {
@@ -34,6 +42,7 @@ public class SchedulingApplicationService {
             if (r.getStatus() == ReservationStatus.CONFIRMED) {
                 r.setStatus(ReservationStatus.IN_USE);
                 repository.save(r);
+                publishChange(r);
                 if (businessMetrics != null)
                     businessMetrics.incrementSchedulerTransition("start");
             }
@@ -46,12 +55,18 @@ public class SchedulingApplicationService {
             if (r.getStatus() == ReservationStatus.IN_USE) {
                 r.setStatus(ReservationStatus.COMPLETED);
                 repository.save(r);
+                publishChange(r);
                 if (businessMetrics != null)
                     businessMetrics.incrementSchedulerTransition("end");
             }
         }
     }
 
+    private void publishChange(Reservation r) {
+        if (eventPublisher != null)
+            eventPublisher.publishEvent(ReservationChangedEvent.saved(r));
+    }
+
     public interface ReservationSchedulerRepository {
         List<Reservation> findByStatusAndStartDateLessThanEqual(ReservationStatus status, LocalDate dateInclusive);
 
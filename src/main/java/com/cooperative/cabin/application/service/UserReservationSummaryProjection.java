@@ -0,0 +1,137 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationsImportedEvent;
+import com.cooperative.cabin.domain.model.UserReservationSummary;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserReservationSummaryJpaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Mantiene user_reservation_summaries. Cada cambio de reserva recalcula el
+ * resumen de su usuario con una consulta agregada (sin cargar el historial)
+ * dentro de la transacción que lo publica, de modo que la siguiente
+ * verificación de políticas ya lo ve. Los usuarios sin resumen (p. ej. reservas
+ * anteriores a la tabla) se calculan la primera vez que se consultan.
+ *
+ * Dentro de una transacción los cambios se acumulan y cada usuario se
+ * recalcula una sola vez antes del commit (p. ej. una importación masiva con
+ * cientos de reservas del mismo usuario).
+ *
+ * El recálculo bloquea la fila del usuario hasta el commit: dos escrituras del
+ * mismo usuario en cabañas distintas se serializan y la segunda agrega viendo
+ * las reservas ya confirmadas por la primera. La fila se crea antes con un
+ * INSERT … ON CONFLICT DO NOTHING, así que dos primeras escrituras simultáneas
+ * no chocan en la clave.
+ */
+@Component
+public class UserReservationSummaryProjection {
+
+    private final UserReservationSummaryJpaRepository summaryRepository;
+    private final ReservationJpaRepository reservationRepository;
+    private final EntityManager entityManager;
+
+    public UserReservationSummaryProjection(UserReservationSummaryJpaRepository summaryRepository,
+            ReservationJpaRepository reservationRepository, EntityManager entityManager) {
+        this.summaryRepository = summaryRepository;
+        this.reservationRepository = reservationRepository;
+        this.entityManager = entityManager;
+    }
+
+    @EventListener
+    @Transactional
+    public void onReservationChanged(ReservationChangedEvent event) {
+        if (event.userId() == null)
+            return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(event.userId());
+            return;
+        }
+        pendingUsers().add(event.userId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onReservationsImported(ReservationsImportedEvent event) {
+        event.reservations().forEach(this::onReservationChanged);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> pendingUsers() {
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            // Ordenados: dos transacciones con varios usuarios los bloquean en el
+            // mismo orden y no se interbloquean
+            Set<Long> users = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, users);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    users.forEach(UserReservationSummaryProjection.this::refresh);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserReservationSummaryProjection.this);
+                }
+            });
+            pending = users;
+        }
+        return pending;
+    }
+
+    @Transactional
+    public UserReservationSummary summaryFor(Long userId) {
+        return summaryRepository.findWithYearCounts(userId).orElseGet(() -> refresh(userId));
+    }
+
+    @Transactional
+    public UserReservationSummary refresh(Long userId) {
+        UserReservationSummary summary = lock(userId);
+
+        int active = 0;
+        LocalDateTime lastCreated = null;
+        Map<Integer, Integer> yearCounts = new HashMap<>();
+        List<Object[]> rows = reservationRepository.summarizeByUserAndYear(userId);
+        for (Object[] row : rows) {
+            yearCounts.put(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            active += row[2] != null ? ((Number) row[2]).intValue() : 0;
+            LocalDateTime created = (LocalDateTime) row[3];
+            if (created != null && (lastCreated == null || created.isAfter(lastCreated))) {
+                lastCreated = created;
+            }
+        }
+
+        summary.setActiveCount(active);
+        summary.setLastCreatedAt(lastCreated);
+        summary.getYearCounts().clear();
+        summary.getYearCounts().putAll(yearCounts);
+        return summaryRepository.save(summary);
+    }
+
+    /**
+     * Crea la fila si falta y la bloquea hasta el commit. Se relee aunque ya
+     * estuviera en la sesión (p. ej. leída por summaryFor antes de reservar) para
+     * que los conteos por año partan de lo que hay en la base y no de una copia
+     * que otra transacción ya cambió.
+     */
+    private UserReservationSummary lock(Long userId) {
+        summaryRepository.insertIfMissing(userId);
+        UserReservationSummary summary = entityManager.find(UserReservationSummary.class, userId);
+        entityManager.refresh(summary, LockModeType.PESSIMISTIC_WRITE);
+        return summary;
+    }
+}
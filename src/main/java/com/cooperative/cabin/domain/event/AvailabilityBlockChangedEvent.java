@@ -0,0 +1,34 @@
+package com.cooperative.cabin.domain.event;
+
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+
+import java.time.LocalDate;
+
+/**
+ * Evento publicado cuando un bloqueo de disponibilidad se crea, actualiza o
+ * elimina.
+ */
+public record AvailabilityBlockChangedEvent(
+        Long blockId,
+        Long cabinId,
+        LocalDate startDate,
+        LocalDate endDate,
+        boolean deleted) {
+
+    public static AvailabilityBlockChangedEvent saved(AvailabilityBlock block) {
+        return of(block, false);
+    }
+
+    public static AvailabilityBlockChangedEvent deleted(AvailabilityBlock block) {
+        return of(block, true);
+    }
+
+    private static AvailabilityBlockChangedEvent of(AvailabilityBlock block, boolean deleted) {
+        return new AvailabilityBlockChangedEvent(
+                block.getId(),
+                block.getCabin() != null ? block.getCabin().getId() : null,
+                block.getStartDate(),
+                block.getEndDate(),
+                deleted);
+    }
+}
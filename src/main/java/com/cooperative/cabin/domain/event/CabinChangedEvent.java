@@ -0,0 +1,9 @@
+package com.cooperative.cabin.domain.event;
+
+/**
+ * Evento publicado cuando una cabaña se crea, actualiza o elimina.
+ */
+public record CabinChangedEvent(
+        Long cabinId,
+        boolean deleted) {
+}
@@ -0,0 +1,16 @@
+package com.cooperative.cabin.domain.event;
+
+import java.time.LocalDate;
+
+/**
+ * Evento publicado cuando una retención de checkout se crea, se libera o
+ * vence. Las retenciones viven solo en memoria; el evento permite invalidar
+ * cachés y versiones de disponibilidad.
+ */
+public record CheckoutHoldChangedEvent(
+        String holdId,
+        Long cabinId,
+        LocalDate startDate,
+        LocalDate endDate,
+        boolean released) {
+}
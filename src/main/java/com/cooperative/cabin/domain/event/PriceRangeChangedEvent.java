@@ -0,0 +1,27 @@
+package com.cooperative.cabin.domain.event;
+
+import com.cooperative.cabin.domain.model.PriceRange;
+
+/**
+ * Evento publicado cuando un rango de precios se crea, actualiza o elimina.
+ */
+public record PriceRangeChangedEvent(
+        Long priceRangeId,
+        Long cabinId,
+        boolean deleted) {
+
+    public static PriceRangeChangedEvent saved(PriceRange range) {
+        return of(range, false);
+    }
+
+    public static PriceRangeChangedEvent deleted(PriceRange range) {
+        return of(range, true);
+    }
+
+    private static PriceRangeChangedEvent of(PriceRange range, boolean deleted) {
+        return new PriceRangeChangedEvent(
+                range.getId(),
+                range.getCabin() != null ? range.getCabin().getId() : null,
+                deleted);
+    }
+}
@@ -0,0 +1,49 @@
+package com.cooperative.cabin.domain.event;
+
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Evento publicado cada vez que una reserva se crea, cambia de estado o se
+ * elimina. Lleva solo datos planos para que los listeners no dependan de la
+ * sesión de Hibernate.
+ */
+public record ReservationChangedEvent(
+        Long reservationId,
+        Long cabinId,
+        Long userId,
+        LocalDate startDate,
+        LocalDate endDate,
+        ReservationStatus status,
+        boolean deleted) {
+
+    public static ReservationChangedEvent saved(Reservation reservation) {
+        return of(reservation, false);
+    }
+
+    public static ReservationChangedEvent deleted(Reservation reservation) {
+        return of(reservation, true);
+    }
+
+    /**
+     * Indica si, tras el cambio, la reserva sigue ocupando la cabaña
+     */
+    public boolean occupiesCabin() {
+        return !deleted && status != null
+                && (status == ReservationStatus.PENDING || status == ReservationStatus.CONFIRMED
+                        || status == ReservationStatus.IN_USE);
+    }
+
+    private static ReservationChangedEvent of(Reservation reservation, boolean deleted) {
+        return new ReservationChangedEvent(
+                reservation.getId(),
+                reservation.getCabin() != null ? reservation.getCabin().getId() : null,
+                reservation.getUser() != null ? reservation.getUser().getId() : null,
+                reservation.getStartDate(),
+                reservation.getEndDate(),
+                reservation.getStatus(),
+                deleted);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cooperative.cabin.domain.event;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Evento publicado por la importación masiva: las reservas de una cabaña
+ * creadas en un mismo lote, en un solo evento en lugar de uno por reserva. Los
+ * listeners aplican cada reserva pero invalidan o recalculan la cabaña una
+ * sola vez.
+ */
+public record ReservationsImportedEvent(
+        Long cabinId,
+        List<ReservationChangedEvent> reservations) {
+
+    public ReservationsImportedEvent {
+        reservations = List.copyOf(reservations);
+    }
+
+    /**
+     * Primer día de la reserva que empieza antes
+     */
+    public LocalDate startDate() {
+        return reservations.stream().map(ReservationChangedEvent::startDate).min(LocalDate::compareTo)
+                .orElse(null);
+    }
+
+    /**
+     * Último día de la reserva que termina después
+     */
+    public LocalDate endDate() {
+        return reservations.stream().map(ReservationChangedEvent::endDate).max(LocalDate::compareTo)
+                .orElse(null);
+    }
+}
@@ -11,7 +11,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // Páginas por cursor en orden (created_at desc, id desc), con y sin filtro
+        @Index(name = "idx_audit_log_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_audit_log_action_created", columnList = "action, created_at, id"),
+        @Index(name = "idx_audit_log_entity_created", columnList = "entity_type, entity_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
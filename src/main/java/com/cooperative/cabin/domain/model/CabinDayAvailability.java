@@ -0,0 +1,44 @@
+package com.cooperative.cabin.domain.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Modelo de lectura materializado: un registro por cabaña y día no libre.
+ * Los días sin registro se consideran FREE. Si un día está reservado y
+ * bloqueado a la vez prevalece RESERVED.
+ */
+@Entity
+@Table(name = "cabin_day_availability", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_cabin_day_availability_cabin_day", columnNames = { "cabin_id", "day" })
+}, indexes = {
+        @Index(name = "idx_cabin_day_availability_day", columnList = "day")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CabinDayAvailability {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cabin_id", nullable = false)
+    private Long cabinId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", nullable = false, length = 16)
+    private DayAvailabilityReason reason;
+
+    public CabinDayAvailability(Long cabinId, LocalDate day, DayAvailabilityReason reason) {
+        this.cabinId = cabinId;
+        this.day = day;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,7 @@
+package com.cooperative.cabin.domain.model;
+
+public enum DayAvailabilityReason {
+    FREE,
+    RESERVED,
+    BLOCKED
+}
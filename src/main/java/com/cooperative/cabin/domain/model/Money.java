@@ -0,0 +1,49 @@
+package com.cooperative.cabin.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Importe en centavos sobre un long, para cotizar y armar calendarios sin
+ * crear un BigDecimal por operación. Se convierte desde y hacia BigDecimal
+ * solo al leer de las entidades y al responder (columnas con escala 2). Las
+ * operaciones lanzan ArithmeticException si se desbordan.
+ */
+public record Money(long cents) {
+
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Redondea a centavos con HALF_UP (exacto para importes de escala 2)
+     */
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money times(long count) {
+        return new Money(Math.multiplyExact(cents, count));
+    }
+
+    /**
+     * Producto redondeado a centavos con HALF_UP: el mismo resultado que
+     * {@code toBigDecimal().multiply(multiplier.toBigDecimal())} llevado a
+     * escala 2
+     */
+    public Money times(PriceMultiplier multiplier) {
+        long product = Math.multiplyExact(cents, multiplier.units());
+        long quotient = product / PriceMultiplier.ONE_UNITS;
+        long remainder = Math.abs(product % PriceMultiplier.ONE_UNITS);
+        if (remainder * 2 >= PriceMultiplier.ONE_UNITS) {
+            quotient += Long.signum(product);
+        }
+        return new Money(quotient);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -8,8 +8,15 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+/**
+ * Cambio de un rango de precios. Guarda la cabaña y las fechas del rango al
+ * momento del cambio, de modo que el historial sobrevive a la eliminación del
+ * rango: al eliminarlo, priceRange queda en null (ver
+ * scripts/migration_price_change_history_keep_on_delete.sql).
+ */
 @Entity
 @Table(name = "price_change_history")
 @Data
@@ -23,9 +30,19 @@ public class PriceChangeHistory {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "price_range_id", nullable = false)
+    @JoinColumn(name = "price_range_id")
     private PriceRange priceRange;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cabin_id")
+    private Cabin cabin;
+
+    @Column(name = "start_date")
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate;
+
     @Column(name = "old_price", precision = 10, scale = 2)
     private BigDecimal oldPrice;
 
@@ -47,6 +64,9 @@ public class PriceChangeHistory {
     public PriceChangeHistory(PriceRange priceRange, BigDecimal oldPrice, BigDecimal newPrice,
             String changeReason, User changedBy) {
         this.priceRange = priceRange;
+        this.cabin = priceRange.getCabin();
+        this.startDate = priceRange.getStartDate();
+        this.endDate = priceRange.getEndDate();
         this.oldPrice = oldPrice;
         this.newPrice = newPrice;
         this.changeReason = changeReason;
@@ -0,0 +1,25 @@
+package com.cooperative.cabin.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Multiplicador de precio en millonésimas sobre un long (1.25 = 1_250_000).
+ * Seis decimales cubren con holgura los dos que guarda la columna, así que la
+ * conversión es exacta para cualquier multiplicador persistido.
+ */
+public record PriceMultiplier(long units) {
+
+    static final int SCALE = 6;
+    static final long ONE_UNITS = 1_000_000L;
+
+    public static final PriceMultiplier ONE = new PriceMultiplier(ONE_UNITS);
+
+    public static PriceMultiplier of(BigDecimal multiplier) {
+        return new PriceMultiplier(multiplier.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+}
@@ -18,6 +18,7 @@ import java.util.List;
 @Entity
 @Table(name = "price_ranges", indexes = {
         @Index(name = "idx_price_range_cabin_id", columnList = "cabin_id"),
+        @Index(name = "idx_price_range_cabin_dates", columnList = "cabin_id, start_date, end_date"),
         @Index(name = "idx_price_range_dates", columnList = "start_date, end_date"),
         @Index(name = "idx_price_range_created_at", columnList = "created_at")
 })
@@ -62,8 +63,9 @@ public class PriceRange {
     @JoinColumn(name = "created_by")
     private User createdBy;
 
-    // Relaciones bidireccionales
-    @OneToMany(mappedBy = "priceRange", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Relaciones bidireccionales. Sin cascada: el historial se conserva cuando el
+    // rango se elimina (PriceChangeHistoryJpaRepository.detachFromRanges)
+    @OneToMany(mappedBy = "priceRange", fetch = FetchType.LAZY)
     private List<PriceChangeHistory> priceChangeHistories = new ArrayList<>();
 
     @CreatedDate
@@ -19,13 +19,24 @@ import java.util.Objects;
         @Index(name = "idx_reservation_cabin_id", columnList = "cabin_id"),
         @Index(name = "idx_reservation_dates", columnList = "start_date, end_date"),
         @Index(name = "idx_reservation_status", columnList = "status"),
-        @Index(name = "idx_reservation_created_at", columnList = "created_at")
+        @Index(name = "idx_reservation_created_at", columnList = "created_at"),
+        // Listado de administración: filtro por estado, cabaña o usuario más el
+        // orden de la página (ver ReservationSpecifications)
+        @Index(name = "idx_reservation_status_start", columnList = "status, start_date, id"),
+        @Index(name = "idx_reservation_cabin_start", columnList = "cabin_id, start_date, id"),
+        @Index(name = "idx_reservation_user_created", columnList = "user_id, created_at, id")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
 public class Reservation {
+    /**
+     * Restricción de exclusión (PostgreSQL, GiST) que impide dos reservas activas
+     * solapadas de la misma cabaña; ver scripts/reservations-no-overlap.sql
+     */
+    public static final String NO_OVERLAP_CONSTRAINT = "reservations_no_overlap";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
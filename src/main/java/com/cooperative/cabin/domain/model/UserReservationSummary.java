@@ -0,0 +1,45 @@
+package com.cooperative.cabin.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumen por usuario de sus reservas, mantenido en la misma transacción que
+ * las escrituras de reservas: reservas activas, reservas por año de inicio
+ * (todas, sin importar el estado) y fecha de la última creada. Las políticas de
+ * reserva lo leen con una sola búsqueda por clave.
+ */
+@Entity
+@Table(name = "user_reservation_summaries")
+@Data
+@NoArgsConstructor
+public class UserReservationSummary {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "active_count", nullable = false)
+    private int activeCount;
+
+    @Column(name = "last_created_at")
+    private LocalDateTime lastCreatedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "user_reservation_year_counts", joinColumns = @JoinColumn(name = "user_id"))
+    @MapKeyColumn(name = "reservation_year")
+    @Column(name = "reservation_count", nullable = false)
+    private Map<Integer, Integer> yearCounts = new HashMap<>();
+
+    public UserReservationSummary(Long userId) {
+        this.userId = userId;
+    }
+
+    public int countForYear(int year) {
+        return yearCounts.getOrDefault(year, 0);
+    }
+}
@@ -1,5 +1,7 @@
 package com.cooperative.cabin.domain.policy;
 
+import com.cooperative.cabin.domain.model.Money;
+import com.cooperative.cabin.domain.model.PriceMultiplier;
 import com.cooperative.cabin.domain.model.PriceRange;
 
 import java.math.BigDecimal;
@@ -39,4 +41,18 @@ public class PricingPolicies {
         BigDecimal multiplier = range.getPriceMultiplier() != null ? range.getPriceMultiplier() : BigDecimal.ONE;
         return base.multiply(multiplier);
     }
+
+    /**
+     * Igual que {@link #calculatePrice} pero en centavos y redondeado a centavos,
+     * que es como se cobra cada noche
+     */
+    public static Money nightlyPrice(Money defaultBasePrice, PriceRange range) {
+        if (range == null)
+            return defaultBasePrice;
+        Money base = range.getBasePrice() != null ? Money.of(range.getBasePrice()) : defaultBasePrice;
+        PriceMultiplier multiplier = range.getPriceMultiplier() != null
+                ? PriceMultiplier.of(range.getPriceMultiplier())
+                : PriceMultiplier.ONE;
+        return base.times(multiplier);
+    }
 }
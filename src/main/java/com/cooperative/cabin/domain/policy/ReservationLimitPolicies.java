@@ -15,4 +15,8 @@ public class ReservationLimitPolicies {
                 .count();
         return count < maxPerYear;
     }
+
+    public static boolean withinAnnualLimit(int reservationsInYear, int maxPerYear) {
+        return reservationsInYear < maxPerYear;
+    }
 }
@@ -13,6 +13,10 @@ public class ReservationPolicies {
                 .anyMatch(r -> r.getUser().getId().equals(userId) && r.isActive());
     }
 
+    public static boolean hasActiveReservation(int activeReservationCount) {
+        return activeReservationCount > 0;
+    }
+
     public static boolean isWithinStandardTimeout(LocalDate lastCreatedAtDate, int standardTimeoutDays,
             LocalDate nowDate) {
         if (lastCreatedAtDate == null)
@@ -1,22 +1,33 @@
 package com.cooperative.cabin.infrastructure.config;
 
+import com.cooperative.cabin.application.service.AvailabilityBlockIntervalIndex;
 import com.cooperative.cabin.application.service.BusinessMetrics;
+import com.cooperative.cabin.application.service.CabinCommandQueue;
+import com.cooperative.cabin.application.service.CabinLocks;
+import com.cooperative.cabin.application.service.CheckoutHolds;
 import com.cooperative.cabin.application.service.ConfigurationService;
+import com.cooperative.cabin.application.service.PriceQuoteEngine;
+import com.cooperative.cabin.application.service.QueuedReservationApplicationService;
 import com.cooperative.cabin.application.service.ReservationApplicationService;
-import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.application.service.UserReservationSummaryProjection;
 import com.cooperative.cabin.application.service.WaitingListApplicationService;
 import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.UserReservationSummary;
 import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
 import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
 import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
 import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
 import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @Profile("!test")
@@ -30,15 +41,46 @@ public class ReservationApplicationServiceConfig {
             CabinJpaRepository cabinRepository,
             ReservationApplicationService.ConfigurationService reservationConfig,
             MeterRegistry meterRegistry,
-            WaitingListApplicationService waitingListApplicationService) {
+            WaitingListApplicationService waitingListApplicationService,
+            ApplicationEventPublisher eventPublisher,
+            ReservationApplicationService.ReservationSummaries reservationSummaries,
+            CheckoutHolds checkoutHolds,
+            CabinLocks cabinLocks,
+            PriceQuoteEngine priceQuoteEngine,
+            PlatformTransactionManager transactionManager,
+            @Value("${reservations.writes.mode:direct}") String writeMode,
+            @Value("${reservations.writes.queue.batch-size:16}") int queueBatchSize) {
+        BusinessMetrics businessMetrics = new BusinessMetrics(meterRegistry);
+        if ("queue".equalsIgnoreCase(writeMode)) {
+            // Un escritor por cabaña que aplica los comandos por lotes
+            return new QueuedReservationApplicationService(
+                    reservationRepository,
+                    availabilityBlockRepository,
+                    userRepository,
+                    cabinRepository,
+                    reservationConfig,
+                    businessMetrics,
+                    waitingListApplicationService,
+                    eventPublisher,
+                    cabinLocks,
+                    reservationSummaries,
+                    checkoutHolds,
+                    priceQuoteEngine,
+                    new CabinCommandQueue(transactionManager, queueBatchSize));
+        }
         return new ReservationApplicationService(
                 reservationRepository,
                 availabilityBlockRepository,
                 userRepository,
                 cabinRepository,
                 reservationConfig,
-                new BusinessMetrics(meterRegistry),
-                waitingListApplicationService);
+                businessMetrics,
+                waitingListApplicationService,
+                eventPublisher,
+                cabinLocks,
+                reservationSummaries,
+                checkoutHolds,
+                priceQuoteEngine);
     }
 
     @Bean
@@ -74,18 +116,31 @@ public class ReservationApplicationServiceConfig {
             public void deleteById(Long reservationId) {
                 jpaRepository.deleteById(reservationId);
             }
+
+            @Override
+            public boolean existsActiveOverlap(Long cabinId, LocalDate startDate, LocalDate endDate) {
+                return jpaRepository.existsActiveOverlap(cabinId, startDate, endDate);
+            }
+        };
+    }
+
+    @Bean
+    public ReservationApplicationService.ReservationSummaries reservationSummariesAdapter(
+            UserReservationSummaryProjection projection) {
+        // Resumen mantenido por la proyección en la misma transacción que las reservas
+        return userId -> {
+            UserReservationSummary summary = projection.summaryFor(userId);
+            return new ReservationApplicationService.ReservationSummary(summary.getActiveCount(),
+                    Map.copyOf(summary.getYearCounts()),
+                    summary.getLastCreatedAt() != null ? summary.getLastCreatedAt().toLocalDate() : null);
         };
     }
 
     @Bean
     public ReservationApplicationService.AvailabilityBlockRepository availabilityBlockRepositoryAdapter(
             AvailabilityBlockJpaRepository jpaRepository) {
-        return new ReservationApplicationService.AvailabilityBlockRepository() {
-            @Override
-            public List<AvailabilityBlock> findByCabinId(Long cabinId) {
-                return jpaRepository.findByCabin_Id(cabinId);
-            }
-        };
+        // Árbol de intervalos en memoria sincronizado con los eventos de bloqueos
+        return new AvailabilityBlockIntervalIndex(jpaRepository);
     }
 
     @Bean
@@ -0,0 +1,62 @@
+package com.cooperative.cabin.infrastructure.config;
+
+import com.cooperative.cabin.domain.model.Reservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Instala en PostgreSQL la restricción de exclusión que impide reservas activas
+ * solapadas de una misma cabaña (ddl-auto no la genera). Es idempotente; en
+ * otras bases de datos no hace nada.
+ *
+ * Si en PostgreSQL no se puede crear (sin permisos para btree_gist o con
+ * reservas activas ya solapadas) la aplicación no arranca: sin la restricción
+ * dos instancias podrían reservar las mismas fechas. En ese caso hay que
+ * corregir los datos o aplicar scripts/reservations-no-overlap.sql a mano.
+ */
+@Component
+@Profile("!test")
+public class ReservationOverlapConstraintInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationOverlapConstraintInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ReservationOverlapConstraintInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            return;
+        }
+
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class,
+                Reservation.NO_OVERLAP_CONSTRAINT);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            jdbcTemplate.execute("ALTER TABLE reservations ADD CONSTRAINT " + Reservation.NO_OVERLAP_CONSTRAINT
+                    + " EXCLUDE USING gist (cabin_id WITH =, daterange(start_date, end_date, '[]') WITH &&)"
+                    + " WHERE (status IN ('PENDING', 'CONFIRMED', 'IN_USE'))");
+            log.info("Restricción {} creada en reservations", Reservation.NO_OVERLAP_CONSTRAINT);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("No se pudo crear la restricción " + Reservation.NO_OVERLAP_CONSTRAINT
+                    + ": " + e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+}
@@ -41,12 +41,15 @@ public class SecurityConfig {
                         .requestMatchers("/api/cabins").permitAll()
                         .requestMatchers("/api/cabins/{id}").permitAll()
                         .requestMatchers("/api/cabins/search").permitAll()
+                        .requestMatchers("/api/cabins/{id}/quote").permitAll()
                         // Disponibilidad pública (para que los clientes puedan ver fechas disponibles
                         // sin login)
                         .requestMatchers("/api/availability").permitAll()
                         .requestMatchers("/api/availability/calendar").permitAll()
                         .requestMatchers("/api/availability/calendar/list").permitAll()
                         .requestMatchers("/api/availability/cabin/**").permitAll()
+                        .requestMatchers("/api/availability/search").permitAll()
+                        .requestMatchers("/api/availability/flexible").permitAll()
                         // Admin
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         // Usuario autenticado
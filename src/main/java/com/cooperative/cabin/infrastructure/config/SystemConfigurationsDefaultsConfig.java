@@ -20,6 +20,7 @@ public class SystemConfigurationsDefaultsConfig {
         defaults.put("jwt.access.minutes", "15");
         defaults.put("jwt.refresh.days", "7");
         defaults.put("reservation.max.per.year", "3");
+        defaults.put("reservation.min.nights", "1");
         return defaults;
     }
 
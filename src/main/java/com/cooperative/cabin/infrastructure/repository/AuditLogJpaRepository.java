@@ -2,7 +2,18 @@ package com.cooperative.cabin.infrastructure.repository;
 
 import com.cooperative.cabin.domain.model.AuditLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
-public interface AuditLogJpaRepository extends JpaRepository<AuditLog, Long> {
-}
+public interface AuditLogJpaRepository extends JpaRepository<AuditLog, Long>, JpaSpecificationExecutor<AuditLog> {
 
+    /**
+     * Filas estimadas de audit_logs según las estadísticas de PostgreSQL (sin
+     * recorrer la tabla); negativo si la tabla aún no se ha analizado. Se busca
+     * por oid con el search_path actual: por nombre podría tomar una tabla
+     * homónima de otro esquema.
+     */
+    @Query(value = "SELECT CAST(reltuples AS bigint) FROM pg_class"
+            + " WHERE oid = CAST('audit_logs' AS regclass)", nativeQuery = true)
+    Long estimateRowCount();
+}
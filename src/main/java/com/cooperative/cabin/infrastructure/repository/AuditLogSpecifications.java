@@ -0,0 +1,46 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import com.cooperative.cabin.domain.model.AuditLog;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros de auditoría para {@link AuditLogJpaRepository} como
+ * {@link Specification}; igual que en {@link ReservationSpecifications}, cada
+ * uno devuelve null si no hay valor.
+ */
+public final class AuditLogSpecifications {
+
+    private AuditLogSpecifications() {
+    }
+
+    public static Specification<AuditLog> hasAction(String action) {
+        return action == null ? null : (root, query, cb) -> cb.equal(root.get("action"), action);
+    }
+
+    public static Specification<AuditLog> hasEntityType(String entityType) {
+        return entityType == null ? null : (root, query, cb) -> cb.equal(root.get("entityType"), entityType);
+    }
+
+    public static Specification<AuditLog> hasEntityId(Long entityId) {
+        return entityId == null ? null : (root, query, cb) -> cb.equal(root.get("entityId"), entityId);
+    }
+
+    /**
+     * Registros con createdAt: uno sin fecha no tiene posición en el orden
+     * (createdAt, id) y no puede servir de cursor
+     */
+    public static Specification<AuditLog> hasCreatedAt() {
+        return (root, query, cb) -> cb.isNotNull(root.get("createdAt"));
+    }
+
+    /**
+     * Registros anteriores a (createdAt, id) en el orden (createdAt desc, id
+     * desc): la condición de la página siguiente
+     */
+    public static Specification<AuditLog> before(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -26,6 +27,17 @@ public interface AvailabilityBlockJpaRepository extends JpaRepository<Availabili
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    /**
+     * Consultar bloques de varias cabañas en un rango de fechas (una sola
+     * consulta para la carga por lotes)
+     */
+    @Query("SELECT ab FROM AvailabilityBlock ab WHERE ab.cabin.id IN :cabinIds " +
+            "AND NOT (ab.endDate < :startDate OR ab.startDate > :endDate)")
+    List<AvailabilityBlock> findByCabinsAndDateRange(
+            @Param("cabinIds") Collection<Long> cabinIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     /**
      * Verificar si una fecha específica está bloqueada para una cabaña
      */
@@ -0,0 +1,52 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import com.cooperative.cabin.domain.model.CabinDayAvailability;
+import com.cooperative.cabin.domain.model.DayAvailabilityReason;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CabinDayAvailabilityJpaRepository extends JpaRepository<CabinDayAvailability, Long> {
+
+    /**
+     * Días no libres de varias cabañas en un rango (un solo escaneo por rango
+     * sobre el índice único cabin_id, day)
+     */
+    @Query("SELECT d FROM CabinDayAvailability d WHERE d.cabinId IN :cabinIds " +
+            "AND d.day BETWEEN :startDate AND :endDate")
+    List<CabinDayAvailability> findByCabinsAndDateRange(
+            @Param("cabinIds") Collection<Long> cabinIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT COUNT(d) > 0 FROM CabinDayAvailability d WHERE d.cabinId = :cabinId " +
+            "AND d.reason = :reason AND d.day BETWEEN :startDate AND :endDate")
+    boolean existsByCabinAndReasonInRange(
+            @Param("cabinId") Long cabinId,
+            @Param("reason") DayAvailabilityReason reason,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT DISTINCT d.cabinId FROM CabinDayAvailability d WHERE d.cabinId IN :cabinIds " +
+            "AND d.reason = :reason AND d.day BETWEEN :startDate AND :endDate")
+    List<Long> findCabinIdsWithReasonInRange(
+            @Param("cabinIds") Collection<Long> cabinIds,
+            @Param("reason") DayAvailabilityReason reason,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Modifying
+    @Query("DELETE FROM CabinDayAvailability d WHERE d.cabinId = :cabinId " +
+            "AND d.day BETWEEN :startDate AND :endDate")
+    int deleteByCabinAndDateRange(
+            @Param("cabinId") Long cabinId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,34 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import com.cooperative.cabin.domain.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordJpaRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /**
+     * Reclama una fila vencida como pendiente; devuelve 0 si otra petición la
+     * reclamó antes
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.statusCode = :status, "
+            + "r.responseBody = NULL, r.createdAt = :now, r.expiresAt = :expiresAt "
+            + "WHERE r.id = :id AND r.expiresAt <= :now")
+    int reclaimExpired(@Param("id") Long id, @Param("requestHash") String requestHash, @Param("status") int status,
+            @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+}
@@ -0,0 +1,40 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import com.cooperative.cabin.domain.model.PriceChangeHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PriceChangeHistoryJpaRepository extends JpaRepository<PriceChangeHistory, Long> {
+
+    /**
+     * Cambios más recientes primero con id menor que beforeId (null = desde el
+     * último); la cabaña y el autor se unen en SQL. Incluye los cambios de rangos
+     * ya eliminados (priceRangeId null)
+     */
+    @Query("SELECT new com.cooperative.cabin.infrastructure.repository.PriceChangeRow(" +
+            "h.id, pr.id, c.id, c.name, h.startDate, h.endDate, h.oldPrice, h.newPrice, h.changeReason, u.name, " +
+            "h.createdAt) " +
+            "FROM PriceChangeHistory h LEFT JOIN h.priceRange pr LEFT JOIN h.cabin c LEFT JOIN h.changedBy u " +
+            "WHERE (:cabinId IS NULL OR c.id = :cabinId) AND (:beforeId IS NULL OR h.id < :beforeId) " +
+            "ORDER BY h.id DESC")
+    List<PriceChangeRow> findRows(
+            @Param("cabinId") Long cabinId,
+            @Param("beforeId") Long beforeId,
+            Limit limit);
+
+    /**
+     * Suelta el historial de los rangos antes de eliminarlos; las filas
+     * conservan la cabaña y las fechas
+     */
+    @Modifying
+    @Query("UPDATE PriceChangeHistory h SET h.priceRange = null WHERE h.priceRange.id IN :rangeIds")
+    int detachFromRanges(@Param("rangeIds") Collection<Long> rangeIds);
+}
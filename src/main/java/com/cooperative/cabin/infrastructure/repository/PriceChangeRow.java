@@ -0,0 +1,23 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección plana de un cambio de precio con la cabaña y el autor resueltos
+ * en la misma consulta; priceRangeId es null si el rango ya se eliminó
+ */
+public record PriceChangeRow(
+        Long id,
+        Long priceRangeId,
+        Long cabinId,
+        String cabinName,
+        LocalDate startDate,
+        LocalDate endDate,
+        BigDecimal oldPrice,
+        BigDecimal newPrice,
+        String reason,
+        String changedBy,
+        LocalDateTime createdAt) {
+}
@@ -1,10 +1,14 @@
 package com.cooperative.cabin.infrastructure.repository;
 
 import com.cooperative.cabin.domain.model.PriceRange;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,4 +17,41 @@ public interface PriceRangeJpaRepository extends JpaRepository<PriceRange, Long>
 
     List<PriceRange> findByCabin_IdAndStartDateLessThanEqualAndEndDateGreaterThanEqual(Long cabinId, LocalDate start,
             LocalDate end);
+
+    /**
+     * Rangos de la cabaña que se solapan con el periodo; usa el índice
+     * (cabin_id, start_date, end_date)
+     */
+    @Query("SELECT pr FROM PriceRange pr WHERE pr.cabin.id = :cabinId " +
+            "AND pr.startDate <= :endDate AND pr.endDate >= :startDate")
+    List<PriceRange> findOverlapping(
+            @Param("cabinId") Long cabinId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rangos de precios de varias cabañas que se solapan con el periodo (una sola
+     * consulta para cotizar varias cabañas)
+     */
+    @Query("SELECT pr FROM PriceRange pr WHERE pr.cabin.id IN :cabinIds " +
+            "AND NOT (pr.endDate < :startDate OR pr.startDate > :endDate)")
+    List<PriceRange> findByCabinsAndDateRange(
+            @Param("cabinIds") Collection<Long> cabinIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Rangos con id mayor que afterId (null = desde el primero) en orden de id;
+     * la cabaña y el creador se unen en SQL
+     */
+    @Query("SELECT new com.cooperative.cabin.infrastructure.repository.PriceRangeRow(" +
+            "pr.id, c.id, c.name, pr.startDate, pr.endDate, pr.basePrice, pr.priceMultiplier, pr.reason, " +
+            "pr.createdAt, u.name) " +
+            "FROM PriceRange pr JOIN pr.cabin c LEFT JOIN pr.createdBy u " +
+            "WHERE (:cabinId IS NULL OR c.id = :cabinId) AND (:afterId IS NULL OR pr.id > :afterId) " +
+            "ORDER BY pr.id")
+    List<PriceRangeRow> findRows(
+            @Param("cabinId") Long cabinId,
+            @Param("afterId") Long afterId,
+            Limit limit);
 }
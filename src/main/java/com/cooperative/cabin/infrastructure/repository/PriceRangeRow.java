@@ -0,0 +1,26 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección plana de un rango de precios con los nombres de la cabaña y del
+ * creador resueltos en la misma consulta (sin cargar las asociaciones)
+ */
+public record PriceRangeRow(
+        Long id,
+        Long cabinId,
+        String cabinName,
+        LocalDate startDate,
+        LocalDate endDate,
+        BigDecimal basePrice,
+        BigDecimal priceMultiplier,
+        String reason,
+        LocalDateTime createdAt,
+        String createdBy) {
+
+    public BigDecimal finalPrice() {
+        return basePrice.multiply(priceMultiplier);
+    }
+}
@@ -3,26 +3,39 @@ package com.cooperative.cabin.infrastructure.repository;
 import com.cooperative.cabin.domain.model.Reservation;
 import com.cooperative.cabin.domain.model.ReservationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ReservationJpaRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationJpaRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
     List<Reservation> findByUser_Id(Long userId);
 
     @Query("select max(r.createdAt) from Reservation r where r.user.id = :userId")
     LocalDate findLastCreatedAtDate(Long userId);
 
+    /**
+     * Por año de inicio: [año, reservas, reservas activas, última creación] de un
+     * usuario (base de UserReservationSummary)
+     */
+    @Query("SELECT YEAR(r.startDate), COUNT(r), " +
+            "SUM(CASE WHEN r.status IN ('PENDING', 'CONFIRMED', 'IN_USE') THEN 1 ELSE 0 END), MAX(r.createdAt) " +
+            "FROM Reservation r WHERE r.user.id = :userId GROUP BY YEAR(r.startDate)")
+    List<Object[]> summarizeByUserAndYear(@Param("userId") Long userId);
+
     List<Reservation> findByStatusAndStartDateLessThanEqual(ReservationStatus status, LocalDate dateInclusive);
 
     List<Reservation> findByStatusAndEndDateLessThanEqual(ReservationStatus status, LocalDate dateInclusive);
 
     long countByStatus(ReservationStatus status);
 
+    List<Reservation> findByStatusIn(List<ReservationStatus> statuses);
+
     // Métodos para consulta de disponibilidad por cabaña
 
     /**
@@ -37,6 +50,30 @@ public interface ReservationJpaRepository extends JpaRepository<Reservation, Lon
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    /**
+     * Consultar reservas activas de varias cabañas en un rango de fechas (una
+     * sola consulta para la carga por lotes)
+     */
+    @Query("SELECT r FROM Reservation r WHERE r.cabin.id IN :cabinIds " +
+            "AND r.status IN ('PENDING', 'CONFIRMED', 'IN_USE') " +
+            "AND NOT (r.endDate < :startDate OR r.startDate > :endDate)")
+    List<Reservation> findActiveReservationsByCabinsAndDateRange(
+            @Param("cabinIds") Collection<Long> cabinIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Verificar si una cabaña tiene alguna reserva activa que se solape con el
+     * rango (fechas inclusivas)
+     */
+    @Query("SELECT COUNT(r) > 0 FROM Reservation r WHERE r.cabin.id = :cabinId " +
+            "AND r.status IN ('PENDING', 'CONFIRMED', 'IN_USE') " +
+            "AND NOT (r.endDate < :startDate OR r.startDate > :endDate)")
+    boolean existsActiveOverlap(
+            @Param("cabinId") Long cabinId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     /**
      * Consultar reservas activas por cabaña
      */
@@ -0,0 +1,74 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de reservas para {@link ReservationJpaRepository} como
+ * {@link Specification}. Cada uno devuelve null si no hay valor; quien los
+ * combina descarta los null antes de {@link Specification#allOf}.
+ */
+public final class ReservationSpecifications {
+
+    private ReservationSpecifications() {
+    }
+
+    public static Specification<Reservation> hasStatus(ReservationStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Reservation> forCabin(Long cabinId) {
+        return cabinId == null ? null : (root, query, cb) -> cb.equal(root.get("cabin").get("id"), cabinId);
+    }
+
+    public static Specification<Reservation> forUser(Long userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /**
+     * Reservas que se solapan con [from, to] (fechas inclusivas); cualquiera de
+     * los dos extremos puede faltar
+     */
+    public static Specification<Reservation> overlaps(LocalDate from, LocalDate to) {
+        Specification<Reservation> endsAfter = from == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("endDate"), from);
+        Specification<Reservation> startsBefore = to == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startDate"), to);
+        if (endsAfter == null || startsBefore == null) {
+            return endsAfter != null ? endsAfter : startsBefore;
+        }
+        return endsAfter.and(startsBefore);
+    }
+
+    /**
+     * Reservas posteriores a (value, id) en el orden (property, id) con la
+     * dirección indicada: la condición de una página por clave
+     */
+    public static <Y extends Comparable<? super Y>> Specification<Reservation> after(String property, Y value,
+            Long id, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            Path<Y> path = root.get(property);
+            Path<Long> idPath = root.get("id");
+            if (direction.isAscending()) {
+                return cb.or(cb.greaterThan(path, value),
+                        cb.and(cb.equal(path, value), cb.greaterThan(idPath, id)));
+            }
+            return cb.or(cb.lessThan(path, value),
+                    cb.and(cb.equal(path, value), cb.lessThan(idPath, id)));
+        };
+    }
+
+    /**
+     * Reservas posteriores a id en orden de id
+     */
+    public static Specification<Reservation> afterId(Long id, Sort.Direction direction) {
+        return (root, query, cb) -> direction.isAscending()
+                ? cb.greaterThan(root.get("id"), id)
+                : cb.lessThan(root.get("id"), id);
+    }
+}
@@ -0,0 +1,29 @@
+package com.cooperative.cabin.infrastructure.repository;
+
+import com.cooperative.cabin.domain.model.UserReservationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserReservationSummaryJpaRepository extends JpaRepository<UserReservationSummary, Long> {
+
+    /**
+     * Resumen con sus conteos por año en una sola consulta
+     */
+    @Query("SELECT s FROM UserReservationSummary s LEFT JOIN FETCH s.yearCounts WHERE s.userId = :userId")
+    Optional<UserReservationSummary> findWithYearCounts(@Param("userId") Long userId);
+
+    /**
+     * Crea el resumen vacío si no existe; si otra transacción lo está creando,
+     * espera a que termine en lugar de fallar por clave duplicada
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_reservation_summaries (user_id, active_count) VALUES (:userId, 0) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    void insertIfMissing(@Param("userId") Long userId);
+}
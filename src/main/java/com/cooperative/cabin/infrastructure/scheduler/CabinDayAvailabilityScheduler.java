@@ -0,0 +1,39 @@
+package com.cooperative.cabin.infrastructure.scheduler;
+
+import com.cooperative.cabin.application.service.CabinDayAvailabilityProjection;
+import com.cooperative.cabin.infrastructure.repository.CabinDayAvailabilityJpaRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Sin el modo materializado nadie lee la tabla: ni se llena ni se reconcilia
+@Component
+@ConditionalOnProperty(name = "availability.read-mode", havingValue = "materialized")
+public class CabinDayAvailabilityScheduler {
+
+    private final CabinDayAvailabilityProjection projection;
+    private final CabinDayAvailabilityJpaRepository dayRepository;
+
+    public CabinDayAvailabilityScheduler(CabinDayAvailabilityProjection projection,
+            CabinDayAvailabilityJpaRepository dayRepository) {
+        this.projection = projection;
+        this.dayRepository = dayRepository;
+    }
+
+    // Primer arranque: la tabla todavía está vacía
+    @EventListener(ApplicationReadyEvent.class)
+    public void populateIfEmpty() {
+        if (dayRepository.count() == 0) {
+            projection.rebuild();
+        }
+    }
+
+    // Reconcilia la tabla con reservations y availability_blocks (recupera
+    // cambios hechos por SQL directo, p. ej. scripts/insert-test-data.sql)
+    @Scheduled(cron = "${availability.materialized.rebuild-cron:0 30 3 * * *}")
+    public void reconcile() {
+        projection.rebuild();
+    }
+}
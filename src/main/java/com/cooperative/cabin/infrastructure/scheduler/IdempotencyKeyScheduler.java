@@ -0,0 +1,30 @@
+package com.cooperative.cabin.infrastructure.scheduler;
+
+import com.cooperative.cabin.application.service.IdempotencyStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class IdempotencyKeyScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyScheduler.class);
+
+    private final IdempotencyStore idempotencyStore;
+
+    public IdempotencyKeyScheduler(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    // Borra las respuestas idempotentes vencidas. Corre cada hora por defecto
+    @Scheduled(fixedDelayString = "${reservations.idempotency.purge.delay-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyStore.purgeExpired();
+        if (deleted > 0) {
+            log.info("IdempotencyKeyScheduler: eliminadas {} claves vencidas", deleted);
+        }
+    }
+}
@@ -20,9 +20,10 @@ class SchedulingConfig {
 
     @Bean
     SchedulingApplicationService schedulingApplicationService(ReservationSchedulerRepository adapter,
-            io.micrometer.core.instrument.MeterRegistry meterRegistry) {
+            io.micrometer.core.instrument.MeterRegistry meterRegistry,
+            org.springframework.context.ApplicationEventPublisher eventPublisher) {
         return new SchedulingApplicationService(adapter,
-                new com.cooperative.cabin.application.service.BusinessMetrics(meterRegistry));
+                new com.cooperative.cabin.application.service.BusinessMetrics(meterRegistry), eventPublisher);
     }
 
     @Bean
@@ -1,8 +1,10 @@
 package com.cooperative.cabin.presentation.controller;
 
+import com.cooperative.cabin.presentation.dto.AuditLogPageResponse;
 import com.cooperative.cabin.presentation.dto.AuditLogResponse;
 import com.cooperative.cabin.presentation.dto.PageResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -36,4 +38,21 @@ public class AdminAuditLogsController {
             @RequestParam(name = "size", defaultValue = "20") int size) {
         return ResponseEntity.ok(adminAuditLogsService.list(page, size));
     }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Auditorías por cursor", description = "Del registro más reciente al más antiguo, paginado por cursor sobre (createdAt, id) y sin contar el total, así que el costo no crece con la tabla", responses = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválido")
+    })
+    public ResponseEntity<AuditLogPageResponse> listPage(
+            @Parameter(description = "nextCursor de la página anterior") @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-200)", example = "50") @RequestParam(name = "size", defaultValue = "50") int size,
+            @Parameter(description = "Filtrar por acción", example = "UPDATE") @RequestParam(name = "action", required = false) String action,
+            @Parameter(description = "Filtrar por tipo de entidad", example = "SystemConfiguration") @RequestParam(name = "entityType", required = false) String entityType,
+            @Parameter(description = "Filtrar por id de entidad", example = "1") @RequestParam(name = "entityId", required = false) Long entityId,
+            @Parameter(description = "Incluir el total aproximado (solo sin filtros)") @RequestParam(name = "approximateTotal", defaultValue = "false") boolean approximateTotal) {
+        return ResponseEntity.ok(adminAuditLogsService.listAfter(cursor, size, action, entityType, entityId,
+                approximateTotal));
+    }
 }
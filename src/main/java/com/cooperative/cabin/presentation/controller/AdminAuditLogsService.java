@@ -1,18 +1,36 @@
 package com.cooperative.cabin.presentation.controller;
 
+import com.cooperative.cabin.application.service.KeysetPage;
 import com.cooperative.cabin.domain.model.AuditLog;
 import com.cooperative.cabin.infrastructure.repository.AuditLogJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.AuditLogSpecifications;
+import com.cooperative.cabin.presentation.dto.AuditLogPageResponse;
 import com.cooperative.cabin.presentation.dto.AuditLogResponse;
 import com.cooperative.cabin.presentation.dto.PageResponse;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 public class AdminAuditLogsService {
 
+    static final int MAX_PAGE_SIZE = 200;
+
+    // Del más reciente al más antiguo; id desempata registros del mismo instante
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final AuditLogJpaRepository repository;
 
     public AdminAuditLogsService(AuditLogJpaRepository repository) {
@@ -27,6 +45,74 @@ public class AdminAuditLogsService {
         return new PageResponse<>(items, page, size, total);
     }
 
+    /**
+     * Página por cursor sobre (createdAt, id), del más reciente al más antiguo:
+     * continúa después del último registro devuelto en lugar de saltar offset
+     * filas y no ejecuta COUNT(*), así que el costo no crece con la tabla. El
+     * total aproximado sale de las estadísticas de la base de datos y solo se
+     * da sin filtros.
+     */
+    public AuditLogPageResponse listAfter(String cursor, int size, String action, String entityType, Long entityId,
+            boolean approximateTotal) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<Specification<AuditLog>> specs = new ArrayList<>();
+        // Filas heredadas sin created_at (ver
+        // scripts/migration_audit_logs_created_at_not_null.sql) quedarían primero en
+        // PostgreSQL y su cursor no se podría leer
+        specs.add(AuditLogSpecifications.hasCreatedAt());
+        specs.add(AuditLogSpecifications.hasAction(action));
+        specs.add(AuditLogSpecifications.hasEntityType(entityType));
+        specs.add(AuditLogSpecifications.hasEntityId(entityId));
+        if (cursor != null && !cursor.isBlank()) {
+            specs.add(afterCursor(cursor));
+        }
+        specs.removeIf(Objects::isNull);
+        List<AuditLog> rows = repository.findBy(Specification.allOf(specs),
+                query -> query.sortBy(NEWEST_FIRST).limit(size + 1).all());
+        KeysetPage<AuditLog> page = KeysetPage.of(rows, size, AdminAuditLogsService::encodeCursor);
+        boolean filtered = action != null || entityType != null || entityId != null;
+        Long total = approximateTotal && !filtered ? estimateTotal() : null;
+        return new AuditLogPageResponse(page.items().stream().map(this::toResponse).toList(), page.nextCursor(),
+                total);
+    }
+
+    /**
+     * Cursor: "createdAt|id" del último registro en Base64 URL
+     */
+    static String encodeCursor(AuditLog log) {
+        String key = log.getCreatedAt() + "|" + log.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Specification<AuditLog> afterCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return AuditLogSpecifications.before(LocalDateTime.parse(key.substring(0, separator)),
+                    Long.valueOf(key.substring(separator + 1)));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Estimación del planificador; null si la base de datos no la ofrece (p. ej.
+     * H2) o la tabla aún no tiene estadísticas
+     */
+    private Long estimateTotal() {
+        try {
+            Long estimate = repository.estimateRowCount();
+            return estimate != null && estimate >= 0 ? estimate : null;
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
     private AuditLogResponse toResponse(AuditLog log) {
         AuditLogResponse dto = new AuditLogResponse();
         dto.setId(log.getId());
@@ -0,0 +1,85 @@
+package com.cooperative.cabin.presentation.controller;
+
+import com.cooperative.cabin.application.service.ReservationImportReader;
+import com.cooperative.cabin.application.service.ReservationImportService;
+import com.cooperative.cabin.application.service.ReservationImportService.ImportRow;
+import com.cooperative.cabin.application.service.ReservationImportService.ImportSummary;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/api/admin/reservations/import")
+@Tag(name = "Admin Reservation Import", description = "Importación masiva de reservas")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminReservationImportController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final ReservationImportService importService;
+    private final ObjectMapper objectMapper;
+
+    public AdminReservationImportController(ReservationImportService importService, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = "text/csv", produces = NDJSON)
+    @Operation(summary = "Importar reservas desde CSV", description = "Lee el archivo como flujo (encabezados userId,cabinId,startDate,endDate,guests[,status][,finalPrice]) y responde una línea JSON por fila más un resumen final")
+    @ApiResponse(responseCode = "200", description = "Resultado por fila", content = @Content(mediaType = NDJSON, examples = @ExampleObject(value = """
+            {"line":2,"created":true,"reservationId":120,"error":null}
+            {"line":3,"created":false,"reservationId":null,"error":"La cabaña ya está reservada en esas fechas"}
+            {"total":2,"created":1,"rejected":1}
+            """)))
+    public void importCsv(InputStream body, HttpServletResponse response) throws IOException {
+        run(body, response, ReservationImportReader::csv);
+    }
+
+    @PostMapping(consumes = NDJSON, produces = NDJSON)
+    @Operation(summary = "Importar reservas desde NDJSON", description = "Un objeto JSON por línea con userId, cabinId, startDate, endDate, guests y opcionalmente status y finalPrice")
+    public void importNdjson(InputStream body, HttpServletResponse response) throws IOException {
+        run(body, response, reader -> ReservationImportReader.ndjson(reader, objectMapper));
+    }
+
+    private void run(InputStream body, HttpServletResponse response,
+            Function<BufferedReader, Iterator<ImportRow>> format) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Writer writer = response.getWriter();
+
+        ImportSummary summary = importService.importRows(format.apply(reader), result -> writeLine(writer, result));
+        writeLine(writer, summary);
+        writer.flush();
+    }
+
+    private void writeLine(Writer writer, Object value) {
+        try {
+            writer.write(objectMapper.writeValueAsString(value));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
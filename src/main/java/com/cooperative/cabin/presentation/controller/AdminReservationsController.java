@@ -1,7 +1,11 @@
 package com.cooperative.cabin.presentation.controller;
 
+import com.cooperative.cabin.application.service.KeysetPage;
 import com.cooperative.cabin.application.service.ReservationApplicationService;
+import com.cooperative.cabin.application.service.ReservationSearchService;
 import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.presentation.dto.KeysetPageResponse;
 import com.cooperative.cabin.presentation.dto.ReservationResponse;
 import com.cooperative.cabin.presentation.dto.PageResponse;
 import com.cooperative.cabin.presentation.mapper.ReservationMapper;
@@ -14,9 +18,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -26,13 +34,16 @@ import java.util.List;
 public class AdminReservationsController {
 
     private final ReservationApplicationService service;
+    private final ReservationSearchService searchService;
 
-    public AdminReservationsController(ReservationApplicationService service) {
+    public AdminReservationsController(ReservationApplicationService service,
+            ReservationSearchService searchService) {
         this.service = service;
+        this.searchService = searchService;
     }
 
     @GetMapping
-    @Operation(summary = "Listar todas las reservas", description = "Obtiene todas las reservas del sistema con paginación para administradores", responses = {
+    @Operation(summary = "Listar todas las reservas", description = "Obtiene las reservas del sistema paginadas en la base de datos, con filtros por estado, cabaña, usuario y fechas y orden configurable", responses = {
             @ApiResponse(responseCode = "200", description = "Lista de reservas obtenida exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageResponse.class), examples = @ExampleObject(value = """
                     {
                       "items": [
@@ -67,6 +78,7 @@ public class AdminReservationsController {
                       "totalPages": 1
                     }
                     """))),
+            @ApiResponse(responseCode = "400", description = "Página, tamaño u orden inválido"),
             @ApiResponse(responseCode = "403", description = "Acceso denegado - Se requiere rol ADMIN", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = """
                     {
                       "timestamp": "2024-01-01T10:00:00.000+00:00",
@@ -88,14 +100,44 @@ public class AdminReservationsController {
     })
     public ResponseEntity<PageResponse<ReservationResponse>> listAll(
             @Parameter(description = "Número de página (0-based)", example = "0") @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Tamaño de página", example = "20") @RequestParam(defaultValue = "20") int size) {
-        List<Reservation> list = service.listAllForAdmin();
-        List<ReservationResponse> dto = list.stream().map(ReservationMapper.INSTANCE::toResponse).toList();
-        long total = dto.size();
-        int from = Math.min(page * size, dto.size());
-        int to = Math.min(from + size, dto.size());
-        List<ReservationResponse> slice = dto.subList(from, to);
-        return ResponseEntity.ok(new PageResponse<>(slice, page, size, total));
+            @Parameter(description = "Tamaño de página (1-200)", example = "20") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Filtrar por estado", example = "CONFIRMED") @RequestParam(required = false) ReservationStatus status,
+            @Parameter(description = "Filtrar por cabaña", example = "1") @RequestParam(required = false) Long cabinId,
+            @Parameter(description = "Filtrar por usuario", example = "1") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Reservas que terminan desde esta fecha (yyyy-MM-dd)", example = "2024-02-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Reservas que empiezan hasta esta fecha (yyyy-MM-dd)", example = "2024-02-29") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Orden: createdAt, startDate, endDate o id", example = "createdAt") @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Dirección: asc o desc", example = "desc") @RequestParam(defaultValue = "desc") String direction) {
+        Page<Reservation> result = searchService.search(
+                new ReservationSearchService.Filter(status, cabinId, userId, from, to),
+                ReservationSearchService.SortKey.fromProperty(sort), Sort.Direction.fromString(direction), page, size);
+        // Solo se mapean las filas de la página (el mapper usa los ids de usuario
+        // y cabaña, sin inicializar los proxies)
+        List<ReservationResponse> items = result.getContent().stream()
+                .map(ReservationMapper.INSTANCE::toResponse).toList();
+        return ResponseEntity.ok(new PageResponse<>(items, page, size, result.getTotalElements()));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Listar reservas por cursor", description = "Mismos filtros y orden que el listado paginado, pero continúa después de la última reserva devuelta: el costo no crece con la profundidad y no se cuenta el total", responses = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Cursor, tamaño u orden inválido")
+    })
+    public ResponseEntity<KeysetPageResponse<ReservationResponse>> listPage(
+            @Parameter(description = "nextCursor de la página anterior (con el mismo orden)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-200)", example = "50") @RequestParam(defaultValue = "50") int size,
+            @Parameter(description = "Filtrar por estado", example = "CONFIRMED") @RequestParam(required = false) ReservationStatus status,
+            @Parameter(description = "Filtrar por cabaña", example = "1") @RequestParam(required = false) Long cabinId,
+            @Parameter(description = "Filtrar por usuario", example = "1") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Reservas que terminan desde esta fecha (yyyy-MM-dd)", example = "2024-02-01") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Reservas que empiezan hasta esta fecha (yyyy-MM-dd)", example = "2024-02-29") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Orden: createdAt, startDate, endDate o id", example = "createdAt") @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Dirección: asc o desc", example = "desc") @RequestParam(defaultValue = "desc") String direction) {
+        KeysetPage<Reservation> page = searchService.searchAfter(
+                new ReservationSearchService.Filter(status, cabinId, userId, from, to),
+                ReservationSearchService.SortKey.fromProperty(sort), Sort.Direction.fromString(direction), cursor, size);
+        List<ReservationResponse> items = page.items().stream().map(ReservationMapper.INSTANCE::toResponse).toList();
+        return ResponseEntity.ok(new KeysetPageResponse<>(items, page.nextCursor()));
     }
 
     @DeleteMapping("/{id}")
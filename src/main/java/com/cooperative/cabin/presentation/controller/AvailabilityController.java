@@ -1,7 +1,12 @@
 package com.cooperative.cabin.presentation.controller;
 
 import com.cooperative.cabin.application.service.AvailabilityApplicationService;
+import com.cooperative.cabin.application.service.DataVersionRegistry;
 import com.cooperative.cabin.presentation.dto.AvailabilityDayResponse;
+import com.cooperative.cabin.presentation.dto.AvailableCabinResponse;
+import com.cooperative.cabin.presentation.dto.CompactCalendarResponse;
+import com.cooperative.cabin.presentation.dto.FlexibleStaysResponse;
+import com.cooperative.cabin.presentation.mapper.CompactCalendarMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -13,8 +18,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -25,9 +33,20 @@ import java.util.stream.Collectors;
 public class AvailabilityController {
 
   private final AvailabilityApplicationService availabilityApplicationService;
+  private final DataVersionRegistry dataVersions;
 
-  public AvailabilityController(AvailabilityApplicationService availabilityApplicationService) {
+  public AvailabilityController(AvailabilityApplicationService availabilityApplicationService,
+      DataVersionRegistry dataVersions) {
     this.availabilityApplicationService = availabilityApplicationService;
+    this.dataVersions = dataVersions;
+  }
+
+  private String globalETag() {
+    return ConditionalResponses.datedETag(ConditionalResponses.globalETag(dataVersions), LocalDate.now());
+  }
+
+  private String cabinETag(Long cabinId) {
+    return ConditionalResponses.datedETag(ConditionalResponses.cabinETag(dataVersions, cabinId), LocalDate.now());
   }
 
   @GetMapping
@@ -51,8 +70,9 @@ public class AvailabilityController {
           }
           """)))
   })
-  public ResponseEntity<List<String>> getAvailability() {
-    return ResponseEntity.ok(availabilityApplicationService.getAvailableDates());
+  public ResponseEntity<List<String>> getAvailability(WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, globalETag(),
+        availabilityApplicationService::getAvailableDates);
   }
 
   @GetMapping("/calendar")
@@ -88,8 +108,10 @@ public class AvailabilityController {
   })
   public ResponseEntity<Map<String, Boolean>> getCalendar(
       @Parameter(description = "Año del calendario", example = "2025") @RequestParam int year,
-      @Parameter(description = "Mes del calendario (1-12)", example = "2") @RequestParam int month) {
-    return ResponseEntity.ok(availabilityApplicationService.getAvailabilityCalendar(year, month));
+      @Parameter(description = "Mes del calendario (1-12)", example = "2") @RequestParam int month,
+      WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, globalETag(),
+        () -> availabilityApplicationService.getAvailabilityCalendar(year, month));
   }
 
   @GetMapping("/calendar/list")
@@ -135,12 +157,80 @@ public class AvailabilityController {
   })
   public ResponseEntity<List<AvailabilityDayResponse>> getCalendarList(
       @Parameter(description = "Año del calendario", example = "2025") @RequestParam int year,
-      @Parameter(description = "Mes del calendario (1-12)", example = "2") @RequestParam int month) {
-    Map<String, Boolean> map = availabilityApplicationService.getAvailabilityCalendar(year, month);
-    List<AvailabilityDayResponse> list = map.entrySet().stream()
-        .map(e -> new AvailabilityDayResponse(e.getKey(), e.getValue()))
-        .collect(Collectors.toList());
-    return ResponseEntity.ok(list);
+      @Parameter(description = "Mes del calendario (1-12)", example = "2") @RequestParam int month,
+      WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, globalETag(), () -> {
+      Map<String, Boolean> map = availabilityApplicationService.getAvailabilityCalendar(year, month);
+      return map.entrySet().stream()
+          .map(e -> new AvailabilityDayResponse(e.getKey(), e.getValue()))
+          .collect(Collectors.toList());
+    });
+  }
+
+  @GetMapping(value = "/calendar", params = "format")
+  @Operation(summary = "Calendario compacto de disponibilidad", description = "Con format=bitmap o format=rle devuelve un bitmap de disponibilidad por cabaña activa a partir del primer día del mes, para uno o varios meses", responses = {
+      @ApiResponse(responseCode = "200", description = "Calendario compacto obtenido exitosamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CompactCalendarResponse.class), examples = @ExampleObject(value = """
+          {
+            "startDate": "2025-02-01",
+            "days": 28,
+            "encoding": "rle",
+            "cabins": {
+              "1": "2,3,23",
+              "2": "28"
+            }
+          }
+          """))),
+      @ApiResponse(responseCode = "400", description = "Parámetros inválidos", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = """
+          {
+            "timestamp": "2024-01-01T10:00:00.000+00:00",
+            "status": 400,
+            "error": "Bad Request",
+            "message": "Unsupported calendar format: xml",
+            "path": "/api/availability/calendar"
+          }
+          """)))
+  })
+  public ResponseEntity<CompactCalendarResponse> getCompactCalendar(
+      @Parameter(description = "Año del calendario", example = "2025") @RequestParam int year,
+      @Parameter(description = "Mes inicial del calendario (1-12)", example = "2") @RequestParam int month,
+      @Parameter(description = "Número de meses (1-24)", example = "12") @RequestParam(defaultValue = "1") int months,
+      @Parameter(description = "Codificación: bitmap (base64) o rle", example = "bitmap") @RequestParam String format,
+      WebRequest webRequest) {
+    LocalDate start = LocalDate.of(year, month, 1);
+    LocalDate end = compactCalendarEnd(start, months, format);
+    return ConditionalResponses.conditional(webRequest, globalETag(),
+        () -> CompactCalendarMapper.toResponse(start, daysBetween(start, end), format,
+            availabilityApplicationService.getAvailabilityBitmaps(start, end)));
+  }
+
+  @GetMapping(value = "/cabin/{cabinId}/calendar", params = "format")
+  @Operation(summary = "Calendario compacto por cabaña", description = "Con format=bitmap o format=rle devuelve el bitmap de disponibilidad de la cabaña a partir del primer día del mes, para uno o varios meses")
+  public ResponseEntity<CompactCalendarResponse> getCompactCalendarForCabin(
+      @Parameter(description = "ID de la cabaña", example = "1") @PathVariable Long cabinId,
+      @Parameter(description = "Año del calendario", example = "2025") @RequestParam int year,
+      @Parameter(description = "Mes inicial del calendario (1-12)", example = "2") @RequestParam int month,
+      @Parameter(description = "Número de meses (1-24)", example = "12") @RequestParam(defaultValue = "1") int months,
+      @Parameter(description = "Codificación: bitmap (base64) o rle", example = "bitmap") @RequestParam String format,
+      WebRequest webRequest) {
+    LocalDate start = LocalDate.of(year, month, 1);
+    LocalDate end = compactCalendarEnd(start, months, format);
+    return ConditionalResponses.conditional(webRequest, cabinETag(cabinId),
+        () -> CompactCalendarMapper.toResponse(start, daysBetween(start, end), format,
+            availabilityApplicationService.getAvailabilityBitmapForCabin(cabinId, start, end)));
+  }
+
+  private static LocalDate compactCalendarEnd(LocalDate start, int months, String format) {
+    if (!CompactCalendarMapper.isSupported(format)) {
+      throw new IllegalArgumentException("Unsupported calendar format: " + format);
+    }
+    if (months < 1 || months > 24) {
+      throw new IllegalArgumentException("months must be between 1 and 24");
+    }
+    return start.plusMonths(months).minusDays(1);
+  }
+
+  private static int daysBetween(LocalDate start, LocalDate end) {
+    return (int) ChronoUnit.DAYS.between(start, end) + 1;
   }
 
   // Nuevos endpoints para consulta por cabaña específica
@@ -184,8 +274,10 @@ public class AvailabilityController {
           """)))
   })
   public ResponseEntity<List<String>> getAvailabilityForCabin(
-      @Parameter(description = "ID de la cabaña", example = "1") @PathVariable Long cabinId) {
-    return ResponseEntity.ok(availabilityApplicationService.getAvailableDatesForCabin(cabinId));
+      @Parameter(description = "ID de la cabaña", example = "1") @PathVariable Long cabinId,
+      WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, cabinETag(cabinId),
+        () -> availabilityApplicationService.getAvailableDatesForCabin(cabinId));
   }
 
   @GetMapping("/cabin/{cabinId}/calendar")
@@ -231,8 +323,10 @@ public class AvailabilityController {
   public ResponseEntity<Map<String, Boolean>> getCalendarForCabin(
       @Parameter(description = "ID de la cabaña", example = "1") @PathVariable Long cabinId,
       @Parameter(description = "Año del calendario", example = "2025") @RequestParam int year,
-      @Parameter(description = "Mes del calendario (1-12)", example = "2") @RequestParam int month) {
-    return ResponseEntity.ok(availabilityApplicationService.getAvailabilityCalendarForCabin(cabinId, year, month));
+      @Parameter(description = "Mes del calendario (1-12)", example = "2") @RequestParam int month,
+      WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, cabinETag(cabinId),
+        () -> availabilityApplicationService.getAvailabilityCalendarForCabin(cabinId, year, month));
   }
 
   @GetMapping("/cabin/{cabinId}/check")
@@ -273,7 +367,84 @@ public class AvailabilityController {
   public ResponseEntity<Boolean> checkAvailability(
       @Parameter(description = "ID de la cabaña", example = "1") @PathVariable Long cabinId,
       @Parameter(description = "Fecha de inicio (yyyy-MM-dd)", example = "2025-02-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-      @Parameter(description = "Fecha de fin (yyyy-MM-dd)", example = "2025-02-03") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-    return ResponseEntity.ok(availabilityApplicationService.isCabinAvailable(cabinId, startDate, endDate));
+      @Parameter(description = "Fecha de fin (yyyy-MM-dd)", example = "2025-02-03") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, cabinETag(cabinId),
+        () -> availabilityApplicationService.isCabinAvailable(cabinId, startDate, endDate));
+  }
+
+  @GetMapping("/search")
+  @Operation(summary = "Buscar cabañas disponibles", description = "Devuelve en una sola petición las cabañas activas con capacidad para los huéspedes, libres en el rango de fechas y con su precio total cotizado", responses = {
+      @ApiResponse(responseCode = "200", description = "Cabañas disponibles obtenidas exitosamente", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AvailableCabinResponse.class)), examples = @ExampleObject(value = """
+          [
+            {
+              "cabinId": 1,
+              "name": "Cabaña del Lago",
+              "capacity": 6,
+              "basePrice": 150000.00,
+              "nights": 3,
+              "totalPrice": 450000.00
+            }
+          ]
+          """))),
+      @ApiResponse(responseCode = "400", description = "Parámetros inválidos", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = """
+          {
+            "timestamp": "2024-01-01T10:00:00.000+00:00",
+            "status": 400,
+            "error": "Bad Request",
+            "message": "Invalid date range",
+            "path": "/api/availability/search"
+          }
+          """)))
+  })
+  public ResponseEntity<List<AvailableCabinResponse>> searchAvailableCabins(
+      @Parameter(description = "Fecha de inicio (yyyy-MM-dd)", example = "2025-02-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @Parameter(description = "Fecha de fin (yyyy-MM-dd)", example = "2025-02-04") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @Parameter(description = "Número de huéspedes", example = "4") @RequestParam int guests,
+      @Parameter(description = "Precio total mínimo de la estadía", example = "100000.00") @RequestParam(required = false) BigDecimal minPrice,
+      @Parameter(description = "Precio total máximo de la estadía", example = "600000.00") @RequestParam(required = false) BigDecimal maxPrice,
+      WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, globalETag(),
+        () -> availabilityApplicationService.searchAvailableCabins(startDate, endDate, guests, minPrice, maxPrice)
+            .stream()
+            .map(q -> new AvailableCabinResponse(q.cabin().getId(), q.cabin().getName(), q.cabin().getCapacity(),
+                q.cabin().getBasePrice(), q.nights(), q.totalPrice()))
+            .collect(Collectors.toList()));
+  }
+
+  @GetMapping("/flexible")
+  @Operation(summary = "Búsqueda con fechas flexibles", description = "Devuelve todas las fechas de llegada dentro del periodo en las que una cabaña (o cada cabaña activa, si no se indica) está libre durante las noches pedidas", responses = {
+      @ApiResponse(responseCode = "200", description = "Fechas de llegada obtenidas exitosamente", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = FlexibleStaysResponse.class)), examples = @ExampleObject(value = """
+          [
+            {
+              "cabinId": 1,
+              "nights": 3,
+              "startDates": ["2025-03-02", "2025-03-03", "2025-03-20"]
+            }
+          ]
+          """))),
+      @ApiResponse(responseCode = "400", description = "Parámetros inválidos", content = @Content(mediaType = "application/json", examples = @ExampleObject(value = """
+          {
+            "timestamp": "2024-01-01T10:00:00.000+00:00",
+            "status": 400,
+            "error": "Bad Request",
+            "message": "Minimum stay is 2 nights",
+            "path": "/api/availability/flexible"
+          }
+          """))),
+      @ApiResponse(responseCode = "404", description = "Cabaña no encontrada")
+  })
+  public ResponseEntity<List<FlexibleStaysResponse>> findFlexibleStays(
+      @Parameter(description = "ID de la cabaña (opcional; todas las activas si se omite)", example = "1") @RequestParam(required = false) Long cabinId,
+      @Parameter(description = "Inicio del periodo (yyyy-MM-dd)", example = "2025-03-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @Parameter(description = "Fin del periodo (yyyy-MM-dd)", example = "2025-03-31") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      @Parameter(description = "Noches de la estadía", example = "3") @RequestParam int nights,
+      WebRequest webRequest) {
+    String etag = cabinId != null ? cabinETag(cabinId) : globalETag();
+    return ConditionalResponses.conditional(webRequest, etag,
+        () -> availabilityApplicationService.findFlexibleStays(cabinId, startDate, endDate, nights)
+            .stream()
+            .map(s -> new FlexibleStaysResponse(s.cabinId(), s.nights(), s.startDates()))
+            .collect(Collectors.toList()));
   }
 }
@@ -1,6 +1,7 @@
 package com.cooperative.cabin.presentation.controller;
 
 import com.cooperative.cabin.application.service.CabinApplicationService;
+import com.cooperative.cabin.application.service.DataVersionRegistry;
 import com.cooperative.cabin.presentation.dto.CabinResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -22,9 +24,11 @@ import java.util.List;
 public class CabinController {
 
   private final CabinApplicationService cabinApplicationService;
+  private final DataVersionRegistry dataVersions;
 
-  public CabinController(CabinApplicationService cabinApplicationService) {
+  public CabinController(CabinApplicationService cabinApplicationService, DataVersionRegistry dataVersions) {
     this.cabinApplicationService = cabinApplicationService;
+    this.dataVersions = dataVersions;
   }
 
   @GetMapping
@@ -49,9 +53,9 @@ public class CabinController {
             }
           ]
           """))) })
-  public ResponseEntity<List<CabinResponse>> getAllCabins() {
-    List<CabinResponse> cabins = cabinApplicationService.getAllActiveCabins();
-    return ResponseEntity.ok(cabins);
+  public ResponseEntity<List<CabinResponse>> getAllCabins(WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, ConditionalResponses.globalETag(dataVersions),
+        cabinApplicationService::getAllActiveCabins);
   }
 
   @GetMapping("/{id}")
@@ -77,9 +81,10 @@ public class CabinController {
       @ApiResponse(responseCode = "404", description = "Cabaña no encontrada")
   })
   public ResponseEntity<CabinResponse> getCabinById(
-      @Parameter(description = "ID de la cabaña", example = "1") @PathVariable Long id) {
-    CabinResponse cabin = cabinApplicationService.getCabinById(id);
-    return ResponseEntity.ok(cabin);
+      @Parameter(description = "ID de la cabaña", example = "1") @PathVariable Long id,
+      WebRequest webRequest) {
+    return ConditionalResponses.conditional(webRequest, ConditionalResponses.cabinETag(dataVersions, id),
+        () -> cabinApplicationService.getCabinById(id));
   }
 
   @GetMapping("/search")
@@ -98,9 +103,11 @@ public class CabinController {
 
       @Parameter(description = "Precio máximo", example = "300.00") @RequestParam(required = false) BigDecimal maxPrice,
 
-      @Parameter(description = "Nombre de la cabaña (búsqueda parcial)", example = "lago") @RequestParam(required = false) String name) {
+      @Parameter(description = "Nombre de la cabaña (búsqueda parcial)", example = "lago") @RequestParam(required = false) String name,
 
-    List<CabinResponse> cabins = cabinApplicationService.searchCabins(minCapacity, minPrice, maxPrice, name);
-    return ResponseEntity.ok(cabins);
+      WebRequest webRequest) {
+
+    return ConditionalResponses.conditional(webRequest, ConditionalResponses.globalETag(dataVersions),
+        () -> cabinApplicationService.searchCabins(minCapacity, minPrice, maxPrice, name));
   }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.cooperative.cabin.presentation.controller;
+
+import com.cooperative.cabin.application.service.CheckoutHolds;
+import com.cooperative.cabin.application.service.ReservationApplicationService;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.presentation.dto.ConvertHoldRequest;
+import com.cooperative.cabin.presentation.dto.CreateHoldRequest;
+import com.cooperative.cabin.presentation.dto.HoldResponse;
+import com.cooperative.cabin.presentation.dto.ReservationResponse;
+import com.cooperative.cabin.presentation.mapper.ReservationMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+@RestController
+@RequestMapping("/api/reservations/holds")
+@Tag(name = "Checkout Holds", description = "Retención temporal de fechas mientras se completa una reserva")
+public class CheckoutHoldController {
+
+        private final ReservationApplicationService reservationApplicationService;
+
+        public CheckoutHoldController(ReservationApplicationService reservationApplicationService) {
+                this.reservationApplicationService = reservationApplicationService;
+        }
+
+        @PostMapping
+        @Operation(summary = "Retener fechas", description = "Aparta la cabaña en el rango por unos minutos; reemplaza cualquier retención anterior del usuario", responses = {
+                        @ApiResponse(responseCode = "201", description = "Retención creada"),
+                        @ApiResponse(responseCode = "409", description = "Fechas reservadas o retenidas por otro socio")
+        })
+        public ResponseEntity<HoldResponse> place(@RequestBody CreateHoldRequest request,
+                        @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
+                CheckoutHolds.Hold hold = reservationApplicationService.placeHold(userId, request.cabinId(),
+                                request.startDate(), request.endDate());
+                return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(hold));
+        }
+
+        @PostMapping("/{id}/reservation")
+        @Operation(summary = "Convertir retención en pre-reserva", description = "Crea la reserva PENDING con las fechas retenidas sin volver a verificar disponibilidad", responses = {
+                        @ApiResponse(responseCode = "201", description = "Pre-reserva creada"),
+                        @ApiResponse(responseCode = "409", description = "Retención vencida o política de reservas incumplida")
+        })
+        public ResponseEntity<ReservationResponse> convert(
+                        @Parameter(description = "ID de la retención") @PathVariable("id") String holdId,
+                        @RequestBody ConvertHoldRequest request,
+                        @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
+                Reservation created = reservationApplicationService.createPreReservationFromHold(userId, holdId,
+                                request.guests(), parseTime(request.checkInTime()), parseTime(request.checkOutTime()));
+                return ResponseEntity.status(HttpStatus.CREATED).body(ReservationMapper.INSTANCE.toResponse(created));
+        }
+
+        @DeleteMapping("/{id}")
+        @Operation(summary = "Liberar retención", responses = {
+                        @ApiResponse(responseCode = "204", description = "Retención liberada"),
+                        @ApiResponse(responseCode = "404", description = "Retención no encontrada")
+        })
+        public ResponseEntity<Void> release(
+                        @Parameter(description = "ID de la retención") @PathVariable("id") String holdId,
+                        @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
+                return reservationApplicationService.releaseHold(userId, holdId)
+                                ? ResponseEntity.noContent().build()
+                                : ResponseEntity.notFound().build();
+        }
+
+        private static HoldResponse toResponse(CheckoutHolds.Hold hold) {
+                return new HoldResponse(hold.id(), hold.cabinId(), hold.startDate(), hold.endDate(), hold.expiresAt());
+        }
+
+        private static LocalTime parseTime(String value) {
+                return value != null && !value.isEmpty() ? LocalTime.parse(value, DateTimeFormatter.ofPattern("HH:mm"))
+                                : null;
+        }
+}
@@ -0,0 +1,56 @@
+package com.cooperative.cabin.presentation.controller;
+
+import com.cooperative.cabin.application.service.DataVersionRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional para los endpoints públicos: ETags fuertes derivados de
+ * {@link DataVersionRegistry}. Si If-None-Match coincide se responde 304 sin
+ * invocar al servicio. Con los ETags desactivados (varias instancias) los
+ * ETags son null y se responde siempre 200 sin ETag.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    static String globalETag(DataVersionRegistry versions) {
+        if (!versions.enabled()) {
+            return null;
+        }
+        return "\"" + versions.epoch() + "-g" + versions.globalVersion() + "\"";
+    }
+
+    static String cabinETag(DataVersionRegistry versions, Long cabinId) {
+        if (!versions.enabled()) {
+            return null;
+        }
+        return "\"" + versions.epoch() + "-c" + cabinId + "-" + versions.cabinVersion(cabinId) + "\"";
+    }
+
+    /**
+     * Variante para respuestas que dependen de la fecha actual (ventanas que
+     * empiezan hoy o días pasados marcados como no disponibles)
+     */
+    static String datedETag(String etag, LocalDate today) {
+        if (etag == null) {
+            return null;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + today + "\"";
+    }
+
+    static <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
+    }
+}
@@ -0,0 +1,58 @@
+package com.cooperative.cabin.presentation.controller;
+
+import com.cooperative.cabin.application.service.DataVersionRegistry;
+import com.cooperative.cabin.application.service.PriceQuoteEngine;
+import com.cooperative.cabin.application.service.PriceTimeline;
+import com.cooperative.cabin.presentation.dto.PriceQuoteResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/cabins")
+@Tag(name = "Cabañas", description = "Consulta de cabañas disponibles (público)")
+public class PriceQuoteController {
+
+  private final PriceQuoteEngine priceQuoteEngine;
+  private final DataVersionRegistry dataVersions;
+
+  public PriceQuoteController(PriceQuoteEngine priceQuoteEngine, DataVersionRegistry dataVersions) {
+    this.priceQuoteEngine = priceQuoteEngine;
+    this.dataVersions = dataVersions;
+  }
+
+  @GetMapping("/{id}/quote")
+  @Operation(summary = "Cotizar estadía", description = "Precio de las noches [startDate, endDate) según los rangos de precios de la cabaña; las noches sin rango se cobran al precio base", responses = {
+      @ApiResponse(responseCode = "200", description = "Cotización calculada"),
+      @ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
+      @ApiResponse(responseCode = "400", description = "Rango de fechas inválido"),
+      @ApiResponse(responseCode = "404", description = "Cabaña no encontrada")
+  })
+  public ResponseEntity<PriceQuoteResponse> quote(
+      @Parameter(description = "ID de la cabaña", example = "1") @PathVariable("id") Long cabinId,
+      @Parameter(description = "Fecha de llegada", example = "2025-02-01") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+      @Parameter(description = "Fecha de salida", example = "2025-02-04") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+      WebRequest webRequest) {
+    // Los cambios de rangos y de la cabaña incrementan la versión de la cabaña
+    return ConditionalResponses.conditional(webRequest, ConditionalResponses.cabinETag(dataVersions, cabinId),
+        () -> toResponse(cabinId, priceQuoteEngine.quote(cabinId, startDate, endDate)));
+  }
+
+  static PriceQuoteResponse toResponse(Long cabinId, PriceTimeline.Quote quote) {
+    return new PriceQuoteResponse(cabinId, quote.startDate(), quote.endDate(), quote.nights(), quote.basePrice(),
+        quote.totalPrice(), quote.segments().stream()
+            .map(s -> new PriceQuoteResponse.Segment(s.firstNight(), s.nights(), s.nightlyPrice()))
+            .toList());
+  }
+}
@@ -1,9 +1,20 @@
 package com.cooperative.cabin.presentation.controller;
 
+import com.cooperative.cabin.application.service.EpochDays;
+import com.cooperative.cabin.application.service.KeysetPage;
+import com.cooperative.cabin.application.service.PriceRangeImportService;
+import com.cooperative.cabin.application.service.PriceTimeline;
 import com.cooperative.cabin.application.service.PricingApplicationService;
 import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeRow;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeRow;
+import com.cooperative.cabin.presentation.dto.BatchQuoteRequest;
+import com.cooperative.cabin.presentation.dto.CabinPriceCalendarResponse;
+import com.cooperative.cabin.presentation.dto.KeysetPageResponse;
 import com.cooperative.cabin.presentation.dto.PatchPriceRangeRequest;
+import com.cooperative.cabin.presentation.dto.PriceQuoteResponse;
 import com.cooperative.cabin.presentation.dto.PriceRangeResponse;
+import com.cooperative.cabin.presentation.dto.SeasonRangeRequest;
 import com.cooperative.cabin.presentation.mapper.PriceRangeMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,12 +26,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import com.cooperative.cabin.presentation.dto.PriceChangeResponse;
 
 @RestController
@@ -30,9 +47,12 @@ import com.cooperative.cabin.presentation.dto.PriceChangeResponse;
 public class PricingAdminController {
 
     private final PricingApplicationService pricingApplicationService;
+    private final PriceRangeImportService priceRangeImportService;
 
-    public PricingAdminController(PricingApplicationService pricingApplicationService) {
+    public PricingAdminController(PricingApplicationService pricingApplicationService,
+            PriceRangeImportService priceRangeImportService) {
         this.pricingApplicationService = pricingApplicationService;
+        this.priceRangeImportService = priceRangeImportService;
     }
 
     @PatchMapping("/ranges/{id}")
@@ -160,25 +180,109 @@ public class PricingAdminController {
         return ResponseEntity.status(org.springframework.http.HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping(value = "/ranges/import", consumes = "text/csv")
+    @Operation(summary = "Importar programación de temporada desde CSV", description = "Encabezados cabinId,startDate,endDate,basePrice,multiplier[,reason]. Todos los rangos se validan juntos y se guardan en una sola transacción; con mode=REJECT un solape con rangos existentes rechaza la importación y con mode=MERGE los importados prevalecen", responses = {
+            @ApiResponse(responseCode = "200", description = "Importación aplicada"),
+            @ApiResponse(responseCode = "409", description = "No se guardó nada; conflicts indica las líneas con problemas")
+    })
+    public ResponseEntity<PriceRangeImportService.ImportResult> importCsv(
+            @Parameter(description = "REJECT o MERGE", example = "REJECT") @RequestParam(defaultValue = "REJECT") String mode,
+            InputStream body) {
+        List<PriceRangeImportService.SeasonRange> ranges = PriceRangeImportService
+                .readCsv(new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        return importResult(priceRangeImportService.importSchedule(ranges, overlapMode(mode)));
+    }
+
+    @PostMapping(value = "/ranges/import", consumes = "application/json")
+    @Operation(summary = "Importar programación de temporada desde JSON", description = "Arreglo de rangos; conflicts usa la posición en el arreglo (desde 1) como línea", responses = {
+            @ApiResponse(responseCode = "200", description = "Importación aplicada"),
+            @ApiResponse(responseCode = "409", description = "No se guardó nada; conflicts indica los rangos con problemas")
+    })
+    public ResponseEntity<PriceRangeImportService.ImportResult> importJson(
+            @Parameter(description = "REJECT o MERGE", example = "REJECT") @RequestParam(defaultValue = "REJECT") String mode,
+            @RequestBody List<SeasonRangeRequest> request) {
+        List<PriceRangeImportService.SeasonRange> ranges = new java.util.ArrayList<>(request.size());
+        for (int i = 0; i < request.size(); i++) {
+            SeasonRangeRequest item = request.get(i);
+            ranges.add(item == null ? PriceRangeImportService.SeasonRange.invalid(i + 1, "Rango vacío")
+                    : new PriceRangeImportService.SeasonRange(i + 1, item.cabinId(), item.startDate(),
+                            item.endDate(), item.basePrice(), item.multiplier(), item.reason(), null));
+        }
+        return importResult(priceRangeImportService.importSchedule(ranges, overlapMode(mode)));
+    }
+
+    private static PriceRangeImportService.OverlapMode overlapMode(String mode) {
+        return PriceRangeImportService.OverlapMode.valueOf(mode.trim().toUpperCase(java.util.Locale.ROOT));
+    }
+
+    private static ResponseEntity<PriceRangeImportService.ImportResult> importResult(
+            PriceRangeImportService.ImportResult result) {
+        return ResponseEntity.status(result.applied() ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
+
+    @GetMapping("/ranges/page")
+    @Operation(summary = "Listar rangos de precios paginado", description = "Rangos en orden de id, paginados por cursor, con el nombre de la cabaña y del creador", responses = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválido")
+    })
+    public ResponseEntity<KeysetPageResponse<PriceRangeRow>> rangesPage(
+            @Parameter(description = "Filtrar por cabaña", example = "1") @RequestParam(required = false) Long cabinId,
+            @Parameter(description = "nextCursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-200)", example = "50") @RequestParam(defaultValue = "50") int size) {
+        KeysetPage<PriceRangeRow> page = pricingApplicationService.listPriceRanges(cabinId, cursor, size);
+        return ResponseEntity.ok(new KeysetPageResponse<>(page.items(), page.nextCursor()));
+    }
+
     @GetMapping("/calendar/{year}/{month}")
     @Operation(summary = "Calendario de precios", responses = @ApiResponse(responseCode = "200", description = "OK"))
     public ResponseEntity<Map<String, java.math.BigDecimal>> calendar(@PathVariable int year, @PathVariable int month) {
         return ResponseEntity.ok(pricingApplicationService.getCalendar(year, month));
     }
 
+    @GetMapping("/cabins/{cabinId}/calendar")
+    @Operation(summary = "Calendario de precios de una cabaña", description = "Precio por noche de la cabaña durante uno o más meses, en orden de fecha y en forma compacta (precios distintos más un índice por día)", responses = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Cantidad de meses fuera de rango"),
+            @ApiResponse(responseCode = "404", description = "Cabaña no encontrada")
+    })
+    public ResponseEntity<CabinPriceCalendarResponse> cabinCalendar(
+            @Parameter(description = "ID de la cabaña", example = "1") @PathVariable("cabinId") Long cabinId,
+            @Parameter(description = "Año del primer mes", example = "2025") @RequestParam int year,
+            @Parameter(description = "Primer mes (1-12)", example = "2") @RequestParam int month,
+            @Parameter(description = "Meses a incluir (1-12)", example = "3") @RequestParam(defaultValue = "1") int months) {
+        PricingApplicationService.PriceDays days = pricingApplicationService.getCabinPriceDays(cabinId, year, month,
+                months);
+        return ResponseEntity.ok(new CabinPriceCalendarResponse(cabinId, EpochDays.format(days.firstDay()),
+                days.length(), List.of(days.prices()), days.slots()));
+    }
+
     @GetMapping("/history")
     @Operation(summary = "Historial de cambios de precio")
     public ResponseEntity<List<PriceChangeResponse>> history() {
         List<Map<String, Object>> rows = pricingApplicationService.getHistory();
+        // oldPrice es null en las altas y newPrice en las eliminaciones
         List<PriceChangeResponse> dto = rows.stream().map(row -> new PriceChangeResponse(
                 ((Number) row.get("id")).longValue(),
-                ((Number) row.get("cabinId")).longValue(),
-                String.valueOf(row.get("date")),
-                String.valueOf(row.get("oldPrice")),
-                String.valueOf(row.get("newPrice")))).toList();
+                row.get("cabinId") != null ? ((Number) row.get("cabinId")).longValue() : null,
+                Objects.toString(row.get("date"), null),
+                Objects.toString(row.get("oldPrice"), null),
+                Objects.toString(row.get("newPrice"), null))).toList();
         return ResponseEntity.ok(dto);
     }
 
+    @GetMapping("/history/changes")
+    @Operation(summary = "Historial de cambios de precio paginado", description = "Cambios registrados, los más recientes primero, paginados por cursor; la cabaña y el autor se resuelven en la misma consulta", responses = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Cursor o tamaño inválido")
+    })
+    public ResponseEntity<KeysetPageResponse<PriceChangeRow>> priceChanges(
+            @Parameter(description = "Filtrar por cabaña", example = "1") @RequestParam(required = false) Long cabinId,
+            @Parameter(description = "nextCursor de la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (1-200)", example = "50") @RequestParam(defaultValue = "50") int size) {
+        KeysetPage<PriceChangeRow> page = pricingApplicationService.getPriceChanges(cabinId, cursor, size);
+        return ResponseEntity.ok(new KeysetPageResponse<>(page.items(), page.nextCursor()));
+    }
+
     @GetMapping("/calculate")
     @Operation(summary = "Calcular precio para día")
     public ResponseEntity<Map<String, java.math.BigDecimal>> calculate(@RequestParam Long cabinId,
@@ -187,6 +291,27 @@ public class PricingAdminController {
         return ResponseEntity.ok(java.util.Map.of("price", price));
     }
 
+    @PostMapping("/quotes")
+    @Operation(summary = "Cotizar varias estadías", description = "Cotiza cada estadía [startDate, endDate) con los rangos de precios de su cabaña, cargados con una sola consulta; las cotizaciones vuelven en el orden de la solicitud", responses = {
+            @ApiResponse(responseCode = "200", description = "Cotizaciones calculadas"),
+            @ApiResponse(responseCode = "400", description = "Lista vacía, demasiado larga o con fechas inválidas"),
+            @ApiResponse(responseCode = "404", description = "Alguna cabaña no existe")
+    })
+    public ResponseEntity<List<PriceQuoteResponse>> quoteBatch(@RequestBody BatchQuoteRequest request) {
+        List<PricingApplicationService.QuoteRequest> requests = request.quotes() == null ? List.of()
+                : request.quotes().stream()
+                        .map(item -> item == null ? null
+                                : new PricingApplicationService.QuoteRequest(item.cabinId(), item.startDate(),
+                                        item.endDate()))
+                        .toList();
+        List<PriceTimeline.Quote> quotes = pricingApplicationService.quoteBatch(requests);
+        List<PriceQuoteResponse> response = new java.util.ArrayList<>(quotes.size());
+        for (int i = 0; i < quotes.size(); i++) {
+            response.add(PriceQuoteController.toResponse(requests.get(i).cabinId(), quotes.get(i)));
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @Schema(description = "Solicitud de creación de rango de precios")
     public static class CreatePriceRangeRequest {
         @Schema(description = "ID de la cabaña", example = "1")
@@ -1,5 +1,6 @@
 package com.cooperative.cabin.presentation.controller;
 
+import com.cooperative.cabin.application.service.IdempotencyStore;
 import com.cooperative.cabin.application.service.ReservationApplicationService;
 import com.cooperative.cabin.domain.model.Reservation;
 import com.cooperative.cabin.presentation.dto.CreateReservationRequest;
@@ -26,9 +27,12 @@ import org.springframework.web.bind.annotation.*;
 public class ReservationController {
 
         private final ReservationApplicationService reservationApplicationService;
+        private final IdempotencyStore idempotencyStore;
 
-        public ReservationController(ReservationApplicationService reservationApplicationService) {
+        public ReservationController(ReservationApplicationService reservationApplicationService,
+                        IdempotencyStore idempotencyStore) {
                 this.reservationApplicationService = reservationApplicationService;
+                this.idempotencyStore = idempotencyStore;
         }
 
         @PostMapping
@@ -82,7 +86,19 @@ public class ReservationController {
                                         }
                                         """)))
         })
-        public ResponseEntity<ReservationResponse> create(@RequestBody CreateReservationRequest request) {
+        public ResponseEntity<?> create(@RequestBody CreateReservationRequest request,
+                        @Parameter(hidden = true) @RequestAttribute("userId") Long userId,
+                        @Parameter(description = "Clave única del intento; los reintentos con la misma clave devuelven la respuesta original") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+                if (idempotencyKey == null) {
+                        return doCreate(request);
+                }
+                // Ámbito por usuario autenticado, no por el userId del cuerpo: otro
+                // cliente no puede reutilizar ni leer la respuesta de esta clave
+                return idempotencyStore.execute("POST /api/reservations:user=" + userId, idempotencyKey,
+                                request, () -> doCreate(request));
+        }
+
+        private ResponseEntity<?> doCreate(CreateReservationRequest request) {
                 // Parsear horarios opcionales
                 LocalTime checkInTime = null;
                 LocalTime checkOutTime = null;
@@ -147,10 +163,15 @@ public class ReservationController {
                                         }
                                         """)))
         })
-        public ResponseEntity<Reservation> cancel(
+        public ResponseEntity<?> cancel(
                         @Parameter(description = "ID de la reserva a cancelar", example = "1") @PathVariable("id") Long reservationId,
-                        @Parameter(hidden = true) @RequestAttribute("userId") Long userId) {
-                Reservation cancelled = reservationApplicationService.cancelByUser(userId, reservationId);
-                return ResponseEntity.ok(cancelled);
+                        @Parameter(hidden = true) @RequestAttribute("userId") Long userId,
+                        @Parameter(description = "Clave única del intento; los reintentos con la misma clave devuelven la respuesta original") @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+                if (idempotencyKey == null) {
+                        return ResponseEntity.ok(reservationApplicationService.cancelByUser(userId, reservationId));
+                }
+                return idempotencyStore.execute("DELETE /api/reservations/" + reservationId + ":user=" + userId,
+                                idempotencyKey, null,
+                                () -> ResponseEntity.ok(reservationApplicationService.cancelByUser(userId, reservationId)));
         }
 }
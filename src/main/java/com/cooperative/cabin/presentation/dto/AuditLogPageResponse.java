@@ -0,0 +1,14 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página de auditoría por cursor: para la siguiente se envía nextCursor como cursor")
+public record AuditLogPageResponse(
+        @Schema(description = "Registros de la página, del más reciente al más antiguo") List<AuditLogResponse> items,
+
+        @Schema(description = "Cursor de la siguiente página; null si no hay más", example = "MjAyNC0wMS0wMVQwMDowMHwxNQ") String nextCursor,
+
+        @Schema(description = "Total aproximado de registros (estadísticas de la base de datos); null si no se pidió, hay filtros o no está disponible", example = "125000") Long approximateTotal) {
+}
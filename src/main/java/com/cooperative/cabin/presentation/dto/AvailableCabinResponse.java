@@ -0,0 +1,20 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Cabaña disponible para el rango consultado, con su precio cotizado")
+public record AvailableCabinResponse(
+        @Schema(description = "ID de la cabaña", example = "1") Long cabinId,
+
+        @Schema(description = "Nombre de la cabaña", example = "Cabaña del Lago") String name,
+
+        @Schema(description = "Capacidad máxima de huéspedes", example = "6") Integer capacity,
+
+        @Schema(description = "Precio base por noche", example = "150000.00") BigDecimal basePrice,
+
+        @Schema(description = "Noches cotizadas", example = "3") int nights,
+
+        @Schema(description = "Precio total cotizado para la estadía", example = "450000.00") BigDecimal totalPrice) {
+}
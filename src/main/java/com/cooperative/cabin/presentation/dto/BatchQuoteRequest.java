@@ -0,0 +1,20 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Solicitud de cotización de varias estadías en una sola llamada")
+public record BatchQuoteRequest(
+        @Schema(description = "Estadías a cotizar (máximo 200)") List<Item> quotes) {
+
+    @Schema(description = "Estadía a cotizar: noches [startDate, endDate) en la cabaña")
+    public record Item(
+            @Schema(description = "ID de la cabaña", example = "1") Long cabinId,
+
+            @Schema(description = "Fecha de llegada", example = "2025-02-07") LocalDate startDate,
+
+            @Schema(description = "Fecha de salida", example = "2025-02-09") LocalDate endDate) {
+    }
+}
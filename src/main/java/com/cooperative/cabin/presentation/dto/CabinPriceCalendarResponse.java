@@ -0,0 +1,19 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Schema(description = "Calendario de precios compacto de una cabaña: un índice de precio por día a partir de startDate")
+public record CabinPriceCalendarResponse(
+        @Schema(description = "ID de la cabaña", example = "1") Long cabinId,
+
+        @Schema(description = "Primer día del calendario (posición 0 de slots)", example = "2025-02-01") String startDate,
+
+        @Schema(description = "Número de días representados", example = "59") int days,
+
+        @Schema(description = "Precios por noche distintos del periodo", example = "[150000.00, 180000.00]") List<BigDecimal> prices,
+
+        @Schema(description = "Para cada día, en orden de fecha, la posición de su precio en prices", example = "[0, 0, 1, 1, 0]") int[] slots) {
+}
@@ -0,0 +1,16 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Map;
+
+@Schema(description = "Calendario de disponibilidad compacto: un bitmap por cabaña a partir de startDate")
+public record CompactCalendarResponse(
+        @Schema(description = "Primer día del calendario (bit 0)", example = "2025-02-01") String startDate,
+
+        @Schema(description = "Número de días representados", example = "59") int days,
+
+        @Schema(description = "Codificación de cada bitmap: 'bitmap' (base64, bit i del byte i/8 = día i, 1 = disponible) o 'rle' (longitudes de tramos alternos separadas por comas, empezando por días disponibles)", example = "bitmap") String encoding,
+
+        @Schema(description = "Bitmap codificado por ID de cabaña", example = "{\"1\": \"/f//fw==\"}") Map<Long, String> cabins) {
+}
@@ -0,0 +1,12 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Datos para convertir una retención en pre-reserva")
+public record ConvertHoldRequest(
+        @Schema(description = "Número de huéspedes", example = "2") int guests,
+
+        @Schema(description = "Hora de check-in", example = "14:00") String checkInTime,
+
+        @Schema(description = "Hora de check-out", example = "12:00") String checkOutTime) {
+}
@@ -0,0 +1,14 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Solicitud de retención de fechas durante el checkout")
+public record CreateHoldRequest(
+        @Schema(description = "ID de la cabaña", example = "2") Long cabinId,
+
+        @Schema(description = "Fecha de inicio", example = "2025-01-10") LocalDate startDate,
+
+        @Schema(description = "Fecha de fin", example = "2025-01-12") LocalDate endDate) {
+}
@@ -0,0 +1,15 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Fechas de llegada posibles de una cabaña para una estadía de duración fija")
+public record FlexibleStaysResponse(
+        @Schema(description = "ID de la cabaña", example = "1") Long cabinId,
+
+        @Schema(description = "Noches de la estadía", example = "3") int nights,
+
+        @Schema(description = "Fechas de llegada con la estadía completa libre", example = "[\"2025-03-02\", \"2025-03-03\"]") List<LocalDate> startDates) {
+}
@@ -0,0 +1,19 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Schema(description = "Retención de checkout vigente")
+public record HoldResponse(
+        @Schema(description = "ID de la retención", example = "3f1c2a9e-8d4b-4e57-9a60-2b1f6c0d7e11") String id,
+
+        @Schema(description = "ID de la cabaña", example = "2") Long cabinId,
+
+        @Schema(description = "Fecha de inicio", example = "2025-01-10") LocalDate startDate,
+
+        @Schema(description = "Fecha de fin", example = "2025-01-12") LocalDate endDate,
+
+        @Schema(description = "Momento en que vence la retención", example = "2025-01-01T10:10:00Z") Instant expiresAt) {
+}
@@ -0,0 +1,12 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página por cursor: para la siguiente se envía nextCursor como cursor")
+public record KeysetPageResponse<T>(
+        @Schema(description = "Elementos de la página") List<T> items,
+
+        @Schema(description = "Cursor de la siguiente página; null si no hay más", example = "42") String nextCursor) {
+}
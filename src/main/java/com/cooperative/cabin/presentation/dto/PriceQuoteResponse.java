@@ -0,0 +1,33 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Cotización de una estadía en una cabaña")
+public record PriceQuoteResponse(
+        @Schema(description = "ID de la cabaña", example = "1") Long cabinId,
+
+        @Schema(description = "Fecha de llegada", example = "2025-02-01") LocalDate startDate,
+
+        @Schema(description = "Fecha de salida", example = "2025-02-04") LocalDate endDate,
+
+        @Schema(description = "Noches cotizadas", example = "3") int nights,
+
+        @Schema(description = "Precio base de la cabaña por las noches cotizadas", example = "450000.00") BigDecimal basePrice,
+
+        @Schema(description = "Precio total con los rangos de precios vigentes", example = "517500.00") BigDecimal totalPrice,
+
+        @Schema(description = "Tramos de noches consecutivas con el mismo precio") List<Segment> segments) {
+
+    @Schema(description = "Noches consecutivas cobradas al mismo precio")
+    public record Segment(
+            @Schema(description = "Primera noche del tramo", example = "2025-02-01") LocalDate firstNight,
+
+            @Schema(description = "Noches del tramo", example = "2") int nights,
+
+            @Schema(description = "Precio por noche", example = "172500.00") BigDecimal nightlyPrice) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.cooperative.cabin.presentation.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Rango de precios de la programación de una temporada")
+public record SeasonRangeRequest(
+        @Schema(description = "ID de la cabaña", example = "1") Long cabinId,
+
+        @Schema(description = "Primer día del rango", example = "2025-12-15") LocalDate startDate,
+
+        @Schema(description = "Último día del rango (inclusive)", example = "2026-01-15") LocalDate endDate,
+
+        @Schema(description = "Precio base por noche", example = "150000.00") BigDecimal basePrice,
+
+        @Schema(description = "Multiplicador de precio", example = "1.30") BigDecimal multiplier,
+
+        @Schema(description = "Motivo", example = "Temporada alta") String reason) {
+}
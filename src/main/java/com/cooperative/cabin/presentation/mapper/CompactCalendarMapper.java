@@ -0,0 +1,66 @@
+package com.cooperative.cabin.presentation.mapper;
+
+import com.cooperative.cabin.presentation.dto.CompactCalendarResponse;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Codifica bitmaps de disponibilidad (bit i = startDate + i días, 1 =
+ * disponible) sin generar una cadena por día.
+ */
+public final class CompactCalendarMapper {
+
+    public static final String BITMAP = "bitmap";
+    public static final String RLE = "rle";
+
+    private CompactCalendarMapper() {
+    }
+
+    public static boolean isSupported(String encoding) {
+        return BITMAP.equals(encoding) || RLE.equals(encoding);
+    }
+
+    public static CompactCalendarResponse toResponse(LocalDate startDate, int days, String encoding,
+            Map<Long, BitSet> availableByCabin) {
+        Map<Long, String> cabins = new LinkedHashMap<>();
+        availableByCabin.forEach((cabinId, bits) -> cabins.put(cabinId,
+                RLE.equals(encoding) ? runLength(bits, days) : base64(bits, days)));
+        return new CompactCalendarResponse(startDate.toString(), days, encoding, cabins);
+    }
+
+    /**
+     * Base64 de los bytes del bitmap en orden little-endian (el de
+     * {@link BitSet#toByteArray()}), con longitud fija de ceil(days / 8) bytes
+     */
+    static String base64(BitSet bits, int days) {
+        byte[] raw = bits.get(0, days).toByteArray();
+        byte[] padded = new byte[(days + 7) / 8];
+        System.arraycopy(raw, 0, padded, 0, raw.length);
+        return Base64.getEncoder().encodeToString(padded);
+    }
+
+    /**
+     * Longitudes de tramos alternos empezando por días disponibles; el primer
+     * tramo puede ser 0. Ej.: "0,3,28" = 3 días no disponibles y luego 28 libres
+     */
+    static String runLength(BitSet bits, int days) {
+        StringBuilder sb = new StringBuilder();
+        int pos = 0;
+        boolean available = true;
+        while (pos < days) {
+            int next = available ? bits.nextClearBit(pos) : bits.nextSetBit(pos);
+            if (next < 0 || next > days)
+                next = days;
+            if (sb.length() > 0)
+                sb.append(',');
+            sb.append(next - pos);
+            pos = next;
+            available = !available;
+        }
+        return sb.toString();
+    }
+}
@@ -8,15 +8,18 @@ import com.cooperative.cabin.domain.model.ReservationStatus;
 import com.cooperative.cabin.domain.model.User;
 import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
 import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
 import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
 import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -24,7 +27,12 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,9 +47,21 @@ class AvailabilityApplicationServiceTest {
     @Mock
     private CabinJpaRepository cabinRepository;
 
-    @InjectMocks
+    @Mock
+    private PriceRangeJpaRepository priceRangeRepository;
+
     private AvailabilityApplicationServiceImpl availabilityService;
 
+    @BeforeEach
+    void setUp() {
+        // El índice real se carga desde los repositorios mockeados (listas vacías
+        // por defecto)
+        CabinOccupancyIndex occupancyIndex = new CabinOccupancyIndex(reservationRepository,
+                availabilityBlockRepository);
+        availabilityService = new AvailabilityApplicationServiceImpl(availabilityBlockRepository, cabinRepository,
+                new PriceQuoteEngine(priceRangeRepository, cabinRepository), occupancyIndex);
+    }
+
     @Test
     void getAvailableDates_shouldReturnAvailableDatesFromAllActiveCabins() {
         // Given
@@ -49,8 +69,6 @@ class AvailabilityApplicationServiceTest {
         List<Cabin> activeCabins = List.of(cabin1);
 
         when(cabinRepository.findByActiveTrue()).thenReturn(activeCabins);
-        when(reservationRepository.isCabinReservedOnDate(eq(1L), any(LocalDate.class))).thenReturn(false);
-        when(availabilityBlockRepository.isDateBlocked(eq(1L), any(LocalDate.class))).thenReturn(false);
 
         // When
         List<String> result = availabilityService.getAvailableDates();
@@ -79,8 +97,6 @@ class AvailabilityApplicationServiceTest {
         List<Cabin> activeCabins = List.of(cabin1);
 
         when(cabinRepository.findByActiveTrue()).thenReturn(activeCabins);
-        when(reservationRepository.isCabinReservedOnDate(eq(1L), any(LocalDate.class))).thenReturn(false);
-        when(availabilityBlockRepository.isDateBlocked(eq(1L), any(LocalDate.class))).thenReturn(false);
 
         // When
         Map<String, Boolean> result = availabilityService.getAvailabilityCalendar(2025, 2);
@@ -110,8 +126,6 @@ class AvailabilityApplicationServiceTest {
         Long cabinId = 1L;
         Cabin cabin = TestEntityFactory.createCabin(cabinId, "Test Cabin", 4);
         when(cabinRepository.findById(cabinId)).thenReturn(Optional.of(cabin));
-        when(reservationRepository.isCabinReservedOnDate(eq(cabinId), any(LocalDate.class))).thenReturn(false);
-        when(availabilityBlockRepository.isDateBlocked(eq(cabinId), any(LocalDate.class))).thenReturn(false);
 
         // When
         List<String> result = availabilityService.getAvailableDatesForCabin(cabinId);
@@ -153,8 +167,6 @@ class AvailabilityApplicationServiceTest {
         Long cabinId = 1L;
         Cabin cabin = TestEntityFactory.createCabin(cabinId, "Test Cabin", 4);
         when(cabinRepository.findById(cabinId)).thenReturn(Optional.of(cabin));
-        when(reservationRepository.isCabinReservedOnDate(eq(cabinId), any(LocalDate.class))).thenReturn(false);
-        when(availabilityBlockRepository.isDateBlocked(eq(cabinId), any(LocalDate.class))).thenReturn(false);
 
         // When
         Map<String, Boolean> result = availabilityService.getAvailabilityCalendarForCabin(cabinId, 2025, 2);
@@ -174,8 +186,6 @@ class AvailabilityApplicationServiceTest {
         LocalDate endDate = LocalDate.now().plusDays(3);
 
         when(cabinRepository.findById(cabinId)).thenReturn(Optional.of(cabin));
-        when(reservationRepository.findActiveReservationsByCabinAndDateRange(cabinId, startDate, endDate))
-                .thenReturn(List.of());
         when(availabilityBlockRepository.findByCabinAndDateRange(cabinId, startDate, endDate))
                 .thenReturn(List.of());
 
@@ -196,11 +206,10 @@ class AvailabilityApplicationServiceTest {
         LocalDate endDate = LocalDate.now().plusDays(3);
 
         Reservation reservation = TestEntityFactory.createReservation(
-                user, cabin, startDate, endDate, 2, ReservationStatus.CONFIRMED);
+                10L, user, cabin, startDate, endDate, 2, ReservationStatus.CONFIRMED);
 
         when(cabinRepository.findById(cabinId)).thenReturn(Optional.of(cabin));
-        when(reservationRepository.findActiveReservationsByCabinAndDateRange(cabinId, startDate, endDate))
-                .thenReturn(List.of(reservation));
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of(reservation));
 
         // When
         boolean result = availabilityService.isCabinAvailable(cabinId, startDate, endDate);
@@ -241,8 +250,6 @@ class AvailabilityApplicationServiceTest {
                 cabin, startDate, endDate, "Maintenance", admin);
 
         when(cabinRepository.findById(cabinId)).thenReturn(Optional.of(cabin));
-        when(reservationRepository.findActiveReservationsByCabinAndDateRange(cabinId, startDate, endDate))
-                .thenReturn(List.of());
         when(availabilityBlockRepository.findByCabinAndDateRange(cabinId, startDate, endDate))
                 .thenReturn(List.of(block));
 
@@ -270,8 +277,6 @@ class AvailabilityApplicationServiceTest {
                 cabin, startDate.plusDays(1), endDate.plusDays(1), "Maintenance", admin);
 
         when(cabinRepository.findById(cabinId)).thenReturn(Optional.of(cabin));
-        when(reservationRepository.findActiveReservationsByCabinAndDateRange(cabinId, startDate, endDate))
-                .thenReturn(List.of());
         when(availabilityBlockRepository.findByCabinAndDateRange(cabinId, startDate, endDate))
                 .thenReturn(List.of(block));
 
@@ -290,9 +295,6 @@ class AvailabilityApplicationServiceTest {
         LocalDate startDate = LocalDate.now().plusDays(1);
         LocalDate endDate = LocalDate.now().plusDays(3);
 
-        when(reservationRepository.isCabinReservedOnDate(eq(cabinId), any(LocalDate.class))).thenReturn(false);
-        when(availabilityBlockRepository.isDateBlocked(eq(cabinId), any(LocalDate.class))).thenReturn(false);
-
         // When
         List<LocalDate> result = availabilityService.getAvailableDatesInRange(cabinId, startDate, endDate);
 
@@ -305,14 +307,14 @@ class AvailabilityApplicationServiceTest {
     void getAvailableDatesInRange_shouldExcludeReservedDates() {
         // Given
         Long cabinId = 1L;
+        Cabin cabin = TestEntityFactory.createCabin(cabinId, "Test Cabin", 4);
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
         LocalDate startDate = LocalDate.now().plusDays(1);
         LocalDate endDate = LocalDate.now().plusDays(3);
 
-        when(reservationRepository.isCabinReservedOnDate(cabinId, startDate)).thenReturn(false);
-        when(reservationRepository.isCabinReservedOnDate(cabinId, startDate.plusDays(1))).thenReturn(true); // Reserved
-        when(reservationRepository.isCabinReservedOnDate(cabinId, startDate.plusDays(2))).thenReturn(false);
-
-        when(availabilityBlockRepository.isDateBlocked(eq(cabinId), any(LocalDate.class))).thenReturn(false);
+        Reservation reserved = TestEntityFactory.createReservation(10L, user, cabin,
+                startDate.plusDays(1), startDate.plusDays(1), 2, ReservationStatus.PENDING);
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of(reserved));
 
         // When
         List<LocalDate> result = availabilityService.getAvailableDatesInRange(cabinId, startDate, endDate);
@@ -327,13 +329,14 @@ class AvailabilityApplicationServiceTest {
     void getAvailableDatesInRange_shouldExcludeBlockedDates() {
         // Given
         Long cabinId = 1L;
+        Cabin cabin = TestEntityFactory.createCabin(cabinId, "Test Cabin", 4);
+        User admin = TestEntityFactory.createAdmin(1L);
         LocalDate startDate = LocalDate.now().plusDays(1);
         LocalDate endDate = LocalDate.now().plusDays(3);
 
-        when(reservationRepository.isCabinReservedOnDate(eq(cabinId), any(LocalDate.class))).thenReturn(false);
-        when(availabilityBlockRepository.isDateBlocked(cabinId, startDate)).thenReturn(false);
-        when(availabilityBlockRepository.isDateBlocked(cabinId, startDate.plusDays(1))).thenReturn(true); // Blocked
-        when(availabilityBlockRepository.isDateBlocked(cabinId, startDate.plusDays(2))).thenReturn(false);
+        AvailabilityBlock block = TestEntityFactory.createAvailabilityBlock(20L, cabin,
+                startDate.plusDays(1), startDate.plusDays(1), "Maintenance", admin);
+        when(availabilityBlockRepository.findAll()).thenReturn(List.of(block));
 
         // When
         List<LocalDate> result = availabilityService.getAvailableDatesInRange(cabinId, startDate, endDate);
@@ -343,4 +346,190 @@ class AvailabilityApplicationServiceTest {
         assertThat(result).contains(startDate, startDate.plusDays(2));
         assertThat(result).doesNotContain(startDate.plusDays(1));
     }
+
+    @Test
+    void getAvailabilityCalendar_shouldMarkDayUnavailable_onlyWhenEveryCabinIsOccupied() {
+        // Given
+        Cabin cabin1 = TestEntityFactory.createCabin(1L, "Cabin 1", 4);
+        Cabin cabin2 = TestEntityFactory.createCabin(2L, "Cabin 2", 4);
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        when(cabinRepository.findByActiveTrue()).thenReturn(List.of(cabin1, cabin2));
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of(
+                TestEntityFactory.createReservation(10L, user, cabin1, LocalDate.of(2025, 2, 3),
+                        LocalDate.of(2025, 2, 5), 2, ReservationStatus.CONFIRMED),
+                TestEntityFactory.createReservation(11L, user, cabin2, LocalDate.of(2025, 2, 5),
+                        LocalDate.of(2025, 2, 6), 2, ReservationStatus.IN_USE)));
+
+        // When
+        Map<String, Boolean> result = availabilityService.getAvailabilityCalendar(2025, 2);
+
+        // Then
+        assertThat(result).hasSize(28);
+        assertThat(result.get("2025-02-03")).isTrue();
+        assertThat(result.get("2025-02-05")).isFalse();
+        assertThat(result.get("2025-02-06")).isTrue();
+    }
+
+    @Test
+    void readPath_shouldNotIssuePerDayQueries() {
+        // Given
+        Long cabinId = 1L;
+        LocalDate startDate = LocalDate.of(2025, 1, 1);
+        LocalDate endDate = LocalDate.of(2025, 3, 31);
+
+        // When
+        availabilityService.getAvailableDatesInRange(cabinId, startDate, endDate);
+
+        // Then
+        verify(reservationRepository, never()).isCabinReservedOnDate(anyLong(), any(LocalDate.class));
+        verify(availabilityBlockRepository, never()).isDateBlocked(anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    void searchAvailableCabins_filtersCapacityAvailabilityAndQuotesInOnePass() {
+        // Given
+        Cabin free = TestEntityFactory.createCabin(1L, "Free", 4);
+        Cabin small = TestEntityFactory.createCabin(2L, "Small", 2);
+        Cabin reserved = TestEntityFactory.createCabin(3L, "Reserved", 6);
+        Cabin blocked = TestEntityFactory.createCabin(4L, "Blocked", 4);
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        User admin = TestEntityFactory.createAdmin(2L);
+        LocalDate start = LocalDate.of(2025, 3, 10);
+        LocalDate end = LocalDate.of(2025, 3, 13);
+
+        when(cabinRepository.findByActiveTrue()).thenReturn(List.of(free, small, reserved, blocked));
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of(
+                TestEntityFactory.createReservation(10L, user, reserved, LocalDate.of(2025, 3, 12),
+                        LocalDate.of(2025, 3, 14), 2, ReservationStatus.CONFIRMED)));
+        when(availabilityBlockRepository.findByCabinsAndDateRange(anyCollection(), any(), any())).thenReturn(List.of(
+                TestEntityFactory.createAvailabilityBlock(20L, blocked, LocalDate.of(2025, 3, 11),
+                        LocalDate.of(2025, 3, 11), "Maintenance", admin)));
+        when(priceRangeRepository.findByCabin_Id(1L)).thenReturn(List.of(
+                TestEntityFactory.createPriceRange(30L, free, start, start, new BigDecimal("200.00"),
+                        new BigDecimal("1.5"), "Temporada alta", admin)));
+
+        // When
+        List<AvailabilityApplicationService.CabinQuote> result = availabilityService.searchAvailableCabins(start,
+                end, 3, null, null);
+
+        // Then
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).cabin().getId()).isEqualTo(1L);
+        assertThat(result.get(0).nights()).isEqualTo(3);
+        // 200 x 1.5 la primera noche y precio base (100) las otras dos
+        assertThat(result.get(0).totalPrice()).isEqualByComparingTo("500.00");
+        verify(availabilityBlockRepository, never()).findByCabinAndDateRange(anyLong(), any(), any());
+        // La cotización sale del cotizador, que ya tiene la cabaña cargada
+        verify(cabinRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void searchAvailableCabins_appliesTotalPriceBounds() {
+        // Given
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+        when(cabinRepository.findByActiveTrue()).thenReturn(List.of(cabin));
+        LocalDate start = LocalDate.of(2025, 3, 10);
+
+        // When
+        List<AvailabilityApplicationService.CabinQuote> result = availabilityService.searchAvailableCabins(start,
+                start.plusDays(2), 2, null, new BigDecimal("150.00"));
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void searchAvailableCabins_rejectsInvalidRange() {
+        LocalDate start = LocalDate.of(2025, 3, 10);
+
+        assertThatThrownBy(() -> availabilityService.searchAvailableCabins(start, start.minusDays(1), 2, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findFlexibleStays_slidesWindowOverOccupancyAndAllowsExactBlock() {
+        // Given
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        User admin = TestEntityFactory.createAdmin(2L);
+        AvailabilityBlock block = TestEntityFactory.createAvailabilityBlock(20L, cabin, LocalDate.of(2025, 3, 8),
+                LocalDate.of(2025, 3, 10), "Temporada", admin);
+
+        when(cabinRepository.findByActiveTrue()).thenReturn(List.of(cabin));
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of(
+                TestEntityFactory.createReservation(10L, user, cabin, LocalDate.of(2025, 3, 4),
+                        LocalDate.of(2025, 3, 5), 2, ReservationStatus.CONFIRMED)));
+        when(availabilityBlockRepository.findAll()).thenReturn(List.of(block));
+        when(availabilityBlockRepository.findByCabinsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(block));
+
+        // When: 2 noches entre el 1 y el 14 de marzo
+        List<AvailabilityApplicationService.FlexibleStays> result = availabilityService.findFlexibleStays(null,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 14), 2);
+
+        // Then: 1-3 antes de la reserva, el bloqueo completo 8-10 y 11-13, 12-14
+        // después
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).cabinId()).isEqualTo(1L);
+        assertThat(result.get(0).startDates()).containsExactly(LocalDate.of(2025, 3, 1),
+                LocalDate.of(2025, 3, 8), LocalDate.of(2025, 3, 11), LocalDate.of(2025, 3, 12));
+    }
+
+    @Test
+    void findFlexibleStays_checksExactBlocksAgainstLoadedReservations() {
+        // Given: con la carga por lotes, un bloqueo de 2 noches libre y otro que
+        // contiene una reserva
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        User admin = TestEntityFactory.createAdmin(2L);
+        AvailabilityBlock reservedBlock = TestEntityFactory.createAvailabilityBlock(20L, cabin,
+                LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 5), "Temporada", admin);
+        AvailabilityBlock freeBlock = TestEntityFactory.createAvailabilityBlock(21L, cabin, LocalDate.of(2025, 3, 8),
+                LocalDate.of(2025, 3, 10), "Temporada", admin);
+        AvailabilityApplicationServiceImpl batchService = new AvailabilityApplicationServiceImpl(
+                availabilityBlockRepository, cabinRepository,
+                new PriceQuoteEngine(priceRangeRepository, cabinRepository),
+                new BatchOccupancyLoader(reservationRepository, availabilityBlockRepository));
+
+        when(cabinRepository.findByActiveTrue()).thenReturn(List.of(cabin));
+        when(reservationRepository.findActiveReservationsByCabinsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(TestEntityFactory.createReservation(10L, user, cabin, LocalDate.of(2025, 3, 4),
+                        LocalDate.of(2025, 3, 5), 2, ReservationStatus.CONFIRMED)));
+        when(availabilityBlockRepository.findByCabinsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(reservedBlock, freeBlock));
+
+        // When
+        List<AvailabilityApplicationService.FlexibleStays> result = batchService.findFlexibleStays(null,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 14), 2);
+
+        // Then: solo el bloqueo libre, sin una consulta por bloqueo
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).startDates()).containsExactly(LocalDate.of(2025, 3, 8),
+                LocalDate.of(2025, 3, 11), LocalDate.of(2025, 3, 12));
+        verify(reservationRepository, times(2)).findActiveReservationsByCabinsAndDateRange(anyCollection(), any(),
+                any());
+        verify(reservationRepository, never()).findActiveReservationsByCabinAndDateRange(anyLong(), any(), any());
+    }
+
+    @Test
+    void findFlexibleStays_rejectsInvalidParameters() {
+        LocalDate start = LocalDate.of(2025, 3, 1);
+
+        assertThatThrownBy(() -> availabilityService.findFlexibleStays(null, start, start.minusDays(1), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> availabilityService.findFlexibleStays(null, start, start.plusDays(10), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> availabilityService.findFlexibleStays(null, start, start.plusYears(2), 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void freeWindowStarts_findsEveryWindowInOnePass() {
+        BitSet unavailable = new BitSet();
+        unavailable.set(3);
+
+        BitSet starts = AvailabilityApplicationServiceImpl.freeWindowStarts(unavailable, 8, 2);
+
+        assertThat(starts.stream().boxed().toList()).containsExactly(0, 1, 4, 5, 6);
+    }
 }
@@ -0,0 +1,96 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.model.AvailabilityBlock;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class AvailabilityBlockIntervalIndexTest {
+
+    private AvailabilityBlockJpaRepository jpaRepository;
+    private AvailabilityBlockIntervalIndex index;
+    private Cabin cabin;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        jpaRepository = Mockito.mock(AvailabilityBlockJpaRepository.class);
+        index = new AvailabilityBlockIntervalIndex(jpaRepository);
+        cabin = TestEntityFactory.createCabin(1L, "Cabin 1", 4);
+        admin = TestEntityFactory.createAdmin(1L);
+    }
+
+    @Test
+    void findOverlapping_returnsOnlyOverlappingBlocks() {
+        when(jpaRepository.findAll()).thenReturn(List.of(
+                block(1L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)),
+                block(2L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 5)),
+                block(3L, LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 10)),
+                block(4L, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 2))));
+
+        List<AvailabilityBlock> result = index.findOverlapping(1L, LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 6));
+
+        assertThat(result).extracting(AvailabilityBlock::getId).containsExactly(2L, 3L);
+        assertThat(result.get(0).getCabin().getId()).isEqualTo(1L);
+        assertThat(index.findOverlapping(2L, LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 6))).isEmpty();
+    }
+
+    @Test
+    void findOverlapping_matchesLinearScan() {
+        List<AvailabilityBlock> blocks = new ArrayList<>();
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        for (long i = 0; i < 200; i++) {
+            LocalDate start = base.plusDays((i * 37) % 365);
+            blocks.add(block(i + 1, start, start.plusDays(i % 11)));
+        }
+        when(jpaRepository.findAll()).thenReturn(blocks);
+
+        for (int offset = 0; offset < 365; offset += 7) {
+            LocalDate from = base.plusDays(offset);
+            LocalDate to = from.plusDays(offset % 5);
+            List<Long> expected = blocks.stream()
+                    .filter(b -> !b.getEndDate().isBefore(from) && !b.getStartDate().isAfter(to))
+                    .map(AvailabilityBlock::getId)
+                    .toList();
+
+            assertThat(index.findOverlapping(1L, from, to))
+                    .extracting(AvailabilityBlock::getId)
+                    .containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    void events_keepTreeInSync() {
+        when(jpaRepository.findAll()).thenReturn(List.of());
+        index.rebuild();
+        LocalDate start = LocalDate.of(2025, 5, 1);
+        LocalDate end = LocalDate.of(2025, 5, 3);
+
+        index.onAvailabilityBlockChanged(new AvailabilityBlockChangedEvent(7L, 1L, start, end, false));
+        assertThat(index.findOverlapping(1L, end, end)).hasSize(1);
+
+        // Se mueve a otra cabaña
+        index.onAvailabilityBlockChanged(new AvailabilityBlockChangedEvent(7L, 2L, start, end, false));
+        assertThat(index.findOverlapping(1L, end, end)).isEmpty();
+        assertThat(index.findOverlapping(2L, end, end)).hasSize(1);
+
+        index.onAvailabilityBlockChanged(new AvailabilityBlockChangedEvent(7L, 2L, start, end, true));
+        assertThat(index.findByCabinId(2L)).isEmpty();
+    }
+
+    private AvailabilityBlock block(Long id, LocalDate start, LocalDate end) {
+        return TestEntityFactory.createAvailabilityBlock(id, cabin, start, end, "Maintenance", admin);
+    }
+}
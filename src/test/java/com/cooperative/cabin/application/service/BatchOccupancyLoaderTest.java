@@ -0,0 +1,87 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchOccupancyLoaderTest {
+
+    private ReservationJpaRepository reservationRepository;
+    private AvailabilityBlockJpaRepository availabilityBlockRepository;
+    private BatchOccupancyLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = Mockito.mock(ReservationJpaRepository.class);
+        availabilityBlockRepository = Mockito.mock(AvailabilityBlockJpaRepository.class);
+        loader = new BatchOccupancyLoader(reservationRepository, availabilityBlockRepository);
+    }
+
+    @Test
+    void unavailableDays_usesTwoQueriesForAllCabins() {
+        Cabin cabin1 = TestEntityFactory.createCabin(1L, "Cabin 1", 4);
+        Cabin cabin2 = TestEntityFactory.createCabin(2L, "Cabin 2", 4);
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        User admin = TestEntityFactory.createAdmin(2L);
+        LocalDate from = LocalDate.of(2025, 2, 1);
+        LocalDate to = LocalDate.of(2025, 2, 28);
+
+        when(reservationRepository.findActiveReservationsByCabinsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(
+                        // Empieza antes de la ventana: se recorta al 1 de febrero
+                        TestEntityFactory.createReservation(10L, user, cabin1, LocalDate.of(2025, 1, 28),
+                                LocalDate.of(2025, 2, 2), 2, ReservationStatus.CONFIRMED),
+                        TestEntityFactory.createReservation(11L, user, cabin1, LocalDate.of(2025, 2, 10),
+                                LocalDate.of(2025, 2, 12), 2, ReservationStatus.PENDING)));
+        when(availabilityBlockRepository.findByCabinsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(
+                        // Se solapa con la reserva 11
+                        TestEntityFactory.createAvailabilityBlock(20L, cabin1, LocalDate.of(2025, 2, 11),
+                                LocalDate.of(2025, 2, 14), "Maintenance", admin)));
+
+        Map<Long, BitSet> result = loader.unavailableDays(List.of(1L, 2L), from, to);
+
+        BitSet cabin1Days = result.get(1L);
+        assertThat(cabin1Days.cardinality()).isEqualTo(2 + 5);
+        assertThat(cabin1Days.get(0)).isTrue();
+        assertThat(cabin1Days.get(1)).isTrue();
+        assertThat(cabin1Days.get(2)).isFalse();
+        assertThat(cabin1Days.get(9)).isTrue();
+        assertThat(cabin1Days.get(13)).isTrue();
+        assertThat(cabin1Days.get(14)).isFalse();
+        assertThat(result.get(2L).isEmpty()).isTrue();
+
+        verify(reservationRepository, times(1)).findActiveReservationsByCabinsAndDateRange(anyCollection(), any(),
+                any());
+        verify(availabilityBlockRepository, times(1)).findByCabinsAndDateRange(anyCollection(), any(), any());
+    }
+
+    @Test
+    void sweep_marksNestedIntervalsOnce() {
+        BitSet days = BatchOccupancyLoader.sweep(List.of(
+                new long[] { 5, 10 },
+                new long[] { 0, 20 },
+                new long[] { 7, 8 }), 3, 12);
+
+        assertThat(days.cardinality()).isEqualTo(10);
+        assertThat(days.nextClearBit(0)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,194 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestAuditingConfiguration;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.config.ReservationApplicationServiceConfig;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lote de la cola con un comando que falla después de modificar la reserva y
+ * publicar su evento, sobre JpaTransactionManager y H2: el cambio no llega al
+ * commit, el evento no se entrega y el comando siguiente ve la fila real.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TestAuditingConfiguration.class)
+// Los comandos corren en el hilo escritor: los datos deben estar confirmados
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CabinCommandQueueJpaIT {
+
+    private static final LocalDate FIRST = LocalDate.now().plusDays(30);
+    private static final LocalDate SECOND = FIRST.plusDays(10);
+
+    @Resource
+    private ReservationJpaRepository reservationRepository;
+
+    @Resource
+    private CabinJpaRepository cabinRepository;
+
+    @Resource
+    private UserJpaRepository userRepository;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    private final List<ReservationChangedEvent> delivered = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll();
+        userRepository.deleteAll();
+        cabinRepository.deleteAll();
+    }
+
+    @Test
+    void failedCommandInBatchLeavesNoChangesNorEvents() throws Exception {
+        assertThat(transactionManager).isInstanceOf(JpaTransactionManager.class);
+        User user = userRepository.save(user());
+        Cabin cabin = cabinRepository.save(cabin());
+        Reservation first = reservationRepository.save(reservation(user, cabin, FIRST));
+        Reservation second = reservationRepository.save(reservation(user, cabin, SECOND));
+
+        // El aviso a la lista de espera falla después de cancelar la segunda reserva
+        WaitingListApplicationService waitingList = Mockito.mock(WaitingListApplicationService.class);
+        when(waitingList.notifyNext(argThat(command -> command != null && SECOND.equals(command.startDate()))))
+                .thenThrow(new IllegalStateException("Lista de espera no disponible"));
+        CabinCommandQueue queue = new CabinCommandQueue(transactionManager, 16);
+        QueuedReservationApplicationService service = service(waitingList, queue);
+
+        // Un comando retiene al escritor para que los tres siguientes formen un lote
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> blocker = clients.submit(() -> queue.submit(cabin.getId(), () -> {
+            started.countDown();
+            await(release);
+            return null;
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<Reservation>> results = new ArrayList<>();
+        results.add(clients.submit(() -> service.cancelByUser(user.getId(), first.getId())));
+        awaitPending(queue, 1);
+        results.add(clients.submit(() -> service.cancelByUser(user.getId(), second.getId())));
+        awaitPending(queue, 2);
+        results.add(clients.submit(() -> service.changeStatusByAdmin(second.getId(), ReservationStatus.CONFIRMED)));
+        awaitPending(queue, 3);
+        release.countDown();
+        blocker.get(5, TimeUnit.SECONDS);
+
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(ReservationStatus.CANCELLED);
+        assertThatThrownBy(() -> results.get(1).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        // Si la cancelación fallida siguiera en memoria, CANCELLED -> CONFIRMED se rechazaría
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(ReservationStatus.CONFIRMED);
+        clients.shutdown();
+
+        assertThat(reservationRepository.findById(first.getId()).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.CANCELLED);
+        assertThat(reservationRepository.findById(second.getId()).orElseThrow().getStatus())
+                .isEqualTo(ReservationStatus.CONFIRMED);
+        assertThat(delivered).extracting(ReservationChangedEvent::reservationId, ReservationChangedEvent::status)
+                .containsExactly(
+                        tuple(first.getId(), ReservationStatus.CANCELLED),
+                        tuple(second.getId(), ReservationStatus.CONFIRMED));
+    }
+
+    private QueuedReservationApplicationService service(WaitingListApplicationService waitingList,
+            CabinCommandQueue queue) {
+        ReservationApplicationService.ReservationRepository reservations = new ReservationApplicationServiceConfig()
+                .reservationRepositoryAdapter(reservationRepository);
+        return new QueuedReservationApplicationService(reservations,
+                Mockito.mock(ReservationApplicationService.AvailabilityBlockRepository.class), userRepository,
+                cabinRepository, Mockito.mock(ReservationApplicationService.ConfigurationService.class),
+                new BusinessMetrics(null), waitingList, this::deliverAfterCommit, new CabinLocks(),
+                ReservationApplicationService.ReservationSummaries.fromHistory(reservations), new CheckoutHolds(),
+                Mockito.mock(PriceQuoteEngine.class), queue);
+    }
+
+    /**
+     * Como un @TransactionalEventListener: el evento se entrega después del
+     * commit de la transacción que lo publicó
+     */
+    private void deliverAfterCommit(Object event) {
+        ReservationChangedEvent changed = (ReservationChangedEvent) event;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                delivered.add(changed);
+            }
+        });
+    }
+
+    private static void awaitPending(CabinCommandQueue queue, int count) throws InterruptedException {
+        while (queue.pending() < count) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setEmail("queue@cooperativa.com");
+        user.setIdentificationNumber("87654321");
+        user.setName("Usuario de la cola");
+        user.setPinHash("$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi");
+        user.setRole(User.UserRole.PROFESSOR);
+        user.setActive(true);
+        return user;
+    }
+
+    private static Cabin cabin() {
+        return new Cabin("Cabaña de la cola", "Cabaña para el test de la cola", 4, 2, 1, new BigDecimal("100.00"), 4,
+                "[\"WiFi\"]", "{\"address\": \"Test Location\"}", LocalTime.of(15, 0), LocalTime.of(11, 0));
+    }
+
+    private static Reservation reservation(User user, Cabin cabin, LocalDate start) {
+        return new Reservation(user, cabin, start, start.plusDays(2), 2, ReservationStatus.PENDING,
+                new BigDecimal("200.00"), new BigDecimal("200.00"));
+    }
+}
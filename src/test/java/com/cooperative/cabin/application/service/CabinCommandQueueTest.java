@@ -0,0 +1,212 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class CabinCommandQueueTest {
+
+    private final CountingTransactionManager transactionManager = new CountingTransactionManager();
+    private final CabinCommandQueue queue = new CabinCommandQueue(transactionManager, 16);
+    // Veces que se ejecutó algún comando de submitBehindBlockedCommand
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @Test
+    void commandsQueuedWhileWriterIsBusyShareOneTransaction() throws Exception {
+        List<Future<Integer>> results = submitBehindBlockedCommand(5, -1);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+        }
+        // El comando bloqueado en su transacción y los cinco encolados en otra
+        assertThat(transactionManager.commits).hasValue(2);
+        assertThat(transactionManager.rollbacks).hasValue(0);
+    }
+
+    @Test
+    void failedCommandRollsBackOnlyItsSavepointAndNoCommandIsReapplied() throws Exception {
+        List<Future<Integer>> results = submitBehindBlockedCommand(4, 2);
+
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isZero();
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThatThrownBy(() -> results.get(2).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(results.get(3).get(5, TimeUnit.SECONDS)).isEqualTo(3);
+        // El bloqueado y el lote con un commit cada uno; solo se revierte el
+        // savepoint del comando que falló
+        assertThat(transactionManager.commits).hasValue(2);
+        assertThat(transactionManager.rollbacks).hasValue(0);
+        assertThat(transactionManager.savepointRollbacks).hasValue(1);
+        assertThat(runs).hasValue(1 + 4);
+    }
+
+    @Test
+    void commandsRunInsideTransactionAndNestedSubmitRunsInline() {
+        Integer result = queue.submit(1L, () -> {
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue();
+            return queue.submit(2L, () -> 7);
+        });
+
+        assertThat(result).isEqualTo(7);
+        assertThat(transactionManager.commits).hasValue(1);
+    }
+
+    @Test
+    void queuedService_routesCancelThroughCabinMailbox() {
+        ReservationApplicationService.ReservationRepository repository = Mockito
+                .mock(ReservationApplicationService.ReservationRepository.class);
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        Cabin cabin = TestEntityFactory.createCabin(10L, "Cabin", 4);
+        Reservation reservation = TestEntityFactory.createReservation(user, cabin, LocalDate.now().plusDays(5),
+                LocalDate.now().plusDays(6), 2, ReservationStatus.PENDING);
+        when(repository.findById(5L)).thenReturn(reservation);
+        when(repository.findById(6L)).thenReturn(null);
+        when(repository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        QueuedReservationApplicationService service = new QueuedReservationApplicationService(repository,
+                Mockito.mock(ReservationApplicationService.AvailabilityBlockRepository.class),
+                Mockito.mock(UserJpaRepository.class), Mockito.mock(CabinJpaRepository.class),
+                Mockito.mock(ReservationApplicationService.ConfigurationService.class), new BusinessMetrics(null),
+                Mockito.mock(WaitingListApplicationService.class), Mockito.mock(ApplicationEventPublisher.class),
+                new CabinLocks(), ReservationApplicationService.ReservationSummaries.fromHistory(repository),
+                new CheckoutHolds(), Mockito.mock(PriceQuoteEngine.class), queue);
+
+        Reservation cancelled = service.cancelByUser(1L, 5L);
+
+        assertThat(cancelled.getStatus()).isEqualTo(ReservationStatus.CANCELLED);
+        assertThat(transactionManager.commits).hasValue(1);
+        assertThatThrownBy(() -> service.cancelByUser(1L, 6L)).isInstanceOf(IllegalStateException.class)
+                .hasMessage("Reserva no encontrada para el usuario");
+    }
+
+    /**
+     * Bloquea el escritor de la cabaña con un primer comando, encola
+     * {@code count} comandos (el de índice {@code failing} lanza excepción) y
+     * luego lo libera
+     */
+    private List<Future<Integer>> submitBehindBlockedCommand(int count, int failing) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        Future<Integer> blocker = clients.submit(() -> queue.submit(1L, () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return -1;
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int value = i;
+            results.add(clients.submit(() -> queue.submit(1L, () -> {
+                runs.incrementAndGet();
+                if (value == failing) {
+                    throw new IllegalStateException("Transición de estado no permitida");
+                }
+                return value;
+            })));
+        }
+        while (queue.pending() < count) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        assertThat(blocker.get(5, TimeUnit.SECONDS)).isEqualTo(-1);
+        clients.shutdown();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gestor de transacciones sin recurso que solo cuenta commits, rollbacks y
+     * savepoints revertidos
+     */
+    private static final class CountingTransactionManager extends AbstractPlatformTransactionManager {
+        private final AtomicInteger commits = new AtomicInteger();
+        private final AtomicInteger rollbacks = new AtomicInteger();
+        private final AtomicInteger savepointRollbacks = new AtomicInteger();
+
+        CountingTransactionManager() {
+            setNestedTransactionAllowed(true);
+        }
+
+        @Override
+        protected Object doGetTransaction() {
+            return new CountingTransaction(TransactionSynchronizationManager.isActualTransactionActive());
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((CountingTransaction) transaction).existing;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+
+        private final class CountingTransaction implements SavepointManager {
+            private final boolean existing;
+
+            CountingTransaction(boolean existing) {
+                this.existing = existing;
+            }
+
+            @Override
+            public Object createSavepoint() {
+                return new Object();
+            }
+
+            @Override
+            public void rollbackToSavepoint(Object savepoint) {
+                savepointRollbacks.incrementAndGet();
+            }
+
+            @Override
+            public void releaseSavepoint(Object savepoint) {
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.CabinDayAvailability;
+import com.cooperative.cabin.domain.model.DayAvailabilityReason;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.CabinDayAvailabilityJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+class CabinDayAvailabilityProjectionTest {
+
+    private CabinDayAvailabilityJpaRepository dayRepository;
+    private ReservationJpaRepository reservationRepository;
+    private AvailabilityBlockJpaRepository availabilityBlockRepository;
+    private JdbcTemplate jdbcTemplate;
+    private CabinDayAvailabilityProjection projection;
+    private Cabin cabin;
+    private User user;
+    private User admin;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        dayRepository = Mockito.mock(CabinDayAvailabilityJpaRepository.class);
+        reservationRepository = Mockito.mock(ReservationJpaRepository.class);
+        availabilityBlockRepository = Mockito.mock(AvailabilityBlockJpaRepository.class);
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+        projection = new CabinDayAvailabilityProjection(dayRepository, reservationRepository,
+                availabilityBlockRepository, jdbcTemplate);
+        cabin = TestEntityFactory.createCabin(1L, "Cabin 1", 4);
+        user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        admin = TestEntityFactory.createAdmin(2L);
+    }
+
+    @Test
+    void addRows_reservedTakesPrecedenceOverBlocked() {
+        List<CabinDayAvailability> rows = new ArrayList<>();
+        long from = LocalDate.of(2025, 3, 1).toEpochDay();
+
+        CabinDayAvailabilityProjection.addRows(rows, 1L,
+                List.of(new long[] { from + 1, from + 2 }),
+                List.of(new long[] { from, from + 3 }), from, from + 5);
+
+        assertThat(rows).hasSize(4);
+        assertThat(rows).filteredOn(r -> r.getReason() == DayAvailabilityReason.RESERVED)
+                .extracting(r -> r.getDay().toEpochDay() - from)
+                .containsExactly(1L, 2L);
+        assertThat(rows).filteredOn(r -> r.getReason() == DayAvailabilityReason.BLOCKED)
+                .extracting(r -> r.getDay().toEpochDay() - from)
+                .containsExactly(0L, 3L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reservationChanged_recomputesOnlyAffectedDays() {
+        LocalDate start = LocalDate.of(2025, 3, 10);
+        LocalDate end = LocalDate.of(2025, 3, 12);
+        when(reservationRepository.findActiveReservationsByCabinAndDateRange(1L, start, end))
+                .thenReturn(List.of(TestEntityFactory.createReservation(5L, user, cabin, start, end, 2,
+                        ReservationStatus.PENDING)));
+        when(availabilityBlockRepository.findByCabinAndDateRange(1L, start, end)).thenReturn(List.of());
+
+        new CabinDayAvailabilityUpdater(projection).onReservationChanged(new ReservationChangedEvent(5L, 1L, 1L,
+                start, end, ReservationStatus.PENDING, false));
+
+        InOrder inOrder = Mockito.inOrder(jdbcTemplate, dayRepository);
+        inOrder.verify(jdbcTemplate).execute("SELECT pg_advisory_xact_lock_shared("
+                + CabinDayAvailabilityProjection.LOCK_KEY + ")");
+        inOrder.verify(jdbcTemplate).execute("SELECT pg_advisory_xact_lock("
+                + CabinDayAvailabilityProjection.CABIN_LOCK_KEY + ", 1)");
+        inOrder.verify(dayRepository).deleteByCabinAndDateRange(1L, start, end);
+        ArgumentCaptor<List<CabinDayAvailability>> captor = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(dayRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(3)
+                .allMatch(r -> r.getReason() == DayAvailabilityReason.RESERVED && r.getCabinId().equals(1L));
+    }
+
+    @Test
+    void unavailableDays_readsSingleRangeScan() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+        when(dayRepository.findByCabinsAndDateRange(anyCollection(), any(), any())).thenReturn(List.of(
+                new CabinDayAvailability(1L, LocalDate.of(2025, 3, 2), DayAvailabilityReason.RESERVED),
+                new CabinDayAvailability(2L, LocalDate.of(2025, 3, 31), DayAvailabilityReason.BLOCKED)));
+
+        Map<Long, BitSet> result = projection.unavailableDays(List.of(1L, 2L, 3L), from, to);
+
+        assertThat(result.get(1L).nextSetBit(0)).isEqualTo(1);
+        assertThat(result.get(2L).nextSetBit(0)).isEqualTo(30);
+        assertThat(result.get(3L).isEmpty()).isTrue();
+        Mockito.verify(dayRepository, Mockito.times(1)).findByCabinsAndDateRange(anyCollection(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_replacesWholeTableUnderExclusiveLock() {
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of(
+                TestEntityFactory.createReservation(5L, user, cabin, LocalDate.of(2025, 3, 10),
+                        LocalDate.of(2025, 3, 11), 2, ReservationStatus.CONFIRMED)));
+        when(availabilityBlockRepository.findAll()).thenReturn(List.of(
+                TestEntityFactory.createAvailabilityBlock(9L, cabin, LocalDate.of(2025, 4, 1),
+                        LocalDate.of(2025, 4, 1), "Maintenance", admin)));
+
+        int written = projection.rebuild();
+
+        assertThat(written).isEqualTo(3);
+        InOrder inOrder = Mockito.inOrder(jdbcTemplate, reservationRepository, dayRepository);
+        inOrder.verify(jdbcTemplate).execute("SELECT pg_advisory_xact_lock(" + CabinDayAvailabilityProjection.LOCK_KEY
+                + ")");
+        inOrder.verify(reservationRepository).findByStatusIn(anyList());
+        inOrder.verify(dayRepository).deleteAllInBatch();
+        inOrder.verify(dayRepository).saveAll(any(List.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_skipsAdvisoryLockOutsidePostgres() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn("H2");
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of());
+        when(availabilityBlockRepository.findAll()).thenReturn(List.of());
+
+        projection.rebuild();
+        projection.refresh(1L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2));
+
+        Mockito.verify(jdbcTemplate, Mockito.never()).execute(Mockito.anyString());
+        Mockito.verify(dayRepository).deleteAllInBatch();
+    }
+}
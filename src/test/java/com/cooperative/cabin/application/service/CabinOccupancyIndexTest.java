@@ -0,0 +1,99 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CabinOccupancyIndexTest {
+
+    private ReservationJpaRepository reservationRepository;
+    private AvailabilityBlockJpaRepository availabilityBlockRepository;
+    private CabinOccupancyIndex index;
+
+    private final Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+    private final User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+
+    @BeforeEach
+    void setUp() {
+        reservationRepository = Mockito.mock(ReservationJpaRepository.class);
+        availabilityBlockRepository = Mockito.mock(AvailabilityBlockJpaRepository.class);
+        index = new CabinOccupancyIndex(reservationRepository, availabilityBlockRepository);
+    }
+
+    @Test
+    void loadsOnceAndAnswersFromMemory() {
+        Reservation r = TestEntityFactory.createReservation(10L, user, cabin, LocalDate.of(2025, 3, 10),
+                LocalDate.of(2025, 3, 12), 2, ReservationStatus.CONFIRMED);
+        when(reservationRepository.findByStatusIn(anyList())).thenReturn(List.of(r));
+
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 3, 9))).isTrue();
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 3, 10))).isFalse();
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 3, 12))).isFalse();
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 3, 13))).isTrue();
+        assertThat(index.isDateAvailable(2L, LocalDate.of(2025, 3, 10))).isTrue();
+
+        verify(reservationRepository, times(1)).findByStatusIn(anyList());
+        verify(availabilityBlockRepository, times(1)).findAll();
+    }
+
+    @Test
+    void unavailableDays_isRelativeToRequestedStart() {
+        index.rebuild();
+        index.onReservationChanged(new ReservationChangedEvent(10L, 1L, 1L, LocalDate.of(2025, 3, 10),
+                LocalDate.of(2025, 3, 11), ReservationStatus.PENDING, false));
+
+        BitSet days = index.unavailableDays(1L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertThat(days.cardinality()).isEqualTo(2);
+        assertThat(days.get(9)).isTrue();
+        assertThat(days.get(10)).isTrue();
+    }
+
+    @Test
+    void cancellingReservation_freesItsDays() {
+        index.rebuild();
+        index.onReservationChanged(new ReservationChangedEvent(10L, 1L, 1L, LocalDate.of(2025, 3, 10),
+                LocalDate.of(2025, 3, 11), ReservationStatus.PENDING, false));
+        index.onReservationChanged(new ReservationChangedEvent(10L, 1L, 1L, LocalDate.of(2025, 3, 10),
+                LocalDate.of(2025, 3, 11), ReservationStatus.CANCELLED, false));
+
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 3, 10))).isTrue();
+        assertThat(index.hasActiveReservation(1L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31))).isFalse();
+    }
+
+    @Test
+    void removingOneOfTwoOverlappingBlocks_keepsSharedDaysBlocked() {
+        index.rebuild();
+        index.onAvailabilityBlockChanged(new AvailabilityBlockChangedEvent(1L, 1L, LocalDate.of(2025, 4, 1),
+                LocalDate.of(2025, 4, 5), false));
+        index.onAvailabilityBlockChanged(new AvailabilityBlockChangedEvent(2L, 1L, LocalDate.of(2025, 4, 4),
+                LocalDate.of(2025, 4, 8), false));
+
+        index.onAvailabilityBlockChanged(new AvailabilityBlockChangedEvent(1L, 1L, LocalDate.of(2025, 4, 1),
+                LocalDate.of(2025, 4, 5), true));
+
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 4, 2))).isTrue();
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 4, 4))).isFalse();
+        assertThat(index.isDateAvailable(1L, LocalDate.of(2025, 4, 8))).isFalse();
+        assertThat(index.hasActiveReservation(1L, LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30))).isFalse();
+    }
+}
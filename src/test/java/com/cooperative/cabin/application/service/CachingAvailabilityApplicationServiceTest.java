@@ -0,0 +1,139 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.AvailabilityBlockChangedEvent;
+import com.cooperative.cabin.domain.event.CabinChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAvailabilityApplicationServiceTest {
+
+    private AvailabilityApplicationService delegate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingAvailabilityApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(AvailabilityApplicationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new CachingAvailabilityApplicationService(delegate,
+                Caffeine.newBuilder().maximumSize(100).recordStats().build(), meterRegistry);
+        when(delegate.getAvailabilityCalendarForCabin(anyLong(), anyInt(), anyInt()))
+                .thenReturn(Map.of("2025-03-01", true));
+        when(delegate.getAvailabilityCalendar(anyInt(), anyInt())).thenReturn(Map.of("2025-03-01", true));
+    }
+
+    @Test
+    void calendarForCabin_secondCallIsServedFromCache() {
+        service.getAvailabilityCalendarForCabin(1L, 2025, 3);
+        Map<String, Boolean> cached = service.getAvailabilityCalendarForCabin(1L, 2025, 3);
+
+        assertThat(cached).containsEntry("2025-03-01", true);
+        verify(delegate, times(1)).getAvailabilityCalendarForCabin(1L, 2025, 3);
+        assertThat(meterRegistry.get("availability.cache.hits").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("availability.cache.misses").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void reservationChanged_invalidatesOnlyTouchedMonthsOfThatCabin() {
+        service.getAvailabilityCalendarForCabin(1L, 2025, 3);
+        service.getAvailabilityCalendarForCabin(1L, 2025, 5);
+        service.getAvailabilityCalendarForCabin(2L, 2025, 3);
+        service.getAvailabilityCalendar(2025, 3);
+
+        service.onReservationChanged(new ReservationChangedEvent(10L, 1L, 7L, LocalDate.of(2025, 3, 30),
+                LocalDate.of(2025, 4, 2), ReservationStatus.PENDING, false));
+
+        service.getAvailabilityCalendarForCabin(1L, 2025, 3);
+        service.getAvailabilityCalendarForCabin(1L, 2025, 5);
+        service.getAvailabilityCalendarForCabin(2L, 2025, 3);
+        service.getAvailabilityCalendar(2025, 3);
+
+        verify(delegate, times(2)).getAvailabilityCalendarForCabin(1L, 2025, 3);
+        verify(delegate, times(1)).getAvailabilityCalendarForCabin(1L, 2025, 5);
+        verify(delegate, times(1)).getAvailabilityCalendarForCabin(2L, 2025, 3);
+        verify(delegate, times(2)).getAvailabilityCalendar(2025, 3);
+    }
+
+    @Test
+    void blockChanged_invalidatesBlockedRange() {
+        service.getAvailabilityCalendarForCabin(1L, 2025, 6);
+
+        service.onAvailabilityBlockChanged(new AvailabilityBlockChangedEvent(3L, 1L, LocalDate.of(2025, 6, 1),
+                LocalDate.of(2025, 6, 3), true));
+        service.getAvailabilityCalendarForCabin(1L, 2025, 6);
+
+        verify(delegate, times(2)).getAvailabilityCalendarForCabin(1L, 2025, 6);
+    }
+
+    @Test
+    void cabinChanged_invalidatesAllMonthsOfThatCabin() {
+        service.getAvailabilityCalendarForCabin(1L, 2025, 3);
+        service.getAvailabilityCalendarForCabin(1L, 2026, 1);
+        service.getAvailabilityCalendarForCabin(2L, 2025, 3);
+
+        service.onCabinChanged(new CabinChangedEvent(1L, false));
+        service.getAvailabilityCalendarForCabin(1L, 2025, 3);
+        service.getAvailabilityCalendarForCabin(1L, 2026, 1);
+        service.getAvailabilityCalendarForCabin(2L, 2025, 3);
+
+        verify(delegate, times(2)).getAvailabilityCalendarForCabin(1L, 2025, 3);
+        verify(delegate, times(2)).getAvailabilityCalendarForCabin(1L, 2026, 1);
+        verify(delegate, times(1)).getAvailabilityCalendarForCabin(2L, 2025, 3);
+    }
+
+    @Test
+    void reservationChanged_indexAppliesEventBeforeCacheIsInvalidated() {
+        LocalDate day = LocalDate.of(2025, 3, 10);
+        CabinOccupancyIndex index = new CabinOccupancyIndex(Mockito.mock(ReservationJpaRepository.class),
+                Mockito.mock(AvailabilityBlockJpaRepository.class));
+        index.rebuild();
+        AvailabilityApplicationService fromIndex = Mockito.mock(AvailabilityApplicationService.class);
+        when(fromIndex.getAvailabilityCalendarForCabin(1L, 2025, 3))
+                .thenAnswer(inv -> Map.of(day.toString(), index.isDateAvailable(1L, day)));
+        // Un lector concurrente que vuelve a pedir el calendario justo después de
+        // la invalidación
+        CachingAvailabilityApplicationService cache = new CachingAvailabilityApplicationService(fromIndex,
+                Caffeine.newBuilder().maximumSize(100).build(), null) {
+            @Override
+            void invalidate(Long cabinId, LocalDate startDate, LocalDate endDate) {
+                super.invalidate(cabinId, startDate, endDate);
+                getAvailabilityCalendarForCabin(1L, 2025, 3);
+            }
+        };
+        assertThat(cache.getAvailabilityCalendarForCabin(1L, 2025, 3)).containsEntry(day.toString(), true);
+
+        try (GenericApplicationContext context = new GenericApplicationContext()) {
+            AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+            context.registerBean(TransactionalEventListenerFactory.class);
+            // Registrada primero a propósito: el orden lo decide @Order
+            context.registerBean("cache", CachingAvailabilityApplicationService.class, () -> cache);
+            context.registerBean("index", CabinOccupancyIndex.class, () -> index);
+            context.refresh();
+
+            context.publishEvent(new ReservationChangedEvent(10L, 1L, 7L, day, day.plusDays(2),
+                    ReservationStatus.CONFIRMED, false));
+        }
+
+        assertThat(cache.getAvailabilityCalendarForCabin(1L, 2025, 3)).containsEntry(day.toString(), false);
+    }
+}
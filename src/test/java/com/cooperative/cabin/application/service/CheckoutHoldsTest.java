@@ -0,0 +1,124 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.CheckoutHoldChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CheckoutHoldsTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 7, 10);
+
+    private MutableClock clock;
+    private ApplicationEventPublisher publisher;
+    private CheckoutHolds holds;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2030-07-01T10:00:00Z"));
+        publisher = Mockito.mock(ApplicationEventPublisher.class);
+        holds = new CheckoutHolds(publisher, Duration.ofMinutes(10), clock);
+    }
+
+    @Test
+    void place_rejectsOverlapFromOtherUserAndReplacesOwnHold() {
+        CheckoutHolds.Hold first = holds.place(1L, 5L, START, START.plusDays(2));
+
+        assertThatThrownBy(() -> holds.place(2L, 5L, START.plusDays(2), START.plusDays(4)))
+                .isInstanceOf(IllegalStateException.class);
+
+        CheckoutHolds.Hold second = holds.place(1L, 5L, START.plusDays(1), START.plusDays(3));
+        assertThat(holds.find(first.id())).isEmpty();
+        assertThat(holds.liveHolds(5L)).containsExactly(second);
+        assertThat(holds.isHeld(5L, START, START, null)).isFalse();
+    }
+
+    @Test
+    void expiredHoldsStopCountingAndAreSwept() {
+        holds.place(1L, 5L, START, START.plusDays(2));
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(holds.isHeld(5L, START, START.plusDays(2), null)).isFalse();
+        holds.place(2L, 5L, START, START.plusDays(1));
+        assertThat(holds.sweep()).isEqualTo(1);
+        assertThat(holds.size()).isEqualTo(1);
+        verify(publisher, Mockito.times(3)).publishEvent(any(CheckoutHoldChangedEvent.class));
+    }
+
+    @Test
+    void claimedHoldKeepsCabinUntilCompletedOrRestored() {
+        CheckoutHolds.Hold hold = holds.place(1L, 5L, START, START.plusDays(2));
+
+        holds.claim(hold.id(), 1L);
+        clock.advance(Duration.ofMinutes(11));
+        assertThat(holds.isHeld(5L, START, START, null)).isTrue();
+        assertThat(holds.sweep()).isZero();
+        assertThatThrownBy(() -> holds.claim(hold.id(), 1L)).isInstanceOf(IllegalStateException.class);
+
+        holds.complete(hold);
+        assertThat(holds.size()).isZero();
+    }
+
+    @Test
+    void holdAwareSource_marksHeldDaysWithoutTouchingDelegateBitmaps() {
+        BitSet shared = new BitSet();
+        shared.set(0);
+        CabinOccupancySource delegate = Mockito.mock(CabinOccupancySource.class);
+        when(delegate.unavailableDays(any(), any(), any())).thenReturn(Map.of(5L, shared, 6L, new BitSet()));
+        when(delegate.hasActiveReservation(anyLong(), any(), any())).thenReturn(false);
+        holds.place(1L, 5L, START.plusDays(3), START.plusDays(4));
+
+        HoldAwareOccupancySource source = new HoldAwareOccupancySource(delegate, holds);
+        Map<Long, BitSet> days = source.unavailableDays(List.of(5L, 6L), START, START.plusDays(9));
+
+        assertThat(days.get(5L).stream().toArray()).containsExactly(0, 3, 4);
+        assertThat(days.get(6L).isEmpty()).isTrue();
+        assertThat(shared.cardinality()).isEqualTo(1);
+        assertThat(source.hasActiveReservation(5L, START.plusDays(4), START.plusDays(6))).isTrue();
+        assertThat(source.hasActiveReservation(6L, START, START.plusDays(6))).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.application.service.AvailabilityApplicationService.AvailabilityDays;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EpochDaysTest {
+
+    @Test
+    void format_matchesLocalDateToString() {
+        LocalDate date = LocalDate.of(1899, 12, 31);
+        for (int i = 0; i < 200_000; i += 7) {
+            LocalDate d = date.plusDays(i);
+            assertThat(EpochDays.format(EpochDays.of(d))).isEqualTo(d.toString());
+        }
+        assertThat(EpochDays.format(EpochDays.of(LocalDate.of(2024, 2, 29)))).isEqualTo("2024-02-29");
+        assertThat(EpochDays.format(-1)).isEqualTo("1969-12-31");
+    }
+
+    @Test
+    void monthHelpers_handleLeapYears() {
+        assertThat(EpochDays.lengthOfMonth(2024, 2)).isEqualTo(29);
+        assertThat(EpochDays.lengthOfMonth(2025, 2)).isEqualTo(28);
+        assertThat(EpochDays.toLocalDate(EpochDays.firstOfMonth(2025, 3))).isEqualTo(LocalDate.of(2025, 3, 1));
+    }
+
+    @Test
+    void availabilityDays_toMapKeepsDayOrder() {
+        BitSet available = new BitSet();
+        available.set(1);
+        AvailabilityDays days = new AvailabilityDays(EpochDays.firstOfMonth(2025, 2), 28, available);
+
+        assertThat(days.toMap()).hasSize(28);
+        assertThat(days.toMap().keySet()).first().isEqualTo("2025-02-01");
+        assertThat(days.toMap()).containsEntry("2025-02-02", true).containsEntry("2025-02-28", false);
+        assertThat(days.isAvailable(EpochDays.firstOfMonth(2025, 2) + 1)).isTrue();
+        assertThat(days.isAvailable(EpochDays.firstOfMonth(2025, 3))).isFalse();
+    }
+}
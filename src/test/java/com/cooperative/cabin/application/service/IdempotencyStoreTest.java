@@ -0,0 +1,170 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.model.IdempotencyRecord;
+import com.cooperative.cabin.infrastructure.repository.IdempotencyRecordJpaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyRecordJpaRepository repository;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordJpaRepository.class);
+        when(repository.findByScopeAndIdempotencyKey(any(), any())).thenReturn(Optional.empty());
+        when(repository.saveAndFlush(any())).thenAnswer(inv -> {
+            IdempotencyRecord claim = inv.getArgument(0);
+            claim.setId(1L);
+            return claim;
+        });
+        store = new IdempotencyStore(repository, new ObjectMapper(), Duration.ofHours(1), Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    void execute_storesSuccessfulResponseInTable() {
+        ResponseEntity<?> response = store.execute("scope", "k1", Map.of("a", 1),
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", 5)));
+
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).save(saved.capture());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(saved.getValue().getStatusCode()).isEqualTo(201);
+        assertThat(saved.getValue().getResponseBody()).isEqualTo("{\"id\":5}");
+        assertThat(saved.getValue().getExpiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void execute_replaysRowFromTableAfterRestart() {
+        store.execute("scope", "k1", Map.of("a", 1), () -> ResponseEntity.ok(Map.of("id", 5)));
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).save(saved.capture());
+
+        // Nueva instancia con caché vacía: la respuesta sale de la tabla
+        when(repository.findByScopeAndIdempotencyKey("scope", "k1")).thenReturn(Optional.of(saved.getValue()));
+        IdempotencyStore restarted = new IdempotencyStore(repository, new ObjectMapper(), Duration.ofHours(1), Duration.ofMinutes(5), 100);
+        AtomicInteger calls = new AtomicInteger();
+        ResponseEntity<?> replayed = restarted.execute("scope", "k1", Map.of("a", 1), () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok(Map.of("id", 6));
+        });
+
+        assertThat(calls).hasValue(0);
+        assertThat(replayed.getBody()).isEqualTo("{\"id\":5}");
+        assertThat(replayed.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void execute_failedActionIsNotRemembered() {
+        assertThatThrownBy(() -> store.execute("scope", "k1", null, () -> {
+            throw new IllegalStateException("Cabin not available");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ResponseEntity<?> retried = store.execute("scope", "k1", null, () -> ResponseEntity.ok(Map.of("id", 7)));
+
+        assertThat(retried.getBody()).isEqualTo(Map.of("id", 7));
+        // El reclamo de la acción fallida se borra; el reintento reclama de nuevo
+        verify(repository).deleteById(1L);
+        verify(repository, times(2)).saveAndFlush(any());
+        verify(repository).save(any());
+    }
+
+    @Test
+    void execute_claimsKeyBeforeRunningAction() {
+        store.execute("scope", "k1", Map.of("a", 1), () -> {
+            ArgumentCaptor<IdempotencyRecord> claimed = ArgumentCaptor.forClass(IdempotencyRecord.class);
+            verify(repository).saveAndFlush(claimed.capture());
+            assertThat(claimed.getValue().getStatusCode()).isEqualTo(IdempotencyStore.PENDING);
+            assertThat(claimed.getValue().getResponseBody()).isNull();
+            return ResponseEntity.ok(Map.of("id", 5));
+        });
+
+        verify(repository).save(any());
+    }
+
+    @Test
+    void execute_keyClaimedElsewhere_isRejectedWithoutRunningAction() {
+        // Otra instancia reclamó la clave y aún no respondió
+        IdempotencyRecord pending = new IdempotencyRecord("scope", "k1", "other", IdempotencyStore.PENDING, null,
+                LocalDateTime.now(), LocalDateTime.now().plusMinutes(5));
+        pending.setId(3L);
+        when(repository.findByScopeAndIdempotencyKey("scope", "k1")).thenReturn(Optional.of(pending));
+        doThrow(new DataIntegrityViolationException("uk_idempotency_scope_key")).when(repository).saveAndFlush(any());
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> store.execute("scope", "k1", null, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok().build();
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls).hasValue(0);
+        verify(repository, never()).reclaimExpired(any(), any(), anyInt(), any(), any());
+        verify(repository, never()).deleteById(any());
+    }
+
+    @Test
+    void execute_abandonedClaimIsTakenOver() {
+        IdempotencyRecord abandoned = new IdempotencyRecord("scope", "k1", "other", IdempotencyStore.PENDING, null,
+                LocalDateTime.now().minusMinutes(10), LocalDateTime.now().minusMinutes(5));
+        abandoned.setId(4L);
+        when(repository.findByScopeAndIdempotencyKey("scope", "k1")).thenReturn(Optional.of(abandoned));
+        doThrow(new DataIntegrityViolationException("uk_idempotency_scope_key")).when(repository).saveAndFlush(any());
+        when(repository.reclaimExpired(eq(4L), any(), eq(IdempotencyStore.PENDING), any(), any())).thenReturn(1);
+
+        ResponseEntity<?> response = store.execute("scope", "k1", null, () -> ResponseEntity.ok(Map.of("id", 8)));
+
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 8));
+        verify(repository).save(abandoned);
+        assertThat(abandoned.getStatusCode()).isEqualTo(200);
+    }
+
+    @Test
+    void execute_expiredRowIsReusedInsteadOfReplayed() {
+        IdempotencyRecord expired = new IdempotencyRecord("scope", "k1", "old", 200, "{\"id\":1}",
+                LocalDateTime.now().minusDays(2), LocalDateTime.now().minusDays(1));
+        when(repository.findByScopeAndIdempotencyKey("scope", "k1")).thenReturn(Optional.of(expired));
+        doThrow(new DataIntegrityViolationException("uk_idempotency_scope_key")).when(repository).saveAndFlush(any());
+        when(repository.reclaimExpired(eq(expired.getId()), any(), eq(IdempotencyStore.PENDING), any(), any()))
+                .thenReturn(1);
+
+        ResponseEntity<?> response = store.execute("scope", "k1", null, () -> ResponseEntity.ok(Map.of("id", 2)));
+
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 2));
+        verify(repository).save(expired);
+        assertThat(expired.getResponseBody()).isEqualTo("{\"id\":2}");
+        assertThat(expired.getExpiresAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void execute_rejectsBlankOrOversizedKeys() {
+        assertThatThrownBy(() -> store.execute("scope", " ", null, () -> ResponseEntity.ok().build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.execute("scope", "x".repeat(256), null, () -> ResponseEntity.ok().build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(repository, never()).save(any());
+    }
+}
@@ -0,0 +1,94 @@
+package com.cooperative.cabin.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelOccupancySourceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 2, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 2, 28);
+
+    @Test
+    void unavailableDays_mergesChunksInRequestOrder() {
+        List<Long> cabinIds = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            cabinIds.add(id);
+        }
+        RecordingSource delegate = new RecordingSource();
+
+        Map<Long, BitSet> result = new ParallelOccupancySource(delegate, 4).unavailableDays(cabinIds, FROM, TO);
+
+        assertThat(result.keySet()).containsExactlyElementsOf(cabinIds);
+        assertThat(result.get(7L).get(7)).isTrue();
+        assertThat(delegate.calls.get()).isEqualTo(4);
+        assertThat(delegate.maxInFlight.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void unavailableDays_propagatesDelegateFailures() {
+        CabinOccupancySource failing = new RecordingSource() {
+            @Override
+            public Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+                throw new IllegalStateException("boom");
+            }
+        };
+
+        assertThatThrownBy(() -> new ParallelOccupancySource(failing, 2).unavailableDays(List.of(1L, 2L), FROM, TO))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    @Test
+    void partition_splitsIntoAtMostGroups() {
+        assertThat(ParallelOccupancySource.partition(List.of(1, 2, 3, 4, 5), 2))
+                .containsExactly(List.of(1, 2, 3), List.of(4, 5));
+        assertThat(ParallelOccupancySource.partition(List.of(1, 2), 10))
+                .containsExactly(List.of(1), List.of(2));
+    }
+
+    private static class RecordingSource implements CabinOccupancySource {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public Map<Long, BitSet> unavailableDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+            calls.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<Long, BitSet> result = new LinkedHashMap<>();
+            for (Long id : cabinIds) {
+                BitSet days = new BitSet();
+                days.set(id.intValue());
+                result.put(id, days);
+            }
+            inFlight.decrementAndGet();
+            return result;
+        }
+
+        @Override
+        public Map<Long, BitSet> reservedDays(Collection<Long> cabinIds, LocalDate from, LocalDate to) {
+            return Map.of();
+        }
+
+        @Override
+        public boolean hasActiveReservation(Long cabinId, LocalDate from, LocalDate to) {
+            return false;
+        }
+    }
+}
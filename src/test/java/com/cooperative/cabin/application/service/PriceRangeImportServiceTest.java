@@ -0,0 +1,232 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.application.service.PriceRangeImportService.Conflict;
+import com.cooperative.cabin.application.service.PriceRangeImportService.ImportResult;
+import com.cooperative.cabin.application.service.PriceRangeImportService.OverlapMode;
+import com.cooperative.cabin.application.service.PriceRangeImportService.SeasonRange;
+import com.cooperative.cabin.domain.event.PriceRangeChangedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeHistoryJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceRangeImportServiceTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 12, 1);
+
+    private JdbcTemplate jdbcTemplate;
+    private PriceRangeJpaRepository priceRangeRepository;
+    private PriceChangeHistoryJpaRepository historyRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PriceRangeImportService service;
+    private final Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+    private final List<Object[]> insertedRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        priceRangeRepository = Mockito.mock(PriceRangeJpaRepository.class);
+        historyRepository = Mockito.mock(PriceChangeHistoryJpaRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        CabinJpaRepository cabinRepository = Mockito.mock(CabinJpaRepository.class);
+        when(cabinRepository.findAllById(any())).thenReturn(List.of(cabin));
+        // Registra los valores de cada fila del lote y genera ids desde 101
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                    KeyHolder keys = invocation.getArgument(2);
+                    for (int i = 0; i < setter.getBatchSize(); i++) {
+                        Object[] row = new Object[8];
+                        PreparedStatement statement = Mockito.mock(PreparedStatement.class, call -> {
+                            if (call.getArguments().length == 2 && call.getArgument(0) instanceof Integer index) {
+                                row[index - 1] = call.getArgument(1);
+                            }
+                            return null;
+                        });
+                        setter.setValues(statement, i);
+                        insertedRows.add(row);
+                        keys.getKeyList().add(Map.of("id", 100L + insertedRows.size()));
+                    }
+                    return new int[setter.getBatchSize()];
+                });
+        service = new PriceRangeImportService(jdbcTemplate, Mockito.mock(PlatformTransactionManager.class),
+                priceRangeRepository, historyRepository, cabinRepository, eventPublisher);
+    }
+
+    private static SeasonRange season(int line, int fromDay, int toDay, String multiplier) {
+        return new SeasonRange(line, 1L, BASE.plusDays(fromDay), BASE.plusDays(toDay), new BigDecimal("100.00"),
+                new BigDecimal(multiplier), "Temporada", null);
+    }
+
+    private PriceRange existing(long id, int fromDay, int toDay) {
+        PriceRange range = TestEntityFactory.createPriceRange(cabin, BASE.plusDays(fromDay), BASE.plusDays(toDay),
+                new BigDecimal("90.00"), BigDecimal.ONE, "Anterior", null);
+        range.setId(id);
+        return range;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> historyRows() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(PriceRangeImportService.INSERT_HISTORY_SQL), captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void reject_insertsAllRangesInOneBatchWhenNothingOverlaps() {
+        when(priceRangeRepository.findByCabinsAndDateRange(any(), any(), any()))
+                .thenReturn(List.of(existing(7L, 40, 50)));
+
+        ImportResult result = service.importSchedule(List.of(season(3, 20, 30, "1.50"), season(2, 0, 10, "1.20"),
+                season(4, 11, 19, "1.20")), OverlapMode.REJECT);
+
+        assertThat(result.applied()).isTrue();
+        // Las líneas 2 y 4 se tocan con el mismo precio y se unen
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(insertedRows).hasSize(2);
+        assertThat(insertedRows.get(0)[2]).isEqualTo(java.sql.Date.valueOf(BASE.plusDays(19)));
+        // Una fila de historial por rango creado, con su id generado y el precio final
+        assertThat(historyRows()).extracting(row -> row[0], row -> row[5])
+                .containsExactly(tuple(101L, new BigDecimal("120.00")),
+                        tuple(102L, new BigDecimal("150.00")));
+        verify(priceRangeRepository, times(1)).findByCabinsAndDateRange(any(), eq(BASE), eq(BASE.plusDays(30)));
+        verify(eventPublisher).publishEvent(new PriceRangeChangedEvent(null, 1L, false));
+    }
+
+    @Test
+    void reject_reportsOverlapsWithExistingAndWithinFileWithoutWriting() {
+        when(priceRangeRepository.findByCabinsAndDateRange(any(), any(), any()))
+                .thenReturn(List.of(existing(7L, 25, 35)));
+
+        ImportResult result = service.importSchedule(List.of(season(2, 0, 10, "1.20"), season(3, 5, 12, "1.50"),
+                season(4, 20, 30, "1.50")), OverlapMode.REJECT);
+
+        assertThat(result.applied()).isFalse();
+        assertThat(result.conflicts()).extracting(Conflict::line).containsExactly(3, 4);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        verify(jdbcTemplate, never()).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        verify(priceRangeRepository, never()).saveAll(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void merge_trimsSplitsAndDeletesExistingRanges() {
+        PriceRange split = existing(7L, 0, 30);
+        PriceRange trimmed = existing(8L, 35, 45);
+        PriceRange covered = existing(9L, 52, 55);
+        when(priceRangeRepository.findByCabinsAndDateRange(any(), any(), any()))
+                .thenReturn(List.of(covered, trimmed, split));
+
+        ImportResult result = service.importSchedule(List.of(season(2, 10, 20, "1.50"), season(3, 40, 60, "2.00")),
+                OverlapMode.MERGE);
+
+        assertThat(result.applied()).isTrue();
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.deleted()).isEqualTo(1);
+        // Los dos importados más la cola del rango partido
+        assertThat(result.created()).isEqualTo(3);
+        assertThat(split.getStartDate()).isEqualTo(BASE);
+        assertThat(split.getEndDate()).isEqualTo(BASE.plusDays(9));
+        assertThat(trimmed.getEndDate()).isEqualTo(BASE.plusDays(39));
+        // El historial del rango eliminado se desvincula en lugar de borrarse
+        verify(historyRepository).detachFromRanges(List.of(9L));
+        verify(priceRangeRepository).deleteAllInBatch(List.of(covered));
+        verify(priceRangeRepository, never()).deleteAll(any());
+        assertThat(insertedRows).anySatisfy(row -> {
+            assertThat(row[1]).isEqualTo(java.sql.Date.valueOf(BASE.plusDays(21)));
+            assertThat(row[2]).isEqualTo(java.sql.Date.valueOf(BASE.plusDays(30)));
+            assertThat(row[3]).isEqualTo(new BigDecimal("90.00"));
+        });
+        // Recorte, partición, eliminación y altas quedan en el historial
+        List<Object[]> history = historyRows();
+        assertThat(history).hasSize(6);
+        assertThat(history).anySatisfy(row -> {
+            assertThat(row[0]).isNull();
+            assertThat(row[2]).isEqualTo(java.sql.Date.valueOf(BASE.plusDays(52)));
+            assertThat(row[4]).isEqualTo(new BigDecimal("90.00"));
+            assertThat(row[5]).isNull();
+        });
+        assertThat(history).anySatisfy(row -> {
+            assertThat(row[0]).isEqualTo(8L);
+            assertThat(row[3]).isEqualTo(java.sql.Date.valueOf(BASE.plusDays(39)));
+            assertThat((String) row[6]).contains("antes " + BASE.plusDays(35) + " a " + BASE.plusDays(45));
+        });
+        assertThat(history).filteredOn(row -> row[4] == null).hasSize(3);
+    }
+
+    @Test
+    void invalidRowsRejectTheWholeImport() {
+        List<SeasonRange> ranges = PriceRangeImportService.readCsv(new BufferedReader(new StringReader("""
+                cabinId,startDate,endDate,basePrice,multiplier,reason
+                1,2030-12-01,2030-12-10,100.00,1.20,Alta
+                1,2030-12-20,2030-12-15,100.00,1.20,
+                1,fecha,2030-12-31,100.00,1.20,
+                1,2031-01-01,2031-01-05,100.00,11,
+                """)));
+
+        ImportResult result = service.importSchedule(ranges, OverlapMode.REJECT);
+
+        assertThat(ranges.get(0).reason()).isEqualTo("Alta");
+        assertThat(result.applied()).isFalse();
+        assertThat(result.conflicts()).extracting(Conflict::line).containsExactly(3, 4, 5);
+        verify(priceRangeRepository, never()).findByCabinsAndDateRange(any(), any(), any());
+    }
+
+    @Test
+    void overlapSweep_matchesPairwiseComparison() {
+        java.util.Random random = new java.util.Random(5);
+        List<PriceRange> existing = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(1000);
+            existing.add(existing(i + 1, from, from + random.nextInt(60)));
+        }
+        List<SeasonRange> imported = new ArrayList<>();
+        for (int day = 0; day < 1000; day += 10 + random.nextInt(30)) {
+            imported.add(season(imported.size() + 2, day, day + random.nextInt(10), "1.10"));
+        }
+
+        var overlaps = PriceRangeImportService.overlapsWithExisting(imported, existing);
+
+        for (PriceRange range : existing) {
+            List<SeasonRange> expected = imported.stream()
+                    .filter(s -> !s.startDate().isAfter(range.getEndDate())
+                            && !s.endDate().isBefore(range.getStartDate()))
+                    .toList();
+            assertThat(overlaps.getOrDefault(range, List.of())).as("range " + range.getId())
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.event.PriceRangeChangedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.PriceRange;
+import com.cooperative.cabin.domain.policy.PricingPolicies;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PriceTimelineTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+    private final Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4, new BigDecimal("100.00"));
+
+    private PriceRange range(long id, int fromDay, int toDay, String basePrice, String multiplier) {
+        PriceRange range = TestEntityFactory.createPriceRange(cabin, BASE.plusDays(fromDay), BASE.plusDays(toDay),
+                new BigDecimal(basePrice), new BigDecimal(multiplier), "test", null);
+        range.setId(id);
+        return range;
+    }
+
+    @Test
+    void quote_splitsStayIntoSegmentsAndChargesBasePriceOutsideRanges() {
+        PriceTimeline timeline = PriceTimeline.compile(List.of(
+                range(1, 2, 3, "150.00", "1.00"),
+                range(2, 4, 9, "120.00", "1.50")), cabin.getBasePrice());
+
+        PriceTimeline.Quote quote = timeline.quote(BASE, BASE.plusDays(6));
+
+        assertThat(quote.nights()).isEqualTo(6);
+        assertThat(quote.basePrice()).isEqualByComparingTo("600.00");
+        // 2 × 100 + 2 × 150 + 2 × 180
+        assertThat(quote.totalPrice()).isEqualByComparingTo("860.00");
+        assertThat(quote.segments()).containsExactly(
+                new PriceTimeline.Segment(BASE, 2, new BigDecimal("100.00")),
+                new PriceTimeline.Segment(BASE.plusDays(2), 2, new BigDecimal("150.00")),
+                new PriceTimeline.Segment(BASE.plusDays(4), 2, new BigDecimal("180.00")));
+        // El día de salida no se cobra; un solo día cuenta como una noche
+        assertThat(timeline.quote(BASE.plusDays(3), BASE.plusDays(3)).totalPrice()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    void compile_latestStartWinsOnOverlapAndMergesEqualNeighbours() {
+        PriceTimeline timeline = PriceTimeline.compile(List.of(
+                range(1, 0, 30, "100.00", "2.00"),
+                range(2, 10, 12, "100.00", "3.00"),
+                range(3, 13, 15, "100.00", "3.00")), cabin.getBasePrice());
+
+        assertThat(timeline.priceOn(EpochDays.of(BASE.plusDays(9)))).isEqualByComparingTo("200.00");
+        assertThat(timeline.priceOn(EpochDays.of(BASE.plusDays(11)))).isEqualByComparingTo("300.00");
+        assertThat(timeline.priceOn(EpochDays.of(BASE.plusDays(16)))).isEqualByComparingTo("200.00");
+        assertThat(timeline.priceOn(EpochDays.of(BASE.plusDays(31)))).isEqualByComparingTo("100.00");
+        // [0,9] 200, [10,15] 300, [16,30] 200, [31,...) sin rango
+        assertThat(timeline.size()).isEqualTo(4);
+    }
+
+    @Test
+    void compile_matchesPricingPoliciesDayByDay() {
+        Random random = new Random(7);
+        List<PriceRange> ranges = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int from = random.nextInt(300);
+            ranges.add(range(i + 1, from, from + random.nextInt(40), "100.00",
+                    "1." + (10 + random.nextInt(90))));
+        }
+        PriceTimeline timeline = PriceTimeline.compile(ranges, cabin.getBasePrice());
+
+        for (int d = -5; d < 360; d++) {
+            LocalDate day = BASE.plusDays(d);
+            BigDecimal expected = PricingPolicies.calculatePrice(cabin.getBasePrice(),
+                    PricingPolicies.findApplicableRange(day, cabin.getId(), ranges).orElse(null))
+                    .setScale(2, RoundingMode.HALF_UP);
+            assertThat(timeline.priceOn(EpochDays.of(day))).as(day.toString()).isEqualByComparingTo(expected);
+        }
+    }
+
+    @Test
+    void quote_matchesBigDecimalNightByNightTotals() {
+        Random random = new Random(19);
+        List<PriceRange> ranges = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int from = random.nextInt(300);
+            BigDecimal basePrice = BigDecimal.valueOf(1 + random.nextInt(99_999_999), 2);
+            ranges.add(range(i + 1, from, from + random.nextInt(40), basePrice.toPlainString(),
+                    BigDecimal.valueOf(1 + random.nextInt(1000), 2).toPlainString()));
+        }
+        BigDecimal cabinPrice = new BigDecimal("123456.78");
+        PriceTimeline timeline = PriceTimeline.compile(ranges, cabinPrice);
+
+        for (int i = 0; i < 500; i++) {
+            LocalDate start = BASE.plusDays(random.nextInt(340) - 5);
+            int nights = 1 + random.nextInt(30);
+            // Cálculo anterior: BigDecimal por noche redondeado a centavos
+            BigDecimal expected = BigDecimal.ZERO;
+            for (int n = 0; n < nights; n++) {
+                LocalDate night = start.plusDays(n);
+                expected = expected.add(PricingPolicies.calculatePrice(cabinPrice,
+                        PricingPolicies.findApplicableRange(night, cabin.getId(), ranges).orElse(null))
+                        .setScale(2, RoundingMode.HALF_UP));
+            }
+
+            PriceTimeline.Quote quote = timeline.quote(start, start.plusDays(nights));
+
+            assertThat(quote.totalPrice()).as(start + " +" + nights).isEqualTo(expected);
+            assertThat(quote.basePrice()).isEqualTo(cabinPrice.multiply(BigDecimal.valueOf(nights)));
+        }
+    }
+
+    @Test
+    void engine_compilesOncePerCabinUntilRangesChange() {
+        PriceRangeJpaRepository ranges = Mockito.mock(PriceRangeJpaRepository.class);
+        CabinJpaRepository cabins = Mockito.mock(CabinJpaRepository.class);
+        when(cabins.findById(1L)).thenReturn(Optional.of(cabin));
+        when(ranges.findByCabin_Id(1L)).thenReturn(List.of(range(1, 0, 10, "100.00", "1.20")));
+        PriceQuoteEngine engine = new PriceQuoteEngine(ranges, cabins);
+
+        assertThat(engine.quote(1L, BASE, BASE.plusDays(7)).totalPrice()).isEqualByComparingTo("840.00");
+        assertThat(engine.quote(1L, BASE.plusDays(1), BASE.plusDays(3)).totalPrice()).isEqualByComparingTo("240.00");
+        verify(ranges, times(1)).findByCabin_Id(1L);
+
+        when(ranges.findByCabin_Id(1L)).thenReturn(List.of());
+        engine.onPriceRangeChanged(new PriceRangeChangedEvent(1L, 1L, true));
+
+        assertThat(engine.quote(1L, BASE, BASE.plusDays(7)).totalPrice()).isEqualByComparingTo("700.00");
+        verify(ranges, times(2)).findByCabin_Id(1L);
+    }
+}
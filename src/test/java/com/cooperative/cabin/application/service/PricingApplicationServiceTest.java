@@ -2,21 +2,35 @@ package com.cooperative.cabin.application.service;
 
 import com.cooperative.cabin.TestEntityFactory;
 import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.PriceChangeHistory;
 import com.cooperative.cabin.domain.model.PriceRange;
 import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.domain.exception.CabinNotFoundException;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeHistoryJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeRow;
 import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeRow;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +39,15 @@ class PricingApplicationServiceTest {
     @Mock
     private PriceRangeJpaRepository repository;
 
+    @Mock
+    private CabinJpaRepository cabinRepository;
+
+    @Mock
+    private PriceChangeHistoryJpaRepository historyRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private PricingApplicationServiceImpl pricingService;
 
@@ -84,75 +107,59 @@ class PricingApplicationServiceTest {
     }
 
     @Test
-    void getHistory_shouldReturnOrderedHistory() {
-        // Given
+    void priceDays_firstRangeWinsAndPricesAreShared() {
         Cabin cabin = TestEntityFactory.createCabin(1L, "Test Cabin", 4);
-        User admin = TestEntityFactory.createAdmin(1L);
-
-        PriceRange range1 = TestEntityFactory.createPriceRange(
-                cabin,
-                LocalDate.of(2024, 1, 1),
-                LocalDate.of(2024, 1, 31),
-                new BigDecimal("100.00"),
-                new BigDecimal("1.0"),
-                "Precio normal",
-                admin);
-        range1.setId(1L);
-        range1.setCreatedAt(java.time.LocalDateTime.of(2024, 1, 1, 10, 0)); // Más antiguo
-
-        PriceRange range2 = TestEntityFactory.createPriceRange(
-                cabin,
-                LocalDate.of(2024, 2, 1),
-                LocalDate.of(2024, 2, 29),
-                new BigDecimal("100.00"),
-                new BigDecimal("1.5"),
-                "Temporada alta",
-                admin);
-        range2.setId(2L);
-        range2.setCreatedAt(java.time.LocalDateTime.of(2024, 2, 1, 10, 0)); // Más reciente
+        PriceRange first = TestEntityFactory.createPriceRange(cabin, LocalDate.of(2024, 2, 25),
+                LocalDate.of(2024, 3, 10), new BigDecimal("100.00"), new BigDecimal("1.5"), "Alta", null);
+        PriceRange overlapping = TestEntityFactory.createPriceRange(cabin, LocalDate.of(2024, 3, 5),
+                LocalDate.of(2024, 3, 20), new BigDecimal("100.00"), new BigDecimal("2.0"), "Muy alta", null);
+        int firstDay = EpochDays.firstOfMonth(2024, 3);
+
+        PricingApplicationService.PriceDays days = PricingApplicationServiceImpl
+                .priceDays(List.of(first, overlapping), firstDay, 31);
+
+        assertThat(days.prices()).hasSize(2);
+        assertThat(days.priceAt(0)).isEqualByComparingTo(new BigDecimal("150.00"));
+        assertThat(days.priceAt(9)).isEqualByComparingTo(new BigDecimal("150.00"));
+        assertThat(days.priceAt(10)).isEqualByComparingTo(new BigDecimal("200.00"));
+        assertThat(days.priceAt(19)).isEqualByComparingTo(new BigDecimal("200.00"));
+        assertThat(days.priceAt(20)).isNull();
+        assertThat(days.toMap(BigDecimal.ZERO)).containsKeys("2024-03-01", "2024-03-31");
+    }
 
-        when(repository.findAll()).thenReturn(List.of(range1, range2));
+    @Test
+    void getHistory_shouldReadRecordedChangesNewestFirst() {
+        // Given
+        PriceChangeRow created = new PriceChangeRow(1L, 3L, 1L, "Test Cabin", LocalDate.of(2024, 2, 1),
+                LocalDate.of(2024, 2, 29), null, new BigDecimal("150.00"), "Temporada alta", "Admin",
+                java.time.LocalDateTime.of(2024, 1, 15, 10, 0));
+        PriceChangeRow deleted = new PriceChangeRow(2L, null, 1L, "Test Cabin", LocalDate.of(2024, 2, 1),
+                LocalDate.of(2024, 2, 29), new BigDecimal("150.00"), null, "Deleted", "Admin",
+                java.time.LocalDateTime.of(2024, 2, 1, 10, 0));
+        when(historyRepository.findRows(null, null, Limit.of(PricingApplicationServiceImpl.MAX_PAGE_SIZE)))
+                .thenReturn(List.of(deleted, created));
 
         // When
         List<Map<String, Object>> history = pricingService.getHistory();
 
         // Then
-        assertThat(history).hasSize(2);
-
-        // Verificar que contiene ambos rangos
-        assertThat(history).extracting("id").containsExactlyInAnyOrder(1L, 2L);
-        assertThat(history).extracting("cabinId").containsOnly(1L);
+        assertThat(history).extracting("id").containsExactly(2L, 1L);
         assertThat(history).extracting("cabinName").containsOnly("Test Cabin");
-        assertThat(history).extracting("basePrice").containsOnly(new BigDecimal("100.00"));
-
-        // Verificar que los precios finales son correctos
-        assertThat(history).extracting("finalPrice").containsExactlyInAnyOrder(
-                new BigDecimal("100.000"), // 100 * 1.0
-                new BigDecimal("150.000") // 100 * 1.5
-        );
-
-        // Verificar que las razones son correctas
-        assertThat(history).extracting("reason").containsExactlyInAnyOrder("Precio normal", "Temporada alta");
+        assertThat(history).extracting("priceRangeId").containsExactly(null, 3L);
+        assertThat(history).extracting("oldPrice").containsExactly(new BigDecimal("150.00"), null);
+        assertThat(history).extracting("newPrice").containsExactly(null, new BigDecimal("150.00"));
+        assertThat(history).extracting("date").containsExactly("2024-02-01", "2024-01-15");
+        verify(repository, never()).findAll();
     }
 
     @Test
     void getHistory_shouldHandleNullCreatedBy() {
         // Given
-        Cabin cabin = TestEntityFactory.createCabin(1L, "Test Cabin", 4);
-
-        PriceRange range = TestEntityFactory.createPriceRange(
-                cabin,
-                LocalDate.of(2024, 1, 1),
-                LocalDate.of(2024, 1, 31),
-                new BigDecimal("100.00"),
-                new BigDecimal("1.0"),
-                "Precio normal",
-                null // Sin creador
-        );
-        range.setId(1L);
-        range.setCreatedAt(java.time.LocalDateTime.of(2024, 1, 1, 10, 0));
-
-        when(repository.findAll()).thenReturn(List.of(range));
+        PriceChangeRow change = new PriceChangeRow(1L, 3L, 1L, "Test Cabin", LocalDate.of(2024, 1, 1),
+                LocalDate.of(2024, 1, 31), null, new BigDecimal("100.00"), "Precio normal", null,
+                java.time.LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(historyRepository.findRows(null, null, Limit.of(PricingApplicationServiceImpl.MAX_PAGE_SIZE)))
+                .thenReturn(List.of(change));
 
         // When
         List<Map<String, Object>> history = pricingService.getHistory();
@@ -202,4 +209,205 @@ class PricingApplicationServiceTest {
         // Then
         assertThat(price).isEqualByComparingTo(BigDecimal.ZERO);
     }
+
+    @Test
+    void getCabinPriceDays_resolvesOverlapsAcrossMonthsFromOverlapQuery() {
+        // Given
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Test Cabin", 4, new BigDecimal("80.00"));
+        User admin = TestEntityFactory.createAdmin(1L);
+        PriceRange season = TestEntityFactory.createPriceRange(cabin, LocalDate.of(2024, 1, 20),
+                LocalDate.of(2024, 3, 10), new BigDecimal("100.00"), new BigDecimal("1.5"), "Temporada", admin);
+        season.setId(1L);
+        PriceRange holiday = TestEntityFactory.createPriceRange(cabin, LocalDate.of(2024, 2, 10),
+                LocalDate.of(2024, 2, 12), new BigDecimal("100.00"), new BigDecimal("2.0"), "Festivo", admin);
+        holiday.setId(2L);
+        when(cabinRepository.findById(1L)).thenReturn(Optional.of(cabin));
+        when(repository.findOverlapping(1L, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 4, 30)))
+                .thenReturn(List.of(holiday, season));
+
+        // When
+        PricingApplicationService.PriceDays days = pricingService.getCabinPriceDays(1L, 2024, 2, 3);
+
+        // Then: febrero bisiesto, marzo y abril, en orden de fecha
+        assertThat(days.length()).isEqualTo(29 + 31 + 30);
+        assertThat(days.firstDay()).isEqualTo(EpochDays.of(LocalDate.of(2024, 2, 1)));
+        assertThat(days.priceAt(0)).isEqualByComparingTo("150.00");
+        // El rango que empieza más tarde gana en el solape
+        assertThat(days.priceAt(9)).isEqualByComparingTo("200.00");
+        assertThat(days.priceAt(11)).isEqualByComparingTo("200.00");
+        assertThat(days.priceAt(12)).isEqualByComparingTo("150.00");
+        assertThat(days.priceAt(29 + 9)).isEqualByComparingTo("150.00");
+        // Sin rango: precio base de la cabaña
+        assertThat(days.priceAt(29 + 10)).isEqualByComparingTo("80.00");
+        assertThat(days.priceAt(days.length() - 1)).isEqualByComparingTo("80.00");
+        assertThat(days.prices()).hasSize(3);
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void getCabinPriceDays_rejectsInvalidMonthsAndUnknownCabin() {
+        assertThatThrownBy(() -> pricingService.getCabinPriceDays(1L, 2024, 2, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.getCabinPriceDays(1L, 2024, 2, 13))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        when(cabinRepository.findById(9L)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> pricingService.getCabinPriceDays(9L, 2024, 2, 1))
+                .isInstanceOf(CabinNotFoundException.class);
+        verify(repository, never()).findOverlapping(any(), any(), any());
+    }
+
+    @Test
+    void quoteBatch_loadsRangesOnceAndQuotesEachStayInOrder() {
+        // Given
+        Cabin lake = TestEntityFactory.createCabin(1L, "Lake", 4, new BigDecimal("100.00"));
+        Cabin forest = TestEntityFactory.createCabin(2L, "Forest", 6, new BigDecimal("120.00"));
+        User admin = TestEntityFactory.createAdmin(1L);
+        PriceRange weekend = TestEntityFactory.createPriceRange(lake, LocalDate.of(2025, 2, 8),
+                LocalDate.of(2025, 2, 8), new BigDecimal("100.00"), new BigDecimal("1.5"), "Fin de semana", admin);
+        weekend.setId(1L);
+        when(cabinRepository.findAllById(any())).thenReturn(List.of(lake, forest));
+        when(repository.findByCabinsAndDateRange(any(), any(), any())).thenReturn(List.of(weekend));
+        LocalDate friday = LocalDate.of(2025, 2, 7);
+
+        // When
+        List<PriceTimeline.Quote> quotes = pricingService.quoteBatch(List.of(
+                new PricingApplicationService.QuoteRequest(1L, friday, friday.plusDays(2)),
+                new PricingApplicationService.QuoteRequest(2L, friday, friday.plusDays(2)),
+                new PricingApplicationService.QuoteRequest(1L, friday.plusDays(7), friday.plusDays(9))));
+
+        // Then
+        assertThat(quotes).hasSize(3);
+        assertThat(quotes.get(0).totalPrice()).isEqualByComparingTo("250.00"); // 100 + 150
+        assertThat(quotes.get(0).segments()).hasSize(2);
+        assertThat(quotes.get(1).totalPrice()).isEqualByComparingTo("240.00");
+        assertThat(quotes.get(2).startDate()).isEqualTo(friday.plusDays(7));
+        assertThat(quotes.get(2).totalPrice()).isEqualByComparingTo("200.00");
+        // Una consulta sobre la envolvente: del primer día a la última noche
+        verify(repository).findByCabinsAndDateRange(java.util.Set.of(1L, 2L), friday, friday.plusDays(8));
+        verify(repository, never()).findByCabin_Id(any());
+    }
+
+    @Test
+    void quoteBatch_rejectsInvalidStaysAndUnknownCabins() {
+        LocalDate day = LocalDate.of(2025, 2, 7);
+        assertThatThrownBy(() -> pricingService.quoteBatch(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.quoteBatch(List.of(
+                new PricingApplicationService.QuoteRequest(1L, day, day.minusDays(1)))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        when(cabinRepository.findAllById(any())).thenReturn(List.of());
+        assertThatThrownBy(() -> pricingService.quoteBatch(List.of(
+                new PricingApplicationService.QuoteRequest(9L, day, day.plusDays(1)))))
+                .isInstanceOf(CabinNotFoundException.class);
+        verify(repository, never()).findByCabinsAndDateRange(any(), any(), any());
+    }
+
+    @Test
+    void listPriceRanges_returnsKeysetPageWithCursorOfLastRow() {
+        // Given: se piden tres filas para una página de dos
+        when(repository.findRows(1L, 10L, Limit.of(3))).thenReturn(List.of(rangeRow(11L), rangeRow(12L),
+                rangeRow(13L)));
+        when(repository.findRows(1L, 12L, Limit.of(3))).thenReturn(List.of(rangeRow(13L)));
+
+        // When
+        KeysetPage<PriceRangeRow> first = pricingService.listPriceRanges(1L, "10", 2);
+        KeysetPage<PriceRangeRow> last = pricingService.listPriceRanges(1L, first.nextCursor(), 2);
+
+        // Then
+        assertThat(first.items()).extracting(PriceRangeRow::id).containsExactly(11L, 12L);
+        assertThat(first.nextCursor()).isEqualTo("12");
+        assertThat(last.items()).extracting(PriceRangeRow::id).containsExactly(13L);
+        assertThat(last.nextCursor()).isNull();
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void listPriceRanges_rejectsInvalidCursorAndSize() {
+        assertThatThrownBy(() -> pricingService.listPriceRanges(null, "abc", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.listPriceRanges(null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pricingService.getPriceChanges(null, null, 201))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getPriceChanges_readsNewestFirstFromHistory() {
+        PriceChangeRow change = new PriceChangeRow(7L, 3L, 1L, "Test Cabin", LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31), new BigDecimal("100.00"),
+                new BigDecimal("150.00"), "Updated", null, java.time.LocalDateTime.of(2024, 3, 1, 9, 0));
+        when(historyRepository.findRows(null, null, Limit.of(51))).thenReturn(List.of(change));
+
+        KeysetPage<PriceChangeRow> page = pricingService.getPriceChanges(null, null, 50);
+
+        assertThat(page.items()).containsExactly(change);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void partialUpdatePriceRange_recordsPriceChange() {
+        // Given
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Test Cabin", 4);
+        PriceRange current = TestEntityFactory.createPriceRange(cabin, LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31), new BigDecimal("100.00"), new BigDecimal("1.0"), "Base", null);
+        current.setId(3L);
+        when(repository.findById(3L)).thenReturn(Optional.of(current));
+        when(repository.save(any(PriceRange.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        PriceRange saved = pricingService.partialUpdatePriceRange(3L, null, new BigDecimal("1.5"), null, null);
+
+        // Then
+        ArgumentCaptor<PriceChangeHistory> captor = ArgumentCaptor.forClass(PriceChangeHistory.class);
+        verify(historyRepository).save(captor.capture());
+        assertThat(captor.getValue().getPriceRange()).isSameAs(saved);
+        assertThat(captor.getValue().getOldPrice()).isEqualByComparingTo("100.00");
+        assertThat(captor.getValue().getNewPrice()).isEqualByComparingTo("150.00");
+    }
+
+    @Test
+    void partialUpdatePriceRange_treatsMissingMultiplierAsOne() {
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Test Cabin", 4);
+        PriceRange current = TestEntityFactory.createPriceRange(cabin, LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31), new BigDecimal("100.00"), null, "Base", null);
+        current.setId(3L);
+        when(repository.findById(3L)).thenReturn(Optional.of(current));
+        when(repository.save(any(PriceRange.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        pricingService.partialUpdatePriceRange(3L, new BigDecimal("120.00"), null, null, null);
+
+        ArgumentCaptor<PriceChangeHistory> captor = ArgumentCaptor.forClass(PriceChangeHistory.class);
+        verify(historyRepository).save(captor.capture());
+        assertThat(captor.getValue().getOldPrice()).isEqualByComparingTo("100.00");
+        assertThat(captor.getValue().getNewPrice()).isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void deletePriceRange_keepsHistoryAndRecordsDeletion() {
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Test Cabin", 4);
+        PriceRange range = TestEntityFactory.createPriceRange(cabin, LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 3, 31), new BigDecimal("100.00"), new BigDecimal("1.5"), "Alta", null);
+        range.setId(3L);
+        when(repository.findById(3L)).thenReturn(Optional.of(range));
+
+        pricingService.deletePriceRange(3L);
+
+        ArgumentCaptor<PriceChangeHistory> captor = ArgumentCaptor.forClass(PriceChangeHistory.class);
+        verify(historyRepository).detachFromRanges(List.of(3L));
+        verify(historyRepository).save(captor.capture());
+        assertThat(captor.getValue().getPriceRange()).isNull();
+        assertThat(captor.getValue().getCabin()).isSameAs(cabin);
+        assertThat(captor.getValue().getStartDate()).isEqualTo(LocalDate.of(2024, 3, 1));
+        assertThat(captor.getValue().getOldPrice()).isEqualByComparingTo("150.00");
+        assertThat(captor.getValue().getNewPrice()).isNull();
+        verify(repository).deleteById(3L);
+    }
+
+    private static PriceRangeRow rangeRow(Long id) {
+        return new PriceRangeRow(id, 1L, "Test Cabin", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31),
+                new BigDecimal("100.00"), BigDecimal.ONE, "Base", java.time.LocalDateTime.of(2024, 1, 1, 10, 0),
+                "Admin");
+    }
 }
@@ -6,9 +6,11 @@ import com.cooperative.cabin.domain.model.Reservation;
 import com.cooperative.cabin.domain.model.ReservationStatus;
 import com.cooperative.cabin.domain.model.User;
 import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,6 +19,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 class ReservationApplicationServiceTest {
@@ -39,8 +42,21 @@ class ReservationApplicationServiceTest {
                                 .mock(com.cooperative.cabin.infrastructure.repository.CabinJpaRepository.class);
                 configurationService = Mockito.mock(ReservationApplicationService.ConfigurationService.class);
                 businessMetrics = Mockito.mock(BusinessMetrics.class);
-                service = new ReservationApplicationService(reservationRepository, availabilityBlockRepository,
-                                userRepository, cabinRepository, configurationService, businessMetrics);
+                service = service(ReservationApplicationService.ReservationSummaries.fromHistory(reservationRepository),
+                                new CheckoutHolds());
+        }
+
+        /**
+         * Servicio con los mocks del test; el resto de colaboradores no hace nada
+         * (sin rangos de precio todas las noches van al precio base)
+         */
+        private ReservationApplicationService service(ReservationApplicationService.ReservationSummaries summaries,
+                        CheckoutHolds holds) {
+                return new ReservationApplicationService(reservationRepository, availabilityBlockRepository,
+                                userRepository, cabinRepository, configurationService, businessMetrics,
+                                Mockito.mock(WaitingListApplicationService.class),
+                                Mockito.mock(ApplicationEventPublisher.class), new CabinLocks(), summaries, holds,
+                                new PriceQuoteEngine(Mockito.mock(PriceRangeJpaRepository.class), cabinRepository));
         }
 
         @Test
@@ -58,7 +74,7 @@ class ReservationApplicationServiceTest {
                 when(reservationRepository.findLastCreatedAtDate(userId)).thenReturn(LocalDate.now().minusDays(40));
                 when(configurationService.getStandardTimeoutDays()).thenReturn(30);
                 when(configurationService.getMaxReservationsPerYear()).thenReturn(3);
-                when(availabilityBlockRepository.findByCabinId(cabinId)).thenReturn(Collections.emptyList());
+                when(availabilityBlockRepository.findOverlapping(eq(cabinId), any(), any())).thenReturn(Collections.emptyList());
                 when(reservationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
                 Reservation r = service.createPreReservation(userId, cabinId, LocalDate.now().plusDays(10),
@@ -66,6 +82,8 @@ class ReservationApplicationServiceTest {
                 assertNotNull(r);
                 assertEquals(ReservationStatus.PENDING, r.getStatus());
                 assertEquals(userId, r.getUser().getId());
+                // Sin rangos de precios: dos noches al precio base de la cabaña
+                assertEquals(new BigDecimal("200.00"), r.getFinalPrice());
                 Mockito.verify(businessMetrics).incrementReservationCreated();
         }
 
@@ -83,6 +101,64 @@ class ReservationApplicationServiceTest {
                                 LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), 2));
         }
 
+        @Test
+        void createPreReservation_checksPoliciesAgainstSummaryWithoutLoadingHistory() {
+                Long userId = 1L;
+                LocalDate start = LocalDate.now().plusDays(10);
+                ReservationApplicationService withSummaries = service(
+                                id -> new ReservationApplicationService.ReservationSummary(0,
+                                                java.util.Map.of(start.getYear(), 3), null),
+                                new CheckoutHolds());
+                when(configurationService.getMaxReservationsPerYear()).thenReturn(3);
+
+                assertThrows(IllegalStateException.class, () -> withSummaries.createPreReservation(userId, 10L, start,
+                                start.plusDays(2), 2));
+                Mockito.verify(reservationRepository, Mockito.never()).findByUserId(any());
+                Mockito.verify(reservationRepository, Mockito.never()).findLastCreatedAtDate(any());
+        }
+
+        @Test
+        void hold_blocksOtherUsersAndConvertsWithoutRecheckingAvailability() {
+                Long cabinId = 10L;
+                LocalDate start = LocalDate.now().plusDays(10);
+                CheckoutHolds holds = new CheckoutHolds();
+                ReservationApplicationService withHolds = service(
+                                id -> new ReservationApplicationService.ReservationSummary(0, java.util.Map.of(),
+                                                null),
+                                holds);
+                Cabin cabin = TestEntityFactory.createCabin(cabinId, "Test Cabin", 4);
+                when(configurationService.getMaxReservationsPerYear()).thenReturn(3);
+                when(availabilityBlockRepository.findOverlapping(eq(cabinId), any(), any()))
+                                .thenReturn(Collections.emptyList());
+                when(cabinRepository.existsById(cabinId)).thenReturn(true);
+                when(cabinRepository.findById(cabinId)).thenReturn(java.util.Optional.of(cabin));
+                when(userRepository.findById(1L)).thenReturn(java.util.Optional
+                                .of(TestEntityFactory.createUser(1L, "user@test.com", "12345678")));
+                when(userRepository.findById(2L)).thenReturn(java.util.Optional
+                                .of(TestEntityFactory.createUser(2L, "other@test.com", "87654321")));
+                when(reservationRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+                CheckoutHolds.Hold hold = withHolds.placeHold(1L, cabinId, start, start.plusDays(2));
+
+                // Otro socio no puede reservar ni retener las mismas fechas
+                assertThrows(IllegalStateException.class,
+                                () -> withHolds.createPreReservation(2L, cabinId, start.plusDays(1), start.plusDays(3),
+                                                2));
+                assertThrows(IllegalStateException.class,
+                                () -> withHolds.placeHold(2L, cabinId, start, start.plusDays(1)));
+
+                Mockito.clearInvocations(reservationRepository, availabilityBlockRepository);
+                Reservation r = withHolds.createPreReservationFromHold(1L, hold.id(), 2, null, null);
+
+                assertEquals(ReservationStatus.PENDING, r.getStatus());
+                assertEquals(start, r.getStartDate());
+                assertEquals(0, holds.size());
+                Mockito.verify(reservationRepository, Mockito.never()).existsActiveOverlap(any(), any(), any());
+                Mockito.verify(availabilityBlockRepository, Mockito.never()).findOverlapping(any(), any(), any());
+                assertThrows(IllegalStateException.class,
+                                () -> withHolds.createPreReservationFromHold(1L, hold.id(), 2, null, null));
+        }
+
         @Test
         void cancelReservationByUser_setsCancelled() {
                 Long userId = 1L;
@@ -123,7 +199,7 @@ class ReservationApplicationServiceTest {
                 when(configurationService.getStandardTimeoutDays()).thenReturn(30);
                 Cabin cabin = TestEntityFactory.createCabin(cabinId, "Test Cabin", 4);
                 User admin = TestEntityFactory.createAdmin(1L);
-                when(availabilityBlockRepository.findByCabinId(cabinId)).thenReturn(List.of(
+                when(availabilityBlockRepository.findOverlapping(eq(cabinId), any(), any())).thenReturn(List.of(
                                 TestEntityFactory.createAvailabilityBlock(1L, cabin, LocalDate.of(2025, 4, 1),
                                                 LocalDate.of(2025, 4, 4), "Test block", admin)));
 
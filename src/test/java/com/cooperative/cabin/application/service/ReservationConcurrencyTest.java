@@ -0,0 +1,194 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cientos de hilos reservando la misma cabaña a la vez: ninguna pareja de
+ * reservas guardadas puede solaparse.
+ */
+class ReservationConcurrencyTest {
+
+    private static final int THREADS = 200;
+    private static final int REQUESTS = 600;
+    private static final LocalDate BASE = LocalDate.now().plusDays(10);
+
+    private InMemoryReservations reservations;
+    private ReservationApplicationService service;
+
+    @BeforeEach
+    void setUp() {
+        reservations = new InMemoryReservations();
+        ReservationApplicationService.AvailabilityBlockRepository blocks = Mockito
+                .mock(ReservationApplicationService.AvailabilityBlockRepository.class);
+        UserJpaRepository userRepository = Mockito.mock(UserJpaRepository.class);
+        CabinJpaRepository cabinRepository = Mockito.mock(CabinJpaRepository.class);
+        ReservationApplicationService.ConfigurationService config = Mockito
+                .mock(ReservationApplicationService.ConfigurationService.class);
+
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+        when(cabinRepository.findById(1L)).thenReturn(Optional.of(cabin));
+        when(userRepository.findById(anyLong())).thenAnswer(inv -> {
+            Long id = inv.getArgument(0);
+            return Optional.of(TestEntityFactory.createUser(id, "user" + id + "@test.com", "doc" + id));
+        });
+        when(blocks.findOverlapping(anyLong(), any(), any())).thenReturn(List.of());
+        when(config.getMaxReservationsPerYear()).thenReturn(100);
+        when(config.getStandardTimeoutDays()).thenReturn(0);
+
+        service = new ReservationApplicationService(reservations, blocks, userRepository, cabinRepository, config,
+                new BusinessMetrics(null), Mockito.mock(WaitingListApplicationService.class),
+                Mockito.mock(ApplicationEventPublisher.class), new CabinLocks(Duration.ofSeconds(30)),
+                ReservationApplicationService.ReservationSummaries.fromHistory(reservations), new CheckoutHolds(),
+                new PriceQuoteEngine(Mockito.mock(PriceRangeJpaRepository.class), cabinRepository));
+    }
+
+    @Test
+    void createPreReservation_underHeavyContention_neverDoubleBooks() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Random random = new Random(7);
+        List<Future<?>> futures = new ArrayList<>();
+        List<Throwable> unexpected = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            long userId = i + 1;
+            LocalDate from = BASE.plusDays(random.nextInt(60));
+            LocalDate to = from.plusDays(random.nextInt(5));
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    service.createPreReservation(userId, 1L, from, to, 2);
+                } catch (IllegalStateException expected) {
+                    // Fechas ya tomadas por otra petición
+                } catch (Throwable t) {
+                    unexpected.add(t);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Reservation> saved = reservations.findAll();
+        assertThat(unexpected).isEmpty();
+        assertThat(saved).isNotEmpty();
+        for (int i = 0; i < saved.size(); i++) {
+            for (int j = i + 1; j < saved.size(); j++) {
+                Reservation a = saved.get(i);
+                Reservation b = saved.get(j);
+                boolean overlaps = !(a.getEndDate().isBefore(b.getStartDate())
+                        || a.getStartDate().isAfter(b.getEndDate()));
+                assertThat(overlaps).as("%s-%s vs %s-%s", a.getStartDate(), a.getEndDate(), b.getStartDate(),
+                        b.getEndDate()).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void cabinLocks_unrelatedCabinsDoNotWaitForEachOther() throws Exception {
+        CabinLocks locks = new CabinLocks(Duration.ofMillis(200));
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<?> holder = executor.submit(() -> locks.withLock(1L, () -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        holding.await();
+
+        // Con la cabaña 1 tomada, la 2 entra de inmediato y la 1 agota el plazo
+        assertThat(executor.submit(() -> locks.withLock(2L, () -> "ok")).get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThatThrownBy(() -> locks.withLock(1L, () -> "never")).isInstanceOf(IllegalStateException.class);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    /**
+     * Repositorio en memoria; la verificación de solapamiento cede el hilo para
+     * abrir la ventana de carrera entre verificar y guardar
+     */
+    private static class InMemoryReservations implements ReservationApplicationService.ReservationRepository {
+        private final List<Reservation> rows = new CopyOnWriteArrayList<>();
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public List<Reservation> findAll() {
+            return new ArrayList<>(rows);
+        }
+
+        @Override
+        public List<Reservation> findByUserId(Long userId) {
+            return rows.stream().filter(r -> r.getUser().getId().equals(userId)).toList();
+        }
+
+        @Override
+        public LocalDate findLastCreatedAtDate(Long userId) {
+            return null;
+        }
+
+        @Override
+        public Reservation save(Reservation reservation) {
+            Thread.yield();
+            reservation.setId(ids.incrementAndGet());
+            rows.add(reservation);
+            return reservation;
+        }
+
+        @Override
+        public Reservation findById(Long reservationId) {
+            return rows.stream().filter(r -> r.getId().equals(reservationId)).findFirst().orElse(null);
+        }
+
+        @Override
+        public void deleteById(Long reservationId) {
+            rows.removeIf(r -> r.getId().equals(reservationId));
+        }
+
+        @Override
+        public boolean existsActiveOverlap(Long cabinId, LocalDate startDate, LocalDate endDate) {
+            Thread.yield();
+            return rows.stream().anyMatch(r -> r.getCabin().getId().equals(cabinId) && r.isActive()
+                    && !(r.getEndDate().isBefore(startDate) || r.getStartDate().isAfter(endDate)));
+        }
+    }
+}
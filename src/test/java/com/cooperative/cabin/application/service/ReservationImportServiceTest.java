@@ -0,0 +1,289 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.application.service.ReservationImportService.ImportRow;
+import com.cooperative.cabin.application.service.ReservationImportService.ImportSummary;
+import com.cooperative.cabin.application.service.ReservationImportService.RowResult;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.event.ReservationsImportedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.domain.model.UserReservationSummary;
+import com.cooperative.cabin.infrastructure.repository.AvailabilityBlockJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.PriceRangeJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationImportServiceTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 3, 1);
+
+    private JdbcTemplate jdbcTemplate;
+    private ReservationJpaRepository reservationRepository;
+    private PriceRangeJpaRepository priceRangeRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private final CheckoutHolds checkoutHolds = new CheckoutHolds();
+    private final AtomicLong ids = new AtomicLong(100);
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        reservationRepository = Mockito.mock(ReservationJpaRepository.class);
+        priceRangeRepository = Mockito.mock(PriceRangeJpaRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+    }
+
+    /**
+     * Simula los lotes JDBC: cada llamada devuelve tantos ids como indique
+     * {@code rowsPerBatch} en su turno, o falla por la restricción si es -1
+     */
+    @SuppressWarnings("unchecked")
+    private ReservationImportService service(int batchSize, int... rowsPerBatch) {
+        List<Integer> sizes = new ArrayList<>();
+        for (int size : rowsPerBatch) {
+            sizes.add(size);
+        }
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(inv -> {
+            int size = sizes.get(batches.getAndIncrement());
+            if (size < 0) {
+                throw new DataIntegrityViolationException("violates " + Reservation.NO_OVERLAP_CONSTRAINT);
+            }
+            List<Long> keys = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                keys.add(ids.incrementAndGet());
+            }
+            return keys;
+        });
+
+        CabinJpaRepository cabinRepository = Mockito.mock(CabinJpaRepository.class);
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+        when(cabinRepository.findById(1L)).thenReturn(Optional.of(cabin));
+        when(cabinRepository.findById(9L)).thenReturn(Optional.empty());
+
+        UserJpaRepository userRepository = Mockito.mock(UserJpaRepository.class);
+        when(userRepository.existsById(anyLong())).thenAnswer(inv -> (Long) inv.getArgument(0) < 1000);
+
+        User owner = TestEntityFactory.createUser(50L, "owner@test.com", "50");
+        when(reservationRepository.findActiveReservationsByCabin(1L)).thenReturn(List.of(
+                TestEntityFactory.createReservation(owner, cabin, BASE, BASE.plusDays(2), 2,
+                        ReservationStatus.CONFIRMED)));
+
+        AvailabilityBlockJpaRepository blockRepository = Mockito.mock(AvailabilityBlockJpaRepository.class);
+        when(blockRepository.findByCabin_Id(anyLong())).thenReturn(List.of());
+
+        UserReservationSummaryProjection projection = Mockito.mock(UserReservationSummaryProjection.class);
+        when(projection.summaryFor(anyLong())).thenAnswer(inv -> new UserReservationSummary(inv.getArgument(0)));
+
+        ConfigurationService config = Mockito.mock(ConfigurationService.class);
+        when(config.getAll()).thenReturn(Map.of("reservation.max.per.year", "2"));
+
+        return new ReservationImportService(jdbcTemplate, Mockito.mock(PlatformTransactionManager.class),
+                cabinRepository, userRepository, reservationRepository, blockRepository, projection, config,
+                eventPublisher, new PriceQuoteEngine(priceRangeRepository, cabinRepository), new CabinLocks(),
+                checkoutHolds, batchSize);
+    }
+
+    private static ImportRow row(int line, long userId, long cabinId, int fromDay, int toDay,
+            ReservationStatus status) {
+        return new ImportRow(line, userId, cabinId, BASE.plusDays(fromDay), BASE.plusDays(toDay), 2, status, null,
+                null);
+    }
+
+    @Test
+    void importRows_validatesOverlapsAndPoliciesInMemory() {
+        ReservationImportService service = service(100, 2);
+        List<RowResult> results = new ArrayList<>();
+
+        ImportSummary summary = service.importRows(List.of(
+                row(2, 1, 1, 1, 3, null), // choca con la reserva existente
+                row(3, 1, 1, 5, 7, null),
+                row(4, 2, 1, 6, 8, null), // choca con la fila 3
+                row(5, 1, 1, 20, 22, null), // el usuario 1 ya tiene una activa
+                row(6, 3, 9, 1, 2, null), // cabaña inexistente
+                row(7, 5000, 1, 30, 31, null), // usuario inexistente
+                row(8, 4, 1, 40, 41, ReservationStatus.COMPLETED),
+                ImportRow.invalid(9, "Fila inválida")).iterator(), results::add);
+
+        assertThat(summary).isEqualTo(new ImportSummary(8, 2, 6));
+        assertThat(results).filteredOn(RowResult::created).extracting(RowResult::line).containsExactly(3, 8);
+        assertThat(results).filteredOn(r -> !r.created()).extracting(RowResult::line)
+                .containsExactlyInAnyOrder(2, 4, 5, 6, 7, 9);
+        assertThat(batches).hasValue(1);
+        // Un solo evento para las dos reservas de la cabaña en el lote
+        ArgumentCaptor<ReservationsImportedEvent> event = ArgumentCaptor.forClass(ReservationsImportedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().cabinId()).isEqualTo(1L);
+        assertThat(event.getValue().reservations()).extracting(ReservationChangedEvent::reservationId)
+                .containsExactly(101L, 102L);
+        verify(eventPublisher, never()).publishEvent(any(ReservationChangedEvent.class));
+    }
+
+    @Test
+    void importRows_treatsCheckoutHoldsAsOccupied() {
+        ReservationImportService service = service(10, 2);
+        List<RowResult> results = new ArrayList<>();
+        checkoutHolds.place(98L, 1L, BASE.plusDays(30), BASE.plusDays(31));
+        Iterator<ImportRow> rows = List.of(
+                row(2, 10, 1, 10, 11, null),
+                row(3, 11, 1, 20, 21, null), // retenida después de validarla, antes de escribir el lote
+                row(4, 12, 1, 30, 31, null), // ya retenida al validarla
+                row(5, 98, 1, 30, 31, ReservationStatus.COMPLETED)).iterator();
+        Iterator<ImportRow> holdBeforeFlush = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (!rows.hasNext() && checkoutHolds.liveHolds(1L).size() == 1) {
+                    checkoutHolds.place(99L, 1L, BASE.plusDays(20), BASE.plusDays(21));
+                }
+                return rows.hasNext();
+            }
+
+            @Override
+            public ImportRow next() {
+                return rows.next();
+            }
+        };
+
+        ImportSummary summary = service.importRows(holdBeforeFlush, results::add);
+
+        assertThat(summary).isEqualTo(new ImportSummary(4, 2, 2));
+        assertThat(results).filteredOn(r -> !r.created()).extracting(RowResult::line, RowResult::error)
+                .containsExactlyInAnyOrder(
+                        org.assertj.core.groups.Tuple.tuple(3, "Las fechas están retenidas por otro socio"),
+                        org.assertj.core.groups.Tuple.tuple(4, "Las fechas están retenidas por otro socio"));
+    }
+
+    @Test
+    void importRows_writesInBatchesOfConfiguredSize() {
+        ReservationImportService service = service(2, 2, 2, 1);
+        List<RowResult> results = new ArrayList<>();
+        List<ImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rows.add(row(i + 2, 10 + i, 1, 10 + i * 3, 11 + i * 3, null));
+        }
+
+        ImportSummary summary = service.importRows(rows.iterator(), results::add);
+
+        assertThat(summary.created()).isEqualTo(5);
+        assertThat(batches).hasValue(3);
+        assertThat(results).extracting(RowResult::reservationId).containsExactly(101L, 102L, 103L, 104L, 105L);
+    }
+
+    @Test
+    void importRows_databaseConflictRetriesRowByRow() {
+        // Lote rechazado por la restricción; luego fila 2 entra y fila 3 choca
+        ReservationImportService service = service(10, -1, 1, -1);
+        List<RowResult> results = new ArrayList<>();
+
+        ImportSummary summary = service.importRows(List.of(
+                row(2, 10, 1, 10, 11, null),
+                row(3, 11, 1, 20, 21, null)).iterator(), results::add);
+
+        assertThat(summary).isEqualTo(new ImportSummary(2, 1, 1));
+        assertThat(results).extracting(RowResult::line, RowResult::created)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple(2, true),
+                        org.assertj.core.groups.Tuple.tuple(3, false));
+        assertThat(results.get(1).error()).isEqualTo("La cabaña ya está reservada en esas fechas");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importRows_quotesRowsWithoutPriceLikeTheApplication() throws Exception {
+        ReservationImportService service = service(10);
+        Cabin cabin = TestEntityFactory.createCabin(1L, "Cabin", 4);
+        when(priceRangeRepository.findByCabin_Id(1L)).thenReturn(List.of(TestEntityFactory.createPriceRange(cabin,
+                BASE.plusDays(10), BASE.plusDays(10), new BigDecimal("200.00"), new BigDecimal("1.5"), "Alta",
+                null)));
+
+        // El lote se ejecuta contra una conexión simulada para ver los precios enlazados
+        List<BigDecimal> prices = new ArrayList<>();
+        PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        doAnswer(inv -> prices.add(inv.getArgument(1))).when(statement).setBigDecimal(anyInt(), any());
+        ResultSet keys = Mockito.mock(ResultSet.class);
+        when(keys.next()).thenReturn(true, true, false);
+        when(keys.getLong(1)).thenReturn(101L, 102L);
+        when(statement.getGeneratedKeys()).thenReturn(keys);
+        Connection connection = Mockito.mock(Connection.class);
+        when(connection.prepareStatement(anyString(), any(String[].class))).thenReturn(statement);
+        doAnswer(inv -> ((ConnectionCallback<List<Long>>) inv.getArgument(0)).doInConnection(connection))
+                .when(jdbcTemplate).execute(any(ConnectionCallback.class));
+
+        ImportSummary summary = service.importRows(List.of(
+                row(2, 10, 1, 10, 12, null),
+                new ImportRow(3, 11L, 1L, BASE.plusDays(20), BASE.plusDays(21), 2, null, new BigDecimal("75.00"),
+                        null)).iterator(), r -> {
+                        });
+
+        assertThat(summary.created()).isEqualTo(2);
+        // Fila 2: base 2 x 100 y total 300 + 100; fila 3 conserva su precio
+        assertThat(prices).containsExactly(new BigDecimal("200.00"), new BigDecimal("400.00"),
+                new BigDecimal("75.00"), new BigDecimal("75.00"));
+    }
+
+    @Test
+    void reader_parsesCsvAndNdjsonLineByLine() {
+        String csv = """
+                userId,cabinId,startDate,endDate,guests,status
+                1,2,2030-03-01,2030-03-03,2,confirmed
+
+                1,x,2030-03-01,2030-03-03,2,
+                """;
+        List<ImportRow> rows = new ArrayList<>();
+        ReservationImportReader.csv(new BufferedReader(new StringReader(csv))).forEachRemaining(rows::add);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).isEqualTo(new ImportRow(2, 1L, 2L, LocalDate.of(2030, 3, 1),
+                LocalDate.of(2030, 3, 3), 2, ReservationStatus.CONFIRMED, null, null));
+        assertThat(rows.get(1).line()).isEqualTo(4);
+        assertThat(rows.get(1).error()).startsWith("Fila inválida");
+
+        String ndjson = """
+                {"userId":1,"cabinId":2,"startDate":"2030-03-01","endDate":"2030-03-03","guests":3,"finalPrice":"250.00"}
+                {not json
+                """;
+        rows.clear();
+        ReservationImportReader.ndjson(new BufferedReader(new StringReader(ndjson)),
+                new com.fasterxml.jackson.databind.ObjectMapper()).forEachRemaining(rows::add);
+
+        assertThat(rows.get(0).guests()).isEqualTo(3);
+        assertThat(rows.get(0).finalPrice()).isEqualByComparingTo(new java.math.BigDecimal("250.00"));
+        assertThat(rows.get(1).error()).isNotNull();
+    }
+}
@@ -0,0 +1,111 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReservationSearchServiceTest {
+
+    private ReservationJpaRepository repository;
+    private ReservationSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(ReservationJpaRepository.class);
+        service = new ReservationSearchService(repository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void search_pagesInDatabaseOrderedWithIdTieBreak() {
+        Reservation reservation = reservation(3L, LocalDateTime.of(2025, 1, 5, 9, 30));
+        when(repository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(reservation), Pageable.ofSize(20).withPage(2), 41));
+
+        Page<Reservation> page = service.search(
+                new ReservationSearchService.Filter(ReservationStatus.CONFIRMED, 2L, null, null, null),
+                ReservationSearchService.SortKey.START_DATE, Sort.Direction.ASC, 2, 20);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findAll(any(Specification.class), pageable.capture());
+        assertThat(pageable.getValue().getPageNumber()).isEqualTo(2);
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(20);
+        assertThat(pageable.getValue().getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "startDate")
+                .and(Sort.by(Sort.Direction.ASC, "id")));
+        assertThat(page.getContent()).containsExactly(reservation);
+        assertThat(page.getTotalElements()).isEqualTo(41);
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchAfter_returnsCursorOfLastRowAndAcceptsItBack() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 1, 5, 9, 30);
+        List<Reservation> rows = List.of(reservation(9L, createdAt.plusHours(2)), reservation(7L, createdAt),
+                reservation(5L, createdAt.minusHours(1)));
+        when(repository.findBy(any(Specification.class), any())).thenReturn(rows);
+
+        KeysetPage<Reservation> first = service.searchAfter(null, ReservationSearchService.SortKey.CREATED_AT,
+                Sort.Direction.DESC, null, 2);
+
+        assertThat(first.items()).extracting(Reservation::getId).containsExactly(9L, 7L);
+        String key = new String(Base64.getUrlDecoder().decode(first.nextCursor()), StandardCharsets.UTF_8);
+        assertThat(key).isEqualTo("2025-01-05T09:30|7");
+
+        KeysetPage<Reservation> next = service.searchAfter(null, ReservationSearchService.SortKey.CREATED_AT,
+                Sort.Direction.DESC, first.nextCursor(), 5);
+        assertThat(next.nextCursor()).isNull();
+        verify(repository, times(2)).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void searchAfter_rejectsInvalidCursorOrSizeWithoutQuerying() {
+        String notADate = Base64.getUrlEncoder().encodeToString("yesterday|7".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> service.searchAfter(null, ReservationSearchService.SortKey.START_DATE,
+                Sort.Direction.ASC, notADate, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchAfter(null, ReservationSearchService.SortKey.ID,
+                Sort.Direction.ASC, "%%", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchAfter(null, ReservationSearchService.SortKey.ID,
+                Sort.Direction.ASC, null, 201)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ReservationSearchService.SortKey.fromProperty("price"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(repository);
+    }
+
+    private static Reservation reservation(Long id, LocalDateTime createdAt) {
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        Cabin cabin = TestEntityFactory.createCabin(2L, "Cabin", 4);
+        Reservation reservation = TestEntityFactory.createReservation(id, user, cabin, LocalDate.of(2025, 2, 1),
+                LocalDate.of(2025, 2, 3), 2, ReservationStatus.CONFIRMED);
+        reservation.setCreatedAt(createdAt);
+        return reservation;
+    }
+}
@@ -0,0 +1,142 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.TestAuditingConfiguration;
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.Reservation;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.domain.model.UserReservationSummary;
+import com.cooperative.cabin.infrastructure.repository.CabinJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserJpaRepository;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Escrituras simultáneas del mismo usuario en cabañas distintas sobre un
+ * PostgreSQL real: ninguna pierde su conteo y la primera creación del resumen
+ * no choca en la clave.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ TestAuditingConfiguration.class, UserReservationSummaryProjection.class })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// Cada escritor confirma su propia transacción
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserReservationSummaryProjectionIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int WRITERS = 8;
+    private static final LocalDate BASE = LocalDate.of(2030, 3, 1);
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Resource
+    private UserReservationSummaryProjection projection;
+
+    @Resource
+    private ReservationJpaRepository reservationRepository;
+
+    @Resource
+    private CabinJpaRepository cabinRepository;
+
+    @Resource
+    private UserJpaRepository userRepository;
+
+    @Resource
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentReservationsOfSameUser_keepEveryCount() throws Exception {
+        User user = userRepository.save(user());
+        List<Cabin> cabins = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            cabins.add(cabinRepository.save(cabin(i)));
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Cabin cabin : cabins) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                // Como ReservationApplicationService: guarda y publica en la misma
+                // transacción; el resumen se recalcula antes del commit
+                transaction.executeWithoutResult(status -> {
+                    Reservation saved = reservationRepository.save(new Reservation(user, cabin, BASE,
+                            BASE.plusDays(2), 2, ReservationStatus.PENDING, new BigDecimal("200.00"),
+                            new BigDecimal("200.00")));
+                    projection.onReservationChanged(ReservationChangedEvent.saved(saved));
+                });
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        UserReservationSummary summary = transaction.execute(status -> {
+            UserReservationSummary stored = projection.summaryFor(user.getId());
+            stored.getYearCounts().size();
+            return stored;
+        });
+        assertThat(summary.getActiveCount()).isEqualTo(WRITERS);
+        assertThat(summary.countForYear(BASE.getYear())).isEqualTo(WRITERS);
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setEmail("summary@cooperativa.com");
+        user.setIdentificationNumber("11223344");
+        user.setName("Usuario del resumen");
+        user.setPinHash("$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi");
+        user.setRole(User.UserRole.PROFESSOR);
+        user.setActive(true);
+        return user;
+    }
+
+    private static Cabin cabin(int index) {
+        return new Cabin("Cabaña " + index, "Cabaña para el test del resumen", 4, 2, 1, new BigDecimal("100.00"), 4,
+                "[\"WiFi\"]", "{\"address\": \"Test Location\"}", LocalTime.of(15, 0), LocalTime.of(11, 0));
+    }
+}
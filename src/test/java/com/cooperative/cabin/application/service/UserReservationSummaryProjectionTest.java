@@ -0,0 +1,100 @@
+package com.cooperative.cabin.application.service;
+
+import com.cooperative.cabin.domain.event.ReservationChangedEvent;
+import com.cooperative.cabin.domain.model.ReservationStatus;
+import com.cooperative.cabin.domain.model.UserReservationSummary;
+import com.cooperative.cabin.infrastructure.repository.ReservationJpaRepository;
+import com.cooperative.cabin.infrastructure.repository.UserReservationSummaryJpaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserReservationSummaryProjectionTest {
+
+    private UserReservationSummaryJpaRepository summaryRepository;
+    private ReservationJpaRepository reservationRepository;
+    private EntityManager entityManager;
+    private UserReservationSummaryProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        summaryRepository = Mockito.mock(UserReservationSummaryJpaRepository.class);
+        reservationRepository = Mockito.mock(ReservationJpaRepository.class);
+        entityManager = Mockito.mock(EntityManager.class);
+        projection = new UserReservationSummaryProjection(summaryRepository, reservationRepository, entityManager);
+        when(summaryRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        // La fila ya creada por insertIfMissing
+        when(entityManager.find(eq(UserReservationSummary.class), any()))
+                .thenAnswer(inv -> new UserReservationSummary(inv.getArgument(1, Long.class)));
+    }
+
+    @Test
+    void reservationChanged_recomputesSummaryFromAggregateRows() {
+        LocalDateTime older = LocalDateTime.of(2024, 11, 2, 10, 0);
+        LocalDateTime newer = LocalDateTime.of(2025, 1, 5, 9, 30);
+        when(reservationRepository.summarizeByUserAndYear(7L)).thenReturn(List.of(
+                new Object[] { 2024, 2L, 0L, older },
+                new Object[] { 2025, 1L, 1L, newer }));
+
+        projection.onReservationChanged(new ReservationChangedEvent(1L, 3L, 7L, LocalDate.of(2025, 2, 1),
+                LocalDate.of(2025, 2, 3), ReservationStatus.PENDING, false));
+
+        verify(summaryRepository).save(Mockito.argThat(s -> s.getUserId().equals(7L)
+                && s.getActiveCount() == 1
+                && s.countForYear(2024) == 2
+                && s.countForYear(2025) == 1
+                && newer.equals(s.getLastCreatedAt())));
+    }
+
+    @Test
+    void refresh_locksSummaryRowBeforeAggregating() {
+        when(reservationRepository.summarizeByUserAndYear(7L)).thenReturn(List.of());
+
+        projection.refresh(7L);
+
+        InOrder order = inOrder(summaryRepository, entityManager, reservationRepository);
+        order.verify(summaryRepository).insertIfMissing(7L);
+        order.verify(entityManager).find(UserReservationSummary.class, 7L);
+        order.verify(entityManager).refresh(any(UserReservationSummary.class), eq(LockModeType.PESSIMISTIC_WRITE));
+        order.verify(reservationRepository).summarizeByUserAndYear(7L);
+        order.verify(summaryRepository).save(any());
+    }
+
+    @Test
+    void summaryFor_readsStoredSummaryWithoutTouchingReservations() {
+        UserReservationSummary stored = new UserReservationSummary(7L);
+        stored.setActiveCount(1);
+        when(summaryRepository.findWithYearCounts(7L)).thenReturn(Optional.of(stored));
+
+        assertThat(projection.summaryFor(7L)).isSameAs(stored);
+        verify(reservationRepository, never()).summarizeByUserAndYear(any());
+    }
+
+    @Test
+    void summaryFor_buildsMissingSummaryOnFirstRead() {
+        when(summaryRepository.findWithYearCounts(8L)).thenReturn(Optional.empty());
+        when(reservationRepository.summarizeByUserAndYear(8L)).thenReturn(List.of());
+
+        UserReservationSummary summary = projection.summaryFor(8L);
+
+        assertThat(summary.getActiveCount()).isZero();
+        assertThat(summary.getLastCreatedAt()).isNull();
+        assertThat(summary.getYearCounts()).isEmpty();
+    }
+}
@@ -0,0 +1,63 @@
+package com.cooperative.cabin.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void times_matchesBigDecimalProductRoundedHalfUpForPersistedScales() {
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            // Precio de 0.01 a 99999999.99 y multiplicador de 0.01 a 10.00 (límites de la entidad)
+            BigDecimal base = BigDecimal.valueOf(1 + (long) (random.nextDouble() * 9_999_999_999L), 2);
+            BigDecimal multiplier = BigDecimal.valueOf(1 + random.nextInt(1000), 2);
+
+            BigDecimal expected = base.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+            Money actual = Money.of(base).times(PriceMultiplier.of(multiplier));
+
+            assertThat(actual.toBigDecimal()).as(base + " × " + multiplier).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void times_roundsTiesAwayFromZeroLikeHalfUp() {
+        assertThat(Money.of(new BigDecimal("0.05")).times(PriceMultiplier.of(new BigDecimal("0.5"))))
+                .isEqualTo(new Money(3));
+        assertThat(Money.of(new BigDecimal("0.05")).times(PriceMultiplier.of(new BigDecimal("0.49"))))
+                .isEqualTo(new Money(2));
+        assertThat(new Money(-5).times(PriceMultiplier.of(new BigDecimal("0.5")))).isEqualTo(new Money(-3));
+        assertThat(Money.of(new BigDecimal("123.45")).times(PriceMultiplier.of(new BigDecimal("1.234567"))))
+                .isEqualTo(Money.of(new BigDecimal("123.45").multiply(new BigDecimal("1.234567"))));
+    }
+
+    @Test
+    void sumsMatchBigDecimalAndConvertAtScaleTwo() {
+        Random random = new Random(3);
+        BigDecimal expected = BigDecimal.ZERO;
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal nightly = BigDecimal.valueOf(random.nextInt(50_000_000), 2);
+            int nights = 1 + random.nextInt(30);
+            expected = expected.add(nightly.multiply(BigDecimal.valueOf(nights)));
+            total = total.plus(Money.of(nightly).times(nights));
+        }
+        assertThat(total.toBigDecimal()).isEqualTo(expected.setScale(2));
+        assertThat(Money.of(new BigDecimal("100")).toBigDecimal()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(PriceMultiplier.of(new BigDecimal("1.25")).toBigDecimal()).isEqualByComparingTo("1.25");
+    }
+
+    @Test
+    void overflowFailsInsteadOfWrapping() {
+        assertThatThrownBy(() -> new Money(Long.MAX_VALUE).plus(new Money(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> new Money(Long.MAX_VALUE / 2).times(PriceMultiplier.of(BigDecimal.TEN)))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
@@ -1,6 +1,7 @@
 package com.cooperative.cabin.domain.policy;
 
 import com.cooperative.cabin.TestEntityFactory;
+import com.cooperative.cabin.domain.model.Money;
 import com.cooperative.cabin.domain.model.PriceRange;
 import com.cooperative.cabin.domain.model.Cabin;
 import com.cooperative.cabin.domain.model.User;
@@ -31,6 +32,20 @@ class PricingPoliciesTest {
                 assertEquals(new BigDecimal("220.0000").stripTrailingZeros(), price.stripTrailingZeros());
         }
 
+        @Test
+        void nightlyPrice_equalsCalculatePriceRoundedToCents() {
+                Cabin cabin = TestEntityFactory.createCabin(1L, "Test Cabin", 4);
+                PriceRange r = TestEntityFactory.createPriceRange(cabin, LocalDate.now(), LocalDate.now().plusDays(1),
+                                new BigDecimal("100.01"), new BigDecimal("1.15"), "Test reason", null);
+                Money defaultPrice = Money.of(new BigDecimal("100.00"));
+
+                // 100.01 × 1.15 = 115.0115
+                assertEquals(PricingPolicies.calculatePrice(new BigDecimal("100.00"), r)
+                                .setScale(2, java.math.RoundingMode.HALF_UP),
+                                PricingPolicies.nightlyPrice(defaultPrice, r).toBigDecimal());
+                assertEquals(defaultPrice, PricingPolicies.nightlyPrice(defaultPrice, null));
+        }
+
         @Test
         void findApplicableRange_picksContainingRange() {
                 LocalDate d = LocalDate.of(2025, 1, 15);
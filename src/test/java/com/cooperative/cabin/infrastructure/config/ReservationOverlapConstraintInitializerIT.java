@@ -0,0 +1,122 @@
+package com.cooperative.cabin.infrastructure.config;
+
+import com.cooperative.cabin.domain.model.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Restricción de exclusión sobre un PostgreSQL real: escritores concurrentes
+ * con fechas solapadas y arranque con datos que la violan.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReservationOverlapConstraintInitializerIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int WRITERS = 8;
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 10);
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+                POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS reservations");
+        // Solo las columnas que usa la restricción
+        jdbcTemplate.execute("CREATE TABLE reservations (id BIGSERIAL PRIMARY KEY, cabin_id BIGINT NOT NULL,"
+                + " start_date DATE NOT NULL, end_date DATE NOT NULL, status VARCHAR(20) NOT NULL)");
+    }
+
+    @Test
+    void concurrentOverlappingInserts_onlyOneSucceeds() throws Exception {
+        initializer().run(new DefaultApplicationArguments());
+        // Idempotente: un segundo arranque no falla
+        initializer().run(new DefaultApplicationArguments());
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < WRITERS; i++) {
+            // [10, 12], [11, 13] y [12, 14] se solapan de a pares (fechas inclusivas)
+            LocalDate from = BASE.plusDays(i % 3);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return insert(1L, from, from.plusDays(2), "PENDING");
+            }));
+        }
+        start.countDown();
+        List<String> states = new ArrayList<>();
+        for (Future<String> future : futures) {
+            states.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        assertThat(states).filteredOn(Objects::isNull).hasSize(1);
+        assertThat(states).filteredOn(Objects::nonNull).hasSize(WRITERS - 1).containsOnly(EXCLUSION_VIOLATION);
+        // Otra cabaña o una reserva cancelada no chocan
+        assertThat(insert(2L, BASE, BASE.plusDays(2), "CONFIRMED")).isNull();
+        assertThat(insert(1L, BASE, BASE.plusDays(2), "CANCELLED")).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    void existingOverlaps_failStartup() {
+        assertThat(insert(1L, BASE, BASE.plusDays(2), "CONFIRMED")).isNull();
+        assertThat(insert(1L, BASE.plusDays(1), BASE.plusDays(3), "PENDING")).isNull();
+
+        assertThatThrownBy(() -> initializer().run(new DefaultApplicationArguments()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(Reservation.NO_OVERLAP_CONSTRAINT);
+    }
+
+    private ReservationOverlapConstraintInitializer initializer() {
+        return new ReservationOverlapConstraintInitializer(jdbcTemplate);
+    }
+
+    /**
+     * Inserta en su propia conexión con autocommit; devuelve el SQLState del
+     * error o null si se guardó
+     */
+    private String insert(long cabinId, LocalDate startDate, LocalDate endDate, String status) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO reservations (cabin_id, start_date, end_date, status) VALUES (?, ?, ?, ?)")) {
+            statement.setLong(1, cabinId);
+            statement.setObject(2, startDate);
+            statement.setObject(3, endDate);
+            statement.setString(4, status);
+            statement.executeUpdate();
+            return null;
+        } catch (SQLException e) {
+            return e.getSQLState();
+        }
+    }
+}
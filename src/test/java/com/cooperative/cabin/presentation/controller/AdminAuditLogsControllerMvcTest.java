@@ -3,6 +3,7 @@ package com.cooperative.cabin.presentation.controller;
 import com.cooperative.cabin.CabinReservationApplication;
 import com.cooperative.cabin.TestMvcConfiguration;
 import com.cooperative.cabin.infrastructure.security.JwtService;
+import com.cooperative.cabin.presentation.dto.AuditLogPageResponse;
 import com.cooperative.cabin.presentation.dto.AuditLogResponse;
 import com.cooperative.cabin.presentation.dto.PageResponse;
 import org.junit.jupiter.api.Test;
@@ -18,7 +19,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.Instant;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
@@ -66,4 +70,31 @@ class AdminAuditLogsControllerMvcTest {
                 .andExpect(jsonPath("$.size").value(10))
                 .andExpect(jsonPath("$.total").value(1));
     }
+
+    @Test
+    void listAuditLogsPage_passesCursorAndFilters() throws Exception {
+        AuditLogResponse log = new AuditLogResponse();
+        log.setId(15L);
+        log.setAction("UPDATE");
+        when(adminAuditLogsService.listAfter(eq("abc"), eq(25), eq("UPDATE"), eq("SystemConfiguration"), isNull(),
+                eq(false))).thenReturn(new AuditLogPageResponse(List.of(log), "def", null));
+
+        mockMvc.perform(get("/api/admin/audit-logs/page")
+                .param("cursor", "abc").param("size", "25")
+                .param("action", "UPDATE").param("entityType", "SystemConfiguration")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(15))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.approximateTotal").isEmpty());
+    }
+
+    @Test
+    void listAuditLogsPage_invalidCursor_returns400() throws Exception {
+        when(adminAuditLogsService.listAfter(eq("bad"), anyInt(), any(), any(), any(), eq(false)))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/admin/audit-logs/page").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,89 @@
+package com.cooperative.cabin.presentation.controller;
+
+import com.cooperative.cabin.domain.model.AuditLog;
+import com.cooperative.cabin.infrastructure.repository.AuditLogJpaRepository;
+import com.cooperative.cabin.presentation.dto.AuditLogPageResponse;
+import com.cooperative.cabin.presentation.dto.AuditLogResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AdminAuditLogsServiceTest {
+
+    private AuditLogJpaRepository repository;
+    private AdminAuditLogsService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(AuditLogJpaRepository.class);
+        service = new AdminAuditLogsService(repository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listAfter_returnsCursorOfLastLogWithoutCounting() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(repository.findBy(any(Specification.class), any())).thenReturn(List.of(
+                log(12L, createdAt), log(11L, createdAt), log(10L, createdAt.minusMinutes(5))));
+        when(repository.estimateRowCount()).thenReturn(125_000L);
+
+        AuditLogPageResponse page = service.listAfter(null, 2, null, null, null, true);
+
+        assertThat(page.items()).extracting(AuditLogResponse::getId).containsExactly(12L, 11L);
+        String key = new String(Base64.getUrlDecoder().decode(page.nextCursor()), StandardCharsets.UTF_8);
+        assertThat(key).isEqualTo("2025-03-01T12:00|11");
+        assertThat(page.approximateTotal()).isEqualTo(125_000L);
+        verify(repository, never()).count();
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listAfter_approximateTotalOnlyWithoutFiltersAndWhenAvailable() {
+        when(repository.findBy(any(Specification.class), any())).thenReturn(List.of());
+
+        AuditLogPageResponse filtered = service.listAfter(null, 10, "UPDATE", null, null, true);
+        assertThat(filtered.approximateTotal()).isNull();
+        assertThat(filtered.nextCursor()).isNull();
+        verify(repository, never()).estimateRowCount();
+
+        when(repository.estimateRowCount()).thenThrow(new InvalidDataAccessResourceUsageException("pg_class"));
+        assertThat(service.listAfter(null, 10, null, null, null, true).approximateTotal()).isNull();
+    }
+
+    @Test
+    void listAfter_rejectsInvalidCursorOrSizeWithoutQuerying() {
+        String notADate = Base64.getUrlEncoder().encodeToString("ayer|7".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> service.listAfter(notADate, 10, null, null, null, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.listAfter("%%", 10, null, null, null, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.listAfter(null, 0, null, null, null, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(repository);
+    }
+
+    private static AuditLog log(Long id, LocalDateTime createdAt) {
+        AuditLog log = new AuditLog("UPDATE", "SystemConfiguration", 1L, null, null, null, null);
+        log.setId(id);
+        log.setCreatedAt(createdAt);
+        return log;
+    }
+}
@@ -2,10 +2,14 @@ package com.cooperative.cabin.presentation.controller;
 
 import com.cooperative.cabin.TestEntityFactory;
 import com.cooperative.cabin.TestMvcConfiguration;
+import com.cooperative.cabin.application.service.KeysetPage;
+import com.cooperative.cabin.application.service.PriceRangeImportService;
+import com.cooperative.cabin.application.service.PriceTimeline;
 import com.cooperative.cabin.application.service.PricingApplicationService;
 import com.cooperative.cabin.domain.model.PriceRange;
 import com.cooperative.cabin.domain.model.Cabin;
 import com.cooperative.cabin.domain.model.User;
+import com.cooperative.cabin.infrastructure.repository.PriceChangeRow;
 import com.cooperative.cabin.infrastructure.security.JwtService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,6 +49,9 @@ class AdminPricingControllerMvcTest {
         @MockBean
         private PricingApplicationService pricingApplicationService;
 
+        @MockBean
+        private PriceRangeImportService priceRangeImportService;
+
         @MockBean
         private JwtService jwtService;
 
@@ -169,6 +176,77 @@ class AdminPricingControllerMvcTest {
                                 .andExpect(jsonPath("$.['2025-02-02']").value(130.00));
         }
 
+        @Test
+        void getCabinCalendar_returnsCompactDaysInDateOrder() throws Exception {
+                int firstDay = (int) LocalDate.of(2025, 2, 1).toEpochDay();
+                given(pricingApplicationService.getCabinPriceDays(1L, 2025, 2, 2))
+                                .willReturn(new PricingApplicationService.PriceDays(firstDay, new int[] { 0, 0, 1 },
+                                                new BigDecimal[] { new BigDecimal("120.00"),
+                                                                new BigDecimal("150.00") }));
+
+                mockMvc.perform(get("/api/admin/pricing/cabins/{cabinId}/calendar", 1)
+                                .param("year", "2025")
+                                .param("month", "2")
+                                .param("months", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.cabinId").value(1))
+                                .andExpect(jsonPath("$.startDate").value("2025-02-01"))
+                                .andExpect(jsonPath("$.days").value(3))
+                                .andExpect(jsonPath("$.prices[1]").value(150.00))
+                                .andExpect(jsonPath("$.slots[2]").value(1));
+        }
+
+        @Test
+        void quoteBatch_returnsQuotesInRequestOrder() throws Exception {
+                LocalDate friday = LocalDate.of(2025, 2, 7);
+                PriceTimeline.Quote first = PriceTimeline.flat(new BigDecimal("100.00")).quote(friday,
+                                friday.plusDays(2));
+                PriceTimeline.Quote second = PriceTimeline.flat(new BigDecimal("150.00")).quote(friday.plusDays(7),
+                                friday.plusDays(9));
+                given(pricingApplicationService.quoteBatch(java.util.List.of(
+                                new PricingApplicationService.QuoteRequest(2L, friday, friday.plusDays(2)),
+                                new PricingApplicationService.QuoteRequest(1L, friday.plusDays(7),
+                                                friday.plusDays(9)))))
+                                .willReturn(java.util.List.of(first, second));
+
+                String body = """
+                                {"quotes": [
+                                  {"cabinId": 2, "startDate": "2025-02-07", "endDate": "2025-02-09"},
+                                  {"cabinId": 1, "startDate": "2025-02-14", "endDate": "2025-02-16"}
+                                ]}
+                                """;
+                mockMvc.perform(post("/api/admin/pricing/quotes").with(csrf())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].cabinId").value(2))
+                                .andExpect(jsonPath("$[0].totalPrice").value(200.00))
+                                .andExpect(jsonPath("$[1].cabinId").value(1))
+                                .andExpect(jsonPath("$[1].segments[0].nights").value(2))
+                                .andExpect(jsonPath("$[1].totalPrice").value(300.00));
+        }
+
+        @Test
+        void importSeasonCsv_returnsConflictWhenRejected() throws Exception {
+                given(priceRangeImportService.importSchedule(org.mockito.ArgumentMatchers.anyList(),
+                                eq(PriceRangeImportService.OverlapMode.MERGE)))
+                                .willReturn(new PriceRangeImportService.ImportResult(false, 0, 0, 0, java.util.List.of(
+                                                new PriceRangeImportService.Conflict(3, "Se solapa con el rango de la línea 2 con otro precio"))));
+
+                String csv = """
+                                cabinId,startDate,endDate,basePrice,multiplier
+                                1,2025-12-15,2026-01-15,150000.00,1.30
+                                1,2026-01-10,2026-01-31,150000.00,1.10
+                                """;
+                mockMvc.perform(post("/api/admin/pricing/ranges/import").with(csrf())
+                                .param("mode", "merge")
+                                .contentType("text/csv")
+                                .content(csv))
+                                .andExpect(status().isConflict())
+                                .andExpect(jsonPath("$.applied").value(false))
+                                .andExpect(jsonPath("$.conflicts[0].line").value(3));
+        }
+
         @Test
         void getHistory_returnsArray() throws Exception {
                 given(pricingApplicationService.getHistory())
@@ -186,6 +264,26 @@ class AdminPricingControllerMvcTest {
                                 .andExpect(jsonPath("$[0].newPrice").value(120.00));
         }
 
+        @Test
+        void getPriceChanges_returnsKeysetPage() throws Exception {
+                given(pricingApplicationService.getPriceChanges(1L, "20", 1))
+                                .willReturn(new KeysetPage<>(java.util.List.of(new PriceChangeRow(19L, 3L, 1L,
+                                                "Test Cabin", java.time.LocalDate.of(2025, 3, 1),
+                                                java.time.LocalDate.of(2025, 3, 31), new BigDecimal("100.00"), new BigDecimal("120.00"),
+                                                "Updated", "Admin", java.time.LocalDateTime.of(2025, 2, 1, 10, 0))),
+                                                "19"));
+
+                mockMvc.perform(get("/api/admin/pricing/history/changes")
+                                .param("cabinId", "1")
+                                .param("cursor", "20")
+                                .param("size", "1"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].id").value(19))
+                                .andExpect(jsonPath("$.items[0].cabinName").value("Test Cabin"))
+                                .andExpect(jsonPath("$.items[0].newPrice").value(120.00))
+                                .andExpect(jsonPath("$.nextCursor").value("19"));
+        }
+
         @Test
         void calculate_returnsPrice() throws Exception {
                 given(pricingApplicationService.calculatePrice(1L, java.time.LocalDate.of(2025, 2, 1)))
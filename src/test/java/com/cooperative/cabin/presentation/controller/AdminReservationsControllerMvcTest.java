@@ -2,7 +2,9 @@ package com.cooperative.cabin.presentation.controller;
 
 import com.cooperative.cabin.TestEntityFactory;
 import com.cooperative.cabin.TestMvcConfiguration;
+import com.cooperative.cabin.application.service.KeysetPage;
 import com.cooperative.cabin.application.service.ReservationApplicationService;
+import com.cooperative.cabin.application.service.ReservationSearchService;
 import com.cooperative.cabin.domain.model.Reservation;
 import com.cooperative.cabin.domain.model.ReservationStatus;
 import com.cooperative.cabin.domain.model.User;
@@ -14,15 +16,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +51,9 @@ class AdminReservationsControllerMvcTest {
     @MockBean
     private ReservationApplicationService service;
 
+    @MockBean
+    private ReservationSearchService searchService;
+
     @MockBean
     private JwtService jwtService;
 
@@ -53,10 +66,50 @@ class AdminReservationsControllerMvcTest {
                 ReservationStatus.PENDING);
         reservation.setId(3L);
         List<Reservation> list = List.of(reservation);
-        given(service.listAllForAdmin()).willReturn(list);
+        given(searchService.search(any(), eq(ReservationSearchService.SortKey.CREATED_AT), eq(Sort.Direction.DESC),
+                eq(0), eq(20))).willReturn(new PageImpl<>(list, PageRequest.of(0, 20), 1));
         mockMvc.perform(get("/api/admin/reservations"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.items[0].id").value(3));
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.total").value(1));
+        verify(service, never()).listAllForAdmin();
+    }
+
+    @Test
+    void listAll_passesFiltersAndSortToDatabaseSearch() throws Exception {
+        given(searchService.search(eq(new ReservationSearchService.Filter(ReservationStatus.CONFIRMED, 2L, 1L,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29))), eq(ReservationSearchService.SortKey.START_DATE),
+                eq(Sort.Direction.ASC), eq(4), eq(50)))
+                .willReturn(new PageImpl<>(List.of(), PageRequest.of(4, 50), 230));
+        mockMvc.perform(get("/api/admin/reservations")
+                .param("page", "4").param("size", "50")
+                .param("status", "CONFIRMED").param("cabinId", "2").param("userId", "1")
+                .param("from", "2024-02-01").param("to", "2024-02-29")
+                .param("sort", "startDate").param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page").value(4))
+                .andExpect(jsonPath("$.total").value(230));
+    }
+
+    @Test
+    void listAll_unknownSort_returns400() throws Exception {
+        mockMvc.perform(get("/api/admin/reservations").param("sort", "price"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listPage_returnsItemsAndNextCursor() throws Exception {
+        User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+        Cabin cabin = TestEntityFactory.createCabin(2L, "Test Cabin", 4);
+        Reservation reservation = TestEntityFactory.createReservation(8L, user, cabin, LocalDate.now(),
+                LocalDate.now().plusDays(1), 2, ReservationStatus.CONFIRMED);
+        given(searchService.searchAfter(any(), eq(ReservationSearchService.SortKey.ID), eq(Sort.Direction.DESC),
+                isNull(), anyInt())).willReturn(new KeysetPage<>(List.of(reservation), "OA"));
+        mockMvc.perform(get("/api/admin/reservations/page").param("sort", "id").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(8))
+                .andExpect(jsonPath("$.items[0].cabinId").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("OA"));
     }
 
     @Test
@@ -2,6 +2,7 @@ package com.cooperative.cabin.presentation.controller;
 
 import com.cooperative.cabin.TestMvcConfiguration;
 import com.cooperative.cabin.application.service.CabinApplicationService;
+import com.cooperative.cabin.application.service.DataVersionRegistry;
 import com.cooperative.cabin.domain.exception.CabinNotFoundException;
 import com.cooperative.cabin.infrastructure.security.JwtService;
 import com.cooperative.cabin.presentation.dto.CabinResponse;
@@ -20,15 +21,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CabinController.class)
 @ActiveProfiles("test")
-@Import(TestMvcConfiguration.class)
+@Import({ TestMvcConfiguration.class, DataVersionRegistry.class })
 @AutoConfigureMockMvc(addFilters = false)
 class CabinControllerMvcTest {
 
@@ -41,6 +46,9 @@ class CabinControllerMvcTest {
         @MockBean
         private JwtService jwtService;
 
+        @Autowired
+        private DataVersionRegistry dataVersions;
+
         @Test
         void getAllCabins_returnsListOfCabins() throws Exception {
                 CabinResponse cabin1 = new CabinResponse(
@@ -161,4 +169,32 @@ class CabinControllerMvcTest {
                                 .andExpect(jsonPath("$[0].id").value(1))
                                 .andExpect(jsonPath("$[0].name").value("Cabaña del Lago"));
         }
+
+        @Test
+        void getAllCabins_returnsNotModifiedWithoutCallingService_whenETagMatches() throws Exception {
+                String etag = mockMvc.perform(get("/api/cabins"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("ETag"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                clearInvocations(cabinApplicationService);
+
+                mockMvc.perform(get("/api/cabins").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", etag));
+                verify(cabinApplicationService, never()).getAllActiveCabins();
+        }
+
+        @Test
+        void getCabinById_returnsNewETag_afterCabinVersionBump() throws Exception {
+                when(cabinApplicationService.getCabinById(1L)).thenReturn(null);
+                String etag = mockMvc.perform(get("/api/cabins/1"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                dataVersions.bump(1L);
+
+                mockMvc.perform(get("/api/cabins/1").header("If-None-Match", etag))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", not(etag)));
+        }
 }
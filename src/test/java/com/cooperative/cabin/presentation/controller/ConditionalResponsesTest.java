@@ -0,0 +1,47 @@
+package com.cooperative.cabin.presentation.controller;
+
+import com.cooperative.cabin.application.service.DataVersionRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalResponsesTest {
+
+    @Test
+    void disabledETagsAlwaysAnswerWithBodyAndNoETag() {
+        DataVersionRegistry versions = new DataVersionRegistry(false);
+        String etag = ConditionalResponses.datedETag(ConditionalResponses.cabinETag(versions, 1L),
+                LocalDate.of(2025, 3, 1));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cabins/1");
+        request.addHeader("If-None-Match", "*");
+
+        ResponseEntity<String> response = ConditionalResponses.conditional(
+                new ServletWebRequest(request, new MockHttpServletResponse()), etag, () -> "body");
+
+        assertThat(etag).isNull();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNull();
+        assertThat(response.getBody()).isEqualTo("body");
+    }
+
+    @Test
+    void enabledETagsMatchIfNoneMatch() {
+        DataVersionRegistry versions = new DataVersionRegistry(true);
+        String etag = ConditionalResponses.globalETag(versions);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cabins");
+        request.addHeader("If-None-Match", etag);
+
+        ResponseEntity<String> response = ConditionalResponses.conditional(
+                new ServletWebRequest(request, new MockHttpServletResponse()), etag, () -> "body");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cooperative.cabin.presentation.controller;
+
+import com.cooperative.cabin.TestMvcConfiguration;
+import com.cooperative.cabin.application.service.DataVersionRegistry;
+import com.cooperative.cabin.application.service.PriceQuoteEngine;
+import com.cooperative.cabin.application.service.PriceTimeline;
+import com.cooperative.cabin.domain.exception.CabinNotFoundException;
+import com.cooperative.cabin.infrastructure.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(PriceQuoteController.class)
+@ActiveProfiles("test")
+@Import({ TestMvcConfiguration.class, DataVersionRegistry.class })
+@AutoConfigureMockMvc(addFilters = false)
+class PriceQuoteControllerMvcTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockBean
+        private PriceQuoteEngine priceQuoteEngine;
+
+        @MockBean
+        private JwtService jwtService;
+
+        @Test
+        void quote_returnsTotalAndSegments() throws Exception {
+                LocalDate start = LocalDate.of(2025, 2, 1);
+                when(priceQuoteEngine.quote(1L, start, start.plusDays(3))).thenReturn(new PriceTimeline.Quote(start,
+                                start.plusDays(3), 3, new BigDecimal("300.00"), new BigDecimal("350.00"), List.of(
+                                                new PriceTimeline.Segment(start, 1, new BigDecimal("100.00")),
+                                                new PriceTimeline.Segment(start.plusDays(1), 2,
+                                                                new BigDecimal("125.00")))));
+
+                mockMvc.perform(get("/api/cabins/1/quote")
+                                .param("startDate", "2025-02-01")
+                                .param("endDate", "2025-02-04"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("ETag"))
+                                .andExpect(jsonPath("$.cabinId").value(1))
+                                .andExpect(jsonPath("$.nights").value(3))
+                                .andExpect(jsonPath("$.totalPrice").value(350.00))
+                                .andExpect(jsonPath("$.segments[1].firstNight").value("2025-02-02"))
+                                .andExpect(jsonPath("$.segments[1].nightlyPrice").value(125.00));
+        }
+
+        @Test
+        void quote_unknownCabin_returns404() throws Exception {
+                when(priceQuoteEngine.quote(eq(99L), any(), any()))
+                                .thenThrow(new CabinNotFoundException("Cabin not found with id: 99"));
+
+                mockMvc.perform(get("/api/cabins/99/quote")
+                                .param("startDate", "2025-02-01")
+                                .param("endDate", "2025-02-04"))
+                                .andExpect(status().isNotFound());
+        }
+}
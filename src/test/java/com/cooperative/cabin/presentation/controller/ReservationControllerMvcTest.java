@@ -2,13 +2,17 @@ package com.cooperative.cabin.presentation.controller;
 
 import com.cooperative.cabin.TestEntityFactory;
 import com.cooperative.cabin.TestMvcConfiguration;
+import com.cooperative.cabin.application.service.IdempotencyStore;
 import com.cooperative.cabin.application.service.ReservationApplicationService;
 import com.cooperative.cabin.domain.model.Reservation;
 import com.cooperative.cabin.domain.model.ReservationStatus;
 import com.cooperative.cabin.domain.model.User;
 import com.cooperative.cabin.domain.model.Cabin;
+import com.cooperative.cabin.domain.model.IdempotencyRecord;
+import com.cooperative.cabin.infrastructure.repository.IdempotencyRecordJpaRepository;
 import com.cooperative.cabin.infrastructure.security.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -20,12 +24,18 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -34,7 +44,7 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 @AutoConfigureMockMvc
 @org.springframework.security.test.context.support.WithMockUser
 @ActiveProfiles("test")
-@Import(TestMvcConfiguration.class)
+@Import({ TestMvcConfiguration.class, IdempotencyStore.class })
 class ReservationControllerMvcTest {
 
         @Autowired
@@ -49,6 +59,19 @@ class ReservationControllerMvcTest {
         @MockBean
         private JwtService jwtService;
 
+        @MockBean
+        private IdempotencyRecordJpaRepository idempotencyRecordRepository;
+
+        @BeforeEach
+        void claimIdempotencyKeys() {
+                // La fila pendiente que reclama la clave antes de ejecutar
+                given(idempotencyRecordRepository.saveAndFlush(any())).willAnswer(inv -> {
+                        IdempotencyRecord claim = inv.getArgument(0);
+                        claim.setId(1L);
+                        return claim;
+                });
+        }
+
         @Test
         void createPreReservation_returnsCreatedReservation() throws Exception {
                 User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
@@ -71,6 +94,7 @@ class ReservationControllerMvcTest {
                                 "}";
 
                 mockMvc.perform(post("/api/reservations").with(csrf())
+                                .requestAttr("userId", 1L)
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(body))
                                 .andExpect(status().isCreated())
@@ -94,4 +118,127 @@ class ReservationControllerMvcTest {
                                 .andExpect(jsonPath("$.id").value(10))
                                 .andExpect(jsonPath("$.status").value("CANCELLED"));
         }
+
+        @Test
+        void createPreReservation_withSameIdempotencyKey_replaysWithoutCallingService() throws Exception {
+                User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+                Cabin cabin = TestEntityFactory.createCabin(2L, "Test Cabin", 4);
+                Reservation created = TestEntityFactory.createReservation(user, cabin,
+                                LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), 2, ReservationStatus.PENDING);
+                created.setId(11L);
+
+                given(idempotencyRecordRepository.findByScopeAndIdempotencyKey(anyString(), anyString()))
+                                .willReturn(Optional.empty());
+                given(reservationApplicationService.createPreReservation(
+                                eq(1L), eq(2L), eq(LocalDate.of(2025, 1, 10)), eq(LocalDate.of(2025, 1, 12)), eq(2),
+                                isNull(), isNull()))
+                                .willReturn(created);
+
+                String body = "{\"userId\":1,\"cabinId\":2,\"startDate\":\"2025-01-10\",\"endDate\":\"2025-01-12\",\"guests\":2}";
+
+                mockMvc.perform(post("/api/reservations").with(csrf())
+                                .requestAttr("userId", 1L)
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andExpect(status().isCreated())
+                                .andExpect(jsonPath("$.id").value(11));
+
+                mockMvc.perform(post("/api/reservations").with(csrf())
+                                .requestAttr("userId", 1L)
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().string("Idempotent-Replayed", "true"))
+                                .andExpect(jsonPath("$.id").value(11))
+                                .andExpect(jsonPath("$.status").value("PENDING"));
+
+                verify(reservationApplicationService, times(1)).createPreReservation(
+                                any(), any(), any(), any(), eq(2), any(), any());
+        }
+
+        @Test
+        void createPreReservation_reusingIdempotencyKeyWithOtherBody_isRejected() throws Exception {
+                User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+                Cabin cabin = TestEntityFactory.createCabin(2L, "Test Cabin", 4);
+                Reservation created = TestEntityFactory.createReservation(user, cabin,
+                                LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), 2, ReservationStatus.PENDING);
+                created.setId(12L);
+
+                given(idempotencyRecordRepository.findByScopeAndIdempotencyKey(anyString(), anyString()))
+                                .willReturn(Optional.empty());
+                given(reservationApplicationService.createPreReservation(
+                                any(), any(), any(), any(), eq(2), any(), any()))
+                                .willReturn(created);
+
+                mockMvc.perform(post("/api/reservations").with(csrf())
+                                .requestAttr("userId", 1L)
+                                .header("Idempotency-Key", "retry-2")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"userId\":1,\"cabinId\":2,\"startDate\":\"2025-01-10\",\"endDate\":\"2025-01-12\",\"guests\":2}"))
+                                .andExpect(status().isCreated());
+
+                mockMvc.perform(post("/api/reservations").with(csrf())
+                                .requestAttr("userId", 1L)
+                                .header("Idempotency-Key", "retry-2")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"userId\":1,\"cabinId\":2,\"startDate\":\"2025-01-10\",\"endDate\":\"2025-01-14\",\"guests\":2}"))
+                                .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void createPreReservation_idempotencyKeyIsScopedByAuthenticatedUser() throws Exception {
+                User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+                Cabin cabin = TestEntityFactory.createCabin(2L, "Test Cabin", 4);
+                Reservation created = TestEntityFactory.createReservation(user, cabin,
+                                LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), 2, ReservationStatus.PENDING);
+                created.setId(13L);
+
+                given(idempotencyRecordRepository.findByScopeAndIdempotencyKey(anyString(), anyString()))
+                                .willReturn(Optional.empty());
+                given(reservationApplicationService.createPreReservation(
+                                any(), any(), any(), any(), eq(2), any(), any()))
+                                .willReturn(created);
+
+                // Mismo cuerpo (mismo userId) y misma clave, pero otro usuario autenticado
+                String body = "{\"userId\":1,\"cabinId\":2,\"startDate\":\"2025-01-10\",\"endDate\":\"2025-01-12\",\"guests\":2}";
+                for (long principal = 1; principal <= 2; principal++) {
+                        mockMvc.perform(post("/api/reservations").with(csrf())
+                                        .requestAttr("userId", principal)
+                                        .header("Idempotency-Key", "retry-3")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(body))
+                                        .andExpect(status().isCreated())
+                                        .andExpect(header().doesNotExist("Idempotent-Replayed"));
+                }
+
+                verify(idempotencyRecordRepository).findByScopeAndIdempotencyKey("POST /api/reservations:user=1",
+                                "retry-3");
+                verify(idempotencyRecordRepository).findByScopeAndIdempotencyKey("POST /api/reservations:user=2",
+                                "retry-3");
+        }
+
+        @Test
+        void cancelReservation_withSameIdempotencyKey_replaysWithoutCallingService() throws Exception {
+                User user = TestEntityFactory.createUser(1L, "user@test.com", "12345678");
+                Cabin cabin = TestEntityFactory.createCabin(2L, "Test Cabin", 4);
+                Reservation cancelled = TestEntityFactory.createReservation(user, cabin,
+                                LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 12), 2, ReservationStatus.CANCELLED);
+                cancelled.setId(10L);
+
+                given(idempotencyRecordRepository.findByScopeAndIdempotencyKey(anyString(), anyString()))
+                                .willReturn(Optional.empty());
+                given(reservationApplicationService.cancelByUser(eq(1L), eq(10L))).willReturn(cancelled);
+
+                for (int attempt = 0; attempt < 2; attempt++) {
+                        mockMvc.perform(delete("/api/reservations/{id}", 10).with(csrf())
+                                        .header("Idempotency-Key", "cancel-10")
+                                        .requestAttr("userId", 1L))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.status").value("CANCELLED"));
+                }
+
+                verify(reservationApplicationService, times(1)).cancelByUser(1L, 10L);
+        }
 }
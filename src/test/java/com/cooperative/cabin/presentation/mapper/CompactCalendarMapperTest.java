@@ -0,0 +1,58 @@
+package com.cooperative.cabin.presentation.mapper;
+
+import com.cooperative.cabin.presentation.dto.CompactCalendarResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactCalendarMapperTest {
+
+    @Test
+    void base64_roundTripsAndHasFixedLength() {
+        BitSet available = new BitSet();
+        available.set(0, 3);
+        available.set(9);
+
+        String encoded = CompactCalendarMapper.base64(available, 28);
+
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        assertThat(bytes).hasSize(4);
+        assertThat(BitSet.valueOf(bytes)).isEqualTo(available);
+    }
+
+    @Test
+    void base64_keepsTrailingUnavailableDays() {
+        assertThat(Base64.getDecoder().decode(CompactCalendarMapper.base64(new BitSet(), 365))).hasSize(46);
+    }
+
+    @Test
+    void runLength_alternatesStartingWithAvailable() {
+        BitSet available = new BitSet();
+        available.set(3, 28);
+
+        assertThat(CompactCalendarMapper.runLength(available, 28)).isEqualTo("0,3,25");
+
+        BitSet allFree = new BitSet();
+        allFree.set(0, 31);
+        assertThat(CompactCalendarMapper.runLength(allFree, 31)).isEqualTo("31");
+    }
+
+    @Test
+    void toResponse_encodesEveryCabin() {
+        BitSet first = new BitSet();
+        first.set(0, 2);
+        BitSet second = new BitSet();
+
+        CompactCalendarResponse response = CompactCalendarMapper.toResponse(LocalDate.of(2025, 2, 1), 4,
+                CompactCalendarMapper.RLE, Map.of(1L, first, 2L, second));
+
+        assertThat(response.startDate()).isEqualTo("2025-02-01");
+        assertThat(response.days()).isEqualTo(4);
+        assertThat(response.cabins()).containsEntry(1L, "2,2").containsEntry(2L, "0,4");
+    }
+}